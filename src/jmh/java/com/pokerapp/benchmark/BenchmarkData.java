@@ -0,0 +1,44 @@
+package com.pokerapp.benchmark;
+
+import com.pokerapp.domain.card.Card;
+import com.pokerapp.domain.card.CardCodes;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic random deals shared by the benchmarks.
+ */
+final class BenchmarkData {
+
+    static final int HANDS = 1024;
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Returns distinct card codes drawn without replacement.
+     */
+    static int[] deal(SplittableRandom random, int count) {
+        int[] codes = new int[count];
+        long used = 0L;
+        for (int i = 0; i < count; i++) {
+            int code;
+            do {
+                code = random.nextInt(CardCodes.DECK_SIZE);
+            } while ((used & (1L << code)) != 0);
+            used |= 1L << code;
+            codes[i] = code;
+        }
+        return codes;
+    }
+
+    static List<Card> toCards(int[] codes, int from, int to) {
+        List<Card> cards = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            cards.add(CardCodes.toCard(codes[i]));
+        }
+        return cards;
+    }
+}
@@ -0,0 +1,44 @@
+package com.pokerapp.benchmark;
+
+import com.pokerapp.api.dto.request.ChipInventoryDto;
+import com.pokerapp.api.dto.response.ChipDistributionDto;
+import com.pokerapp.service.spadehub.CheatsheetService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link CheatsheetService#calculateOptimalChipDistribution} across target values per player.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChipDistributionBenchmark {
+
+    @Param({"50", "500", "1000", "5000"})
+    public int targetValue;
+
+    private CheatsheetService cheatsheetService;
+    private ChipInventoryDto inventory;
+
+    @Setup
+    public void setUp() {
+        cheatsheetService = new CheatsheetService();
+        inventory = new ChipInventoryDto();
+        inventory.setChip1(1000);
+        inventory.setChip5(500);
+        inventory.setChip10(200);
+        inventory.setChip25(100);
+        inventory.setChip100(50);
+        inventory.setChip500(20);
+        inventory.setTargetValue(targetValue);
+    }
+
+    @Benchmark
+    public ChipDistributionDto calculateOptimalChipDistribution() {
+        return cheatsheetService.calculateOptimalChipDistribution(inventory);
+    }
+}
@@ -0,0 +1,87 @@
+package com.pokerapp.benchmark;
+
+import com.pokerapp.domain.card.Card;
+import com.pokerapp.domain.card.CardCodes;
+import com.pokerapp.domain.card.Deck;
+import com.pokerapp.domain.card.ShuffleSeed;
+import com.pokerapp.domain.card.ShuffledDeck;
+import com.pokerapp.service.shuffle.DeckPool;
+import com.pokerapp.service.shuffle.PreparedDeck;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shuffling and dealing a nine handed Hold'em hand from the in-memory
+ * {@link ShuffledDeck}, seeded from a {@link ShuffleSeed} and through the
+ * {@link Deck} entity (which draws a new seed from {@code SecureRandom}), and
+ * the cost of a hand start with and without a pre-shuffled {@link DeckPool} deck.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeckBenchmark {
+
+    private static final int NINE_HANDED_DEAL = 9 * 2 + 5;
+
+    private ShuffledDeck shuffledDeck;
+    private ShuffleSeed seed;
+    private Deck deck;
+    private PreparedDeck prepared;
+
+    @Setup
+    public void setUp() {
+        shuffledDeck = new ShuffledDeck(new SplittableRandom(7));
+        seed = ShuffleSeed.generate();
+        deck = new Deck(seed, CardCodes.FULL_DECK);
+        prepared = DeckPool.prepare(CardCodes.FULL_DECK);
+    }
+
+    @Benchmark
+    public ShuffledDeck shuffle() {
+        shuffledDeck.reset();
+        return shuffledDeck;
+    }
+
+    @Benchmark
+    public int resetAndDealCodes() {
+        shuffledDeck.reset();
+        int cards = 0;
+        for (int i = 0; i < NINE_HANDED_DEAL; i++) {
+            cards += shuffledDeck.draw();
+        }
+        return cards;
+    }
+
+    @Benchmark
+    public ShuffledDeck seededShuffle() {
+        shuffledDeck.reset(seed.random());
+        return shuffledDeck;
+    }
+
+    @Benchmark
+    public void shuffleAndDealEntities(Blackhole blackhole) {
+        deck.shuffle();
+        for (int i = 0; i < NINE_HANDED_DEAL; i++) {
+            Card card = deck.drawCard();
+            blackhole.consume(card);
+        }
+    }
+
+    @Benchmark
+    public ShuffledDeck handStartInline() {
+        shuffledDeck.load(DeckPool.prepare(CardCodes.FULL_DECK).getOrder());
+        return shuffledDeck;
+    }
+
+    @Benchmark
+    public ShuffledDeck handStartPooled() {
+        shuffledDeck.load(prepared.getOrder());
+        return shuffledDeck;
+    }
+}
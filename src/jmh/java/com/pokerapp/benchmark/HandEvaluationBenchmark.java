@@ -0,0 +1,97 @@
+package com.pokerapp.benchmark;
+
+import com.pokerapp.domain.card.Card;
+import com.pokerapp.domain.card.CardCodes;
+import com.pokerapp.domain.game.BitmaskHandEvaluator;
+import com.pokerapp.domain.game.HandEvaluation;
+import com.pokerapp.domain.game.OmahaHandEvaluator;
+import com.pokerapp.domain.game.ShortDeckHandEvaluator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Seven card hand evaluation through the {@code List<Card>} API and directly on
+ * bitmasks, plus the Omaha (four hole cards, five board cards) and Short Deck evaluators.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HandEvaluationBenchmark {
+
+    private List<Card>[] hands;
+    private long[] masks;
+    private long[] rankNumbers;
+    private long[] omahaHoles;
+    private long[] omahaBoards;
+    private long[] shortDeckMasks;
+    private int next;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(7);
+        hands = new List[BenchmarkData.HANDS];
+        masks = new long[BenchmarkData.HANDS];
+        rankNumbers = new long[BenchmarkData.HANDS];
+        omahaHoles = new long[BenchmarkData.HANDS];
+        omahaBoards = new long[BenchmarkData.HANDS];
+        shortDeckMasks = new long[BenchmarkData.HANDS];
+        for (int i = 0; i < BenchmarkData.HANDS; i++) {
+            int[] codes = BenchmarkData.deal(random, 7);
+            hands[i] = BenchmarkData.toCards(codes, 0, 7);
+            masks[i] = CardCodes.mask(codes);
+            rankNumbers[i] = BitmaskHandEvaluator.rank(masks[i]);
+            int[] omaha = BenchmarkData.deal(random, 9);
+            omahaHoles[i] = CardCodes.mask(new int[]{omaha[0], omaha[1], omaha[2], omaha[3]});
+            omahaBoards[i] = CardCodes.mask(new int[]{omaha[4], omaha[5], omaha[6], omaha[7], omaha[8]});
+            while (Long.bitCount(shortDeckMasks[i]) < 7) {
+                shortDeckMasks[i] |= ShortDeckHandEvaluator.DECK & 1L << random.nextInt(CardCodes.DECK_SIZE);
+            }
+        }
+    }
+
+    private int nextIndex() {
+        next = (next + 1) & (BenchmarkData.HANDS - 1);
+        return next;
+    }
+
+    @Benchmark
+    public long cardsToRankNumber() {
+        return HandEvaluation.cardsToRankNumber(hands[nextIndex()]);
+    }
+
+    @Benchmark
+    public String cardsToRankString() {
+        return HandEvaluation.cardsToRankString(hands[nextIndex()]);
+    }
+
+    @Benchmark
+    public String rankNumberToString() {
+        return HandEvaluation.cardsToRankString(rankNumbers[nextIndex()]);
+    }
+
+    @Benchmark
+    public int bitmaskEvaluate() {
+        return BitmaskHandEvaluator.evaluate(masks[nextIndex()]);
+    }
+
+    /**
+     * About 25 ops/us on one core against a target of 20 (see {@link OmahaHandEvaluator}).
+     */
+    @Benchmark
+    public int omahaEvaluate() {
+        int i = nextIndex();
+        return OmahaHandEvaluator.evaluate(omahaHoles[i], omahaBoards[i]);
+    }
+
+    @Benchmark
+    public int shortDeckEvaluate() {
+        return ShortDeckHandEvaluator.evaluate(shortDeckMasks[nextIndex()]);
+    }
+}
@@ -0,0 +1,99 @@
+package com.pokerapp.benchmark;
+
+import com.pokerapp.domain.game.PotSettlement;
+import com.pokerapp.domain.game.StreetEvaluator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Showdowns for 2 to 10 players as {@code RoundSession} settles them: every
+ * seat evaluated against the full board with a {@link StreetEvaluator} and
+ * the pot split by {@link PotSettlement}, once with equal contributions and
+ * once with every player all-in for a different amount. Also evaluates every
+ * seat on each street.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WinnerDeterminationBenchmark {
+
+    private static final int DEALS = 64;
+
+    @Param({"2", "3", "4", "5", "6", "7", "8", "9", "10"})
+    public int playerCount;
+
+    private long[][] holes;
+    private int[][] streets;
+    private final StreetEvaluator streetEvaluator = new StreetEvaluator();
+    private int[] strengths;
+    private int[][] committed;
+    private int[] called;
+    private boolean[] folded;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(playerCount);
+        holes = new long[DEALS][playerCount];
+        streets = new int[DEALS][];
+        strengths = new int[playerCount];
+        committed = new int[DEALS][playerCount];
+        folded = new boolean[playerCount];
+        called = new int[playerCount];
+        Arrays.fill(called, 200);
+        for (int deal = 0; deal < DEALS; deal++) {
+            int[] codes = BenchmarkData.deal(random, playerCount * 2 + 5);
+            for (int i = 0; i < playerCount; i++) {
+                holes[deal][i] = 1L << codes[2 * i] | 1L << codes[2 * i + 1];
+                committed[deal][i] = 100 + random.nextInt(1000);
+            }
+            streets[deal] = Arrays.copyOfRange(codes, playerCount * 2, codes.length);
+        }
+    }
+
+    @Benchmark
+    public PotSettlement showdown() {
+        next = (next + 1) % DEALS;
+        streetEvaluator.reset();
+        streetEvaluator.addBoard(boardMask(streets[next]));
+        streetEvaluator.evaluateAll(holes[next], strengths);
+        return PotSettlement.settle(called, folded, strengths, 0);
+    }
+
+    @Benchmark
+    public int evaluateEveryStreet() {
+        next = (next + 1) % DEALS;
+        int[] board = streets[next];
+        streetEvaluator.reset();
+        streetEvaluator.addBoard(1L << board[0] | 1L << board[1] | 1L << board[2]);
+        int best = streetEvaluator.evaluateAll(holes[next], strengths);
+        for (int i = 3; i < board.length; i++) {
+            streetEvaluator.addBoardCard(board[i]);
+            best += streetEvaluator.evaluateAll(holes[next], strengths);
+        }
+        return best;
+    }
+
+    @Benchmark
+    public PotSettlement settleAllIns() {
+        next = (next + 1) % DEALS;
+        streetEvaluator.reset();
+        streetEvaluator.addBoard(boardMask(streets[next]));
+        streetEvaluator.evaluateAll(holes[next], strengths);
+        return PotSettlement.settle(committed[next], folded, strengths, 0);
+    }
+
+    private static long boardMask(int[] codes) {
+        long mask = 0L;
+        for (int code : codes) {
+            mask |= 1L << code;
+        }
+        return mask;
+    }
+}
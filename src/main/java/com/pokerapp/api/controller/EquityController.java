@@ -0,0 +1,68 @@
+package com.pokerapp.api.controller;
+
+import com.pokerapp.api.dto.request.EquityRequestDto;
+import com.pokerapp.api.dto.request.RangeEquityRequestDto;
+import com.pokerapp.api.dto.response.EquityDto;
+import com.pokerapp.api.dto.response.HandEquityDto;
+import com.pokerapp.domain.card.CardCodes;
+import com.pokerapp.domain.card.HandRange;
+import com.pokerapp.service.equity.EquityResult;
+import com.pokerapp.service.equity.EquityService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * REST controller for hand equity calculations (post-hand review and disputes).
+ */
+@RestController
+@RequestMapping("/api/equity")
+public class EquityController {
+
+    @Autowired
+    private EquityService equityService;
+
+    /**
+     * Exact equity of the given hole cards over every remaining runout of the board.
+     */
+    @PostMapping("/exact")
+    public ResponseEntity<EquityDto> exactEquity(@Valid @RequestBody EquityRequestDto request) {
+        long[] holes = request.getHands().stream().mapToLong(CardCodes::parseMask).toArray();
+        long board = CardCodes.parseMask(request.getBoard());
+        long dead = CardCodes.parseMask(request.getDead());
+
+        EquityResult result = equityService.exact(holes, board, dead);
+        return ResponseEntity.ok(convertToDto(request.getHands(), request.getBoard(), result));
+    }
+
+    /**
+     * Equity between ranges in grid notation, e.g. "TT+, AQs+, KQo" vs "random".
+     */
+    @PostMapping("/ranges")
+    public ResponseEntity<EquityDto> rangeEquity(@Valid @RequestBody RangeEquityRequestDto request) {
+        List<HandRange> ranges = request.getRanges().stream().map(HandRange::parse).toList();
+        long board = CardCodes.parseMask(request.getBoard());
+        long dead = CardCodes.parseMask(request.getDead());
+
+        EquityResult result = equityService.rangeEquity(ranges, board, dead);
+        return ResponseEntity.ok(convertToDto(request.getRanges(), request.getBoard(), result));
+    }
+
+    private EquityDto convertToDto(List<String> labels, String board, EquityResult result) {
+        List<HandEquityDto> hands = new ArrayList<>();
+        for (int i = 0; i < result.getPlayerCount(); i++) {
+            hands.add(new HandEquityDto(labels.get(i),
+                    result.getWin()[i], result.getTie()[i], result.getEquity()[i]));
+        }
+        EquityDto dto = new EquityDto();
+        dto.setBoard(board);
+        dto.setHands(hands);
+        dto.setSamples(result.getSamples());
+        dto.setExact(result.isExact());
+        return dto;
+    }
+}
@@ -7,7 +7,7 @@ import com.pokerapp.exception.NotFoundException;
 import com.pokerapp.repository.PlayerRepository;
 import com.pokerapp.repository.TableRepository;
 import com.pokerapp.service.UserService;
-import com.pokerapp.session.GameSession;
+import com.pokerapp.session.TableEngine;
 import com.pokerapp.websocket.TableWebSocketHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -19,7 +19,6 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * REST controller for managing poker games.
@@ -29,6 +28,8 @@ import java.util.concurrent.ConcurrentHashMap;
 public class GameController {
     private static final Logger logger = LoggerFactory.getLogger(GameController.class);
 
+    private static final long STACKS_TIMEOUT_MILLIS = 5_000;
+
     @Autowired
     private TableRepository tableRepository;
 
@@ -41,8 +42,9 @@ public class GameController {
     @Autowired
     private TableWebSocketHandler webSocketHandler;
 
-    // Map to store active game sessions by table ID
-    private final Map<Long, GameSession> activeGames = new ConcurrentHashMap<>();
+    // Runs the game of every active table
+    @Autowired
+    private TableEngine tableEngine;
 
 
     @PostMapping("/tables/{tableId}/start")
@@ -53,6 +55,11 @@ public class GameController {
         // Get the current user
         User currentUser = userService.getCurrentUser();
 
+        // The stacks of a game that just ended may still be on their way to the database
+        if (!tableEngine.awaitStacksWritten(STACKS_TIMEOUT_MILLIS)) {
+            throw new IllegalStateException("The stacks of the last hands are still being saved, try again");
+        }
+
         // Get the poker table
         PokerTable table = tableRepository.findById(tableId)
                 .orElseThrow(() -> new NotFoundException("Table not found with ID: " + tableId));
@@ -72,7 +79,7 @@ public class GameController {
         }
 
         // Check if a game is already in progress
-        if (activeGames.containsKey(tableId)) {
+        if (tableEngine.isActive(tableId)) {
             return ResponseEntity.badRequest().body(
                     Map.of("error", "A game is already in progress at this table")
             );
@@ -82,14 +89,8 @@ public class GameController {
             // Get all players from the table
             List<Player> players = new ArrayList<>(table.getPlayers());
 
-            // Create a new game session
-            GameSession gameSession = new GameSession();
-
-            // Store the game session
-            activeGames.put(tableId, gameSession);
-
-            // Start the game
-            gameSession.startGame(bigBlind);
+            // Start the game; the first hand is dealt by the table's actor
+            tableEngine.start(tableId, table.getVariant(), bigBlind, players);
 
             // Notify all connected clients that the game has started
             Map<String, Object> gameStartedMessage = new HashMap<>();
@@ -140,8 +141,7 @@ public class GameController {
         }
 
         // Check if a game is in progress
-        GameSession gameSession = activeGames.get(tableId);
-        if (gameSession == null) {
+        if (!tableEngine.isActive(tableId)) {
             return ResponseEntity.badRequest().body(
                     Map.of("error", "No active game at this table")
             );
@@ -149,8 +149,7 @@ public class GameController {
 
         try {
             // End the game session
-            gameSession.interrupt();
-            activeGames.remove(tableId);
+            tableEngine.stop(tableId);
 
             // Notify all connected clients that the game has ended
             Map<String, Object> gameEndedMessage = new HashMap<>();
@@ -182,7 +181,7 @@ public class GameController {
     @GetMapping("/tables/{tableId}/status")
     public ResponseEntity<?> getGameStatus(@PathVariable Long tableId) {
         // Check if a game is in progress
-        boolean gameActive = activeGames.containsKey(tableId);
+        boolean gameActive = tableEngine.isActive(tableId);
 
         Map<String, Object> response = new HashMap<>();
         response.put("tableId", tableId);
@@ -0,0 +1,37 @@
+package com.pokerapp.api.controller;
+
+import com.pokerapp.api.dto.request.IcmRequestDto;
+import com.pokerapp.api.dto.response.IcmDto;
+import com.pokerapp.service.icm.IcmService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller for tournament equity (ICM) and final table deals.
+ */
+@RestController
+@RequestMapping("/api/icm")
+public class IcmController {
+
+    @Autowired
+    private IcmService icmService;
+
+    /**
+     * Prize equity of the given stacks.
+     */
+    @PostMapping
+    public ResponseEntity<IcmDto> calculate(@Valid @RequestBody IcmRequestDto request) {
+        return ResponseEntity.ok(icmService.calculate(request));
+    }
+
+    /**
+     * Prize equity of the players at the table; the result is also sent to the table.
+     */
+    @PostMapping("/tables/{tableId}")
+    public ResponseEntity<IcmDto> calculateForTable(@PathVariable Long tableId,
+                                                    @Valid @RequestBody IcmRequestDto request) {
+        return ResponseEntity.ok(icmService.publishTable(tableId, request));
+    }
+}
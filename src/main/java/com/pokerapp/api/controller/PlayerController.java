@@ -86,7 +86,6 @@ public class PlayerController {
         dto.setChips(player.getChips());
         dto.setStatus(player.getStatus());
         dto.setCurrentTableId(player.getCurrentTableId());
-        dto.setWinProbability(player.getWinProbability());
         dto.setTotalBet(player.getTotalBet());
 
         return dto;
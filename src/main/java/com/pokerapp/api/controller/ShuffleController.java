@@ -0,0 +1,28 @@
+package com.pokerapp.api.controller;
+
+import com.pokerapp.api.dto.request.ShuffleVerificationRequestDto;
+import com.pokerapp.api.dto.response.ShuffleVerificationDto;
+import com.pokerapp.service.shuffle.ShuffleService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller for verifying the shuffle of a finished hand.
+ */
+@RestController
+@RequestMapping("/api/shuffle")
+public class ShuffleController {
+
+    @Autowired
+    private ShuffleService shuffleService;
+
+    /**
+     * Deck order of a revealed seed and whether it matches the published commitment.
+     */
+    @PostMapping("/verify")
+    public ResponseEntity<ShuffleVerificationDto> verify(@Valid @RequestBody ShuffleVerificationRequestDto request) {
+        return ResponseEntity.ok(shuffleService.verify(request));
+    }
+}
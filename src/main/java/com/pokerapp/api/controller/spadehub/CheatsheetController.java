@@ -19,8 +19,9 @@ public class CheatsheetController {
     private CheatsheetService cheatsheetService;
 
     @GetMapping("/heatmap")
-    public ResponseEntity<List<CheatsheetService.HeatmapDataPoint>> getHeatmapData() {
-        return ResponseEntity.ok(cheatsheetService.getHeatmapData());
+    public ResponseEntity<List<CheatsheetService.HeatmapDataPoint>> getHeatmapData(
+            @RequestParam(defaultValue = "2") int players) {
+        return ResponseEntity.ok(cheatsheetService.getHeatmapData(players));
     }
 
     @PostMapping("/chips/optimize")
@@ -0,0 +1,24 @@
+package com.pokerapp.api.dto.request;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class EquityRequestDto {
+
+    // Hole cards per player in short notation, e.g. "AhKd"
+    @NotNull(message = "Hands are required")
+    @Size(min = 2, max = 10, message = "Between 2 and 10 hands are required")
+    private List<String> hands;
+
+    // Community cards dealt so far, e.g. "Qs7d2c"
+    private String board;
+
+    // Known cards that cannot come, e.g. folded hands
+    private String dead;
+}
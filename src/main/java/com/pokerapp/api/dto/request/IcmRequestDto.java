@@ -0,0 +1,22 @@
+package com.pokerapp.api.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class IcmRequestDto {
+
+    // Chip stacks; ignored when the stacks are taken from a table
+    private List<@NotNull @Positive Long> stacks;
+
+    // Prize for first place, second place, ...
+    @NotEmpty(message = "Payouts are required")
+    private List<@NotNull @PositiveOrZero Double> payouts;
+}
@@ -0,0 +1,24 @@
+package com.pokerapp.api.dto.request;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class RangeEquityRequestDto {
+
+    // Ranges in starting hand grid notation, e.g. "TT+, AQs+, KQo"
+    @NotNull(message = "Ranges are required")
+    @Size(min = 2, max = 10, message = "Between 2 and 10 ranges are required")
+    private List<String> ranges;
+
+    // Community cards dealt so far, e.g. "Qs7d2c"
+    private String board;
+
+    // Known cards that cannot come
+    private String dead;
+}
@@ -0,0 +1,21 @@
+package com.pokerapp.api.dto.request;
+
+import com.pokerapp.domain.game.GameVariant;
+import jakarta.validation.constraints.NotBlank;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class ShuffleVerificationRequestDto {
+
+    // Revealed seed, 64 hex digits
+    @NotBlank(message = "Seed is required")
+    private String seed;
+
+    // Commitment published at hand start; optional
+    private String commitment;
+
+    // Texas Hold'em if not given
+    private GameVariant variant;
+}
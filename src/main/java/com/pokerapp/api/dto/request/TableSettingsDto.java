@@ -1,5 +1,6 @@
 package com.pokerapp.api.dto.request;
 
+import com.pokerapp.domain.game.GameVariant;
 import jakarta.validation.constraints.*;
 import lombok.Getter;
 import lombok.Setter;
@@ -30,4 +31,7 @@ public class TableSettingsDto {
 
     @NotNull(message = "isPrivate must be specified")
     private Boolean isPrivate;
+
+    // Texas Hold'em if not given
+    private GameVariant variant;
 }
\ No newline at end of file
@@ -0,0 +1,15 @@
+package com.pokerapp.api.dto.response;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class EquityDto {
+    private String board;
+    private List<HandEquityDto> hands;
+    private long samples;
+    private boolean exact;
+}
@@ -0,0 +1,17 @@
+package com.pokerapp.api.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class HandEquityDto {
+    private String hand;
+    private double win;
+    private double tie;
+    private double equity;
+}
@@ -0,0 +1,14 @@
+package com.pokerapp.api.dto.response;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class IcmDto {
+    private List<IcmEquityDto> players;
+    private boolean exact;
+    private long samples;
+}
@@ -0,0 +1,16 @@
+package com.pokerapp.api.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class IcmEquityDto {
+    private Long playerId;
+    private long chips;
+    private double equity;
+}
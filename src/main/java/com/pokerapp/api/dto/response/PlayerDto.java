@@ -13,6 +13,5 @@ public class PlayerDto {
     private Integer chips;
     private PlayerStatus status;
     private Long currentTableId;
-    private Double winProbability;
     private Integer totalBet;
 }
@@ -0,0 +1,18 @@
+package com.pokerapp.api.dto.response;
+
+import com.pokerapp.domain.game.GameVariant;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class ShuffleVerificationDto {
+    private String commitment;
+    // Null if no commitment was given
+    private Boolean commitmentMatches;
+    private GameVariant variant;
+    // Deck order from the top, in short notation
+    private List<String> cards;
+}
@@ -1,5 +1,6 @@
 package com.pokerapp.api.dto.response;
 
+import com.pokerapp.domain.game.GameVariant;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -16,4 +17,5 @@ public class TableDto {
     private Boolean isPrivate;
     private Long ownerId;
     private Boolean hasActiveGame;
+    private GameVariant variant;
 }
@@ -2,12 +2,23 @@ package com.pokerapp.config;
 
 
 import com.pokerapp.domain.card.CardHelper;
+import com.pokerapp.domain.game.BitmaskHandEvaluator;
 import com.pokerapp.domain.game.HandEvaluation;
+import com.pokerapp.domain.game.HandEvaluator;
+import com.pokerapp.domain.game.LookupTableHandEvaluator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.io.IOException;
+import java.nio.file.Paths;
+
 @Configuration
 public class ApplicationConfig {
+    private static final Logger logger = LoggerFactory.getLogger(ApplicationConfig.class);
 
     @Bean
     public CardHelper cardHelper() {
@@ -19,4 +30,36 @@ public class ApplicationConfig {
         return new HandEvaluation();
     }
 
-}
\ No newline at end of file
+    /**
+     * Hand evaluation backend: "bitmask" (default) or "lookup" for the memory-mapped
+     * table generated by {@code com.pokerapp.tools.HandRankTableGenerator}.
+     */
+    @Bean
+    public HandEvaluator handEvaluator(
+            @Value("${app.evaluator.backend:bitmask}") String backend,
+            @Value("${app.evaluator.tablePath:data/handranks.dat}") String tablePath) throws IOException {
+        if ("lookup".equalsIgnoreCase(backend)) {
+            LookupTableHandEvaluator evaluator = LookupTableHandEvaluator.load(Paths.get(tablePath));
+            evaluator.verify(10_000, System.nanoTime());
+            logger.info("Using lookup table hand evaluator from {}", tablePath);
+            return evaluator;
+        }
+        return BitmaskHandEvaluator::evaluate;
+    }
+
+    /**
+     * Lets Hibernate send inserts and updates of the same table as one JDBC batch
+     * (app.history.jdbcBatchSize statements), e.g. when the hand history writer
+     * flushes a batch of hands. Add rewriteBatchedStatements=true to the MySQL
+     * URL to have the driver send each batch as one multi-row statement.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer jdbcBatching(@Value("${app.history.jdbcBatchSize:50}") int batchSize) {
+        return properties -> {
+            properties.put("hibernate.jdbc.batch_size", batchSize);
+            properties.put("hibernate.order_inserts", true);
+            properties.put("hibernate.order_updates", true);
+        };
+    }
+
+}
@@ -78,6 +78,9 @@ public class SecurityConfig {
                         .requestMatchers("/api/games/**").authenticated()
                         .requestMatchers("/api/players/**").authenticated()
                         .requestMatchers("/api/friends/**").authenticated()
+                        .requestMatchers("/api/equity/**").authenticated()
+                        .requestMatchers("/api/icm/**").authenticated()
+                        .requestMatchers("/api/shuffle/**").authenticated()
 
                         // Default policy: require authentication
                         .anyRequest().authenticated()
@@ -0,0 +1,61 @@
+package com.pokerapp.domain.card;
+
+import java.util.Arrays;
+
+/**
+ * Suit-isomorphic canonical form of a set of hole cards, board and dead cards
+ * (see {@link SuitCanonicalizer}). Two spots that differ only by a relabeling of
+ * suits or the order of the hands are equal.
+ */
+public final class CanonicalSpot {
+
+    private final long[] hands;
+    private final long board;
+    private final long dead;
+    // order[i] is the canonical position of the i-th input hand; not part of the key
+    private final int[] order;
+    private final int hash;
+
+    CanonicalSpot(long[] hands, long board, long dead, int[] order) {
+        this.hands = hands;
+        this.board = board;
+        this.dead = dead;
+        this.order = order;
+        this.hash = 31 * (31 * Arrays.hashCode(hands) + Long.hashCode(board)) + Long.hashCode(dead);
+    }
+
+    public long[] getHands() {
+        return hands.clone();
+    }
+
+    public long getBoard() {
+        return board;
+    }
+
+    public long getDead() {
+        return dead;
+    }
+
+    /**
+     * Returns the canonical position of the input hand with the given index.
+     */
+    public int positionOf(int inputIndex) {
+        return order[inputIndex];
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CanonicalSpot other)) {
+            return false;
+        }
+        return board == other.board && dead == other.dead && Arrays.equals(hands, other.hands);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+}
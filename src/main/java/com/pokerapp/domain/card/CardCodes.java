@@ -0,0 +1,125 @@
+package com.pokerapp.domain.card;
+
+/**
+ * Primitive encoding of cards for the evaluation hot path.
+ * A card code is {@code suit.ordinal() * 13 + value.ordinal()} (0-51), so that
+ * bit {@code code} of a {@code long} mask represents the card and every suit
+ * occupies its own 13-bit lane (deuce in the lowest bit, ace in the highest).
+ * Codes fit in a {@code byte}; sets of cards are {@code long} masks (see {@link CardSet}).
+ */
+public final class CardCodes {
+
+    public static final int DECK_SIZE = 52;
+    public static final int RANK_COUNT = 13;
+    public static final int SUIT_COUNT = 4;
+
+    /** Mask of one 13-bit suit lane. */
+    public static final int RANK_MASK = 0x1FFF;
+
+    /** Mask with all 52 card bits set. */
+    public static final long FULL_DECK = (1L << DECK_SIZE) - 1;
+
+    private static final Suit[] SUITS = Suit.values();
+    private static final Value[] VALUES = Value.values();
+
+    private static final String RANK_SYMBOLS = "23456789TJQKA";
+    private static final String SUIT_SYMBOLS = "hdcs";
+
+    private CardCodes() {
+    }
+
+    public static int of(Suit suit, Value value) {
+        return suit.ordinal() * RANK_COUNT + value.ordinal();
+    }
+
+    public static int of(Card card) {
+        return of(card.getSuit(), card.getValue());
+    }
+
+    /**
+     * Returns the rank index of the code, 0 for a deuce up to 12 for an ace.
+     */
+    public static int rank(int code) {
+        return code % RANK_COUNT;
+    }
+
+    public static int suit(int code) {
+        return code / RANK_COUNT;
+    }
+
+    /**
+     * Builds the bitmask for the given cards.
+     */
+    public static long mask(Iterable<Card> cards) {
+        long mask = 0L;
+        for (Card card : cards) {
+            mask |= 1L << of(card);
+        }
+        return mask;
+    }
+
+    public static long mask(int[] codes) {
+        long mask = 0L;
+        for (int code : codes) {
+            mask |= 1L << code;
+        }
+        return mask;
+    }
+
+    /**
+     * Parses a card in short notation, e.g. "Ah" or "Td" (suits h, d, c, s).
+     */
+    public static int parse(String card) {
+        if (card.length() != 2) {
+            throw new IllegalArgumentException("Invalid card: " + card);
+        }
+        int rank = RANK_SYMBOLS.indexOf(Character.toUpperCase(card.charAt(0)));
+        int suit = SUIT_SYMBOLS.indexOf(Character.toLowerCase(card.charAt(1)));
+        if (rank < 0 || suit < 0) {
+            throw new IllegalArgumentException("Invalid card: " + card);
+        }
+        return suit * RANK_COUNT + rank;
+    }
+
+    /**
+     * Parses a list of cards in short notation, with or without separators, e.g. "AhKd" or "Ah Kd 2c".
+     *
+     * @throws IllegalArgumentException if a card is malformed or repeated
+     */
+    public static long parseMask(String cards) {
+        long mask = 0L;
+        if (cards == null) {
+            return mask;
+        }
+        String compact = cards.replaceAll("[\\s,]", "");
+        if (compact.length() % 2 != 0) {
+            throw new IllegalArgumentException("Invalid cards: " + cards);
+        }
+        for (int i = 0; i < compact.length(); i += 2) {
+            long bit = 1L << parse(compact.substring(i, i + 2));
+            if ((mask & bit) != 0) {
+                throw new IllegalArgumentException("Duplicate card in: " + cards);
+            }
+            mask |= bit;
+        }
+        return mask;
+    }
+
+    /**
+     * Formats a card in short notation.
+     */
+    public static String toString(int code) {
+        return "" + RANK_SYMBOLS.charAt(rank(code)) + SUIT_SYMBOLS.charAt(suit(code));
+    }
+
+    /**
+     * Creates a new (unsaved) card entity for the code.
+     */
+    public static Card toCard(int code) {
+        Card card = new Card();
+        card.setSuit(SUITS[suit(code)]);
+        card.setValue(VALUES[rank(code)]);
+        card.setShowing(false);
+        return card;
+    }
+}
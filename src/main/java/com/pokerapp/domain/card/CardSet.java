@@ -0,0 +1,138 @@
+package com.pokerapp.domain.card;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Set of cards backed by a single {@code long} (bit {@code code} per card, see
+ * {@link CardCodes}). Used by the game engine instead of lists of {@link Card}
+ * entities: adding, testing and evaluating cards never allocates. Entities are
+ * only created at the persistence and DTO boundary through {@link #toCards()}.
+ */
+public final class CardSet {
+
+    private long mask;
+
+    public CardSet() {
+    }
+
+    private CardSet(long mask) {
+        this.mask = mask;
+    }
+
+    public static CardSet of(long mask) {
+        if ((mask & ~CardCodes.FULL_DECK) != 0) {
+            throw new IllegalArgumentException("Invalid card mask: " + Long.toHexString(mask));
+        }
+        return new CardSet(mask);
+    }
+
+    public static CardSet of(Iterable<Card> cards) {
+        return new CardSet(cards == null ? 0L : CardCodes.mask(cards));
+    }
+
+    /**
+     * Adds the card, returning false if it was already in the set.
+     */
+    public boolean add(int code) {
+        long bit = 1L << code;
+        boolean added = (mask & bit) == 0;
+        mask |= bit;
+        return added;
+    }
+
+    /**
+     * Adds all cards of the mask.
+     *
+     * @throws IllegalArgumentException if one of the cards is already in the set
+     */
+    public void addAll(long cards) {
+        if ((mask & cards) != 0) {
+            throw new IllegalArgumentException("Card is already in the set");
+        }
+        mask |= cards;
+    }
+
+    public void addAll(CardSet cards) {
+        addAll(cards.mask);
+    }
+
+    public boolean remove(int code) {
+        long bit = 1L << code;
+        boolean removed = (mask & bit) != 0;
+        mask &= ~bit;
+        return removed;
+    }
+
+    public boolean contains(int code) {
+        return (mask & (1L << code)) != 0;
+    }
+
+    public boolean intersects(long cards) {
+        return (mask & cards) != 0;
+    }
+
+    public int size() {
+        return Long.bitCount(mask);
+    }
+
+    public boolean isEmpty() {
+        return mask == 0;
+    }
+
+    public void clear() {
+        mask = 0L;
+    }
+
+    public long getMask() {
+        return mask;
+    }
+
+    /**
+     * Returns the card codes in ascending order.
+     */
+    public byte[] toCodes() {
+        byte[] codes = new byte[size()];
+        int i = 0;
+        for (long rest = mask; rest != 0; rest &= rest - 1) {
+            codes[i++] = (byte) Long.numberOfTrailingZeros(rest);
+        }
+        return codes;
+    }
+
+    /**
+     * Creates new (unsaved) card entities for persistence or DTOs.
+     */
+    public List<Card> toCards() {
+        List<Card> cards = new ArrayList<>(size());
+        for (long rest = mask; rest != 0; rest &= rest - 1) {
+            cards.add(CardCodes.toCard(Long.numberOfTrailingZeros(rest)));
+        }
+        return cards;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof CardSet set && set.mask == mask;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(mask);
+    }
+
+    /**
+     * Formats the cards in short notation, e.g. "Ah Kd".
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        for (long rest = mask; rest != 0; rest &= rest - 1) {
+            if (!builder.isEmpty()) {
+                builder.append(' ');
+            }
+            builder.append(CardCodes.toString(Long.numberOfTrailingZeros(rest)));
+        }
+        return builder.toString();
+    }
+}
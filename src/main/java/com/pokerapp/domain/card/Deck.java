@@ -6,9 +6,15 @@ import lombok.Getter;
 import lombok.Setter;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 
+/**
+ * Record of a deck dealt from a {@link ShuffleSeed}. Only the seed, the cards
+ * of the deck and the number of cards dealt are persisted; the deck order and
+ * the dealt cards are rebuilt from the seed for audit and replay. Dealing
+ * happens on a transient {@link ShuffledDeck}, which a loaded deck recreates
+ * from the seed and continues where it stopped.
+ */
 @Getter
 @Setter
 @Entity
@@ -19,32 +25,90 @@ public class Deck {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.EAGER)
-    private List<Card> cards = new ArrayList<>();
-
-    @PostLoad
-    public void initialize() {
-        cards.clear();
-        for (Suit suit : Suit.values()) {
-            for (Value value : Value.values()) {
-                Card card = new Card();
-                card.setSuit(suit);
-                card.setValue(value);
-                card.setShowing(false);
-                cards.add(card);
-            }
-        }
-        shuffle();
+    @Column(length = ShuffleSeed.LENGTH)
+    private byte[] seed;
+
+    // Mask of the cards the deck was dealt from (see CardCodes)
+    private long cards = CardCodes.FULL_DECK;
+
+    private int dealtCount;
+
+    @Transient
+    private ShuffledDeck shuffled;
+
+    public Deck() {
     }
 
+    public Deck(ShuffleSeed seed, long cards) {
+        this.cards = cards;
+        shuffle(seed);
+    }
+
+    /**
+     * Records a hand dealt from {@code dealt} after it was reset with the generator of {@code seed}.
+     */
+    public static Deck record(ShuffleSeed seed, ShuffledDeck dealt) {
+        Deck deck = new Deck();
+        deck.seed = seed.getBytes();
+        deck.cards = dealt.getCards();
+        deck.dealtCount = dealt.getPosition();
+        return deck;
+    }
+
+    /**
+     * Returns all dealt cards to the deck and shuffles it with a new seed.
+     */
     public void shuffle() {
-        Collections.shuffle(cards);
+        shuffle(ShuffleSeed.generate());
+    }
+
+    public void shuffle(ShuffleSeed seed) {
+        this.seed = seed.getBytes();
+        this.shuffled = new ShuffledDeck(cards, seed.random());
+        this.dealtCount = 0;
     }
 
     public Card drawCard() {
-        if (cards.isEmpty()) {
-            throw new IllegalStateException("Deck is empty");
+        return CardCodes.toCard(drawCode());
+    }
+
+    /**
+     * Draws the next card as its code (see {@link CardCodes}) for the engine.
+     *
+     * @throws IllegalStateException if all cards have been dealt
+     */
+    public byte drawCode() {
+        byte code = (byte) shuffledDeck().draw();
+        dealtCount++;
+        return code;
+    }
+
+    public ShuffleSeed getShuffleSeed() {
+        return seed == null ? null : ShuffleSeed.of(seed);
+    }
+
+    /**
+     * Creates new (unsaved) card entities for the dealt cards, in dealing order.
+     */
+    public List<Card> getDealtCards() {
+        List<Card> dealt = new ArrayList<>(dealtCount);
+        if (seed == null) {
+            return dealt;
+        }
+        byte[] order = getShuffleSeed().deckOrder(cards);
+        for (int i = 0; i < dealtCount; i++) {
+            dealt.add(CardCodes.toCard(order[i]));
+        }
+        return dealt;
+    }
+
+    private ShuffledDeck shuffledDeck() {
+        if (seed == null) {
+            shuffle();
+        } else if (shuffled == null) {
+            shuffled = new ShuffledDeck(cards, getShuffleSeed().random());
+            shuffled.draw(dealtCount);
         }
-        return cards.remove(0);
+        return shuffled;
     }
 }
@@ -0,0 +1,184 @@
+package com.pokerapp.domain.card;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A weighted set of two-card combos parsed from the 13x13 starting hand grid
+ * notation used by the cheatsheet: pairs ("TT"), suited ("AKs"), offsuit
+ * ("AKo") or both ("AK"), with "+" ("TT+", "AQs+"), spans ("22-55", "A5s-A2s"),
+ * an optional weight ("KQo:0.5") and "random" for all 169 classes.
+ * Tokens are separated by commas. Every combo is a two-bit card mask.
+ */
+public final class HandRange {
+
+    private static final String RANKS = "23456789TJQKA";
+
+    private final String notation;
+    private final long[] combos;
+    private final double[] weights;
+
+    private HandRange(String notation, long[] combos, double[] weights) {
+        this.notation = notation;
+        this.combos = combos;
+        this.weights = weights;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the notation is malformed or empty
+     */
+    public static HandRange parse(String notation) {
+        Map<Long, Double> combos = new LinkedHashMap<>();
+        for (String rawToken : notation.split(",")) {
+            String token = rawToken.trim();
+            if (token.isEmpty()) {
+                continue;
+            }
+            double weight = 1.0;
+            int colon = token.indexOf(':');
+            if (colon >= 0) {
+                weight = parseWeight(token.substring(colon + 1), notation);
+                token = token.substring(0, colon).trim();
+            }
+            addToken(token, weight, combos, notation);
+        }
+        if (combos.isEmpty()) {
+            throw new IllegalArgumentException("Empty range: " + notation);
+        }
+        long[] masks = new long[combos.size()];
+        double[] weights = new double[combos.size()];
+        int i = 0;
+        for (Map.Entry<Long, Double> entry : combos.entrySet()) {
+            masks[i] = entry.getKey();
+            weights[i++] = entry.getValue();
+        }
+        return new HandRange(notation, masks, weights);
+    }
+
+    /**
+     * Returns the range without the combos that use one of the given cards.
+     */
+    public HandRange without(long blocked) {
+        int count = 0;
+        for (long combo : combos) {
+            if ((combo & blocked) == 0) {
+                count++;
+            }
+        }
+        long[] masks = new long[count];
+        double[] kept = new double[count];
+        int j = 0;
+        for (int i = 0; i < combos.length; i++) {
+            if ((combos[i] & blocked) == 0) {
+                masks[j] = combos[i];
+                kept[j++] = weights[i];
+            }
+        }
+        return new HandRange(notation, masks, kept);
+    }
+
+    public String getNotation() {
+        return notation;
+    }
+
+    public int size() {
+        return combos.length;
+    }
+
+    public long combo(int index) {
+        return combos[index];
+    }
+
+    public double weight(int index) {
+        return weights[index];
+    }
+
+    private static void addToken(String token, double weight, Map<Long, Double> combos, String notation) {
+        if (token.equalsIgnoreCase("random")) {
+            for (int high = 0; high < CardCodes.RANK_COUNT; high++) {
+                for (int low = 0; low <= high; low++) {
+                    addClass(high, low, 'b', weight, combos);
+                }
+            }
+            return;
+        }
+
+        boolean plus = token.endsWith("+");
+        if (plus) {
+            token = token.substring(0, token.length() - 1);
+        }
+        String[] span = token.split("-");
+        int[] from = parseClass(span[0], notation);
+        int[] to = span.length > 1 ? parseClass(span[1], notation) : from;
+        if (span.length > 2 || (span.length > 1 && plus)) {
+            throw new IllegalArgumentException("Invalid range token '" + token + "' in: " + notation);
+        }
+
+        int high = from[0];
+        int low = from[1];
+        char kind = (char) from[2];
+        if (high == low) {
+            // Pairs: "TT+" up to aces, "22-55" between the two pairs
+            int top = plus ? CardCodes.RANK_COUNT - 1 : Math.max(low, to[1]);
+            int bottom = plus ? low : Math.min(low, to[1]);
+            if (to[0] != to[1]) {
+                throw new IllegalArgumentException("Invalid range token '" + token + "' in: " + notation);
+            }
+            for (int rank = bottom; rank <= top; rank++) {
+                addClass(rank, rank, 'b', weight, combos);
+            }
+        } else {
+            // Non-pairs keep the high card and vary the kicker: "AQs+" up to AKs, "A2s-A5s"
+            int top = plus ? high - 1 : Math.max(low, to[1]);
+            int bottom = plus ? low : Math.min(low, to[1]);
+            if (to[0] != high || to[2] != kind) {
+                throw new IllegalArgumentException("Invalid range token '" + token + "' in: " + notation);
+            }
+            for (int kicker = bottom; kicker <= top; kicker++) {
+                addClass(high, kicker, kind, weight, combos);
+            }
+        }
+    }
+
+    /**
+     * Parses "AKs" into {high rank, low rank, kind} where kind is 's', 'o' or 'b' (both).
+     */
+    private static int[] parseClass(String text, String notation) {
+        if (text.length() < 2 || text.length() > 3) {
+            throw new IllegalArgumentException("Invalid hand class '" + text + "' in: " + notation);
+        }
+        int first = RANKS.indexOf(Character.toUpperCase(text.charAt(0)));
+        int second = RANKS.indexOf(Character.toUpperCase(text.charAt(1)));
+        char kind = text.length() == 3 ? Character.toLowerCase(text.charAt(2)) : 'b';
+        if (first < 0 || second < 0 || (kind != 's' && kind != 'o' && kind != 'b')
+                || (first == second && kind != 'b')) {
+            throw new IllegalArgumentException("Invalid hand class '" + text + "' in: " + notation);
+        }
+        return new int[]{Math.max(first, second), Math.min(first, second), kind};
+    }
+
+    private static void addClass(int high, int low, char kind, double weight, Map<Long, Double> combos) {
+        for (int s1 = 0; s1 < CardCodes.SUIT_COUNT; s1++) {
+            for (int s2 = 0; s2 < CardCodes.SUIT_COUNT; s2++) {
+                boolean suited = s1 == s2;
+                if (high == low ? s1 >= s2 : (kind == 's' && !suited) || (kind == 'o' && suited)) {
+                    continue;
+                }
+                long combo = 1L << (s1 * CardCodes.RANK_COUNT + high) | 1L << (s2 * CardCodes.RANK_COUNT + low);
+                combos.put(combo, weight);
+            }
+        }
+    }
+
+    private static double parseWeight(String text, String notation) {
+        try {
+            double weight = Double.parseDouble(text.trim());
+            if (weight <= 0 || weight > 1) {
+                throw new IllegalArgumentException("Weight must be in (0, 1] in: " + notation);
+            }
+            return weight;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid weight '" + text + "' in: " + notation);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.pokerapp.domain.card;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Deterministic xoshiro256** generator whose 256-bit state is a
+ * {@link ShuffleSeed}, read as four little-endian longs. Bounded integers take
+ * the top 31 bits of {@link #nextLong()} and reject the incomplete last range
+ * like {@code java.util.Random}, so a deck order can be reproduced from the
+ * seed by any implementation of this specification.
+ */
+public final class SeededRandom implements RandomGenerator {
+
+    private long s0;
+    private long s1;
+    private long s2;
+    private long s3;
+
+    /**
+     * @throws IllegalArgumentException if the seed is not 32 bytes or all zero
+     */
+    public SeededRandom(byte[] seed) {
+        if (seed.length != ShuffleSeed.LENGTH) {
+            throw new IllegalArgumentException("Seed must be " + ShuffleSeed.LENGTH + " bytes");
+        }
+        s0 = littleEndian(seed, 0);
+        s1 = littleEndian(seed, 8);
+        s2 = littleEndian(seed, 16);
+        s3 = littleEndian(seed, 24);
+        if ((s0 | s1 | s2 | s3) == 0) {
+            throw new IllegalArgumentException("Seed must not be all zero");
+        }
+    }
+
+    @Override
+    public long nextLong() {
+        long result = Long.rotateLeft(s1 * 5, 7) * 9;
+        long t = s1 << 17;
+        s2 ^= s0;
+        s3 ^= s1;
+        s1 ^= s2;
+        s0 ^= s3;
+        s2 ^= t;
+        s3 = Long.rotateLeft(s3, 45);
+        return result;
+    }
+
+    @Override
+    public int nextInt(int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("Bound must be positive");
+        }
+        int bits;
+        int value;
+        do {
+            bits = (int) (nextLong() >>> 33);
+            value = bits % bound;
+        } while (bits - value + (bound - 1) < 0);
+        return value;
+    }
+
+    private static long littleEndian(byte[] bytes, int offset) {
+        long value = 0L;
+        for (int i = 7; i >= 0; i--) {
+            value = value << 8 | (bytes[offset + i] & 0xFF);
+        }
+        return value;
+    }
+}
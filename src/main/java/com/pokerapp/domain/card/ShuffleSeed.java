@@ -0,0 +1,130 @@
+package com.pokerapp.domain.card;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+/**
+ * 32 random bytes that fully determine the shuffle of one hand.
+ * <p>
+ * The {@link #commitment()} (SHA-256 of the seed) is published when the hand
+ * starts and the seed itself when it ends, so players can check that the deck
+ * was fixed before the first card and rebuild its order with
+ * {@link #deckOrder(long)}. Hands only need to store the seed.
+ */
+public final class ShuffleSeed {
+
+    public static final int LENGTH = 32;
+
+    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final byte[] bytes;
+
+    private ShuffleSeed(byte[] bytes) {
+        this.bytes = bytes;
+    }
+
+    /**
+     * Draws a new seed from the shared {@link SecureRandom}.
+     */
+    public static ShuffleSeed generate() {
+        return generate(SECURE_RANDOM);
+    }
+
+    public static ShuffleSeed generate(SecureRandom random) {
+        byte[] bytes = new byte[LENGTH];
+        do {
+            random.nextBytes(bytes);
+        } while (isZero(bytes));
+        return new ShuffleSeed(bytes);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the seed is not 32 bytes or all zero
+     */
+    public static ShuffleSeed of(byte[] bytes) {
+        if (bytes == null || bytes.length != LENGTH || isZero(bytes)) {
+            throw new IllegalArgumentException("Seed must be " + LENGTH + " bytes and not all zero");
+        }
+        return new ShuffleSeed(bytes.clone());
+    }
+
+    /**
+     * Parses a seed in the hex notation of {@link #toString()}.
+     *
+     * @throws IllegalArgumentException if the text is not 64 hex digits
+     */
+    public static ShuffleSeed parse(String hex) {
+        return of(HEX.parseHex(hex.trim()));
+    }
+
+    public byte[] getBytes() {
+        return bytes.clone();
+    }
+
+    /**
+     * Returns a new generator that reproduces the shuffle of this seed.
+     */
+    public SeededRandom random() {
+        return new SeededRandom(bytes);
+    }
+
+    /**
+     * Returns the SHA-256 hash of the seed as lowercase hex.
+     */
+    public String commitment() {
+        try {
+            return HEX.formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Returns whether the commitment published at hand start belongs to this seed.
+     */
+    public boolean matches(String commitment) {
+        byte[] expected = commitment().getBytes(StandardCharsets.US_ASCII);
+        byte[] actual = commitment.trim().toLowerCase().getBytes(StandardCharsets.US_ASCII);
+        return MessageDigest.isEqual(expected, actual);
+    }
+
+    /**
+     * Rebuilds the deck order this seed dealt from the given cards (e.g. the deck of a game variant).
+     */
+    public byte[] deckOrder(long cards) {
+        ShuffledDeck deck = new ShuffledDeck(cards, random());
+        return deck.order();
+    }
+
+    private static boolean isZero(byte[] bytes) {
+        for (byte b : bytes) {
+            if (b != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof ShuffleSeed seed && Arrays.equals(seed.bytes, bytes);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(bytes);
+    }
+
+    /**
+     * Formats the seed as 64 lowercase hex digits.
+     */
+    @Override
+    public String toString() {
+        return HEX.formatHex(bytes);
+    }
+}
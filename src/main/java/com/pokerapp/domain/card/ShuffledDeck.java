@@ -0,0 +1,161 @@
+package com.pokerapp.domain.card;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * In-memory deck of card codes (see {@link CardCodes}) for the game engine.
+ * The cards live in one {@code byte[]} that is shuffled in place with
+ * Fisher-Yates; drawing only moves an index, and {@link #reset()} reshuffles
+ * the same array for the next hand, so dealing never allocates.
+ * <p>
+ * Each table owns its deck and random generator; hands that must be
+ * reproducible are dealt with {@link #reset(RandomGenerator)} and the generator
+ * of their {@link ShuffleSeed}. Not thread-safe.
+ */
+public final class ShuffledDeck {
+
+    private final long cards;
+    private final byte[] codes;
+    private final RandomGenerator random;
+    private int position;
+
+    public ShuffledDeck(RandomGenerator random) {
+        this(CardCodes.FULL_DECK, random);
+    }
+
+    /**
+     * Creates a shuffled deck of the cards in the mask, e.g. the deck of a {@code GameVariant}.
+     *
+     * @throws IllegalArgumentException if the mask is empty or holds invalid card bits
+     */
+    public ShuffledDeck(long cards, RandomGenerator random) {
+        if (cards == 0 || (cards & ~CardCodes.FULL_DECK) != 0) {
+            throw new IllegalArgumentException("Invalid card mask: " + Long.toHexString(cards));
+        }
+        this.cards = cards;
+        this.codes = new byte[Long.bitCount(cards)];
+        this.random = random;
+        sort();
+        shuffle(random);
+    }
+
+    /**
+     * Returns all cards to the deck and shuffles it for the next hand.
+     */
+    public void reset() {
+        position = 0;
+        shuffle(random);
+    }
+
+    /**
+     * Returns all cards to the deck in ascending order and shuffles them with the
+     * given generator, so the order only depends on that generator (e.g. the one
+     * of a {@link ShuffleSeed}) and not on earlier hands.
+     */
+    public void reset(RandomGenerator random) {
+        position = 0;
+        sort();
+        shuffle(random);
+    }
+
+    /**
+     * Returns all cards to the deck in the given order, e.g. one shuffled ahead of the hand.
+     *
+     * @throws IllegalArgumentException if the order is not a permutation of the deck's cards
+     */
+    public void load(byte[] order) {
+        long loaded = 0L;
+        for (byte code : order) {
+            if (code < 0 || code >= CardCodes.DECK_SIZE) {
+                throw new IllegalArgumentException("Invalid card code: " + code);
+            }
+            loaded |= 1L << code;
+        }
+        if (order.length != codes.length || loaded != cards) {
+            throw new IllegalArgumentException("Order does not match the cards of the deck");
+        }
+        System.arraycopy(order, 0, codes, 0, codes.length);
+        position = 0;
+    }
+
+    private void sort() {
+        int i = 0;
+        for (long rest = cards; rest != 0; rest &= rest - 1) {
+            codes[i++] = (byte) Long.numberOfTrailingZeros(rest);
+        }
+    }
+
+    private void shuffle(RandomGenerator random) {
+        for (int i = codes.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            byte code = codes[i];
+            codes[i] = codes[j];
+            codes[j] = code;
+        }
+    }
+
+    /**
+     * Draws the next card code.
+     *
+     * @throws IllegalStateException if all cards have been dealt
+     */
+    public int draw() {
+        if (position == codes.length) {
+            throw new IllegalStateException("Deck is empty");
+        }
+        return codes[position++];
+    }
+
+    /**
+     * Draws {@code count} cards and returns them as a mask.
+     *
+     * @throws IllegalStateException if fewer cards are left
+     */
+    public long draw(int count) {
+        if (count > remaining()) {
+            throw new IllegalStateException("Deck is empty");
+        }
+        long cards = 0L;
+        for (int i = 0; i < count; i++) {
+            cards |= 1L << codes[position++];
+        }
+        return cards;
+    }
+
+    /**
+     * Returns the mask of all cards of the deck, dealt or not.
+     */
+    public long getCards() {
+        return cards;
+    }
+
+    public int size() {
+        return codes.length;
+    }
+
+    public int remaining() {
+        return codes.length - position;
+    }
+
+    /**
+     * Returns the number of cards dealt since the last reset.
+     */
+    public int getPosition() {
+        return position;
+    }
+
+    /**
+     * Returns the full order of the deck since the last reset.
+     */
+    public byte[] order() {
+        return codes.clone();
+    }
+
+    /**
+     * Returns the codes dealt since the last reset, in dealing order.
+     */
+    public byte[] dealt() {
+        return Arrays.copyOf(codes, position);
+    }
+}
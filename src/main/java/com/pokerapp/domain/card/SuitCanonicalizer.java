@@ -0,0 +1,107 @@
+package com.pokerapp.domain.card;
+
+/**
+ * Maps (hole cards, board, dead cards) to a canonical representative of its
+ * suit-isomorphism class: all 24 suit permutations are applied, the hands are
+ * sorted and the lexicographically smallest (board, dead, hands) tuple wins.
+ * AhKh vs QsJs and AsKs vs QhJh on the same rainbow board therefore share a key.
+ */
+public final class SuitCanonicalizer {
+
+    private static final int[][] PERMUTATIONS = permutations();
+
+    private SuitCanonicalizer() {
+    }
+
+    public static CanonicalSpot canonicalize(long[] hands, long board, long dead) {
+        long[] best = null;
+        long bestBoard = 0;
+        long bestDead = 0;
+        int[] bestPermutation = null;
+        long[] candidate = new long[hands.length];
+        for (int[] permutation : PERMUTATIONS) {
+            long mappedBoard = permute(board, permutation);
+            if (best != null && Long.compareUnsigned(mappedBoard, bestBoard) > 0) {
+                continue;
+            }
+            long mappedDead = permute(dead, permutation);
+            for (int i = 0; i < hands.length; i++) {
+                candidate[i] = permute(hands[i], permutation);
+            }
+            sort(candidate);
+            if (best == null || compare(mappedBoard, mappedDead, candidate, bestBoard, bestDead, best) < 0) {
+                best = candidate.clone();
+                bestBoard = mappedBoard;
+                bestDead = mappedDead;
+                bestPermutation = permutation;
+            }
+        }
+
+        int[] order = new int[hands.length];
+        for (int i = 0; i < hands.length; i++) {
+            order[i] = indexOf(best, permute(hands[i], bestPermutation));
+        }
+        return new CanonicalSpot(best, bestBoard, bestDead, order);
+    }
+
+    /**
+     * Relabels the suits of a card mask: suit lane s moves to lane permutation[s].
+     */
+    public static long permute(long cards, int[] permutation) {
+        long result = 0L;
+        for (int suit = 0; suit < CardCodes.SUIT_COUNT; suit++) {
+            long lane = (cards >>> (suit * CardCodes.RANK_COUNT)) & CardCodes.RANK_MASK;
+            result |= lane << (permutation[suit] * CardCodes.RANK_COUNT);
+        }
+        return result;
+    }
+
+    private static int indexOf(long[] values, long value) {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int compare(long board, long dead, long[] hands, long otherBoard, long otherDead, long[] otherHands) {
+        int result = Long.compareUnsigned(board, otherBoard);
+        if (result == 0) {
+            result = Long.compareUnsigned(dead, otherDead);
+        }
+        for (int i = 0; result == 0 && i < hands.length; i++) {
+            result = Long.compareUnsigned(hands[i], otherHands[i]);
+        }
+        return result;
+    }
+
+    // Insertion sort: at most ten hands
+    private static void sort(long[] values) {
+        for (int i = 1; i < values.length; i++) {
+            long value = values[i];
+            int j = i - 1;
+            while (j >= 0 && values[j] > value) {
+                values[j + 1] = values[j];
+                j--;
+            }
+            values[j + 1] = value;
+        }
+    }
+
+    private static int[][] permutations() {
+        int[][] result = new int[24][];
+        int n = 0;
+        for (int a = 0; a < 4; a++) {
+            for (int b = 0; b < 4; b++) {
+                for (int c = 0; c < 4; c++) {
+                    int d = 6 - a - b - c;
+                    if (a != b && a != c && b != c && d >= 0 && d < 4 && d != a && d != b && d != c) {
+                        result[n++] = new int[]{a, b, c, d};
+                    }
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,176 @@
+package com.pokerapp.domain.game;
+
+import com.pokerapp.domain.card.CardCodes;
+
+/**
+ * Allocation-free evaluator for hands of up to seven cards encoded as a bitmask
+ * (see {@link CardCodes}). Each suit is extracted as a 13-bit rank mask; pairs,
+ * trips and quads fall out of AND/OR combinations of the four masks and
+ * straights are found by AND-ing shifted copies of the rank mask.
+ */
+public final class BitmaskHandEvaluator {
+
+    private static final int RANK_MASK = CardCodes.RANK_MASK;
+
+    private BitmaskHandEvaluator() {
+    }
+
+    /**
+     * Returns the rank number of the cards in the same encoding as
+     * {@link HandEvaluation#cardsToRankNumber}.
+     */
+    public static long rank(long cards) {
+        return HandRank.toRankNumber(evaluate(cards));
+    }
+
+    public static long rank(int[] codes) {
+        return rank(CardCodes.mask(codes));
+    }
+
+    /**
+     * Returns the packed strength (see {@link HandRank}) of the cards.
+     */
+    public static int evaluate(long cards) {
+        int s0 = (int) cards & RANK_MASK;
+        int s1 = (int) (cards >>> 13) & RANK_MASK;
+        int s2 = (int) (cards >>> 26) & RANK_MASK;
+        int s3 = (int) (cards >>> 39) & RANK_MASK;
+
+        int flush = 0;
+        if (Integer.bitCount(s0) >= 5) {
+            flush = s0;
+        } else if (Integer.bitCount(s1) >= 5) {
+            flush = s1;
+        } else if (Integer.bitCount(s2) >= 5) {
+            flush = s2;
+        } else if (Integer.bitCount(s3) >= 5) {
+            flush = s3;
+        }
+
+        int ranks = s0 | s1 | s2 | s3;
+        int atLeastTwo = (s0 & s1) | (s0 & s2) | (s0 & s3) | (s1 & s2) | (s1 & s3) | (s2 & s3);
+        int atLeastThree = (s0 & s1 & s2) | (s0 & s1 & s3) | (s0 & s2 & s3) | (s1 & s2 & s3);
+        int four = s0 & s1 & s2 & s3;
+        return evaluate(ranks, atLeastTwo, atLeastThree, four, flush, true);
+    }
+
+    /**
+     * Packs the strength from the rank planes of a hand: the ranks held at least
+     * once, twice, three and four times, plus the rank mask of the flush suit (0
+     * if there is no flush). Straights are only looked for if {@code straightPossible}.
+     */
+    static int evaluate(int ranks, int atLeastTwo, int atLeastThree, int four, int flush, boolean straightPossible) {
+        if (flush != 0) {
+            int high = straightHigh(flush);
+            if (high >= 0) {
+                return straight(HandRank.STRAIGHT_FLUSH, high);
+            }
+        }
+
+        // Four of a kind
+        if (four != 0) {
+            int quad = Integer.highestOneBit(four);
+            return top(repeat(HandRank.FOUR_OF_A_KIND, quad, 4), ranks & ~quad, 1);
+        }
+
+        // Full house (the highest triple and the highest other pair or triple)
+        if (atLeastThree != 0) {
+            int triple = Integer.highestOneBit(atLeastThree);
+            int pairs = atLeastTwo & ~triple;
+            if (pairs != 0) {
+                return repeat(repeat(HandRank.FULL_HOUSE, triple, 3), Integer.highestOneBit(pairs), 2);
+            }
+        }
+
+        // Flush
+        if (flush != 0) {
+            return top(HandRank.FLUSH, flush, 5);
+        }
+
+        // Straight
+        if (straightPossible) {
+            int high = straightHigh(ranks);
+            if (high >= 0) {
+                return straight(HandRank.STRAIGHT, high);
+            }
+        }
+
+        // Three of a kind
+        if (atLeastThree != 0) {
+            int triple = Integer.highestOneBit(atLeastThree);
+            return top(repeat(HandRank.THREE_OF_A_KIND, triple, 3), ranks & ~triple, 2);
+        }
+
+        // Two pair
+        if (Integer.bitCount(atLeastTwo) >= 2) {
+            int first = Integer.highestOneBit(atLeastTwo);
+            int second = Integer.highestOneBit(atLeastTwo & ~first);
+            int packed = repeat(repeat(HandRank.TWO_PAIR, first, 2), second, 2);
+            return top(packed, ranks & ~first & ~second, 1);
+        }
+
+        // Pair
+        if (atLeastTwo != 0) {
+            return top(repeat(HandRank.PAIR, atLeastTwo, 2), ranks & ~atLeastTwo, 3);
+        }
+
+        // High card
+        return top(HandRank.HIGH_CARD, ranks, 5);
+    }
+
+    /**
+     * Returns the rank index of the highest card of the best straight in the
+     * rank mask, or -1 if there is none. The ace also counts as the low card.
+     */
+    static int straightHigh(int ranks) {
+        // Bit 0 is the low ace, bit i + 1 is rank index i
+        int shifted = (ranks << 1) | ((ranks >>> 12) & 1);
+        int runs = shifted & (shifted >>> 1) & (shifted >>> 2) & (shifted >>> 3) & (shifted >>> 4);
+        if (runs == 0) {
+            return -1;
+        }
+        return 31 - Integer.numberOfLeadingZeros(runs) + 3;
+    }
+
+    /**
+     * Packs a straight, keeping the historical encoding of the wheel as 5-4-3-2-A.
+     */
+    private static int straight(int category, int high) {
+        int value = high + 2;
+        if (value == 5) {
+            return (((((category << 4 | 5) << 4 | 4) << 4 | 3) << 4 | 2) << 4) | 14;
+        }
+        int packed = category;
+        for (int i = 0; i < 5; i++) {
+            packed = packed << 4 | (value - i);
+        }
+        return packed;
+    }
+
+    /**
+     * Appends the value of the single rank bit {@code count} times.
+     */
+    private static int repeat(int packed, int rankBit, int count) {
+        int value = Integer.numberOfTrailingZeros(rankBit) + 2;
+        for (int i = 0; i < count; i++) {
+            packed = packed << 4 | value;
+        }
+        return packed;
+    }
+
+    /**
+     * Appends the {@code count} highest values of the rank mask, padding with
+     * zeros when the mask holds fewer ranks (hands of less than five cards).
+     */
+    private static int top(int packed, int ranks, int count) {
+        for (int i = 0; i < count; i++) {
+            packed <<= 4;
+            if (ranks != 0) {
+                int bit = Integer.highestOneBit(ranks);
+                packed |= Integer.numberOfTrailingZeros(bit) + 2;
+                ranks ^= bit;
+            }
+        }
+        return packed;
+    }
+}
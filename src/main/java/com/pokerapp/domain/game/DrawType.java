@@ -0,0 +1,5 @@
+package com.pokerapp.domain.game;
+
+public enum DrawType {
+    FLUSH_DRAW, OPEN_ENDED_STRAIGHT_DRAW, GUTSHOT, BACKDOOR_FLUSH_DRAW, BACKDOOR_STRAIGHT_DRAW
+}
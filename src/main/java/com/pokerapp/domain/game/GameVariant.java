@@ -0,0 +1,37 @@
+package com.pokerapp.domain.game;
+
+import com.pokerapp.domain.card.CardCodes;
+
+/**
+ * Poker variants a table can be played in, with their hole card count, deck and evaluator.
+ */
+public enum GameVariant {
+    HOLDEM(2, CardCodes.FULL_DECK, (hole, board) -> BitmaskHandEvaluator.evaluate(hole | board)),
+    OMAHA(4, CardCodes.FULL_DECK, OmahaHandEvaluator::evaluate),
+    SHORT_DECK(2, ShortDeckHandEvaluator.DECK, (hole, board) -> ShortDeckHandEvaluator.evaluate(hole | board));
+
+    private final int holeCards;
+    private final long deck;
+    private final VariantEvaluator evaluator;
+
+    GameVariant(int holeCards, long deck, VariantEvaluator evaluator) {
+        this.holeCards = holeCards;
+        this.deck = deck;
+        this.evaluator = evaluator;
+    }
+
+    public int getHoleCards() {
+        return holeCards;
+    }
+
+    /**
+     * Returns the mask of the cards the variant is dealt from.
+     */
+    public long getDeck() {
+        return deck;
+    }
+
+    public VariantEvaluator getEvaluator() {
+        return evaluator;
+    }
+}
@@ -0,0 +1,21 @@
+package com.pokerapp.domain.game;
+
+/**
+ * Evaluation backend for hands given as a card bitmask (see {@link com.pokerapp.domain.card.CardCodes}).
+ * The active backend is chosen with the {@code app.evaluator.backend} property.
+ */
+@FunctionalInterface
+public interface HandEvaluator {
+
+    /**
+     * Returns the packed strength (see {@link HandRank}) of up to seven cards.
+     */
+    int evaluate(long cards);
+
+    /**
+     * Returns the strength in the rank number encoding of {@link HandEvaluation#cardsToRankNumber}.
+     */
+    default long rank(long cards) {
+        return HandRank.toRankNumber(evaluate(cards));
+    }
+}
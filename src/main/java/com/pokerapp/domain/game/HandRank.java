@@ -0,0 +1,54 @@
+package com.pokerapp.domain.game;
+
+/**
+ * Helpers for the two hand strength encodings used by the evaluators.
+ * <p>
+ * The public rank number (see {@link HandEvaluation#cardsToRankNumber}) is the hand
+ * category followed by five card values with two decimal digits each, e.g. a
+ * full house of kings over nines is {@code 7_13_13_13_09_09}. Evaluators work on
+ * a packed int instead: the category in bits 20-23 and the five card values in
+ * one nibble each. Both encodings order hands identically. Variants with a different
+ * category order (see {@link ShortDeckHandEvaluator}) add their order above bit 24.
+ */
+public final class HandRank {
+
+    public static final int HIGH_CARD = 1;
+    public static final int PAIR = 2;
+    public static final int TWO_PAIR = 3;
+    public static final int THREE_OF_A_KIND = 4;
+    public static final int STRAIGHT = 5;
+    public static final int FLUSH = 6;
+    public static final int FULL_HOUSE = 7;
+    public static final int FOUR_OF_A_KIND = 8;
+    public static final int STRAIGHT_FLUSH = 9;
+
+    private HandRank() {
+    }
+
+    /**
+     * Converts a packed strength into the decimal rank number.
+     */
+    public static long toRankNumber(int packed) {
+        long res = (packed >>> 20) & 0xF;
+        for (int shift = 16; shift >= 0; shift -= 4) {
+            res = res * 100 + ((packed >>> shift) & 0xF);
+        }
+        return res;
+    }
+
+    /**
+     * Converts a decimal rank number back into the packed strength.
+     */
+    public static int fromRankNumber(long rankNumber) {
+        int packed = 0;
+        for (int shift = 0; shift <= 16; shift += 4) {
+            packed |= (int) (rankNumber % 100) << shift;
+            rankNumber /= 100;
+        }
+        return packed | (int) rankNumber << 20;
+    }
+
+    public static int category(int packed) {
+        return (packed >>> 20) & 0xF;
+    }
+}
@@ -0,0 +1,128 @@
+package com.pokerapp.domain.game;
+
+import com.pokerapp.domain.card.Card;
+import com.pokerapp.domain.card.CardCodes;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Hand evaluator backed by a precomputed state-transition table ("2+2" style).
+ * <p>
+ * Every state of up to six cards owns 53 slots: slot 0 holds the strength of the
+ * state itself (five and six card states only) and slot {@code code + 1} the
+ * offset of the state reached by adding that card. From a six card state the
+ * transition slot holds the packed strength of the resulting seven card hand, so
+ * evaluating seven cards costs seven dependent int reads.
+ * <p>
+ * The table (~130 MB) is generated once by {@code com.pokerapp.tools.HandRankTableGenerator}
+ * and memory-mapped read-only: it lives outside the heap and is shared between JVM
+ * restarts through the OS page cache.
+ */
+public class LookupTableHandEvaluator implements HandEvaluator {
+
+    public static final int MAGIC = 0x484B5237; // "HKR7"
+    public static final int VERSION = 1;
+    public static final int HEADER_BYTES = 16;
+    public static final int SLOTS_PER_STATE = CardCodes.DECK_SIZE + 1;
+
+    /** Offset of the empty hand. */
+    public static final int ROOT = 0;
+
+    private final IntBuffer table;
+
+    private LookupTableHandEvaluator(IntBuffer table) {
+        this.table = table;
+    }
+
+    /**
+     * Maps the table file into memory and validates its header.
+     */
+    public static LookupTableHandEvaluator load(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            mapped.order(ByteOrder.LITTLE_ENDIAN);
+            if (mapped.getInt(0) != MAGIC || mapped.getInt(4) != VERSION) {
+                throw new IOException("Not a hand rank table: " + path);
+            }
+            long entries = mapped.getLong(8);
+            if (HEADER_BYTES + entries * Integer.BYTES != channel.size()) {
+                throw new IOException("Hand rank table is truncated: " + path);
+            }
+            ByteBuffer body = mapped.slice(HEADER_BYTES, (int) (entries * Integer.BYTES))
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            return new LookupTableHandEvaluator(body.asIntBuffer());
+        }
+    }
+
+    /**
+     * Adds a card to a state. Applied to a six card state the result is the
+     * packed strength of the seven card hand instead of a state.
+     */
+    public int next(int state, int code) {
+        return table.get(state + code + 1);
+    }
+
+    /**
+     * Returns the packed strength of a five or six card state.
+     */
+    public int value(int state) {
+        return table.get(state);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException if the mask holds more than seven cards, which would walk past the table
+     */
+    @Override
+    public int evaluate(long cards) {
+        int count = Long.bitCount(cards);
+        if (count > 7) {
+            throw new IllegalArgumentException("At most 7 cards can be evaluated, got " + count);
+        }
+        if (count < 5) {
+            return BitmaskHandEvaluator.evaluate(cards);
+        }
+        int state = ROOT;
+        for (long rest = cards; rest != 0; rest &= rest - 1) {
+            state = table.get(state + Long.numberOfTrailingZeros(rest) + 1);
+        }
+        return count == 7 ? state : table.get(state);
+    }
+
+    /**
+     * Compares random five to seven card hands against {@link HandEvaluation#cardsToRankNumber}.
+     *
+     * @throws IllegalStateException if the table disagrees with the reference ranking
+     */
+    public void verify(int samples, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int n = 0; n < samples; n++) {
+            int size = 5 + n % 3;
+            long mask = 0L;
+            while (Long.bitCount(mask) < size) {
+                mask |= 1L << random.nextInt(CardCodes.DECK_SIZE);
+            }
+            List<Card> cards = new ArrayList<>(size);
+            for (long rest = mask; rest != 0; rest &= rest - 1) {
+                cards.add(CardCodes.toCard(Long.numberOfTrailingZeros(rest)));
+            }
+            long expected = HandEvaluation.cardsToRankNumber(cards);
+            long actual = rank(mask);
+            if (expected != actual) {
+                throw new IllegalStateException("Hand rank table mismatch for " + cards
+                        + ": expected " + expected + " but was " + actual);
+            }
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package com.pokerapp.domain.game;
+
+import com.pokerapp.domain.card.CardCodes;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Evaluator for Pot-Limit Omaha: the best hand uses exactly two of the four
+ * hole cards and three of the board cards.
+ * <p>
+ * Apart from flushes the strength of such a hand only depends on ranks, so the
+ * best hand without a flush is precomputed for the 91 pairs of hole ranks and
+ * the 8,450 multisets of three to five board ranks. A board is found by the
+ * sum of the keys of its ranks, chosen so that no two multisets of as many
+ * ranks share a sum, and an evaluation takes the best of six lookups, one per
+ * pair of hole cards, instead of evaluating 60 five-card hands. The tables
+ * take about 3.5 MB and a few hundred milliseconds to build on first use.
+ * <p>
+ * Flushes are only looked at for a suit with at least two hole and three board
+ * cards. The best flush is the two highest suited hole cards with the three
+ * highest suited board cards, and a straight flush is a five-rank window
+ * holding exactly two suited hole cards and three suited board cards.
+ * <p>
+ * About 25M hands per second on one core (see
+ * {@code HandEvaluationBenchmark.omahaEvaluate}).
+ */
+public final class OmahaHandEvaluator {
+
+    public static final int HOLE_CARDS = 4;
+
+    private static final int MIN_BOARD = 3;
+    private static final int MAX_BOARD = 5;
+    // Unordered pairs of hole ranks, pocket pairs included
+    private static final int PAIRS = CardCodes.RANK_COUNT * (CardCodes.RANK_COUNT + 1) / 2;
+
+    private static final int WHEEL = 0x100F;
+    private static final int LOWEST_WINDOW = 0x1F;
+    private static final char NO_ROW = Character.MAX_VALUE;
+
+    // Keys of the ranks whose sums tell apart all multisets of five ranks (and so of fewer), found by a greedy search
+    private static final int[] RANK_KEYS = {0, 1, 5, 22, 94, 312, 992, 2422, 5624, 12522, 19998, 43258, 79415};
+    private static final int MAX_KEY = MAX_BOARD * RANK_KEYS[CardCodes.RANK_COUNT - 1];
+    // Rank key of each card code
+    private static final int[] CARD_KEYS = new int[CardCodes.DECK_SIZE];
+    // Index among the PAIRS of the ranks of two hole cards, by code * DECK_SIZE + code
+    private static final int[] PAIR = new int[CardCodes.DECK_SIZE * CardCodes.DECK_SIZE];
+    // Row in BEST of each board, by board size and key
+    private static final char[][] ROWS = new char[MAX_BOARD + 1][];
+    // Strengths five ranks can make without a flush, ascending
+    private static final int[] STRENGTHS;
+    // Index into STRENGTHS of the best hand without a flush, by board row and pair of hole ranks
+    private static final char[] BEST;
+
+    static {
+        for (int code = 0; code < CardCodes.DECK_SIZE; code++) {
+            CARD_KEYS[code] = RANK_KEYS[CardCodes.rank(code)];
+        }
+        for (int first = 0; first < CardCodes.DECK_SIZE; first++) {
+            for (int second = 0; second < CardCodes.DECK_SIZE; second++) {
+                PAIR[first * CardCodes.DECK_SIZE + second] = pair(CardCodes.rank(first), CardCodes.rank(second));
+            }
+        }
+
+        // Strength of five ranks without a flush by key, then as an index into STRENGTHS
+        int[] fives = new int[MAX_KEY + 1];
+        List<int[]> hands = new ArrayList<>();
+        multisets(hands, new int[MAX_BOARD], 0, 0);
+        for (int[] ranks : hands) {
+            int key = key(ranks);
+            if (fives[key] != 0) {
+                throw new IllegalStateException("Rank keys collide");
+            }
+            fives[key] = strength(ranks);
+        }
+        STRENGTHS = Arrays.stream(fives).filter(strength -> strength != 0).distinct().sorted().toArray();
+        for (int key = 0; key < fives.length; key++) {
+            if (fives[key] != 0) {
+                fives[key] = Arrays.binarySearch(STRENGTHS, fives[key]);
+            }
+        }
+
+        List<int[]> boards = new ArrayList<>();
+        for (int size = MIN_BOARD; size <= MAX_BOARD; size++) {
+            ROWS[size] = new char[size * RANK_KEYS[CardCodes.RANK_COUNT - 1] + 1];
+            Arrays.fill(ROWS[size], NO_ROW);
+            multisets(boards, new int[size], 0, 0);
+        }
+        BEST = new char[boards.size() * PAIRS];
+        for (int row = 0; row < boards.size(); row++) {
+            fillRow(fives, boards.get(row), row);
+        }
+    }
+
+    private OmahaHandEvaluator() {
+    }
+
+    /**
+     * @throws IllegalArgumentException if the hole cards are not four or the board does not hold three to five cards
+     */
+    public static int evaluate(long hole, long board) {
+        int boardSize = Long.bitCount(board);
+        if (Long.bitCount(hole) != HOLE_CARDS || boardSize < MIN_BOARD || boardSize > MAX_BOARD || (hole & board) != 0) {
+            throw new IllegalArgumentException("Omaha needs four hole cards and three to five board cards");
+        }
+        int key = 0;
+        for (long rest = board; rest != 0; rest &= rest - 1) {
+            key += CARD_KEYS[Long.numberOfTrailingZeros(rest)];
+        }
+        int row = ROWS[boardSize][key] * PAIRS;
+
+        long rest = hole;
+        int c0 = Long.numberOfTrailingZeros(rest) * CardCodes.DECK_SIZE;
+        rest &= rest - 1;
+        int c1 = Long.numberOfTrailingZeros(rest);
+        rest &= rest - 1;
+        int c2 = Long.numberOfTrailingZeros(rest);
+        rest &= rest - 1;
+        int c3 = Long.numberOfTrailingZeros(rest);
+        int top = Math.max(
+                Math.max(BEST[row + PAIR[c0 + c1]], BEST[row + PAIR[c0 + c2]]),
+                Math.max(BEST[row + PAIR[c0 + c3]], BEST[row + PAIR[c1 * CardCodes.DECK_SIZE + c2]]));
+        int best = STRENGTHS[Math.max(top, Math.max(
+                BEST[row + PAIR[c1 * CardCodes.DECK_SIZE + c3]], BEST[row + PAIR[c2 * CardCodes.DECK_SIZE + c3]]))];
+
+        if (Integer.bitCount((int) board & CardCodes.RANK_MASK) < 3
+                && Integer.bitCount((int) (board >>> 13) & CardCodes.RANK_MASK) < 3
+                && Integer.bitCount((int) (board >>> 26) & CardCodes.RANK_MASK) < 3
+                && Integer.bitCount((int) (board >>> 39) & CardCodes.RANK_MASK) < 3) {
+            return best;
+        }
+        return Math.max(best, bestFlush(hole, board));
+    }
+
+    /**
+     * Returns the best flush or straight flush, or 0 if no suit allows one.
+     */
+    private static int bestFlush(long hole, long board) {
+        int best = 0;
+        for (int suit = 0; suit < CardCodes.SUIT_COUNT; suit++) {
+            int shift = suit * CardCodes.RANK_COUNT;
+            int holeSuited = (int) (hole >>> shift) & CardCodes.RANK_MASK;
+            int boardSuited = (int) (board >>> shift) & CardCodes.RANK_MASK;
+            if (Integer.bitCount(holeSuited) < 2 || Integer.bitCount(boardSuited) < 3) {
+                continue;
+            }
+            int suited = holeSuited | boardSuited;
+            int straightFlush = 0;
+            if (BitmaskHandEvaluator.straightHigh(suited) >= 0) {
+                if ((suited & WHEEL) == WHEEL && Integer.bitCount(holeSuited & WHEEL) == 2) {
+                    straightFlush = WHEEL;
+                }
+                for (int window = LOWEST_WINDOW; window <= CardCodes.RANK_MASK; window <<= 1) {
+                    if ((suited & window) == window && Integer.bitCount(holeSuited & window) == 2) {
+                        straightFlush = window;
+                    }
+                }
+            }
+            int cards = straightFlush != 0 ? straightFlush : highest(holeSuited, 2) | highest(boardSuited, 3);
+            best = Math.max(best, BitmaskHandEvaluator.evaluate((long) cards << shift));
+        }
+        return best;
+    }
+
+    /**
+     * Fills the row of a board: for each pair of hole ranks the best hand
+     * with three of the board ranks.
+     */
+    private static void fillRow(int[] fives, int[] board, int row) {
+        int key = key(board);
+        if (ROWS[board.length][key] != NO_ROW) {
+            throw new IllegalStateException("Rank keys collide");
+        }
+        ROWS[board.length][key] = (char) row;
+
+        int[] triples = new int[10];
+        int count = 0;
+        for (int a = 0; a < board.length; a++) {
+            for (int b = a + 1; b < board.length; b++) {
+                for (int c = b + 1; c < board.length; c++) {
+                    triples[count++] = RANK_KEYS[board[a]] + RANK_KEYS[board[b]] + RANK_KEYS[board[c]];
+                }
+            }
+        }
+        for (int high = 0; high < CardCodes.RANK_COUNT; high++) {
+            for (int low = 0; low <= high; low++) {
+                // Five of a rank only comes up for hole cards no deck deals with this board
+                int pairKey = RANK_KEYS[low] + RANK_KEYS[high];
+                int best = 0;
+                for (int i = 0; i < count; i++) {
+                    best = Math.max(best, fives[pairKey + triples[i]]);
+                }
+                BEST[row * PAIRS + pair(low, high)] = (char) best;
+            }
+        }
+    }
+
+    /**
+     * Adds every multiset of {@code ranks.length} ranks, ascending, that holds
+     * no rank more than four times.
+     */
+    private static void multisets(List<int[]> into, int[] ranks, int position, int lowest) {
+        if (position == ranks.length) {
+            into.add(ranks.clone());
+            return;
+        }
+        for (int rank = lowest; rank < CardCodes.RANK_COUNT; rank++) {
+            if (position >= CardCodes.SUIT_COUNT && ranks[position - CardCodes.SUIT_COUNT] == rank) {
+                continue;
+            }
+            ranks[position] = rank;
+            multisets(into, ranks, position + 1, rank);
+        }
+    }
+
+    /**
+     * Returns the strength of five ranks without a flush.
+     */
+    private static int strength(int[] ranks) {
+        // Planes of the ranks held at least once, twice, three and four times
+        int s0 = 0;
+        int s1 = 0;
+        int s2 = 0;
+        int s3 = 0;
+        for (int rank : ranks) {
+            int bit = 1 << rank;
+            if ((s0 & bit) == 0) {
+                s0 |= bit;
+            } else if ((s1 & bit) == 0) {
+                s1 |= bit;
+            } else if ((s2 & bit) == 0) {
+                s2 |= bit;
+            } else {
+                s3 |= bit;
+            }
+        }
+        return BitmaskHandEvaluator.evaluate(s0, s1, s2, s3, 0, true);
+    }
+
+    private static int key(int[] ranks) {
+        int key = 0;
+        for (int rank : ranks) {
+            key += RANK_KEYS[rank];
+        }
+        return key;
+    }
+
+    /**
+     * Returns the index of an unordered pair of ranks among the {@link #PAIRS}.
+     */
+    private static int pair(int first, int second) {
+        int low = Math.min(first, second);
+        int high = Math.max(first, second);
+        return high * (high + 1) / 2 + low;
+    }
+
+    /**
+     * Returns the {@code count} highest ranks of the rank mask.
+     */
+    private static int highest(int ranks, int count) {
+        int cards = 0;
+        for (int i = 0; i < count; i++) {
+            int bit = Integer.highestOneBit(ranks);
+            cards |= bit;
+            ranks ^= bit;
+        }
+        return cards;
+    }
+}
@@ -0,0 +1,28 @@
+package com.pokerapp.domain.game;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Set;
+
+/**
+ * The outs of one seat: the unseen cards that improve it on the next street
+ * (as a card mask, see {@link com.pokerapp.domain.card.CardCodes}) and the
+ * draws it holds right now.
+ */
+@Getter
+@AllArgsConstructor
+public class Outs {
+
+    private final long cards;
+    private final int category;
+    private final Set<DrawType> draws;
+
+    public int getCount() {
+        return Long.bitCount(cards);
+    }
+
+    public boolean contains(int code) {
+        return (cards & (1L << code)) != 0;
+    }
+}
@@ -0,0 +1,179 @@
+package com.pokerapp.domain.game;
+
+import com.pokerapp.domain.card.Card;
+import com.pokerapp.domain.card.CardCodes;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Finds the outs and draws of every seat on the flop or turn.
+ * <p>
+ * The board is absorbed once into a {@link StreetEvaluator}; every unseen card
+ * (at most 47) is then tried with a single incremental step on a copy of that
+ * state and all seats are evaluated against it, so one pass serves the whole
+ * table. A card is an out for a seat if it raises the seat's hand category by
+ * more than it raises the category of the board alone (so a card that pairs the
+ * board is no out for a pocket pair), or if it turns a seat that is not the sole
+ * leader among the known hands into the sole leader.
+ */
+public final class OutsCalculator {
+
+    private OutsCalculator() {
+    }
+
+    /**
+     * Analyzes one player's hand without any known opponents.
+     */
+    public static Outs analyze(List<Card> hole, List<Card> communityCards) {
+        return analyze(new long[]{CardCodes.mask(hole)}, CardCodes.mask(communityCards), 0L)[0];
+    }
+
+    /**
+     * Analyzes all seats on the given board. Seats with a board of fewer than
+     * three or all five cards get no outs and no draws.
+     *
+     * @throws IllegalArgumentException if a card is used twice or a seat does not hold two cards
+     */
+    public static Outs[] analyze(long[] holes, long board, long dead) {
+        long known = board | dead;
+        for (long hole : holes) {
+            if (Long.bitCount(hole) != 2 || (known & hole) != 0) {
+                throw new IllegalArgumentException("Invalid or duplicate hole cards");
+            }
+            known |= hole;
+        }
+        if ((board & dead) != 0) {
+            throw new IllegalArgumentException("Board and dead cards overlap");
+        }
+
+        int boardSize = Long.bitCount(board);
+        StreetEvaluator shared = new StreetEvaluator(board);
+        int[] current = new int[holes.length];
+        int best = shared.evaluateAll(holes, current);
+        int boardCategory = HandRank.category(shared.evaluate(0L));
+        Outs[] result = new Outs[holes.length];
+        if (boardSize < 3 || boardSize == StreetEvaluator.MAX_BOARD) {
+            for (int i = 0; i < holes.length; i++) {
+                result[i] = new Outs(0L, HandRank.category(current[i]), EnumSet.noneOf(DrawType.class));
+            }
+            return result;
+        }
+
+        boolean[] soleLeader = new boolean[holes.length];
+        for (int i = 0; i < holes.length; i++) {
+            soleLeader[i] = current[i] == best && count(current, best) == 1;
+        }
+
+        long[] outs = new long[holes.length];
+        int[] next = new int[holes.length];
+        StreetEvaluator step = new StreetEvaluator();
+        for (long unseen = CardCodes.FULL_DECK & ~known; unseen != 0; unseen &= unseen - 1) {
+            int code = Long.numberOfTrailingZeros(unseen);
+            step.copyFrom(shared);
+            step.addBoardCard(code);
+            int nextBest = step.evaluateAll(holes, next);
+            int nextBoardCategory = HandRank.category(step.evaluate(0L));
+            boolean singleLeader = count(next, nextBest) == 1;
+            for (int i = 0; i < holes.length; i++) {
+                int category = HandRank.category(next[i]);
+                int currentCategory = HandRank.category(current[i]);
+                boolean improves = category > currentCategory
+                        && category - nextBoardCategory > currentCategory - boardCategory;
+                boolean takesLead = holes.length > 1 && !soleLeader[i] && next[i] == nextBest && singleLeader;
+                if (improves || takesLead) {
+                    outs[i] |= 1L << code;
+                }
+            }
+        }
+
+        for (int i = 0; i < holes.length; i++) {
+            int category = HandRank.category(current[i]);
+            result[i] = new Outs(outs[i], category, draws(holes[i], board, category));
+        }
+        return result;
+    }
+
+    /**
+     * Classifies the draws of the hole cards on a flop or turn. Draws must use at
+     * least one hole card; backdoor draws only exist on the flop.
+     */
+    static Set<DrawType> draws(long hole, long board, int category) {
+        Set<DrawType> draws = EnumSet.noneOf(DrawType.class);
+        long cards = hole | board;
+        boolean flop = Long.bitCount(board) == 3;
+
+        if (category < HandRank.FLUSH) {
+            for (int suit = 0; suit < CardCodes.SUIT_COUNT; suit++) {
+                int shift = suit * CardCodes.RANK_COUNT;
+                int suited = Integer.bitCount((int) (cards >>> shift) & CardCodes.RANK_MASK);
+                boolean usesHole = ((hole >>> shift) & CardCodes.RANK_MASK) != 0;
+                if (usesHole && suited == 4) {
+                    draws.add(DrawType.FLUSH_DRAW);
+                } else if (usesHole && suited == 3 && flop) {
+                    draws.add(DrawType.BACKDOOR_FLUSH_DRAW);
+                }
+            }
+        }
+
+        if (category < HandRank.STRAIGHT) {
+            int ranks = rankMask(cards);
+            int boardRanks = rankMask(board);
+            int completing = 0;
+            for (int rank = 0; rank < CardCodes.RANK_COUNT; rank++) {
+                if (makesStraight(ranks, boardRanks, 1 << rank)) {
+                    completing++;
+                }
+            }
+            if (completing >= 2) {
+                draws.add(DrawType.OPEN_ENDED_STRAIGHT_DRAW);
+            } else if (completing == 1) {
+                draws.add(DrawType.GUTSHOT);
+            } else if (flop && hasBackdoorStraight(ranks, boardRanks)) {
+                draws.add(DrawType.BACKDOOR_STRAIGHT_DRAW);
+            }
+        }
+        return draws;
+    }
+
+    private static boolean hasBackdoorStraight(int ranks, int boardRanks) {
+        for (int first = 0; first < CardCodes.RANK_COUNT; first++) {
+            for (int second = first + 1; second < CardCodes.RANK_COUNT; second++) {
+                if (makesStraight(ranks, boardRanks, 1 << first | 1 << second)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns whether the new ranks complete a straight that is better than the one the board would show alone.
+     */
+    private static boolean makesStraight(int ranks, int boardRanks, int added) {
+        if ((ranks & added) != 0) {
+            return false;
+        }
+        int high = BitmaskHandEvaluator.straightHigh(ranks | added);
+        return high >= 0 && high > BitmaskHandEvaluator.straightHigh(boardRanks | added);
+    }
+
+    private static int rankMask(long cards) {
+        int ranks = 0;
+        for (int suit = 0; suit < CardCodes.SUIT_COUNT; suit++) {
+            ranks |= (int) (cards >>> (suit * CardCodes.RANK_COUNT)) & CardCodes.RANK_MASK;
+        }
+        return ranks;
+    }
+
+    private static int count(int[] strengths, int value) {
+        int count = 0;
+        for (int strength : strengths) {
+            if (strength == value) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
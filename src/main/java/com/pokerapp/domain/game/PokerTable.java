@@ -31,6 +31,9 @@ public class PokerTable {
 
     private Boolean isPrivate = false;
 
+    @Enumerated(EnumType.STRING)
+    private GameVariant variant = GameVariant.HOLDEM;
+
     @ManyToOne
     private Player owner;
 
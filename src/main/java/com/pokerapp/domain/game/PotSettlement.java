@@ -0,0 +1,184 @@
+package com.pokerapp.domain.game;
+
+import java.util.Arrays;
+
+/**
+ * Splits the chips of a hand into the main pot and side pots and pays them out.
+ * <p>
+ * Contributions are sorted once (seat packed into the low bits of a
+ * {@code long}); a single sweep over the distinct contribution levels then
+ * cuts one layer per level, every seat that put in at least that much paying
+ * into it. Consecutive layers with the same players still in the hand form one
+ * pot, so pots are only created where a live player is all-in. Chips a folded
+ * player put in above the largest live contribution go to the last pot.
+ * <p>
+ * Each pot goes to the strongest hands among its eligible seats. Odd chips of
+ * a split go one each to the winners closest to the left of the button. All
+ * state is kept in primitive arrays indexed by seat; seats are limited to 64
+ * so sets of seats fit in a {@code long}.
+ */
+public final class PotSettlement {
+
+    public static final int MAX_SEATS = Long.SIZE;
+
+    private static final int SEAT_BITS = 6;
+
+    private final int[] payouts;
+    private final int[] amounts;
+    private final long[] eligible;
+    private final long[] winners;
+    private final int potCount;
+
+    private PotSettlement(int[] payouts, int[] amounts, long[] eligible, long[] winners, int potCount) {
+        this.payouts = payouts;
+        this.amounts = amounts;
+        this.eligible = eligible;
+        this.winners = winners;
+        this.potCount = potCount;
+    }
+
+    /**
+     * Settles a hand.
+     *
+     * @param committed chips each seat put in during the whole hand
+     * @param folded    seats that are out of the hand
+     * @param strengths strength of each live seat's hand, higher wins (ignored for folded seats)
+     * @param button    seat of the button, for the odd chips
+     * @throws IllegalArgumentException if the arrays differ in length, there are more than
+     *                                  {@link #MAX_SEATS} seats, a contribution is negative
+     *                                  or every seat folded
+     */
+    public static PotSettlement settle(int[] committed, boolean[] folded, int[] strengths, int button) {
+        int seats = committed.length;
+        if (folded.length != seats || strengths.length != seats || seats > MAX_SEATS) {
+            throw new IllegalArgumentException("Invalid number of seats");
+        }
+        long live = 0L;
+        long[] order = new long[seats];
+        for (int seat = 0; seat < seats; seat++) {
+            if (committed[seat] < 0) {
+                throw new IllegalArgumentException("Contributions must not be negative");
+            }
+            if (!folded[seat]) {
+                live |= 1L << seat;
+            }
+            order[seat] = (long) committed[seat] << SEAT_BITS | seat;
+        }
+        if (live == 0) {
+            throw new IllegalArgumentException("At least one seat must be in the hand");
+        }
+        Arrays.sort(order);
+
+        // At most one pot per seat
+        int[] amounts = new int[seats];
+        long[] eligible = new long[seats];
+        int pots = 0;
+        // Seats that put in at least the current level
+        long contributors = (seats == MAX_SEATS) ? -1L : (1L << seats) - 1;
+        int previous = 0;
+        for (int i = 0; i < seats; i++) {
+            int seat = (int) (order[i] & (MAX_SEATS - 1));
+            int level = (int) (order[i] >>> SEAT_BITS);
+            if (level > previous) {
+                int layer = (level - previous) * (seats - i);
+                long layerEligible = contributors & live;
+                if (pots > 0 && (layerEligible == eligible[pots - 1] || layerEligible == 0)) {
+                    amounts[pots - 1] += layer;
+                } else {
+                    // Live seats that put in nothing still share a pot nobody is eligible for
+                    amounts[pots] = layer;
+                    eligible[pots] = layerEligible != 0 ? layerEligible : live;
+                    pots++;
+                }
+                previous = level;
+            }
+            contributors &= ~(1L << seat);
+        }
+
+        int[] payouts = new int[seats];
+        long[] winners = new long[pots];
+        for (int pot = 0; pot < pots; pot++) {
+            winners[pot] = best(eligible[pot], strengths);
+            split(amounts[pot], winners[pot], button, seats, payouts);
+        }
+        return new PotSettlement(payouts, Arrays.copyOf(amounts, pots), Arrays.copyOf(eligible, pots), winners, pots);
+    }
+
+    /**
+     * Returns the seats with the highest strength among the eligible ones.
+     */
+    private static long best(long eligible, int[] strengths) {
+        long best = 0L;
+        int bestStrength = Integer.MIN_VALUE;
+        for (long rest = eligible; rest != 0; rest &= rest - 1) {
+            int seat = Long.numberOfTrailingZeros(rest);
+            if (strengths[seat] > bestStrength) {
+                bestStrength = strengths[seat];
+                best = 0L;
+            }
+            if (strengths[seat] == bestStrength) {
+                best |= 1L << seat;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Splits the pot evenly; the remainder goes one chip each to the winners
+     * in clockwise order starting left of the button.
+     */
+    private static void split(int amount, long winners, int button, int seats, int[] payouts) {
+        int count = Long.bitCount(winners);
+        int share = amount / count;
+        int oddChips = amount % count;
+        for (int i = 1; i <= seats; i++) {
+            int seat = (button + i) % seats;
+            if ((winners & (1L << seat)) != 0) {
+                payouts[seat] += share + (oddChips-- > 0 ? 1 : 0);
+            }
+        }
+    }
+
+    /**
+     * Returns the chips won by each seat, including uncalled bets returned.
+     */
+    public int[] getPayouts() {
+        return payouts;
+    }
+
+    public int getPotCount() {
+        return potCount;
+    }
+
+    /**
+     * Returns the size of a pot; pot 0 is the main pot.
+     */
+    public int getAmount(int pot) {
+        return amounts[pot];
+    }
+
+    /**
+     * Returns the seats that could win the pot as a bit set.
+     */
+    public long getEligible(int pot) {
+        return eligible[pot];
+    }
+
+    /**
+     * Returns the seats that won the pot as a bit set.
+     */
+    public long getWinners(int pot) {
+        return winners[pot];
+    }
+
+    /**
+     * Returns every seat that won at least one pot as a bit set.
+     */
+    public long getAllWinners() {
+        long all = 0L;
+        for (int pot = 0; pot < potCount; pot++) {
+            all |= winners[pot];
+        }
+        return all;
+    }
+}
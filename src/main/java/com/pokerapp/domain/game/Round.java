@@ -5,6 +5,8 @@ import java.util.List;
 import java.util.Map;
 
 import com.pokerapp.domain.card.Card;
+import com.pokerapp.domain.card.CardSet;
+import com.pokerapp.domain.card.Deck;
 import com.pokerapp.domain.user.Player;
 import jakarta.persistence.*;
 import lombok.Getter;
@@ -49,5 +51,37 @@ public class Round {
     @OneToMany(cascade = CascadeType.ALL)
     private List<Card> communityCards = new ArrayList<>();
 
+    // Engine state: the board as a card mask and the hole cards of each player (in players order)
+    @Transient
+    private CardSet board = new CardSet();
+
+    @Transient
+    private long[] holeCards;
+
+    // Chips of each player (in players order) once the hand is settled; written back to the players
+    @Transient
+    private int[] settledStacks;
+
     private int playerCount;
+
+    // Seed and dealt count of the hand's deck; the cards are rebuilt from the seed
+    @OneToOne(cascade = CascadeType.ALL)
+    private Deck deck;
+
+    /**
+     * Card entities are only materialised when the round is written.
+     */
+    @PrePersist
+    @PreUpdate
+    void syncCommunityCards() {
+        if (!CardSet.of(communityCards).equals(board)) {
+            communityCards.clear();
+            communityCards.addAll(board.toCards());
+        }
+    }
+
+    @PostLoad
+    void loadBoard() {
+        board = CardSet.of(communityCards);
+    }
 }
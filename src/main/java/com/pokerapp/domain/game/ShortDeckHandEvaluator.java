@@ -0,0 +1,98 @@
+package com.pokerapp.domain.game;
+
+import com.pokerapp.domain.card.CardCodes;
+
+/**
+ * Evaluator for Short Deck (6+) Hold'em, dealt from the 36 cards six to ace.
+ * A flush beats a full house, three of a kind beats a straight and the ace
+ * also plays low in A-6-7-8-9. Strengths keep the Hold'em category in the
+ * {@link HandRank} bits and add the Short Deck order above bit 24, so
+ * {@link HandRank#category} still names the hand while comparisons follow the
+ * Short Deck ranking.
+ */
+public final class ShortDeckHandEvaluator {
+
+    private static final int LANE = CardCodes.RANK_MASK & ~0xF;
+
+    /** Mask of the 36 cards from six to ace. */
+    public static final long DECK = LANE | (long) LANE << 13 | (long) LANE << 26 | (long) LANE << 39;
+
+    // Short Deck order of each Hold'em category
+    private static final int[] ORDER = {0, 1, 2, 3, 5, 4, 7, 6, 8, 9};
+
+    private ShortDeckHandEvaluator() {
+    }
+
+    public static int evaluate(long cards) {
+        int s0 = (int) cards & CardCodes.RANK_MASK;
+        int s1 = (int) (cards >>> 13) & CardCodes.RANK_MASK;
+        int s2 = (int) (cards >>> 26) & CardCodes.RANK_MASK;
+        int s3 = (int) (cards >>> 39) & CardCodes.RANK_MASK;
+
+        int flush = 0;
+        if (Integer.bitCount(s0) >= 5) {
+            flush = s0;
+        } else if (Integer.bitCount(s1) >= 5) {
+            flush = s1;
+        } else if (Integer.bitCount(s2) >= 5) {
+            flush = s2;
+        } else if (Integer.bitCount(s3) >= 5) {
+            flush = s3;
+        }
+        if (flush != 0) {
+            int high = straightHigh(flush);
+            if (high >= 0) {
+                return order(straight(HandRank.STRAIGHT_FLUSH, high));
+            }
+        }
+
+        int ranks = s0 | s1 | s2 | s3;
+        int atLeastTwo = (s0 & s1) | (s0 & s2) | (s0 & s3) | (s1 & s2) | (s1 & s3) | (s2 & s3);
+        int atLeastThree = (s0 & s1 & s2) | (s0 & s1 & s3) | (s0 & s2 & s3) | (s1 & s2 & s3);
+        int four = s0 & s1 & s2 & s3;
+        int packed = BitmaskHandEvaluator.evaluate(ranks, atLeastTwo, atLeastThree, four, flush, false);
+
+        // A straight only beats hands below three of a kind
+        if (HandRank.category(packed) < HandRank.THREE_OF_A_KIND) {
+            int high = straightHigh(ranks);
+            if (high >= 0) {
+                return order(straight(HandRank.STRAIGHT, high));
+            }
+        }
+        return order(packed);
+    }
+
+    /**
+     * Returns the rank index of the highest card of the best straight, or -1.
+     * The ace also counts as the card below the six.
+     */
+    static int straightHigh(int ranks) {
+        int sixUp = ranks >>> 4;
+        // Bit 0 is the low ace, bit i + 1 is the rank index i + 4
+        int shifted = (sixUp << 1) | ((sixUp >>> 8) & 1);
+        int runs = shifted & (shifted >>> 1) & (shifted >>> 2) & (shifted >>> 3) & (shifted >>> 4);
+        if (runs == 0) {
+            return -1;
+        }
+        return 31 - Integer.numberOfLeadingZeros(runs) + 3 + 4;
+    }
+
+    /**
+     * Packs a straight; the low straight A-6-7-8-9 is encoded as 9-8-7-6-A.
+     */
+    private static int straight(int category, int high) {
+        int value = high + 2;
+        if (value == 9) {
+            return (((((category << 4 | 9) << 4 | 8) << 4 | 7) << 4 | 6) << 4) | 14;
+        }
+        int packed = category;
+        for (int i = 0; i < 5; i++) {
+            packed = packed << 4 | (value - i);
+        }
+        return packed;
+    }
+
+    private static int order(int packed) {
+        return ORDER[HandRank.category(packed)] << 24 | packed;
+    }
+}
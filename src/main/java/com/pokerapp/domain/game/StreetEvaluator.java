@@ -0,0 +1,171 @@
+package com.pokerapp.domain.game;
+
+import com.pokerapp.domain.card.CardCodes;
+
+/**
+ * Evaluator state for one board that absorbs the community cards street by
+ * street. The board keeps its suit masks and rank planes (ranks held at least
+ * once, twice, three and four times) and remembers the only suit that can still
+ * make a flush and whether any five-rank window can still hold a straight with
+ * two more cards. Evaluating a seat then only folds its two hole cards into the
+ * planes, so evaluating all seats after a new board card is O(players).
+ * <p>
+ * Not thread-safe; each round owns its instance.
+ */
+public final class StreetEvaluator {
+
+    public static final int MAX_BOARD = 5;
+
+    private static final int HOLE_CARDS = 2;
+
+    // Rank masks of the ten straights, from the wheel (A-5) up to broadway
+    private static final int[] STRAIGHT_WINDOWS = new int[10];
+
+    static {
+        STRAIGHT_WINDOWS[0] = 0x100F;
+        for (int i = 1; i < STRAIGHT_WINDOWS.length; i++) {
+            STRAIGHT_WINDOWS[i] = 0x1F << (i - 1);
+        }
+    }
+
+    private final int[] suitRanks = new int[CardCodes.SUIT_COUNT];
+    private long board;
+    private int ranks;
+    private int atLeastTwo;
+    private int atLeastThree;
+    private int four;
+    private int flushSuit = -1;
+    private boolean straightPossible;
+
+    public StreetEvaluator() {
+    }
+
+    public StreetEvaluator(long board) {
+        addBoard(board);
+    }
+
+    public void reset() {
+        for (int i = 0; i < suitRanks.length; i++) {
+            suitRanks[i] = 0;
+        }
+        board = 0L;
+        ranks = 0;
+        atLeastTwo = 0;
+        atLeastThree = 0;
+        four = 0;
+        flushSuit = -1;
+        straightPossible = false;
+    }
+
+    /**
+     * Copies the board state of {@code other}, e.g. to try one more card on top of a shared board.
+     */
+    public void copyFrom(StreetEvaluator other) {
+        System.arraycopy(other.suitRanks, 0, suitRanks, 0, suitRanks.length);
+        board = other.board;
+        ranks = other.ranks;
+        atLeastTwo = other.atLeastTwo;
+        atLeastThree = other.atLeastThree;
+        four = other.four;
+        flushSuit = other.flushSuit;
+        straightPossible = other.straightPossible;
+    }
+
+    /**
+     * Adds the cards of a new street (e.g. the three flop cards).
+     *
+     * @throws IllegalArgumentException if a card is already on the board or the board would exceed five cards
+     */
+    public void addBoard(long cards) {
+        for (long rest = cards; rest != 0; rest &= rest - 1) {
+            addBoardCard(Long.numberOfTrailingZeros(rest));
+        }
+    }
+
+    public void addBoardCard(int code) {
+        long bit = 1L << code;
+        if ((board & bit) != 0) {
+            throw new IllegalArgumentException("Card is already on the board: " + CardCodes.toString(code));
+        }
+        if (Long.bitCount(board) == MAX_BOARD) {
+            throw new IllegalArgumentException("The board already holds " + MAX_BOARD + " cards");
+        }
+        board |= bit;
+
+        int suit = CardCodes.suit(code);
+        int rankBit = 1 << CardCodes.rank(code);
+        suitRanks[suit] |= rankBit;
+        four |= atLeastThree & rankBit;
+        atLeastThree |= atLeastTwo & rankBit;
+        atLeastTwo |= ranks & rankBit;
+        ranks |= rankBit;
+
+        // With two hole cards to come a flush needs three board cards of the suit
+        if (Integer.bitCount(suitRanks[suit]) >= MAX_BOARD - HOLE_CARDS) {
+            flushSuit = suit;
+        }
+        if (!straightPossible) {
+            for (int window : STRAIGHT_WINDOWS) {
+                if (Integer.bitCount(ranks & window) >= MAX_BOARD - HOLE_CARDS) {
+                    straightPossible = true;
+                    break;
+                }
+            }
+        }
+    }
+
+    public long getBoard() {
+        return board;
+    }
+
+    /**
+     * Returns the packed strength (see {@link HandRank}) of the hole cards combined with the board.
+     *
+     * @throws IllegalArgumentException if the hole cards overlap the board or are more than two
+     */
+    public int evaluate(long hole) {
+        if ((hole & board) != 0 || Long.bitCount(hole) > HOLE_CARDS) {
+            throw new IllegalArgumentException("Invalid hole cards for this board");
+        }
+        int handRanks = ranks;
+        int handTwo = atLeastTwo;
+        int handThree = atLeastThree;
+        int handFour = four;
+        for (long rest = hole; rest != 0; rest &= rest - 1) {
+            int rankBit = 1 << CardCodes.rank(Long.numberOfTrailingZeros(rest));
+            handFour |= handThree & rankBit;
+            handThree |= handTwo & rankBit;
+            handTwo |= handRanks & rankBit;
+            handRanks |= rankBit;
+        }
+
+        int flush = 0;
+        if (flushSuit >= 0) {
+            int suited = suitRanks[flushSuit] | (int) (hole >>> (flushSuit * CardCodes.RANK_COUNT)) & CardCodes.RANK_MASK;
+            if (Integer.bitCount(suited) >= 5) {
+                flush = suited;
+            }
+        }
+        return BitmaskHandEvaluator.evaluate(handRanks, handTwo, handThree, handFour, flush, straightPossible);
+    }
+
+    /**
+     * Returns the strength in the rank number encoding of {@link HandEvaluation#cardsToRankNumber}.
+     */
+    public long rank(long hole) {
+        return HandRank.toRankNumber(evaluate(hole));
+    }
+
+    /**
+     * Evaluates every seat, writing the packed strengths to {@code strengths}, and
+     * returns the best strength.
+     */
+    public int evaluateAll(long[] holes, int[] strengths) {
+        int best = -1;
+        for (int i = 0; i < holes.length; i++) {
+            strengths[i] = evaluate(holes[i]);
+            best = Math.max(best, strengths[i]);
+        }
+        return best;
+    }
+}
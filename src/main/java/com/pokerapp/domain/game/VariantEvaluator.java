@@ -0,0 +1,15 @@
+package com.pokerapp.domain.game;
+
+/**
+ * Showdown evaluation of one game variant, selected per table through {@link GameVariant}.
+ */
+@FunctionalInterface
+public interface VariantEvaluator {
+
+    /**
+     * Returns the packed strength (see {@link HandRank}) of the best hand the
+     * hole cards make with the board. Strengths are only comparable within the
+     * same variant.
+     */
+    int evaluate(long hole, long board);
+}
@@ -8,26 +8,37 @@ import com.pokerapp.domain.user.User;
 import com.pokerapp.exception.NotFoundException;
 import com.pokerapp.repository.PlayerRepository;
 import com.pokerapp.repository.TableRepository;
+import com.pokerapp.session.TableCommand;
+import com.pokerapp.session.TableEngine;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.HashSet;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
 @Service
 public class TableService {
 
+    private static final long LEAVE_TIMEOUT_SECONDS = 5;
+    private static final long STACKS_TIMEOUT_MILLIS = 5_000;
+
     private final TableRepository tableRepository;
     private final PlayerRepository playerRepository;
+    private final TableEngine tableEngine;
 
     @Autowired
     public TableService(
             TableRepository tableRepository,
-            PlayerRepository playerRepository) {
+            PlayerRepository playerRepository,
+            TableEngine tableEngine) {
         this.tableRepository = tableRepository;
         this.playerRepository = playerRepository;
+        this.tableEngine = tableEngine;
     }
 
     @Transactional
@@ -43,6 +54,9 @@ public class TableService {
         pokerTable.setMinBuyIn(settings.getMinBuyIn());
         pokerTable.setMaxBuyIn(settings.getMaxBuyIn());
         pokerTable.setIsPrivate(settings.getIsPrivate());
+        if (settings.getVariant() != null) {
+            pokerTable.setVariant(settings.getVariant());
+        }
         pokerTable.setOwner(ownerAsPlayer);
 
         PokerTable savedTable = tableRepository.save(pokerTable);
@@ -69,6 +83,9 @@ public class TableService {
         playerRepository.save(player);
         PokerTable updatedTable = tableRepository.save(pokerTable);
 
+        // A running game seats the player from the next hand on
+        tableEngine.submit(tableId, TableCommand.join(player));
+
         return convertToDto(updatedTable);
     }
 
@@ -76,16 +93,25 @@ public class TableService {
 
     @Transactional
     public TableDto leaveTable(Long tableId, Long userId) {
+        // Without a running game the chips come from the last hands written back
+        if (!tableEngine.awaitStacksWritten(STACKS_TIMEOUT_MILLIS)) {
+            throw new IllegalStateException("The stacks of the last hands are still being saved, try again");
+        }
         PokerTable pokerTable = getTableEntityById(tableId);
 
         // Find player by user ID
         Player player = playerRepository.findByUserId(userId)
                 .orElseThrow(() -> new NotFoundException("Player not found for user ID: " + userId));
 
-        boolean removed = pokerTable.removePlayer(player);
-        if (!removed) {
+        if (!pokerTable.getPlayers().contains(player)) {
             throw new IllegalStateException("Player not at this table");
         }
+        // A running game holds the current stack; it folds the player's hand and hands the rest back
+        Integer stack = leaveGame(tableId, player.getId());
+        if (stack != null) {
+            player.setChips(stack);
+        }
+        pokerTable.removePlayer(player);
 
         playerRepository.save(player);
         PokerTable updatedTable = tableRepository.save(pokerTable);
@@ -93,6 +119,17 @@ public class TableService {
         return convertToDto(updatedTable);
     }
 
+    private Integer leaveGame(Long tableId, Long playerId) {
+        try {
+            return tableEngine.leave(tableId, playerId).get(LEAVE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while leaving the table");
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("The table did not respond, try again");
+        }
+    }
+
     @Transactional
     public TableDto deleteTable(Long tableId, Long userId) {
         PokerTable pokerTable = getTableEntityById(tableId);
@@ -162,6 +199,7 @@ public class TableService {
         dto.setIsPrivate(pokerTable.getIsPrivate());
         dto.setOwnerId(pokerTable.getOwner().getUserId());
         dto.setHasActiveGame(pokerTable.getGame() != null);
+        dto.setVariant(pokerTable.getVariant());
         return dto;
     }
 }
\ No newline at end of file
@@ -0,0 +1,63 @@
+package com.pokerapp.service.equity;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.pokerapp.domain.card.CanonicalSpot;
+import com.pokerapp.domain.card.SuitCanonicalizer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Bounded cache of equity results keyed by the suit-isomorphic canonical spot.
+ * Results are stored in canonical hand order and reordered for each caller.
+ * Hit, miss and eviction counts are published as the "equity" cache metrics.
+ */
+public class EquityCache {
+
+    /**
+     * Computes the equity of a spot whose hands are in canonical order.
+     */
+    @FunctionalInterface
+    public interface Computation {
+        EquityResult compute(long[] holes, long board, long dead);
+    }
+
+    private record Key(CanonicalSpot spot, boolean exact) {
+    }
+
+    private final Cache<Key, EquityResult> cache;
+
+    public EquityCache(long maximumSize, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "equity");
+    }
+
+    public EquityResult get(long[] holes, long board, long dead, boolean exact, Computation computation) {
+        CanonicalSpot spot = SuitCanonicalizer.canonicalize(holes, board, dead);
+        Key key = new Key(spot, exact);
+        // Computed outside the cache lock: an exact enumeration can take a while
+        EquityResult canonical = cache.getIfPresent(key);
+        if (canonical == null) {
+            canonical = computation.compute(spot.getHands(), spot.getBoard(), spot.getDead());
+            cache.put(key, canonical);
+        }
+        return reorder(canonical, spot);
+    }
+
+    private static EquityResult reorder(EquityResult canonical, CanonicalSpot spot) {
+        int players = canonical.getPlayerCount();
+        double[] win = new double[players];
+        double[] tie = new double[players];
+        double[] equity = new double[players];
+        for (int i = 0; i < players; i++) {
+            int position = spot.positionOf(i);
+            win[i] = canonical.getWin()[position];
+            tie[i] = canonical.getTie()[position];
+            equity[i] = canonical.getEquity()[position];
+        }
+        return new EquityResult(win, tie, equity, canonical.getSamples(), canonical.isExact());
+    }
+}
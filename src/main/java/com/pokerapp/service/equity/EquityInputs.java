@@ -0,0 +1,51 @@
+package com.pokerapp.service.equity;
+
+import com.pokerapp.domain.card.CardCodes;
+
+/**
+ * Validation of equity queries and helpers shared by the calculators.
+ */
+final class EquityInputs {
+
+    private EquityInputs() {
+    }
+
+    /**
+     * Checks the hands for overlaps and returns the mask of all known cards.
+     */
+    static long validate(long[] holes, long board, long dead) {
+        if (holes.length < 2) {
+            throw new IllegalArgumentException("At least two hands are required");
+        }
+        if (Long.bitCount(board) > 5) {
+            throw new IllegalArgumentException("A board has at most five cards");
+        }
+        long known = board;
+        if ((known & dead) != 0) {
+            throw new IllegalArgumentException("Dead cards overlap the board");
+        }
+        known |= dead;
+        for (long hole : holes) {
+            if (Long.bitCount(hole) != 2) {
+                throw new IllegalArgumentException("Every hand needs exactly two hole cards");
+            }
+            if ((known & hole) != 0) {
+                throw new IllegalArgumentException("A card is used more than once");
+            }
+            known |= hole;
+        }
+        return known;
+    }
+
+    /**
+     * Returns the codes of all cards not in the known mask.
+     */
+    static int[] liveCards(long known) {
+        long live = CardCodes.FULL_DECK & ~known;
+        int[] codes = new int[Long.bitCount(live)];
+        for (int i = 0; live != 0; live &= live - 1, i++) {
+            codes[i] = Long.numberOfTrailingZeros(live);
+        }
+        return codes;
+    }
+}
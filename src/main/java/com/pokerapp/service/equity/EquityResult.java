@@ -0,0 +1,42 @@
+package com.pokerapp.service.equity;
+
+import lombok.Getter;
+
+/**
+ * Win, tie and overall equity per player, in the order the hands were given.
+ * Equity counts a tie between k players as 1/k of a win.
+ */
+@Getter
+public class EquityResult {
+
+    private final double[] win;
+    private final double[] tie;
+    private final double[] equity;
+    private final long samples;
+    private final boolean exact;
+
+    public EquityResult(double[] win, double[] tie, double[] equity, long samples, boolean exact) {
+        this.win = win;
+        this.tie = tie;
+        this.equity = equity;
+        this.samples = samples;
+        this.exact = exact;
+    }
+
+    static EquityResult of(Tally tally, boolean exact) {
+        int players = tally.wins.length;
+        double[] win = new double[players];
+        double[] tie = new double[players];
+        double[] equity = new double[players];
+        for (int i = 0; i < players; i++) {
+            win[i] = tally.wins[i] / tally.total;
+            tie[i] = tally.ties[i] / tally.total;
+            equity[i] = tally.shares[i] / tally.total;
+        }
+        return new EquityResult(win, tie, equity, tally.samples, exact);
+    }
+
+    public int getPlayerCount() {
+        return win.length;
+    }
+}
@@ -0,0 +1,191 @@
+package com.pokerapp.service.equity;
+
+import com.pokerapp.domain.card.Card;
+import com.pokerapp.domain.card.CardCodes;
+import com.pokerapp.domain.card.HandRange;
+import com.pokerapp.domain.game.HandEvaluator;
+import com.pokerapp.domain.game.StageType;
+import com.pokerapp.domain.user.Player;
+import com.pokerapp.websocket.TableWebSocketHandler;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.util.Pair;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Computes hand equities and publishes them to the table for the live overlay.
+ * Results are cached per suit-isomorphic spot (app.equity.cacheSize entries).
+ */
+@Service
+public class EquityService {
+    private static final Logger logger = LoggerFactory.getLogger(EquityService.class);
+
+    private final TableWebSocketHandler webSocketHandler;
+    private final ForkJoinPool pool;
+    private final MonteCarloEquityCalculator monteCarlo;
+    private final ExhaustiveEquityCalculator exhaustive;
+    private final RangeEquityCalculator rangeEquity;
+    private final EquityCache cache;
+    private final long budgetNanos;
+    private final double precision;
+    private final long maxSamples;
+    // Latest equity request per table with a running game
+    private final Map<Long, AtomicLong> requests = new ConcurrentHashMap<>();
+
+    @Autowired
+    public EquityService(
+            HandEvaluator handEvaluator,
+            TableWebSocketHandler webSocketHandler,
+            MeterRegistry meterRegistry,
+            @Value("${app.equity.budgetMs:20}") long budgetMs,
+            @Value("${app.equity.precision:0.005}") double precision,
+            @Value("${app.equity.maxSamples:2000000}") long maxSamples,
+            @Value("${app.equity.cacheSize:100000}") long cacheSize,
+            @Value("${app.equity.rangeShowdowns:10000000}") long rangeShowdowns) {
+        this.webSocketHandler = webSocketHandler;
+        this.pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        this.monteCarlo = new MonteCarloEquityCalculator(handEvaluator, pool);
+        this.exhaustive = new ExhaustiveEquityCalculator(handEvaluator, pool);
+        this.rangeEquity = new RangeEquityCalculator(handEvaluator, rangeShowdowns);
+        this.cache = new EquityCache(cacheSize, meterRegistry);
+        this.budgetNanos = TimeUnit.MILLISECONDS.toNanos(budgetMs);
+        this.precision = precision;
+        this.maxSamples = maxSamples;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Estimates the equity of each hand within the configured latency budget.
+     */
+    public EquityResult monteCarlo(long[] holes, long board, long dead) {
+        return cache.get(holes, board, dead, false,
+                (h, b, d) -> monteCarlo.calculate(h, b, d, budgetNanos, precision, maxSamples));
+    }
+
+    /**
+     * Computes the exact equity of each hand over all remaining runouts.
+     */
+    public EquityResult exact(long[] holes, long board, long dead) {
+        return cache.get(holes, board, dead, true, exhaustive::calculate);
+    }
+
+    /**
+     * Computes the equity of each range against the others on the (possibly empty) board.
+     */
+    public EquityResult rangeEquity(List<HandRange> ranges, long board, long dead) {
+        return rangeEquity.calculate(ranges, board, dead);
+    }
+
+    /**
+     * Computes the equities of the players who have not folded on the given board
+     * and sends them to the table. Runs on the equity pool so the caller never
+     * waits for the result; the players belong to the table's actor and are only
+     * read on the calling thread. A result is dropped if a later request for the
+     * same table was made meanwhile, so a slow street never overwrites a newer one.
+     * The future completes with the win probability per player id of a published
+     * result, for the table to set on its players, or with null if none was.
+     */
+    public CompletableFuture<Map<Long, Double>> publishAsync(Long tableId, StageType street, List<Player> players,
+                                                             Map<Player, Pair<Card, Card>> playerHands,
+                                                             List<Card> board) {
+        List<Player> dealt = new ArrayList<>();
+        List<Long> holes = new ArrayList<>();
+        for (Player player : players) {
+            Pair<Card, Card> hand = playerHands.get(player);
+            if (hand != null) {
+                dealt.add(player);
+                holes.add(1L << CardCodes.of(hand.getFirst()) | 1L << CardCodes.of(hand.getSecond()));
+            }
+        }
+        return publishAsync(tableId, street, dealt, holes.stream().mapToLong(Long::longValue).toArray(),
+                CardCodes.mask(board));
+    }
+
+    /**
+     * Same as above with the hole cards of each player (in players order) and the board as card masks.
+     */
+    public CompletableFuture<Map<Long, Double>> publishAsync(Long tableId, StageType street, List<Player> players,
+                                                             long[] holeCards, long board) {
+        AtomicLong latest = requests.computeIfAbsent(tableId, id -> new AtomicLong());
+        long request = latest.incrementAndGet();
+        List<Long> live = new ArrayList<>();
+        long[] holes = new long[players.size()];
+        int count = 0;
+        long dead = 0L;
+        for (int i = 0; i < players.size(); i++) {
+            Player player = players.get(i);
+            if (player.isFolded()) {
+                dead |= holeCards[i];
+            } else {
+                live.add(player.getId());
+                holes[count++] = holeCards[i];
+            }
+        }
+        if (live.size() < 2) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        long[] holeMasks = Arrays.copyOf(holes, count);
+        long deadMask = dead;
+        return CompletableFuture.supplyAsync(() -> monteCarlo(holeMasks, board, deadMask), pool)
+                .handle((result, error) -> {
+                    if (error != null) {
+                        logger.error("Equity calculation failed at table {}: {}", tableId, error.getMessage());
+                        return null;
+                    }
+                    // Also dropped once the game at the table was stopped
+                    if (latest.get() != request || requests.get(tableId) != latest) {
+                        return null;
+                    }
+                    Map<Long, Double> winProbabilities = new HashMap<>();
+                    List<Map<String, Object>> playerEquities = new ArrayList<>();
+                    for (int i = 0; i < live.size(); i++) {
+                        winProbabilities.put(live.get(i), result.getWin()[i]);
+                        Map<String, Object> entry = new HashMap<>();
+                        entry.put("playerId", live.get(i));
+                        entry.put("winPercentage", percentage(result.getWin()[i]));
+                        entry.put("tiePercentage", percentage(result.getTie()[i]));
+                        playerEquities.add(entry);
+                    }
+
+                    Map<String, Object> message = new HashMap<>();
+                    message.put("type", "EQUITY_UPDATE");
+                    message.put("tableId", tableId);
+                    message.put("street", street);
+                    message.put("samples", result.getSamples());
+                    message.put("players", playerEquities);
+                    webSocketHandler.sendToTable(tableId, message);
+                    return winProbabilities;
+                });
+    }
+
+    /**
+     * Drops the request count of a table whose game stopped; results still being computed for it are not published.
+     */
+    public void forget(Long tableId) {
+        requests.remove(tableId);
+    }
+
+    private static double percentage(double fraction) {
+        return Math.round(fraction * 1000) / 10.0;
+    }
+}
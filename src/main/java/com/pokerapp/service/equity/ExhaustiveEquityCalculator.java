@@ -0,0 +1,82 @@
+package com.pokerapp.service.equity;
+
+import com.pokerapp.domain.game.HandEvaluator;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Exact equity by walking every remaining board runout. The work is split with
+ * fork-join tasks over the first undealt board card (runouts are enumerated as
+ * ascending index combinations of the live cards, so each one is visited once);
+ * every task fills its own tally and the results are merged on join.
+ */
+public class ExhaustiveEquityCalculator {
+
+    private final HandEvaluator evaluator;
+    private final ForkJoinPool pool;
+
+    public ExhaustiveEquityCalculator(HandEvaluator evaluator, ForkJoinPool pool) {
+        this.evaluator = evaluator;
+        this.pool = pool;
+    }
+
+    public EquityResult calculate(long[] holes, long board, long dead) {
+        long known = EquityInputs.validate(holes, board, dead);
+        int missing = 5 - Long.bitCount(board);
+        if (missing == 0) {
+            Tally tally = new Tally(holes.length);
+            tally.showdown(evaluator, holes, board, 1);
+            return EquityResult.of(tally, true);
+        }
+        int[] live = EquityInputs.liveCards(known);
+        // The first card of a runout can be any live card that leaves room for the others
+        int firstCards = live.length - missing + 1;
+        return EquityResult.of(pool.invoke(new EnumerationTask(holes, board, live, missing, 0, firstCards)), true);
+    }
+
+    private final class EnumerationTask extends RecursiveTask<Tally> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final long[] holes;
+        private final long board;
+        private final int[] live;
+        private final int missing;
+        private final int from;
+        private final int to;
+
+        EnumerationTask(long[] holes, long board, int[] live, int missing, int from, int to) {
+            this.holes = holes;
+            this.board = board;
+            this.live = live;
+            this.missing = missing;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Tally compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                EnumerationTask left = new EnumerationTask(holes, board, live, missing, from, middle);
+                left.fork();
+                Tally right = new EnumerationTask(holes, board, live, missing, middle, to).compute();
+                return right.merge(left.join());
+            }
+            Tally tally = new Tally(holes.length);
+            enumerate(tally, board | 1L << live[from], from + 1, missing - 1);
+            return tally;
+        }
+
+        private void enumerate(Tally tally, long runout, int start, int remaining) {
+            if (remaining == 0) {
+                tally.showdown(evaluator, holes, runout, 1);
+                return;
+            }
+            for (int i = start; i <= live.length - remaining; i++) {
+                enumerate(tally, runout | 1L << live[i], i + 1, remaining - 1);
+            }
+        }
+    }
+}
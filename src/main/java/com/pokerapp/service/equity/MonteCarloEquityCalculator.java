@@ -0,0 +1,107 @@
+package com.pokerapp.service.equity;
+
+import com.pokerapp.domain.game.HandEvaluator;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Parallel Monte Carlo equity estimation. Rollouts run as fork-join tasks, each
+ * leaf with its own {@link SplittableRandom} split off its parent, and are
+ * repeated in rounds until the confidence interval is narrow enough, the
+ * sample limit is reached or the time budget is used up.
+ */
+public class MonteCarloEquityCalculator {
+
+    private static final int LEAF_SAMPLES = 1024;
+
+    private final HandEvaluator evaluator;
+    private final ForkJoinPool pool;
+
+    public MonteCarloEquityCalculator(HandEvaluator evaluator, ForkJoinPool pool) {
+        this.evaluator = evaluator;
+        this.pool = pool;
+    }
+
+    /**
+     * @param holes       two-card hole mask per live player
+     * @param board       community cards dealt so far
+     * @param dead        other known cards that cannot come (e.g. folded hands)
+     * @param budgetNanos time after which no further round is started
+     * @param precision   target 95% confidence half-width of each equity
+     * @param maxSamples  upper bound for the number of rollouts
+     */
+    public EquityResult calculate(long[] holes, long board, long dead,
+                                  long budgetNanos, double precision, long maxSamples) {
+        long known = EquityInputs.validate(holes, board, dead);
+        int missing = 5 - Long.bitCount(board);
+        if (missing == 0) {
+            Tally tally = new Tally(holes.length);
+            tally.showdown(evaluator, holes, board, 1);
+            return EquityResult.of(tally, true);
+        }
+
+        int[] live = EquityInputs.liveCards(known);
+        long deadline = System.nanoTime() + budgetNanos;
+        int roundSamples = LEAF_SAMPLES * pool.getParallelism();
+        SplittableRandom random = new SplittableRandom();
+        Tally total = new Tally(holes.length);
+        do {
+            RolloutTask task = new RolloutTask(holes, board, live, missing, random.split(), roundSamples);
+            total.merge(pool.invoke(task));
+        } while (total.samples < maxSamples
+                && System.nanoTime() < deadline
+                && total.confidenceHalfWidth() > precision);
+        return EquityResult.of(total, false);
+    }
+
+    private final class RolloutTask extends RecursiveTask<Tally> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final long[] holes;
+        private final long board;
+        private final int[] live;
+        private final int missing;
+        private final SplittableRandom random;
+        private final int samples;
+
+        RolloutTask(long[] holes, long board, int[] live, int missing, SplittableRandom random, int samples) {
+            this.holes = holes;
+            this.board = board;
+            this.live = live;
+            this.missing = missing;
+            this.random = random;
+            this.samples = samples;
+        }
+
+        @Override
+        protected Tally compute() {
+            if (samples > LEAF_SAMPLES) {
+                int half = samples / 2;
+                RolloutTask left = new RolloutTask(holes, board, live, missing, random.split(), half);
+                left.fork();
+                Tally right = new RolloutTask(holes, board, live, missing, random, samples - half).compute();
+                return right.merge(left.join());
+            }
+
+            Tally tally = new Tally(holes.length);
+            int[] deck = live.clone();
+            int size = deck.length;
+            for (int n = 0; n < samples; n++) {
+                long runout = board;
+                // Partial Fisher-Yates: the first 'missing' slots become the runout
+                for (int k = 0; k < missing; k++) {
+                    int j = k + random.nextInt(size - k);
+                    int code = deck[j];
+                    deck[j] = deck[k];
+                    deck[k] = code;
+                    runout |= 1L << code;
+                }
+                tally.showdown(evaluator, holes, runout, 1);
+            }
+            return tally;
+        }
+    }
+}
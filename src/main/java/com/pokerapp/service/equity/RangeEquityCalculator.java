@@ -0,0 +1,202 @@
+package com.pokerapp.service.equity;
+
+import com.pokerapp.domain.card.CardCodes;
+import com.pokerapp.domain.card.HandRange;
+import com.pokerapp.domain.game.HandEvaluator;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Equity between two or more hand ranges on an optional board.
+ * <p>
+ * Combos blocked by the board or dead cards are dropped first. For two ranges
+ * every non-colliding combo pair (checked with one AND of the combo masks) is
+ * played out in a parallel stream over the first range, weighted by both combo
+ * weights: exactly over all runouts when there are few enough, otherwise over a
+ * per-pair sample sized to the overall showdown budget. With more ranges the
+ * combo tuples are sampled proportionally to their weights instead.
+ */
+public class RangeEquityCalculator {
+
+    private static final int BATCH_SAMPLES = 4096;
+
+    private final HandEvaluator evaluator;
+    private final long showdownBudget;
+
+    public RangeEquityCalculator(HandEvaluator evaluator, long showdownBudget) {
+        this.evaluator = evaluator;
+        this.showdownBudget = showdownBudget;
+    }
+
+    public EquityResult calculate(List<HandRange> ranges, long board, long dead) {
+        if (ranges.size() < 2) {
+            throw new IllegalArgumentException("At least two ranges are required");
+        }
+        if (Long.bitCount(board) > 5 || (board & dead) != 0) {
+            throw new IllegalArgumentException("Invalid board or dead cards");
+        }
+        HandRange[] live = new HandRange[ranges.size()];
+        for (int i = 0; i < live.length; i++) {
+            live[i] = ranges.get(i).without(board | dead);
+            if (live[i].size() == 0) {
+                throw new IllegalArgumentException("No combos of '" + live[i].getNotation() + "' are left on this board");
+            }
+        }
+        return live.length == 2
+                ? headsUp(live[0], live[1], board, dead)
+                : multiway(live, board, dead);
+    }
+
+    private EquityResult headsUp(HandRange first, HandRange second, long board, long dead) {
+        int missing = 5 - Long.bitCount(board);
+        long pairs = 0;
+        for (int i = 0; i < first.size(); i++) {
+            for (int j = 0; j < second.size(); j++) {
+                if ((first.combo(i) & second.combo(j)) == 0) {
+                    pairs++;
+                }
+            }
+        }
+        if (pairs == 0) {
+            throw new IllegalArgumentException("The ranges block each other completely");
+        }
+        long runouts = binomial(CardCodes.DECK_SIZE - Long.bitCount(board | dead) - 4, missing);
+        long perPair = Math.max(1, showdownBudget / pairs);
+        boolean exact = runouts <= perPair;
+
+        Tally tally = IntStream.range(0, first.size()).parallel().collect(
+                () -> new Tally(2),
+                (t, i) -> {
+                    long[] holes = new long[2];
+                    SplittableRandom random = new SplittableRandom(i);
+                    for (int j = 0; j < second.size(); j++) {
+                        if ((first.combo(i) & second.combo(j)) != 0) {
+                            continue;
+                        }
+                        holes[0] = first.combo(i);
+                        holes[1] = second.combo(j);
+                        double weight = first.weight(i) * second.weight(j);
+                        long used = board | dead | holes[0] | holes[1];
+                        if (exact) {
+                            enumerate(t, holes, board, used, 0, missing, weight / runouts);
+                        } else {
+                            for (long n = 0; n < perPair; n++) {
+                                t.showdown(evaluator, holes, runout(random, board, used, missing), weight / perPair);
+                            }
+                        }
+                    }
+                },
+                Tally::merge);
+        return EquityResult.of(tally, exact);
+    }
+
+    private EquityResult multiway(HandRange[] ranges, long board, long dead) {
+        double[][] cumulative = new double[ranges.length][];
+        for (int r = 0; r < ranges.length; r++) {
+            cumulative[r] = new double[ranges[r].size()];
+            double sum = 0;
+            for (int i = 0; i < ranges[r].size(); i++) {
+                sum += ranges[r].weight(i);
+                cumulative[r][i] = sum;
+            }
+        }
+        int missing = 5 - Long.bitCount(board);
+        int batches = (int) Math.max(1, showdownBudget / ranges.length / BATCH_SAMPLES);
+
+        Tally tally = IntStream.range(0, batches).parallel().collect(
+                () -> new Tally(ranges.length),
+                (t, batch) -> {
+                    long[] holes = new long[ranges.length];
+                    SplittableRandom random = new SplittableRandom(batch);
+                    for (int n = 0; n < BATCH_SAMPLES; n++) {
+                        long used = board | dead;
+                        if (dealCombos(random, ranges, cumulative, holes, used)) {
+                            for (long hole : holes) {
+                                used |= hole;
+                            }
+                            t.showdown(evaluator, holes, runout(random, board, used, missing), 1);
+                        }
+                    }
+                },
+                Tally::merge);
+        if (tally.samples == 0) {
+            throw new IllegalArgumentException("The ranges block each other completely");
+        }
+        return EquityResult.of(tally, false);
+    }
+
+    /**
+     * Picks one combo per range, proportionally to the weights, retrying a few
+     * times when combos collide. Returns false if no valid deal was found.
+     */
+    private static boolean dealCombos(SplittableRandom random, HandRange[] ranges, double[][] cumulative,
+                                      long[] holes, long used) {
+        for (int attempt = 0; attempt < 16; attempt++) {
+            long taken = used;
+            boolean valid = true;
+            for (int r = 0; r < ranges.length && valid; r++) {
+                double[] weights = cumulative[r];
+                int index = upperBound(weights, random.nextDouble() * weights[weights.length - 1]);
+                holes[r] = ranges[r].combo(index);
+                valid = (taken & holes[r]) == 0;
+                taken |= holes[r];
+            }
+            if (valid) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int upperBound(double[] cumulative, double value) {
+        int low = 0;
+        int high = cumulative.length - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (cumulative[middle] > value) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Completes the board with random cards not in {@code used} (rejection sampling).
+     */
+    private static long runout(SplittableRandom random, long board, long used, int missing) {
+        long runout = board;
+        for (int k = 0; k < missing; k++) {
+            long bit;
+            do {
+                bit = 1L << random.nextInt(CardCodes.DECK_SIZE);
+            } while (((used | runout) & bit) != 0);
+            runout |= bit;
+        }
+        return runout;
+    }
+
+    private void enumerate(Tally tally, long[] holes, long runout, long used, int start, int remaining, double weight) {
+        if (remaining == 0) {
+            tally.showdown(evaluator, holes, runout, weight);
+            return;
+        }
+        for (int code = start; code < CardCodes.DECK_SIZE; code++) {
+            long bit = 1L << code;
+            if ((used & bit) == 0) {
+                enumerate(tally, holes, runout | bit, used, code + 1, remaining - 1, weight);
+            }
+        }
+    }
+
+    private static long binomial(int n, int k) {
+        long result = 1;
+        for (int i = 0; i < k; i++) {
+            result = result * (n - i) / (i + 1);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,80 @@
+package com.pokerapp.service.equity;
+
+import com.pokerapp.domain.game.HandEvaluator;
+
+/**
+ * Showdown counts of one worker. Each task owns its tally; tallies are only
+ * combined after the tasks finished, so no state is shared while counting.
+ */
+final class Tally {
+
+    final double[] wins;
+    final double[] ties;
+    final double[] shares;
+    // Number of showdowns and their total weight (equal unless weighted ranges are used)
+    long samples;
+    double total;
+
+    private final int[] strengths;
+
+    Tally(int players) {
+        wins = new double[players];
+        ties = new double[players];
+        shares = new double[players];
+        strengths = new int[players];
+    }
+
+    /**
+     * Evaluates every hand against the completed board and records the
+     * winner(s), weighting the outcome by {@code weight}.
+     */
+    void showdown(HandEvaluator evaluator, long[] holes, long board, double weight) {
+        int best = -1;
+        int bestCount = 0;
+        for (int i = 0; i < holes.length; i++) {
+            int strength = evaluator.evaluate(holes[i] | board);
+            strengths[i] = strength;
+            if (strength > best) {
+                best = strength;
+                bestCount = 1;
+            } else if (strength == best) {
+                bestCount++;
+            }
+        }
+        for (int i = 0; i < holes.length; i++) {
+            if (strengths[i] == best) {
+                if (bestCount == 1) {
+                    wins[i] += weight;
+                } else {
+                    ties[i] += weight;
+                }
+                shares[i] += weight / bestCount;
+            }
+        }
+        samples++;
+        total += weight;
+    }
+
+    Tally merge(Tally other) {
+        for (int i = 0; i < wins.length; i++) {
+            wins[i] += other.wins[i];
+            ties[i] += other.ties[i];
+            shares[i] += other.shares[i];
+        }
+        samples += other.samples;
+        total += other.total;
+        return this;
+    }
+
+    /**
+     * Returns the widest 95% confidence half-width of the per-player equities.
+     */
+    double confidenceHalfWidth() {
+        double widest = 0;
+        for (double share : shares) {
+            double p = share / total;
+            widest = Math.max(widest, p * (1 - p));
+        }
+        return 1.96 * Math.sqrt(widest / samples);
+    }
+}
@@ -0,0 +1,16 @@
+package com.pokerapp.service.history;
+
+import com.pokerapp.domain.game.Round;
+
+import java.util.List;
+
+/**
+ * Persists finished hands for the {@link HandHistoryWriter}.
+ */
+public interface HandHistoryStore {
+
+    /**
+     * Writes the rounds with their stages and turns, all or nothing.
+     */
+    void saveAll(List<Round> rounds);
+}
@@ -0,0 +1,157 @@
+package com.pokerapp.service.history;
+
+import com.pokerapp.domain.game.Round;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind persistence of finished hands. Tables hand over each round with
+ * its stages and turns once the hand is settled; {@link #submit} never blocks,
+ * so the game loop never waits for the database. A dedicated writer thread
+ * drains the bounded queue (app.history.queueSize) in batches of up to
+ * app.history.batchSize hands, each written in one transaction, and retries a
+ * failed batch app.history.maxRetries times with a growing pause of
+ * app.history.retryMillis before writing its hands one by one. History is
+ * best effort; the players' chips go through the {@link StackWriter}.
+ * <p>
+ * Queue depth and flush latency are published as history.queue and
+ * history.flush; written, dropped (queue full) and failed hands as counters.
+ */
+@Service
+public class HandHistoryWriter {
+    private static final Logger logger = LoggerFactory.getLogger(HandHistoryWriter.class);
+
+    private static final long POLL_MILLIS = 100;
+
+    private final HandHistoryStore store;
+    private final BlockingQueue<Round> queue;
+    private final int batchSize;
+    private final int maxRetries;
+    private final long retryMillis;
+    private final Timer flushTimer;
+    private final Counter written;
+    private final Counter dropped;
+    private final Counter failed;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    @Autowired
+    public HandHistoryWriter(
+            HandHistoryStore store,
+            MeterRegistry meterRegistry,
+            @Value("${app.history.queueSize:10000}") int queueSize,
+            @Value("${app.history.batchSize:100}") int batchSize,
+            @Value("${app.history.maxRetries:3}") int maxRetries,
+            @Value("${app.history.retryMillis:200}") long retryMillis) {
+        if (queueSize < 1 || batchSize < 1 || maxRetries < 0) {
+            throw new IllegalArgumentException("Invalid hand history settings");
+        }
+        this.store = store;
+        this.queue = new ArrayBlockingQueue<>(queueSize);
+        this.batchSize = batchSize;
+        this.maxRetries = maxRetries;
+        this.retryMillis = retryMillis;
+        Gauge.builder("history.queue", queue, BlockingQueue::size).register(meterRegistry);
+        this.flushTimer = Timer.builder("history.flush").register(meterRegistry);
+        this.written = Counter.builder("history.written").register(meterRegistry);
+        this.dropped = Counter.builder("history.dropped").register(meterRegistry);
+        this.failed = Counter.builder("history.failed").register(meterRegistry);
+        this.writer = new Thread(this::write, "hand-history-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Stops taking hands and writes what is queued before returning.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    /**
+     * Queues a finished hand, returning false (and dropping it) if the queue is full.
+     */
+    public boolean submit(Round round) {
+        if (running && queue.offer(round)) {
+            return true;
+        }
+        dropped.increment();
+        logger.warn("Hand history queue is full, dropping round");
+        return false;
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    private void write() {
+        List<Round> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Round first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            queue.drainTo(batch, batchSize - 1);
+            flush(batch);
+            batch.clear();
+        }
+    }
+
+    private void flush(List<Round> batch) {
+        for (int attempt = 0; attempt <= maxRetries; attempt++) {
+            long start = System.nanoTime();
+            try {
+                store.saveAll(batch);
+                flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                written.increment(batch.size());
+                return;
+            } catch (RuntimeException e) {
+                logger.warn("Writing {} hands failed (attempt {})", batch.size(), attempt + 1, e);
+            }
+            if (attempt < maxRetries && !pause(retryMillis * (attempt + 1))) {
+                break;
+            }
+        }
+        // Keep one bad hand from taking the rest of the batch with it
+        for (Round round : batch) {
+            try {
+                store.saveAll(List.of(round));
+                written.increment();
+            } catch (RuntimeException e) {
+                failed.increment();
+                logger.error("Dropping hand that could not be written", e);
+            }
+        }
+    }
+
+    private boolean pause(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            return false;
+        }
+    }
+}
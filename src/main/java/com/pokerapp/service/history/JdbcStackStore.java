@@ -0,0 +1,37 @@
+package com.pokerapp.service.history;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes settled stacks back to the players in one batched update, skipping
+ * players who have left their table since: their chips were set when they
+ * cashed out.
+ */
+@Component
+public class JdbcStackStore implements StackStore {
+
+    private static final String UPDATE_CHIPS =
+            "update players set chips = ? where id = ? and current_table_id is not null";
+
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+
+    public JdbcStackStore(PlatformTransactionManager transactionManager, JdbcTemplate jdbcTemplate) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void saveAll(Map<Long, Integer> stacks) {
+        List<Object[]> rows = new ArrayList<>(stacks.size());
+        stacks.forEach((playerId, chips) -> rows.add(new Object[]{chips, playerId}));
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(UPDATE_CHIPS, rows));
+    }
+}
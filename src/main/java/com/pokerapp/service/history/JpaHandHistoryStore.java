@@ -0,0 +1,103 @@
+package com.pokerapp.service.history;
+
+import com.pokerapp.domain.game.Game;
+import com.pokerapp.domain.game.Round;
+import com.pokerapp.domain.game.Stage;
+import com.pokerapp.domain.game.Turn;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes a batch of hands in one transaction. Rounds, stages, decks and cards
+ * go through JPA; the turns, the bulk of the rows, are inserted with one
+ * batched JDBC statement once their stages have ids. The players' chips are
+ * not touched here; the {@link StackWriter} owns them.
+ */
+@Component
+public class JpaHandHistoryStore implements HandHistoryStore {
+
+    private static final String INSERT_TURN =
+            "insert into turns (player_id, stage_id, starting_bet, ending_bet) values (?, ?, ?, ?)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+
+    public JpaHandHistoryStore(PlatformTransactionManager transactionManager, JdbcTemplate jdbcTemplate) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void saveAll(List<Round> rounds) {
+        // Turns are kept out of the JPA cascade and put back afterwards
+        Map<Stage, List<Turn>> turns = new IdentityHashMap<>();
+        for (Round round : rounds) {
+            for (Stage stage : stages(round)) {
+                turns.put(stage, stage.getTurns());
+                stage.setTurns(new ArrayList<>());
+            }
+        }
+        List<Game> newGames = rounds.stream().map(Round::getGame)
+                .filter(game -> game != null && game.getId() == null).distinct().toList();
+        boolean saved = false;
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                newGames.forEach(entityManager::persist);
+                rounds.forEach(entityManager::persist);
+                entityManager.flush();
+
+                List<Object[]> rows = new ArrayList<>();
+                for (Map.Entry<Stage, List<Turn>> entry : turns.entrySet()) {
+                    for (Turn turn : entry.getValue()) {
+                        rows.add(new Object[]{turn.getPlayer().getId(), entry.getKey().getId(),
+                                turn.getStartingBet(), turn.getEndingBet()});
+                    }
+                }
+                jdbcTemplate.batchUpdate(INSERT_TURN, rows);
+                entityManager.clear();
+            });
+            saved = true;
+        } finally {
+            turns.forEach(Stage::setTurns);
+            if (!saved) {
+                // A rolled back insert still assigned ids; clear them so the batch can be retried
+                rounds.forEach(JpaHandHistoryStore::clearIds);
+                newGames.forEach(game -> game.setId(null));
+            }
+        }
+    }
+
+    private static List<Stage> stages(Round round) {
+        List<Stage> stages = new ArrayList<>(4);
+        for (Stage stage : new Stage[]{round.getPreFlop(), round.getFlop(), round.getTurn(), round.getRiver()}) {
+            if (stage != null) {
+                stages.add(stage);
+            }
+        }
+        return stages;
+    }
+
+    private static void clearIds(Round round) {
+        round.setId(null);
+        round.getCommunityCards().forEach(card -> card.setId(null));
+        if (round.getDeck() != null) {
+            round.getDeck().setId(null);
+        }
+        for (Stage stage : stages(round)) {
+            stage.setId(null);
+            stage.getNewCards().forEach(card -> card.setId(null));
+        }
+    }
+}
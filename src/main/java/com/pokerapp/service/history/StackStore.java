@@ -0,0 +1,14 @@
+package com.pokerapp.service.history;
+
+import java.util.Map;
+
+/**
+ * Persists the chips of players for the {@link StackWriter}.
+ */
+public interface StackStore {
+
+    /**
+     * Sets the chips of each player id, all or nothing.
+     */
+    void saveAll(Map<Long, Integer> stacks);
+}
@@ -0,0 +1,165 @@
+package com.pokerapp.service.history;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind persistence of the chips players hold after each settled hand,
+ * kept apart from the hand history so that a full history queue or a hand
+ * whose rows cannot be written never loses money. Stacks are coalesced per
+ * player, latest first, so the pending set is bounded by the number of
+ * seated players and {@link #submit} never blocks or drops. A dedicated
+ * writer thread writes everything pending in one transaction and retries a
+ * failed write until it succeeds, pausing app.stacks.retryMillis and doubling
+ * up to {@link #MAX_RETRY_MILLIS}.
+ * <p>
+ * {@link #awaitWritten} makes the players' chips in the database current.
+ * Pending stacks are published as stacks.pending; written stacks and failed
+ * writes as counters.
+ */
+@Service
+public class StackWriter {
+    private static final Logger logger = LoggerFactory.getLogger(StackWriter.class);
+
+    static final long MAX_RETRY_MILLIS = 5_000;
+    private static final long SHUTDOWN_MILLIS = 10_000;
+
+    private final StackStore store;
+    private final long retryMillis;
+    private final Counter written;
+    private final Counter failed;
+    private final Thread writer;
+    // Latest stack per player not written yet; guarded by this
+    private Map<Long, Integer> pending = new HashMap<>();
+    // Hands submitted and hands whose stacks are in the database; guarded by this
+    private long submitted;
+    private long done;
+    private volatile boolean running = true;
+
+    @Autowired
+    public StackWriter(
+            StackStore store,
+            MeterRegistry meterRegistry,
+            @Value("${app.stacks.retryMillis:100}") long retryMillis) {
+        if (retryMillis < 1) {
+            throw new IllegalArgumentException("Invalid stack writer settings");
+        }
+        this.store = store;
+        this.retryMillis = retryMillis;
+        Gauge.builder("stacks.pending", this, StackWriter::getPendingCount).register(meterRegistry);
+        this.written = Counter.builder("stacks.written").register(meterRegistry);
+        this.failed = Counter.builder("stacks.failed").register(meterRegistry);
+        this.writer = new Thread(this::write, "stack-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Stops the writer once everything pending is written, waiting a bounded
+     * time. Stacks still pending then are logged; the journal holds them for
+     * the next start.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        synchronized (this) {
+            running = false;
+            notifyAll();
+        }
+        writer.join(SHUTDOWN_MILLIS);
+        int left = getPendingCount();
+        if (left > 0) {
+            logger.error("Stopped with the stacks of {} players unwritten", left);
+        }
+    }
+
+    /**
+     * Queues the stacks of the players of a settled hand, replacing any older
+     * stack of the same player that is still pending.
+     */
+    public synchronized void submit(long[] playerIds, int[] stacks) {
+        for (int seat = 0; seat < playerIds.length; seat++) {
+            pending.put(playerIds[seat], stacks[seat]);
+        }
+        submitted++;
+        notifyAll();
+    }
+
+    /**
+     * Waits until the stacks of every hand submitted before the call are
+     * written, returning false if that takes longer than the timeout.
+     */
+    public synchronized boolean awaitWritten(long timeoutMillis) throws InterruptedException {
+        long target = submitted;
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        while (done < target) {
+            long left = deadline - System.nanoTime();
+            if (left <= 0) {
+                return false;
+            }
+            TimeUnit.NANOSECONDS.timedWait(this, left);
+        }
+        return true;
+    }
+
+    public synchronized int getPendingCount() {
+        return pending.size();
+    }
+
+    private void write() {
+        long pause = retryMillis;
+        while (true) {
+            Map<Long, Integer> batch;
+            long target;
+            synchronized (this) {
+                while (running && done == submitted) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (done == submitted) {
+                    return;
+                }
+                batch = pending;
+                target = submitted;
+                pending = new HashMap<>();
+            }
+            try {
+                if (!batch.isEmpty()) {
+                    store.saveAll(batch);
+                    written.increment(batch.size());
+                }
+                synchronized (this) {
+                    done = target;
+                    notifyAll();
+                }
+                pause = retryMillis;
+            } catch (RuntimeException e) {
+                failed.increment();
+                logger.warn("Writing the stacks of {} players failed, retrying in {} ms", batch.size(), pause, e);
+                synchronized (this) {
+                    // Stacks submitted in the meantime are newer
+                    batch.forEach(pending::putIfAbsent);
+                }
+                try {
+                    Thread.sleep(pause);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+                pause = Math.min(pause * 2, MAX_RETRY_MILLIS);
+            }
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.pokerapp.service.icm;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Independent Chip Model: converts chip stacks into shares of a prize pool.
+ * <p>
+ * Finishing orders follow Malmuth-Harville: each remaining player takes the
+ * next best place with probability stack / remaining chips. Instead of walking
+ * all n! orders, the exact calculation sweeps the subsets of players that
+ * already hold the top places, one state per subset. Only subsets smaller than
+ * the number of paid places are stored and visited, so the cost is O(states * n)
+ * with states = sum of C(n, k) for k below the paid places. When that would be
+ * too many states the result is estimated by sampling finishing orders instead.
+ */
+public class IcmCalculator {
+
+    // Largest field whose subsets fit in an int mask
+    static final int MAX_EXACT_PLAYERS = 30;
+
+    private static final int BATCH_SAMPLES = 4096;
+
+    private final long maxStates;
+    private final long samples;
+
+    public IcmCalculator(long maxStates, long samples) {
+        this.maxStates = maxStates;
+        this.samples = samples;
+    }
+
+    /**
+     * Returns the prize equity of each stack.
+     *
+     * @param stacks  chip counts, all positive
+     * @param payouts prize for first place, second place, ...; places beyond the field are ignored
+     * @throws IllegalArgumentException if a stack is not positive, a payout is negative or nothing is given
+     */
+    public IcmResult calculate(long[] stacks, double[] payouts) {
+        if (stacks.length == 0 || payouts.length == 0) {
+            throw new IllegalArgumentException("Stacks and payouts are required");
+        }
+        for (long stack : stacks) {
+            if (stack <= 0) {
+                throw new IllegalArgumentException("Stacks must be positive");
+            }
+        }
+        for (double payout : payouts) {
+            if (payout < 0 || Double.isNaN(payout)) {
+                throw new IllegalArgumentException("Payouts must not be negative");
+            }
+        }
+        int places = Math.min(stacks.length, payouts.length);
+        if (stacks.length <= MAX_EXACT_PLAYERS && states(stacks.length, places) <= maxStates) {
+            return new IcmResult(exact(stacks, payouts, places), true, 0);
+        }
+        return new IcmResult(monteCarlo(stacks, payouts, places), false, samplesFor());
+    }
+
+    /**
+     * Sweeps the subsets one size at a time. {@code probability[index]} is the
+     * chance that exactly the players in the subset finished in the top
+     * {@code place} places, where the index is the rank of the subset among
+     * those of its size in colex order (the combinatorial number system). The
+     * subsets of a size are enumerated in that order with Gosper's hack, and
+     * adding a player only touches the table of the next size, so only two
+     * levels of at most C(n, places) states are held at a time.
+     */
+    static double[] exact(long[] stacks, double[] payouts, int places) {
+        int players = stacks.length;
+        long total = 0;
+        for (long stack : stacks) {
+            total += stack;
+        }
+        long[][] binomial = binomials(players, places + 1);
+        double[] equities = new double[players];
+        double[] probability = {1.0};
+        int[] members = new int[places];
+        for (int place = 0; place < places; place++) {
+            boolean last = place == places - 1;
+            double[] next = last ? null : new double[(int) binomial[players][place + 1]];
+            int mask = (1 << place) - 1;
+            for (int index = 0; index < probability.length; index++) {
+                if (index > 0) {
+                    int lowest = mask & -mask;
+                    int ripple = mask + lowest;
+                    mask = (((ripple ^ mask) >>> 2) / lowest) | ripple;
+                }
+                if (probability[index] == 0) {
+                    continue;
+                }
+                long chips = 0;
+                // Rank of the subset plus player i: members below i keep their position in the
+                // sum, i takes the next one and the members above i move up by one
+                long below = 0;
+                long above = 0;
+                int count = 0;
+                for (int rest = mask; rest != 0; rest &= rest - 1) {
+                    int member = Integer.numberOfTrailingZeros(rest);
+                    members[count++] = member;
+                    chips += stacks[member];
+                    above += binomial[member][count + 1];
+                }
+                double remaining = total - chips;
+                int passed = 0;
+                for (int i = 0; i < players; i++) {
+                    if (passed < count && members[passed] == i) {
+                        passed++;
+                        below += binomial[i][passed];
+                        above -= binomial[i][passed + 1];
+                        continue;
+                    }
+                    double chance = probability[index] * stacks[i] / remaining;
+                    equities[i] += chance * payouts[place];
+                    if (!last) {
+                        next[(int) (below + binomial[i][passed + 1] + above)] += chance;
+                    }
+                }
+            }
+            probability = next;
+        }
+        return equities;
+    }
+
+    /**
+     * Pascal's triangle up to {@code n} choose {@code k}; entries with k > n are 0.
+     */
+    private static long[][] binomials(int n, int k) {
+        long[][] binomial = new long[n + 1][k + 1];
+        for (int i = 0; i <= n; i++) {
+            binomial[i][0] = 1;
+            for (int j = 1; j <= Math.min(i, k); j++) {
+                binomial[i][j] = binomial[i - 1][j - 1] + binomial[i - 1][j];
+            }
+        }
+        return binomial;
+    }
+
+    /**
+     * Samples finishing orders in parallel. A Harville order is the order of
+     * exponential arrival times with rate proportional to the stack, so each
+     * sample draws one time per player and sorts.
+     */
+    private double[] monteCarlo(long[] stacks, double[] payouts, int places) {
+        int batches = (int) Math.max(1, samples / BATCH_SAMPLES);
+        double[] totals = IntStream.range(0, batches).parallel().mapToObj(batch -> {
+            SplittableRandom random = new SplittableRandom(batch);
+            double[] equities = new double[stacks.length];
+            double[] times = new double[stacks.length];
+            Integer[] order = new Integer[stacks.length];
+            for (int n = 0; n < BATCH_SAMPLES; n++) {
+                for (int i = 0; i < stacks.length; i++) {
+                    times[i] = -Math.log(1.0 - random.nextDouble()) / stacks[i];
+                    order[i] = i;
+                }
+                Arrays.sort(order, (a, b) -> Double.compare(times[a], times[b]));
+                for (int place = 0; place < places; place++) {
+                    equities[order[place]] += payouts[place];
+                }
+            }
+            return equities;
+        }).reduce(new double[stacks.length], (a, b) -> {
+            double[] sum = new double[a.length];
+            for (int i = 0; i < a.length; i++) {
+                sum[i] = a[i] + b[i];
+            }
+            return sum;
+        });
+        long drawn = (long) batches * BATCH_SAMPLES;
+        for (int i = 0; i < totals.length; i++) {
+            totals[i] /= drawn;
+        }
+        return totals;
+    }
+
+    private long samplesFor() {
+        return Math.max(1, samples / BATCH_SAMPLES) * BATCH_SAMPLES;
+    }
+
+    /**
+     * Number of subsets smaller than {@code places}, i.e. the states the exact sweep expands.
+     */
+    static long states(int players, int places) {
+        long states = 0;
+        long binomial = 1;
+        for (int k = 0; k < places; k++) {
+            states += binomial;
+            binomial = binomial * (players - k) / (k + 1);
+        }
+        return states;
+    }
+}
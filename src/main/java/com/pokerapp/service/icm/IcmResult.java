@@ -0,0 +1,17 @@
+package com.pokerapp.service.icm;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Prize equity per stack, in the order the stacks were given. Sampled results
+ * carry the number of finishing orders drawn; exact results report 0.
+ */
+@Getter
+@AllArgsConstructor
+public class IcmResult {
+
+    private final double[] equities;
+    private final boolean exact;
+    private final long samples;
+}
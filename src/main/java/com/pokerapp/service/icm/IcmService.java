@@ -0,0 +1,168 @@
+package com.pokerapp.service.icm;
+
+import com.pokerapp.api.dto.request.IcmRequestDto;
+import com.pokerapp.api.dto.response.IcmDto;
+import com.pokerapp.api.dto.response.IcmEquityDto;
+import com.pokerapp.domain.user.Player;
+import com.pokerapp.service.TableService;
+import com.pokerapp.session.TableEngine;
+import com.pokerapp.session.journal.TableSnapshot;
+import com.pokerapp.websocket.TableWebSocketHandler;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Tournament equity (ICM) for arbitrary stacks and for the players seated at a table.
+ * The exact subset sweep is used while it needs at most app.icm.maxStates states;
+ * larger fields are sampled (app.icm.samples finishing orders).
+ */
+@Service
+public class IcmService {
+
+    private static final long SNAPSHOT_TIMEOUT_SECONDS = 5;
+
+    private final TableService tableService;
+    private final TableEngine tableEngine;
+    private final TableWebSocketHandler webSocketHandler;
+    private final IcmCalculator calculator;
+
+    @Autowired
+    public IcmService(
+            TableService tableService,
+            TableEngine tableEngine,
+            TableWebSocketHandler webSocketHandler,
+            @Value("${app.icm.maxStates:1048576}") long maxStates,
+            @Value("${app.icm.samples:200000}") long samples) {
+        this.tableService = tableService;
+        this.tableEngine = tableEngine;
+        this.webSocketHandler = webSocketHandler;
+        this.calculator = new IcmCalculator(maxStates, samples);
+    }
+
+    public IcmResult calculate(long[] stacks, double[] payouts) {
+        return calculator.calculate(stacks, payouts);
+    }
+
+    /**
+     * Computes the prize equity of the given stacks.
+     */
+    public IcmDto calculate(IcmRequestDto request) {
+        if (request.getStacks() == null || request.getStacks().isEmpty()) {
+            throw new IllegalArgumentException("Stacks are required");
+        }
+        long[] stacks = request.getStacks().stream().mapToLong(Long::longValue).toArray();
+        IcmResult result = calculate(stacks, payouts(request));
+
+        List<IcmEquityDto> players = new ArrayList<>();
+        for (int i = 0; i < stacks.length; i++) {
+            players.add(new IcmEquityDto(null, stacks[i], result.getEquities()[i]));
+        }
+        return convertToDto(players, result);
+    }
+
+    /**
+     * Computes the prize equity of every player with chips at the table, ordered
+     * by player id, and sends it to the table as an ICM_UPDATE message.
+     *
+     * @throws IllegalStateException if fewer than two players have chips, or the table or the
+     *                               stacks of its last hands could not be read in time
+     */
+    public IcmDto publishTable(Long tableId, IcmRequestDto request) {
+        Map<Long, Integer> chips = tableStacks(tableId);
+        List<Long> seated = new ArrayList<>();
+        chips.forEach((playerId, stack) -> {
+            if (stack != null && stack > 0) {
+                seated.add(playerId);
+            }
+        });
+        if (seated.size() < 2) {
+            throw new IllegalStateException("At least two players with chips are required");
+        }
+        seated.sort(Comparator.naturalOrder());
+
+        long[] stacks = seated.stream().mapToLong(chips::get).toArray();
+        IcmResult result = calculate(stacks, payouts(request));
+
+        List<IcmEquityDto> players = new ArrayList<>();
+        List<Map<String, Object>> entries = new ArrayList<>();
+        for (int i = 0; i < seated.size(); i++) {
+            Long playerId = seated.get(i);
+            players.add(new IcmEquityDto(playerId, stacks[i], result.getEquities()[i]));
+
+            Map<String, Object> entry = new HashMap<>();
+            entry.put("playerId", playerId);
+            entry.put("chips", stacks[i]);
+            entry.put("equity", result.getEquities()[i]);
+            entries.add(entry);
+        }
+
+        Map<String, Object> message = new HashMap<>();
+        message.put("type", "ICM_UPDATE");
+        message.put("tableId", tableId);
+        message.put("exact", result.isExact());
+        message.put("players", entries);
+        webSocketHandler.sendToTable(tableId, message);
+
+        return convertToDto(players, result);
+    }
+
+    /**
+     * Returns the stack of every player at the table. A running game is asked
+     * through its actor, taking the stacks from before the blinds while a hand
+     * is in progress; otherwise the stacks written back after the last hands are read.
+     */
+    private Map<Long, Integer> tableStacks(Long tableId) {
+        TableSnapshot snapshot;
+        try {
+            snapshot = tableEngine.snapshot(tableId).get(SNAPSHOT_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while reading the table");
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("The table did not respond, try again");
+        }
+
+        Map<Long, Integer> stacks = new HashMap<>();
+        if (snapshot != null) {
+            for (int seat = 0; seat < snapshot.playerIds().length; seat++) {
+                stacks.put(snapshot.playerIds()[seat], snapshot.chips()[seat]);
+            }
+            TableSnapshot.Hand current = snapshot.current();
+            if (current != null) {
+                for (int seat = 0; seat < current.playerIds().length; seat++) {
+                    stacks.replace(current.playerIds()[seat], current.startingStacks()[seat]);
+                }
+            }
+            return stacks;
+        }
+        if (!tableEngine.awaitStacksWritten(TimeUnit.SECONDS.toMillis(SNAPSHOT_TIMEOUT_SECONDS))) {
+            throw new IllegalStateException("The stacks of the last hands are still being saved, try again");
+        }
+        for (Player player : tableService.getTableEntityById(tableId).getPlayers()) {
+            stacks.put(player.getId(), player.getChips());
+        }
+        return stacks;
+    }
+
+    private static double[] payouts(IcmRequestDto request) {
+        return request.getPayouts().stream().mapToDouble(Double::doubleValue).toArray();
+    }
+
+    private static IcmDto convertToDto(List<IcmEquityDto> players, IcmResult result) {
+        IcmDto dto = new IcmDto();
+        dto.setPlayers(players);
+        dto.setExact(result.isExact());
+        dto.setSamples(result.getSamples());
+        return dto;
+    }
+}
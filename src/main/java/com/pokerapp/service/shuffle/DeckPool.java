@@ -0,0 +1,92 @@
+package com.pokerapp.service.shuffle;
+
+import com.pokerapp.domain.card.ShuffleSeed;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded, lock-free pool of {@link PreparedDeck}s for one deck (e.g. the deck
+ * of a game variant). A background producer calls {@link #fill()}; tables take
+ * a deck in O(1) at hand start and only shuffle inline (seed from
+ * {@code SecureRandom}, commitment hash and Fisher-Yates) when the pool has run
+ * dry, which is counted as a starvation.
+ */
+public class DeckPool {
+
+    private final long cards;
+    private final int capacity;
+    private final Queue<PreparedDeck> decks = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger depth = new AtomicInteger();
+    private final LongAdder taken = new LongAdder();
+    private final LongAdder starved = new LongAdder();
+
+    public DeckPool(long cards, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Pool capacity must be positive");
+        }
+        this.cards = cards;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Takes a prepared deck, shuffling one inline if the pool is empty.
+     */
+    public PreparedDeck take() {
+        taken.increment();
+        PreparedDeck deck = decks.poll();
+        if (deck == null) {
+            starved.increment();
+            return prepare(cards);
+        }
+        depth.decrementAndGet();
+        return deck;
+    }
+
+    /**
+     * Prepares decks until the pool is full and returns how many were added.
+     * Meant for a single producer thread.
+     */
+    public int fill() {
+        int added = 0;
+        while (depth.get() < capacity) {
+            decks.offer(prepare(cards));
+            depth.incrementAndGet();
+            added++;
+        }
+        return added;
+    }
+
+    /**
+     * Shuffles a deck of the given cards from a new seed.
+     */
+    public static PreparedDeck prepare(long cards) {
+        ShuffleSeed seed = ShuffleSeed.generate();
+        return new PreparedDeck(seed, seed.commitment(), seed.deckOrder(cards));
+    }
+
+    public long getCards() {
+        return cards;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getDepth() {
+        return depth.get();
+    }
+
+    public long getTaken() {
+        return taken.sum();
+    }
+
+    /**
+     * Returns how often a table found the pool empty and had to shuffle inline.
+     */
+    public long getStarved() {
+        return starved.sum();
+    }
+}
@@ -0,0 +1,17 @@
+package com.pokerapp.service.shuffle;
+
+import com.pokerapp.domain.card.ShuffleSeed;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A shuffle computed ahead of the hand: the seed, its commitment and the deck order it produces.
+ */
+@Getter
+@AllArgsConstructor
+public class PreparedDeck {
+    private final ShuffleSeed seed;
+    private final String commitment;
+    // Card codes from the top of the deck
+    private final byte[] order;
+}
@@ -0,0 +1,156 @@
+package com.pokerapp.service.shuffle;
+
+import com.pokerapp.api.dto.request.ShuffleVerificationRequestDto;
+import com.pokerapp.api.dto.response.ShuffleVerificationDto;
+import com.pokerapp.domain.card.CardCodes;
+import com.pokerapp.domain.card.ShuffleSeed;
+import com.pokerapp.domain.game.GameVariant;
+import com.pokerapp.websocket.TableWebSocketHandler;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Deals out pre-shuffled decks, publishes the shuffle commitment of every hand
+ * when it starts and the seed when it ends, and rebuilds deck orders from
+ * revealed seeds so players can verify a hand.
+ * <p>
+ * Each game variant has a {@link DeckPool} of app.shuffle.poolSize decks that a
+ * low-priority background thread refills, checking every app.shuffle.refillMs
+ * and as soon as a pool drops below half. Pool depth, taken decks and
+ * starvations (inline shuffles on an empty pool) are published as the
+ * "shuffle.pool.*" metrics, tagged by variant.
+ */
+@Service
+public class ShuffleService {
+    private static final Logger logger = LoggerFactory.getLogger(ShuffleService.class);
+
+    private final TableWebSocketHandler webSocketHandler;
+    private final Map<GameVariant, DeckPool> pools = new EnumMap<>(GameVariant.class);
+    private final long refillNanos;
+    private final Thread producer;
+    private volatile boolean running = true;
+
+    @Autowired
+    public ShuffleService(
+            TableWebSocketHandler webSocketHandler,
+            MeterRegistry meterRegistry,
+            @Value("${app.shuffle.poolSize:64}") int poolSize,
+            @Value("${app.shuffle.refillMs:50}") long refillMs) {
+        this.webSocketHandler = webSocketHandler;
+        this.refillNanos = TimeUnit.MILLISECONDS.toNanos(refillMs);
+        for (GameVariant variant : GameVariant.values()) {
+            DeckPool pool = new DeckPool(variant.getDeck(), poolSize);
+            pools.put(variant, pool);
+            Gauge.builder("shuffle.pool.depth", pool, DeckPool::getDepth)
+                    .tag("variant", variant.name())
+                    .register(meterRegistry);
+            FunctionCounter.builder("shuffle.pool.taken", pool, DeckPool::getTaken)
+                    .tag("variant", variant.name())
+                    .register(meterRegistry);
+            FunctionCounter.builder("shuffle.pool.starved", pool, DeckPool::getStarved)
+                    .tag("variant", variant.name())
+                    .register(meterRegistry);
+        }
+        this.producer = new Thread(this::produce, "deck-pool-producer");
+        producer.setDaemon(true);
+        producer.setPriority(Thread.MIN_PRIORITY);
+        producer.start();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        LockSupport.unpark(producer);
+    }
+
+    private void produce() {
+        while (running) {
+            try {
+                for (DeckPool pool : pools.values()) {
+                    pool.fill();
+                }
+            } catch (RuntimeException e) {
+                logger.error("Failed to refill the deck pool: {}", e.getMessage());
+            }
+            LockSupport.parkNanos(refillNanos);
+        }
+    }
+
+    /**
+     * Takes a shuffled deck for the next hand in O(1), shuffling inline if the variant's pool is empty.
+     */
+    public PreparedDeck takeDeck(GameVariant variant) {
+        DeckPool pool = pools.get(variant);
+        PreparedDeck deck = pool.take();
+        if (pool.getDepth() < pool.getCapacity() / 2) {
+            LockSupport.unpark(producer);
+        }
+        return deck;
+    }
+
+    public DeckPool getPool(GameVariant variant) {
+        return pools.get(variant);
+    }
+
+    /**
+     * Sends the SHA-256 commitment of the hand's seed to the table as a SHUFFLE_COMMITMENT message.
+     */
+    public void publishCommitment(Long tableId, long hand, PreparedDeck deck) {
+        Map<String, Object> message = new HashMap<>();
+        message.put("type", "SHUFFLE_COMMITMENT");
+        message.put("tableId", tableId);
+        message.put("hand", hand);
+        message.put("commitment", deck.getCommitment());
+        webSocketHandler.sendToTable(tableId, message);
+    }
+
+    /**
+     * Reveals the seed of a finished hand to the table as a SHUFFLE_REVEAL message.
+     */
+    public void publishReveal(Long tableId, long hand, ShuffleSeed seed) {
+        Map<String, Object> message = new HashMap<>();
+        message.put("type", "SHUFFLE_REVEAL");
+        message.put("tableId", tableId);
+        message.put("hand", hand);
+        message.put("seed", seed.toString());
+        message.put("commitment", seed.commitment());
+        webSocketHandler.sendToTable(tableId, message);
+    }
+
+    /**
+     * Rebuilds the deck order of a revealed seed and checks it against the published commitment, if given.
+     *
+     * @throws IllegalArgumentException if the seed is not 64 hex digits
+     */
+    public ShuffleVerificationDto verify(ShuffleVerificationRequestDto request) {
+        ShuffleSeed seed = ShuffleSeed.parse(request.getSeed());
+        GameVariant variant = request.getVariant() == null ? GameVariant.HOLDEM : request.getVariant();
+
+        List<String> cards = new ArrayList<>();
+        for (byte code : seed.deckOrder(variant.getDeck())) {
+            cards.add(CardCodes.toString(code));
+        }
+
+        ShuffleVerificationDto dto = new ShuffleVerificationDto();
+        dto.setCommitment(seed.commitment());
+        dto.setCommitmentMatches(request.getCommitment() == null ? null : seed.matches(request.getCommitment()));
+        dto.setVariant(variant);
+        dto.setCards(cards);
+        return dto;
+    }
+}
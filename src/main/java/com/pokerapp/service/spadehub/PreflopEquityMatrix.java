@@ -0,0 +1,126 @@
+package com.pokerapp.service.spadehub;
+
+import com.pokerapp.domain.card.CardCodes;
+import com.pokerapp.domain.card.HandRange;
+import com.pokerapp.domain.game.HandEvaluator;
+import com.pokerapp.service.equity.RangeEquityCalculator;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * All-in equity of each of the 169 starting hand classes against 1 to 8 random
+ * hands. Cells follow the 13x13 grid: index {@code x * 13 + y} with rank indices
+ * (deuce 0, ace 12); {@code x == y} is a pair, {@code x < y} suited and
+ * {@code x > y} offsuit.
+ * <p>
+ * The matrix is computed offline by {@code com.pokerapp.tools.PreflopEquityMatrixGenerator}
+ * and stored as a header followed by one big-endian float per cell and player count.
+ */
+public final class PreflopEquityMatrix {
+
+    public static final int MAGIC = 0x50464551; // "PFEQ"
+    public static final int VERSION = 1;
+    public static final int MIN_PLAYERS = 2;
+    public static final int MAX_PLAYERS = 9;
+    public static final int CLASS_COUNT = CardCodes.RANK_COUNT * CardCodes.RANK_COUNT;
+
+    private static final String RANKS = "23456789TJQKA";
+
+    // equities[players - MIN_PLAYERS][cell]
+    private final float[][] equities;
+
+    private PreflopEquityMatrix(float[][] equities) {
+        this.equities = equities;
+    }
+
+    /**
+     * Computes the matrix with {@code samples} showdowns per cell. Each cell is
+     * sampled in parallel on the common fork-join pool.
+     */
+    public static PreflopEquityMatrix compute(HandEvaluator evaluator, long samples) {
+        HandRange random = HandRange.parse("random");
+        float[][] equities = new float[MAX_PLAYERS - MIN_PLAYERS + 1][CLASS_COUNT];
+        for (int players = MIN_PLAYERS; players <= MAX_PLAYERS; players++) {
+            RangeEquityCalculator calculator = new RangeEquityCalculator(evaluator, samples * players);
+            List<HandRange> ranges = new ArrayList<>(Collections.nCopies(players, random));
+            for (int cell = 0; cell < CLASS_COUNT; cell++) {
+                ranges.set(0, HandRange.parse(notation(cell)));
+                equities[players - MIN_PLAYERS][cell] = (float) calculator.calculate(ranges, 0L, 0L).getEquity()[0];
+            }
+        }
+        return new PreflopEquityMatrix(equities);
+    }
+
+    /**
+     * @throws IOException if the stream does not hold a matrix of this version
+     */
+    public static PreflopEquityMatrix read(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != MAGIC || data.readInt() != VERSION) {
+            throw new IOException("Not a preflop equity matrix");
+        }
+        if (data.readInt() != MIN_PLAYERS || data.readInt() != MAX_PLAYERS || data.readInt() != CLASS_COUNT) {
+            throw new IOException("Preflop equity matrix has unexpected dimensions");
+        }
+        float[][] equities = new float[MAX_PLAYERS - MIN_PLAYERS + 1][CLASS_COUNT];
+        for (float[] row : equities) {
+            for (int cell = 0; cell < CLASS_COUNT; cell++) {
+                row[cell] = data.readFloat();
+            }
+        }
+        return new PreflopEquityMatrix(equities);
+    }
+
+    public void write(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        data.writeInt(MIN_PLAYERS);
+        data.writeInt(MAX_PLAYERS);
+        data.writeInt(CLASS_COUNT);
+        for (float[] row : equities) {
+            for (float equity : row) {
+                data.writeFloat(equity);
+            }
+        }
+        data.flush();
+    }
+
+    public float equity(int players, int cell) {
+        if (players < MIN_PLAYERS || players > MAX_PLAYERS) {
+            throw new IllegalArgumentException("Players must be between " + MIN_PLAYERS + " and " + MAX_PLAYERS);
+        }
+        return equities[players - MIN_PLAYERS][cell];
+    }
+
+    public static int cell(int x, int y) {
+        return x * CardCodes.RANK_COUNT + y;
+    }
+
+    /**
+     * Returns the number of card combinations of the class: 6 pairs, 4 suited or 12 offsuit.
+     */
+    public static int combos(int cell) {
+        int x = cell / CardCodes.RANK_COUNT;
+        int y = cell % CardCodes.RANK_COUNT;
+        return x == y ? 6 : x < y ? 4 : 12;
+    }
+
+    /**
+     * Returns the class in range notation, e.g. "TT", "AKs" or "72o".
+     */
+    public static String notation(int cell) {
+        int x = cell / CardCodes.RANK_COUNT;
+        int y = cell % CardCodes.RANK_COUNT;
+        char high = RANKS.charAt(Math.max(x, y));
+        char low = RANKS.charAt(Math.min(x, y));
+        return x == y ? "" + high + low : "" + high + low + (x < y ? 's' : 'o');
+    }
+}
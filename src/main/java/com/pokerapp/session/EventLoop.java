@@ -0,0 +1,114 @@
+package com.pokerapp.session;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Single-threaded event loop that owns a fixed share of the tables (see
+ * {@link EventLoopGroup}). Tasks are queued lock-free and run in order on the
+ * loop's own thread, which parks while the queue is empty. Publishes its queue
+ * depth, the lag between queueing and running a task, and the hands started on
+ * its tables as "engine.loop.*" metrics tagged with the loop index.
+ */
+public class EventLoop implements Executor {
+    private static final Logger logger = LoggerFactory.getLogger(EventLoop.class);
+
+    private record Task(Runnable runnable, long queuedNanos) {
+    }
+
+    private final int index;
+    private final Queue<Task> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger depth = new AtomicInteger();
+    private final Thread thread;
+    private final Timer lag;
+    private final Counter hands;
+    private volatile boolean waiting;
+    private volatile boolean running = true;
+
+    public EventLoop(int index, MeterRegistry meterRegistry) {
+        this.index = index;
+        String loop = Integer.toString(index);
+        Gauge.builder("engine.loop.queue", depth, AtomicInteger::get).tag("loop", loop).register(meterRegistry);
+        this.lag = Timer.builder("engine.loop.lag").tag("loop", loop).register(meterRegistry);
+        this.hands = Counter.builder("engine.loop.hands").tag("loop", loop).register(meterRegistry);
+        this.thread = new Thread(this::run, "table-loop-" + index);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void execute(Runnable runnable) {
+        if (!running) {
+            throw new IllegalStateException("Event loop " + index + " is shut down");
+        }
+        queue.offer(new Task(runnable, System.nanoTime()));
+        depth.incrementAndGet();
+        if (waiting) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    private void run() {
+        while (running) {
+            Task task = queue.poll();
+            if (task == null) {
+                waiting = true;
+                // Checked again after announcing the wait, so a concurrent execute either sees it or is seen here
+                if (queue.isEmpty()) {
+                    LockSupport.park(this);
+                }
+                waiting = false;
+                continue;
+            }
+            depth.decrementAndGet();
+            lag.record(System.nanoTime() - task.queuedNanos(), TimeUnit.NANOSECONDS);
+            try {
+                task.runnable().run();
+            } catch (RuntimeException e) {
+                logger.error("Task failed on event loop {}: {}", index, e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Counts a hand started on one of the loop's tables.
+     */
+    void handStarted() {
+        hands.increment();
+    }
+
+    public void shutdown() {
+        running = false;
+        LockSupport.unpark(thread);
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public int getQueueDepth() {
+        return depth.get();
+    }
+
+    public long getHandsStarted() {
+        return (long) hands.count();
+    }
+
+    /**
+     * Returns whether the calling thread is this loop's thread.
+     */
+    public boolean inLoop() {
+        return Thread.currentThread() == thread;
+    }
+}
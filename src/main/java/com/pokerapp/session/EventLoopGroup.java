@@ -0,0 +1,46 @@
+package com.pokerapp.session;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Fixed set of {@link EventLoop}s with table-to-loop affinity: a table id is
+ * hashed to the same loop for its whole life, so all commands of a table run
+ * on one thread and its state stays in that core's cache without any locking.
+ */
+public class EventLoopGroup {
+
+    private final EventLoop[] loops;
+
+    public EventLoopGroup(int size, MeterRegistry meterRegistry) {
+        if (size < 1) {
+            throw new IllegalArgumentException("At least one event loop is required");
+        }
+        loops = new EventLoop[size];
+        for (int i = 0; i < size; i++) {
+            loops[i] = new EventLoop(i, meterRegistry);
+        }
+    }
+
+    /**
+     * Returns the loop that owns the table.
+     */
+    public EventLoop loopFor(long tableId) {
+        // Fibonacci hashing spreads both sequential and strided ids
+        int hash = (int) ((tableId * 0x9E3779B97F4A7C15L) >>> 32);
+        return loops[Math.floorMod(hash, loops.length)];
+    }
+
+    public int size() {
+        return loops.length;
+    }
+
+    public EventLoop get(int index) {
+        return loops[index];
+    }
+
+    public void shutdown() {
+        for (EventLoop loop : loops) {
+            loop.shutdown();
+        }
+    }
+}
@@ -1,56 +1,332 @@
 package com.pokerapp.session;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+import com.pokerapp.domain.card.ShuffleSeed;
+import com.pokerapp.domain.card.ShuffledDeck;
 import com.pokerapp.domain.game.Game;
+import com.pokerapp.domain.game.GameVariant;
+import com.pokerapp.domain.game.Round;
 import com.pokerapp.domain.user.Player;
+import com.pokerapp.domain.user.PlayerStatus;
+import com.pokerapp.service.equity.EquityService;
+import com.pokerapp.service.shuffle.DeckPool;
+import com.pokerapp.service.shuffle.PreparedDeck;
+import com.pokerapp.service.shuffle.ShuffleService;
+import com.pokerapp.session.journal.HandJournal;
+import com.pokerapp.session.journal.TableSnapshot;
 
+/**
+ * State of the game at one table: the seated players, the button, the deck and
+ * the hand in progress. Only its {@link TableActor} calls {@link #handle}, one
+ * command at a time, so nothing here is synchronized. A finished hand queues
+ * the next one right away instead of being polled for.
+ */
+public class GameSession {
 
-public class GameSession extends Thread {
-
-    private int bigBlind;
+    private final Long tableId;
+    private final GameVariant variant;
+    private final TableEngine engine;
+    private final Game game = new Game();
+    private final List<Player> seated = new ArrayList<>();
+    // Time bank left per player id, granted once when they are seated
+    private final Map<Long, Long> timeBanks = new HashMap<>();
+    private final Set<Long> disconnected = new HashSet<>();
+    // Reloaded in place for every hand with the order of a pre-shuffled deck
+    private final ShuffledDeck deck;
+    private PreparedDeck prepared;
     private RoundSession currentRound;
-    private List<Player> currentPlayers;
-    private boolean roundRunning;
-   
-    @Override
-    public void run() {
-        Game game = new Game();
-        startRound(game);
-        while (roundRunning) {
-            try {
-                Thread.sleep(100);
-            } catch (InterruptedException e) {
-                // TODO: missing error Handling
-                e.printStackTrace();
+    private int bigBlind;
+    private int button = -1;
+    private long handNumber;
+    private boolean running;
+
+    public GameSession(Long tableId, GameVariant variant, TableEngine engine) {
+        this.tableId = tableId;
+        this.variant = variant == null ? GameVariant.HOLDEM : variant;
+        this.engine = engine;
+        this.prepared = DeckPool.prepare(this.variant.getDeck());
+        this.deck = new ShuffledDeck(this.variant.getDeck(), prepared.getSeed().random());
+    }
+
+    /**
+     * Applies one command from the mailbox.
+     *
+     * @throws IllegalStateException if the command is not allowed in the current state
+     */
+    void handle(TableCommand command) {
+        switch (command.getType()) {
+            case START -> start(command.getAmount(), command.getPlayers());
+            case JOIN -> join(command.getPlayers());
+            case LEAVE -> command.getStack().complete(leave(command.getPlayerId()));
+            case DISCONNECT -> disconnect(command.getPlayerId());
+            case RECONNECT -> reconnect(command.getPlayerId());
+            case NEXT_HAND -> nextHand();
+            case SNAPSHOT -> command.getSnapshot().complete(running ? snapshot() : null);
+            case PLAYER_ACTION -> currentRound().act(command.getPlayerId(), command.getAction(), command.getAmount());
+            case TIMEOUT -> {
+                if (currentRound != null) {
+                    currentRound.timeout(command.getPlayerId(), command.getTurn());
+                }
             }
-            
+            case EQUITY -> equity(command.getTurn(), command.getWinProbabilities());
+            case STOP -> stop();
         }
-        startRound(game);
     }
-    
-    public void startGame(int bigBlind) {
+
+    /**
+     * Picks up a table recovered after a restart where it left off: same
+     * blinds, button, hand count and time banks. The seated players count as
+     * disconnected until they subscribe to the table again.
+     */
+    void restore(int bigBlind, int button, long handNumber, List<Player> players, Map<Long, Long> timeBanks) {
         this.bigBlind = bigBlind;
-        this.start();
-    }   
+        this.button = button;
+        this.handNumber = handNumber;
+        this.running = true;
+        for (Player player : players) {
+            seated.add(player);
+            this.timeBanks.put(player.getId(),
+                    timeBanks.getOrDefault(player.getId(), engine.getTurnClock().timeBankMillis()));
+            disconnected.add(player.getId());
+        }
+    }
+
+    private void start(int bigBlind, List<Player> players) {
+        if (bigBlind < 2) {
+            throw new IllegalArgumentException("Big blind must be at least 2");
+        }
+        this.bigBlind = bigBlind;
+        this.running = true;
+        join(players);
+    }
+
+    private void join(List<Player> players) {
+        for (Player player : players) {
+            if (seated.stream().noneMatch(p -> p.getId().equals(player.getId()))) {
+                seated.add(player);
+                timeBanks.put(player.getId(), engine.getTurnClock().timeBankMillis());
+            }
+        }
+        if (running && currentRound == null) {
+            nextHand();
+        }
+    }
+
+    /**
+     * Folds the player's hand and unseats them, returning the chips they leave
+     * with, or null if they were not seated.
+     */
+    private Integer leave(Long playerId) {
+        if (currentRound != null) {
+            currentRound.leave(playerId);
+        }
+        if (engine.getJournal() != null) {
+            engine.getJournal().playerLeft(tableId, handNumber, playerId);
+        }
+        Integer stack = null;
+        for (Player player : seated) {
+            if (player.getId().equals(playerId)) {
+                stack = player.getChips() == null ? 0 : player.getChips();
+            }
+        }
+        seated.removeIf(p -> p.getId().equals(playerId));
+        timeBanks.remove(playerId);
+        disconnected.remove(playerId);
+        return stack;
+    }
 
-    public void startRound(Game game) {
+    private void disconnect(Long playerId) {
+        if (seated.stream().noneMatch(p -> p.getId().equals(playerId)) || !disconnected.add(playerId)) {
+            return;
+        }
         if (currentRound != null) {
-            try {
-                currentRound.join();
-            } catch (InterruptedException e) {
-                // TODO: missing error Handling
-                e.printStackTrace();
+            currentRound.disconnect(playerId);
+        }
+        sendConnection("PLAYER_DISCONNECTED", playerId);
+    }
+
+    private void reconnect(Long playerId) {
+        if (disconnected.remove(playerId)) {
+            sendConnection("PLAYER_RECONNECTED", playerId);
+        }
+    }
+
+    private void sendConnection(String type, Long playerId) {
+        Map<String, Object> message = new HashMap<>();
+        message.put("type", type);
+        message.put("tableId", tableId);
+        message.put("playerId", playerId);
+        engine.sendToTable(tableId, message);
+    }
+
+    private void nextHand() {
+        if (!running || currentRound != null) {
+            return;
+        }
+        List<Player> players = new ArrayList<>();
+        for (Player player : seated) {
+            if (player.getChips() != null && player.getChips() > 0) {
+                player.setStatus(PlayerStatus.ACTIVE);
+                players.add(player);
+            } else {
+                player.setStatus(PlayerStatus.SITTING_OUT);
             }
         }
-        currentRound = new RoundSession(this, game, currentPlayers, null, 0);
+        if (players.size() < 2) {
+            Map<String, Object> message = new HashMap<>();
+            message.put("type", "WAITING_FOR_PLAYERS");
+            message.put("tableId", tableId);
+            engine.sendToTable(tableId, message);
+            return;
+        }
+        button = (button + 1) % players.size();
+        shuffle();
+        engine.handStarted(tableId);
+        currentRound = new RoundSession(this, game, players, button);
         currentRound.start();
-        roundRunning = true;
     }
 
-    public void setRoundRunning(boolean state) {
-        roundRunning = state;
+    /**
+     * Called by the hand when it is settled; reveals the shuffle and deals the next hand.
+     */
+    void roundFinished(Round round) {
+        revealShuffle();
+        currentRound = null;
+        engine.recordHand(round);
+        engine.submit(tableId, TableCommand.nextHand());
+    }
+
+    /**
+     * Sets the win probability of the seated players from the equities of the
+     * current hand; folded players have none left.
+     */
+    private void equity(long hand, Map<Long, Double> winProbabilities) {
+        if (currentRound == null || hand != handNumber) {
+            return;
+        }
+        for (Player player : seated) {
+            player.setWinProbability(winProbabilities.getOrDefault(player.getId(), 0.0));
+        }
+    }
+
+    private void stop() {
+        if (currentRound != null) {
+            currentRound.abort();
+            currentRound = null;
+        }
+        running = false;
+        if (engine.getEquityService() != null) {
+            engine.getEquityService().forget(tableId);
+        }
+    }
+
+    /**
+     * Copies the state of the table; only the arrays are built here, encoding happens elsewhere.
+     */
+    private TableSnapshot snapshot() {
+        long[] playerIds = new long[seated.size()];
+        int[] chips = new int[seated.size()];
+        long[] banks = new long[seated.size()];
+        for (int seat = 0; seat < playerIds.length; seat++) {
+            Player player = seated.get(seat);
+            playerIds[seat] = player.getId();
+            chips[seat] = player.getChips() == null ? 0 : player.getChips();
+            banks[seat] = getTimeBank(player.getId());
+        }
+        HandJournal journal = engine.getJournal();
+        return new TableSnapshot(tableId, journal != null ? journal.getSequence() : 0, variant, bigBlind, button,
+                handNumber, playerIds, chips, banks, currentRound != null ? currentRound.snapshot() : null);
+    }
+
+    private RoundSession currentRound() {
+        if (currentRound == null) {
+            throw new IllegalStateException("No hand in progress");
+        }
+        return currentRound;
+    }
+
+    /**
+     * Loads a pre-shuffled deck for the next hand and publishes its commitment.
+     */
+    private void shuffle() {
+        ShuffleService shuffleService = engine.getShuffleService();
+        prepared = shuffleService != null ? shuffleService.takeDeck(variant) : DeckPool.prepare(variant.getDeck());
+        deck.load(prepared.getOrder());
+        handNumber++;
+        if (shuffleService != null) {
+            shuffleService.publishCommitment(tableId, handNumber, prepared);
+        }
+    }
+
+    /**
+     * Reveals the seed of the finished hand.
+     */
+    private void revealShuffle() {
+        ShuffleService shuffleService = engine.getShuffleService();
+        if (shuffleService != null) {
+            shuffleService.publishReveal(tableId, handNumber, prepared.getSeed());
+        }
+    }
+
+    public Long getTableId() {
+        return tableId;
+    }
+
+    public GameVariant getVariant() {
+        return variant;
+    }
+
+    public int getBigBlind() {
+        return bigBlind;
     }
 
-    
-}
\ No newline at end of file
+    public long getHandNumber() {
+        return handNumber;
+    }
+
+    public boolean isRoundRunning() {
+        return currentRound != null;
+    }
+
+    public RoundSession getCurrentRound() {
+        return currentRound;
+    }
+
+    public List<Player> getSeated() {
+        return seated;
+    }
+
+    public long getTimeBank(Long playerId) {
+        return timeBanks.getOrDefault(playerId, 0L);
+    }
+
+    void setTimeBank(Long playerId, long millis) {
+        timeBanks.computeIfPresent(playerId, (id, bank) -> Math.max(0, millis));
+    }
+
+    public boolean isDisconnected(Long playerId) {
+        return disconnected.contains(playerId);
+    }
+
+    public ShuffledDeck getDeck() {
+        return deck;
+    }
+
+    public ShuffleSeed getSeed() {
+        return prepared.getSeed();
+    }
+
+    public EquityService getEquityService() {
+        return engine.getEquityService();
+    }
+
+    TableEngine getEngine() {
+        return engine;
+    }
+}
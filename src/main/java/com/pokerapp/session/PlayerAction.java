@@ -0,0 +1,12 @@
+package com.pokerapp.session;
+
+/**
+ * Betting actions a player can take on their turn.
+ */
+public enum PlayerAction {
+    FOLD,
+    CHECK,
+    CALL,
+    // Raise (or bet) to the given total for the street
+    RAISE
+}
@@ -1,128 +1,589 @@
 package com.pokerapp.session;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
-import org.springframework.data.util.Pair;
-
-import com.pokerapp.domain.card.Card;
+import com.pokerapp.domain.card.CardSet;
+import com.pokerapp.domain.card.Deck;
 import com.pokerapp.domain.game.Game;
-import com.pokerapp.domain.game.HandEvaluation;
+import com.pokerapp.domain.game.GameVariant;
+import com.pokerapp.domain.game.PotSettlement;
 import com.pokerapp.domain.game.Round;
 import com.pokerapp.domain.game.Stage;
 import com.pokerapp.domain.game.StageType;
+import com.pokerapp.domain.game.StreetEvaluator;
 import com.pokerapp.domain.game.Turn;
+import com.pokerapp.domain.game.VariantEvaluator;
 import com.pokerapp.domain.user.Player;
+import com.pokerapp.domain.user.PlayerStatus;
+import com.pokerapp.service.equity.EquityService;
+import com.pokerapp.session.journal.HandJournal;
+import com.pokerapp.session.journal.TableSnapshot;
 
-public class RoundSession extends Thread {
-    private GameSession gameSession;
-    private Game game;
-    private List<Player> players;
-    private final int smalBlind; 
-    private final int bigBlind; 
-    private Map<Integer, Player> playerSeat;
-    private int smalBlindPos;
-    private Map<Player, Pair<Card, Card>> playerHands;
-    
-    public RoundSession(GameSession gameSession, Game game, List<Player> players, Map<Integer, Player> playerSeat, int smalBlindPos) {
-        this.smalBlind = 0;
-        this.bigBlind = 0;
-        this.gameSession = gameSession; 
-        this.players = players;
-        this.playerSeat = playerSeat;
-        this.smalBlindPos = smalBlindPos;
-        this.game = game;
-    }   
+/**
+ * One hand at a table, driven by the commands of its {@link TableActor}:
+ * {@link #start()} deals and posts the blinds, then every player action or
+ * timeout advances the hand until it is settled. Bets are tracked per seat in
+ * primitive arrays (seats are indices into {@code players}). Each step is
+ * appended to the engine's {@link HandJournal}, if any, as it is applied.
+ */
+public class RoundSession {
+
+    private static final StageType[] STREETS = {StageType.PRE_FLOP, StageType.FLOP, StageType.TURN, StageType.RIVER};
+    private static final int[] NEW_CARDS = {0, 3, 1, 1};
+
+    private final GameSession gameSession;
+    private final Game game;
+    private final List<Player> players;
+    private final int button;
+    private final Round round = new Round();
+    // Board state absorbed street by street, shared by all seats
+    private final StreetEvaluator streetEvaluator = new StreetEvaluator();
+    private final int[] streetBets;
+    private final int[] committed;
+    private final boolean[] folded;
+    private final boolean[] needsAction;
+    // Acted since the last full raise; such a player may not raise an incomplete all-in raise
+    private final boolean[] acted;
+    private int[] startingStacks;
+    private int bigBlindSeat;
+    private int street = -1;
+    private Stage stage;
+    private int currentBet;
+    // Size of the last full bet or raise of the street; the next raise must be at least as big
+    private int lastRaise;
+    private int toAct = -1;
+    private long turn;
+    // Clock of the player to act, and when they started on their time bank (-1 while on the action clock)
+    private TimingWheel.Timeout clock;
+    private long bankStartNanos = -1;
+    private boolean finished;
 
-    @Override
-    public void run() {
-        
-        round();
-        gameSession.setRoundRunning(false);
+    public RoundSession(GameSession gameSession, Game game, List<Player> players, int button) {
+        this.gameSession = gameSession;
+        this.game = game;
+        this.players = players;
+        this.button = button;
+        this.streetBets = new int[players.size()];
+        this.committed = new int[players.size()];
+        this.folded = new boolean[players.size()];
+        this.needsAction = new boolean[players.size()];
+        this.acted = new boolean[players.size()];
     }
 
-    public Round round() {
-        Round round = new Round();
+    /**
+     * Deals the hole cards, posts the blinds and asks the first player to act.
+     */
+    void start() {
         round.setGame(game);
-        playerSeat.get(smalBlindPos).pay(smalBlind);
-        playerSeat.get(smalBlindPos+1).pay(bigBlind);
-
-        //TODO: CARDSCAN!
-        //Playercardmap ist gesetzt ab hier (oder sollte)
-
-        List<Card> communityCards = new ArrayList<>();
-        round.setPreFlop(stage(round, StageType.PRE_FLOP));
-        round.setFlop(stage(round, StageType.FLOP));
-        communityCards.addAll(round.getFlop().getNewCards());
-        round.setTurn(stage(round, StageType.TURN));
-        communityCards.addAll(round.getTurn().getNewCards());
-        round.setRiver(stage(round, StageType.RIVER));
-        communityCards.addAll(round.getRiver().getNewCards());
-        
-        round.setCommunityCards(communityCards);
-        round.setPlayerHands(playerHands);
-
-        Map<Player, Long> handRankNumbers = new HashMap<>();
-        for (Player player: players) {
-            List<Card> totalCards = new ArrayList<>();
-            totalCards.add(playerHands.get(player).getFirst());
-            totalCards.add(playerHands.get(player).getSecond());
-            totalCards.addAll(communityCards);
-            handRankNumbers.put(player, HandEvaluation.cardsToRankNumber(totalCards));
+        round.setPlayers(new ArrayList<>(players));
+        round.setPlayerCount(players.size());
+
+        int holeCount = gameSession.getVariant().getHoleCards();
+        long[] holes = new long[players.size()];
+        for (int seat = 0; seat < holes.length; seat++) {
+            holes[seat] = gameSession.getDeck().draw(holeCount);
+            Map<String, Object> message = message("HOLE_CARDS");
+            message.put("cards", CardSet.of(holes[seat]).toString());
+            gameSession.getEngine().sendToPlayer(players.get(seat).getId(), message);
         }
+        round.setHoleCards(holes);
 
-        List<Player> winner = new ArrayList<>();
-        for (Player player : handRankNumbers.keySet()) {
-            if (winner.isEmpty()) {
-                winner.add(player);
-                break;
+        startingStacks = stacks();
+        HandJournal journal = gameSession.getEngine().getJournal();
+        if (journal != null) {
+            journal.handStarted(gameSession.getTableId(), gameSession.getHandNumber(), gameSession.getVariant(),
+                    button, gameSession.getBigBlind(), gameSession.getSeed().getBytes(), playerIds(), startingStacks);
+        }
+        // Heads-up the button posts the small blind
+        int smallBlindSeat = players.size() == 2 ? button : (button + 1) % players.size();
+        bigBlindSeat = (smallBlindSeat + 1) % players.size();
+        post(smallBlindSeat, gameSession.getBigBlind() / 2);
+        post(bigBlindSeat, gameSession.getBigBlind());
+        nextStreet();
+    }
+
+    /**
+     * Applies the action of the player whose turn it is.
+     *
+     * @throws IllegalStateException    if it is not the player's turn or the action is not allowed
+     * @throws IllegalArgumentException if a raise is too small or exceeds the player's chips
+     */
+    void act(Long playerId, PlayerAction action, int amount) {
+        if (finished) {
+            throw new IllegalStateException("The hand is finished");
+        }
+        int seat = seatOf(playerId);
+        if (seat != toAct) {
+            throw new IllegalStateException("It is not this player's turn");
+        }
+        if (action == null) {
+            throw new IllegalArgumentException("Action is required");
+        }
+        int startingBet = currentBet;
+        switch (action) {
+            case FOLD -> fold(seat);
+            case CHECK -> {
+                if (streetBets[seat] < currentBet) {
+                    throw new IllegalStateException("Cannot check facing a bet");
+                }
             }
-            if (handRankNumbers.get(winner.get(0)) == handRankNumbers.get(player)) {
-                winner.add(player);
-                break;
+            case CALL -> bet(seat, currentBet - streetBets[seat]);
+            case RAISE -> raise(seat, amount);
+        }
+        needsAction[seat] = false;
+        acted[seat] = true;
+        stopClock();
+
+        Turn turn = new Turn();
+        turn.setStage(stage);
+        turn.setPlayer(players.get(seat));
+        turn.setStartingBet(startingBet);
+        turn.setEndingBet(currentBet);
+        stage.getTurns().add(turn);
+
+        HandJournal journal = gameSession.getEngine().getJournal();
+        if (journal != null) {
+            journal.action(gameSession.getTableId(), gameSession.getHandNumber(), playerId, action,
+                    streetBets[seat], players.get(seat).getChips());
+        }
+        Map<String, Object> message = message("PLAYER_ACTED");
+        message.put("playerId", playerId);
+        message.put("action", action);
+        message.put("bet", streetBets[seat]);
+        message.put("chips", players.get(seat).getChips());
+        gameSession.getEngine().sendToTable(gameSession.getTableId(), message);
+        advance(seat);
+    }
+
+    /**
+     * Called when the clock of the turn runs out: moves a player with time left
+     * in their bank onto it, otherwise checks or folds for them. Ignored if the
+     * turn is over.
+     */
+    void timeout(Long playerId, long turn) {
+        if (finished || turn != this.turn || indexOf(playerId) != toAct) {
+            return;
+        }
+        long bank = gameSession.getTimeBank(playerId);
+        if (bankStartNanos < 0 && bank > 0) {
+            bankStartNanos = System.nanoTime();
+            clock.cancel();
+            clock = gameSession.getEngine().startClock(gameSession.getTableId(), playerId, turn, bank);
+            Map<String, Object> message = message("TIME_BANK");
+            message.put("playerId", playerId);
+            message.put("turn", turn);
+            message.put("timeoutMillis", bank);
+            gameSession.getEngine().sendToTable(gameSession.getTableId(), message);
+            return;
+        }
+        if (bankStartNanos >= 0) {
+            gameSession.setTimeBank(playerId, 0);
+            bankStartNanos = -1;
+        }
+        act(playerId, streetBets[toAct] < currentBet ? PlayerAction.FOLD : PlayerAction.CHECK, 0);
+    }
+
+    /**
+     * Gives a player who drops while on their action clock the disconnect
+     * protection window to come back.
+     */
+    void disconnect(Long playerId) {
+        long protection = gameSession.getEngine().getTurnClock().disconnectProtectionMillis();
+        if (finished || indexOf(playerId) != toAct || bankStartNanos >= 0 || protection == 0) {
+            return;
+        }
+        if (clock != null) {
+            clock.cancel();
+        }
+        clock = gameSession.getEngine().startClock(gameSession.getTableId(), playerId, turn, protection);
+    }
+
+    /**
+     * Folds the hand of a player who leaves the table.
+     */
+    void leave(Long playerId) {
+        int seat = indexOf(playerId);
+        if (finished || seat < 0 || folded[seat]) {
+            return;
+        }
+        if (seat == toAct) {
+            act(playerId, PlayerAction.FOLD, 0);
+            return;
+        }
+        fold(seat);
+        needsAction[seat] = false;
+        if (liveCount() == 1) {
+            finish();
+        }
+    }
+
+    /**
+     * Ends the hand without a showdown and returns every player's bets.
+     */
+    void abort() {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        stopClock();
+        for (int seat = 0; seat < players.size(); seat++) {
+            Player player = players.get(seat);
+            player.setChips(player.getChips() + committed[seat]);
+            player.setTotalBet(0);
+        }
+        HandJournal journal = gameSession.getEngine().getJournal();
+        if (journal != null) {
+            journal.aborted(gameSession.getTableId(), gameSession.getHandNumber(), playerIds(), stacks());
+        }
+    }
+
+    /**
+     * Copies the state of the hand for a snapshot of the table.
+     */
+    TableSnapshot.Hand snapshot() {
+        long foldedSeats = 0L;
+        for (int seat = 0; seat < folded.length; seat++) {
+            foldedSeats |= folded[seat] ? 1L << seat : 0L;
+        }
+        long clockMillis = clock != null ? clock.getDelay(TimeUnit.MILLISECONDS) : 0;
+        return new TableSnapshot.Hand(gameSession.getSeed().getBytes(), gameSession.getDeck().getPosition(), street,
+                toAct, turn, clockMillis, foldedSeats, playerIds(), startingStacks.clone(), committed.clone());
+    }
+
+    private void nextStreet() {
+        street++;
+        StageType type = STREETS[street];
+        stage = new Stage();
+        stage.setRound(round);
+        stage.setType(type);
+        stage.setPlayerCount(liveCount());
+
+        long newCards = gameSession.getDeck().draw(NEW_CARDS[street]);
+        CardSet cards = CardSet.of(newCards);
+        stage.setNewCards(cards.toCards());
+        round.getBoard().addAll(cards);
+        HandJournal journal = gameSession.getEngine().getJournal();
+        if (journal != null) {
+            journal.street(gameSession.getTableId(), gameSession.getHandNumber(), street, newCards);
+        }
+        if (gameSession.getVariant() == GameVariant.HOLDEM) {
+            streetEvaluator.addBoard(newCards);
+        }
+        switch (type) {
+            case PRE_FLOP -> round.setPreFlop(stage);
+            case FLOP -> round.setFlop(stage);
+            case TURN -> round.setTurn(stage);
+            case RIVER -> round.setRiver(stage);
+        }
+
+        Map<String, Object> message = message("STREET");
+        message.put("street", type);
+        message.put("board", round.getBoard().toString());
+        gameSession.getEngine().sendToTable(gameSession.getTableId(), message);
+        publishEquity(type);
+
+        if (street > 0) {
+            Arrays.fill(streetBets, 0);
+            currentBet = 0;
+        }
+        lastRaise = gameSession.getBigBlind();
+        Arrays.fill(acted, false);
+        int canAct = 0;
+        for (int seat = 0; seat < players.size(); seat++) {
+            needsAction[seat] = !folded[seat] && players.get(seat).getChips() > 0;
+            canAct += needsAction[seat] ? 1 : 0;
+        }
+        // A single player with chips left only acts when facing a bet
+        if (canAct == 1) {
+            for (int seat = 0; seat < players.size(); seat++) {
+                needsAction[seat] &= streetBets[seat] < currentBet;
             }
-            if (handRankNumbers.get(winner.get(0)) < handRankNumbers.get(player)) {
-                winner.clear();
+        }
+        advance(street == 0 ? bigBlindSeat : button);
+    }
+
+    /**
+     * Asks the next player after {@code seat} to act, or moves on once the street is complete.
+     */
+    private void advance(int seat) {
+        if (liveCount() == 1) {
+            finish();
+            return;
+        }
+        for (int i = 1; i <= players.size(); i++) {
+            int next = (seat + i) % players.size();
+            if (needsAction[next]) {
+                requestAction(next);
+                return;
+            }
+        }
+        if (street == STREETS.length - 1) {
+            finish();
+        } else {
+            nextStreet();
+        }
+    }
+
+    private void requestAction(int seat) {
+        toAct = seat;
+        turn++;
+        Player player = players.get(seat);
+        Map<String, Object> message = message("ACTION_REQUIRED");
+        message.put("playerId", player.getId());
+        message.put("turn", turn);
+        message.put("currentBet", currentBet);
+        message.put("toCall", Math.min(currentBet - streetBets[seat], player.getChips()));
+        message.put("minRaise", currentBet + lastRaise);
+        message.put("chips", player.getChips());
+
+        TurnClock turnClock = gameSession.getEngine().getTurnClock();
+        long millis = gameSession.isDisconnected(player.getId())
+                ? Math.max(turnClock.actionMillis(), turnClock.disconnectProtectionMillis())
+                : turnClock.actionMillis();
+        message.put("timeoutMillis", millis);
+        gameSession.getEngine().sendToTable(gameSession.getTableId(), message);
+        clock = gameSession.getEngine().startClock(gameSession.getTableId(), player.getId(), turn, millis);
+    }
+
+    /**
+     * Cancels the clock of the player to act and charges the time they used from their bank.
+     */
+    private void stopClock() {
+        if (clock != null) {
+            clock.cancel();
+            clock = null;
+        }
+        if (bankStartNanos >= 0) {
+            Long playerId = players.get(toAct).getId();
+            long used = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - bankStartNanos);
+            gameSession.setTimeBank(playerId, gameSession.getTimeBank(playerId) - used);
+            bankStartNanos = -1;
+        }
+    }
+
+    /**
+     * Evaluates every hand still in once and pays out the main pot and side pots.
+     */
+    private void finish() {
+        finished = true;
+        stopClock();
+        toAct = -1;
+        int[] strengths = new int[players.size()];
+        if (liveCount() > 1) {
+            long[] holes = round.getHoleCards();
+            long board = round.getBoard().getMask();
+            VariantEvaluator evaluator = gameSession.getVariant().getEvaluator();
+            for (int seat = 0; seat < players.size(); seat++) {
+                if (!folded[seat]) {
+                    strengths[seat] = gameSession.getVariant() == GameVariant.HOLDEM
+                            ? streetEvaluator.evaluate(holes[seat])
+                            : evaluator.evaluate(holes[seat], board);
+                }
+            }
+        }
+        PotSettlement settlement = PotSettlement.settle(committed, folded, strengths, button);
+
+        int[] payouts = settlement.getPayouts();
+        List<Player> winner = new ArrayList<>();
+        for (int seat = 0; seat < players.size(); seat++) {
+            Player player = players.get(seat);
+            if (payouts[seat] > 0) {
+                player.pay(payouts[seat]);
+            }
+            if ((settlement.getAllWinners() & (1L << seat)) != 0) {
                 winner.add(player);
             }
+            player.setTotalBet(0);
         }
         round.setWinner(winner);
-        //TODO: Save round
-        return round;
+        round.setSettledStacks(stacks());
+        HandJournal journal = gameSession.getEngine().getJournal();
+        if (journal != null) {
+            journal.settled(gameSession.getTableId(), gameSession.getHandNumber(), playerIds(),
+                    round.getSettledStacks());
+        }
+        round.setDeck(Deck.record(gameSession.getSeed(), gameSession.getDeck()));
+
+        List<Map<String, Object>> pots = new ArrayList<>(settlement.getPotCount());
+        for (int pot = 0; pot < settlement.getPotCount(); pot++) {
+            Map<String, Object> entry = new HashMap<>();
+            entry.put("amount", settlement.getAmount(pot));
+            entry.put("winners", playerIds(settlement.getWinners(pot)));
+            pots.add(entry);
+        }
+        Map<String, Object> message = message("HAND_FINISHED");
+        message.put("pot", Arrays.stream(committed).sum());
+        message.put("pots", pots);
+        message.put("winners", winner.stream().map(Player::getId).toList());
+        message.put("board", round.getBoard().toString());
+        gameSession.getEngine().sendToTable(gameSession.getTableId(), message);
+        gameSession.roundFinished(round);
     }
 
-    public Stage stage(Round round, StageType type) {
-        Stage stage = new Stage();
-        stage.setRound(round);
-        stage.setType(type);
-        stage.setPlayerCount(players.size());
-        
-        stage.setNewCards(null); //TODO: New Cards Scann from Top Camera
+    private List<Long> playerIds(long seats) {
+        List<Long> ids = new ArrayList<>(Long.bitCount(seats));
+        for (long rest = seats; rest != 0; rest &= rest - 1) {
+            ids.add(players.get(Long.numberOfTrailingZeros(rest)).getId());
+        }
+        return ids;
+    }
 
-        List<Turn> turns = new ArrayList();
-        int currentBet = bigBlind;
-        for (Player player: players) {
-            Turn turn = turn(stage, player, currentBet);
-            currentBet = turn.getEndingBet();
-            turns.add(turn);
+    private void post(int seat, int amount) {
+        bet(seat, amount);
+        currentBet = Math.max(currentBet, streetBets[seat]);
+        HandJournal journal = gameSession.getEngine().getJournal();
+        if (journal != null) {
+            journal.blind(gameSession.getTableId(), gameSession.getHandNumber(), players.get(seat).getId(),
+                    streetBets[seat], players.get(seat).getChips());
         }
-        stage.setTurns(turns);
-        //TODO: Save stage
-        return stage;
     }
 
-    public Turn turn(Stage stage, Player player, int startingBet) {
-        Turn turn = new Turn();
-        turn.setStage(stage);
-        turn.setPlayer(player);
-        turn.setStartingBet(startingBet);
+    private long[] playerIds() {
+        long[] ids = new long[players.size()];
+        for (int seat = 0; seat < ids.length; seat++) {
+            ids[seat] = players.get(seat).getId();
+        }
+        return ids;
+    }
 
-        //TODO: PLAYER TURN COMM
+    private int[] stacks() {
+        int[] stacks = new int[players.size()];
+        for (int seat = 0; seat < stacks.length; seat++) {
+            stacks[seat] = players.get(seat).getChips();
+        }
+        return stacks;
+    }
 
-        turn.setEndingBet(startingBet); //TODO: Add proper ending bet setter 
-        //TODO: Save turn
+    /**
+     * Raises to {@code amount}, which must be at least the current bet plus the
+     * last full raise of the street (the big blind if there was none). Only an
+     * all-in may be smaller; it does not reopen the betting for players who
+     * have already acted, they may only call or fold.
+     */
+    private void raise(int seat, int amount) {
+        if (amount <= currentBet) {
+            throw new IllegalArgumentException("A raise must exceed the current bet of " + currentBet);
+        }
+        int chips = players.get(seat).getChips();
+        if (amount - streetBets[seat] > chips) {
+            throw new IllegalArgumentException("Not enough chips to raise to " + amount);
+        }
+        if (acted[seat]) {
+            throw new IllegalStateException("An incomplete raise does not reopen the betting");
+        }
+        boolean allIn = amount - streetBets[seat] == chips;
+        int increment = amount - currentBet;
+        if (increment < lastRaise && !allIn) {
+            throw new IllegalArgumentException("A raise must be to at least " + (currentBet + lastRaise));
+        }
+        bet(seat, amount - streetBets[seat]);
+        currentBet = amount;
+        if (increment >= lastRaise) {
+            lastRaise = increment;
+            Arrays.fill(acted, false);
+        }
+        // Everyone else with chips has to respond to the raise
+        for (int other = 0; other < players.size(); other++) {
+            if (other != seat && !folded[other] && players.get(other).getChips() > 0) {
+                needsAction[other] = true;
+            }
+        }
+    }
+
+    private void bet(int seat, int amount) {
+        Player player = players.get(seat);
+        int paid = Math.min(amount, player.getChips());
+        player.setChips(player.getChips() - paid);
+        streetBets[seat] += paid;
+        committed[seat] += paid;
+        player.setTotalBet(committed[seat]);
+    }
+
+    private void fold(int seat) {
+        folded[seat] = true;
+        players.get(seat).setStatus(PlayerStatus.FOLDED);
+    }
+
+    private int liveCount() {
+        int live = 0;
+        for (boolean f : folded) {
+            live += f ? 0 : 1;
+        }
+        return live;
+    }
+
+    private int indexOf(Long playerId) {
+        for (int seat = 0; seat < players.size(); seat++) {
+            if (players.get(seat).getId().equals(playerId)) {
+                return seat;
+            }
+        }
+        return -1;
+    }
+
+    private int seatOf(Long playerId) {
+        int seat = indexOf(playerId);
+        if (seat < 0) {
+            throw new IllegalStateException("Player " + playerId + " is not in this hand");
+        }
+        return seat;
+    }
+
+    private Map<String, Object> message(String type) {
+        Map<String, Object> message = new HashMap<>();
+        message.put("type", type);
+        message.put("tableId", gameSession.getTableId());
+        message.put("hand", gameSession.getHandNumber());
+        return message;
+    }
+
+    /**
+     * Starts the equity calculation for the new street; the result is sent to
+     * the table asynchronously and comes back through the mailbox to set the
+     * players' win probabilities.
+     */
+    private void publishEquity(StageType type) {
+        EquityService equityService = gameSession.getEquityService();
+        // Equity is only calculated for Texas Hold'em
+        if (equityService == null || gameSession.getVariant() != GameVariant.HOLDEM) {
+            return;
+        }
+        Long tableId = gameSession.getTableId();
+        long hand = gameSession.getHandNumber();
+        TableEngine engine = gameSession.getEngine();
+        equityService.publishAsync(tableId, type, players, round.getHoleCards(), round.getBoard().getMask())
+                .thenAccept(winProbabilities -> {
+                    if (winProbabilities != null) {
+                        engine.submit(tableId, TableCommand.equity(hand, winProbabilities));
+                    }
+                });
+    }
+
+    public Round getRound() {
+        return round;
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * Returns the seat whose turn it is, or -1.
+     */
+    public int getToAct() {
+        return toAct;
+    }
+
+    public long getTurn() {
         return turn;
     }
-}
\ No newline at end of file
+
+    public int getCurrentBet() {
+        return currentBet;
+    }
+}
@@ -0,0 +1,87 @@
+package com.pokerapp.session;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Single-consumer mailbox in front of a {@link GameSession}. Any thread may
+ * {@link #tell} a command; the actor schedules itself on the shared executor
+ * only while it has mail, so an idle table holds no thread, and drains at
+ * most {@link #BATCH} commands per run to stay fair to the other tables. At
+ * most one run is active at a time, so the session needs no locking.
+ */
+public class TableActor {
+    private static final Logger logger = LoggerFactory.getLogger(TableActor.class);
+
+    static final int BATCH = 64;
+
+    private final GameSession session;
+    private final Executor executor;
+    private final Queue<TableCommand> mailbox = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private volatile boolean stopped;
+
+    public TableActor(GameSession session, Executor executor) {
+        this.session = session;
+        this.executor = executor;
+    }
+
+    /**
+     * Queues the command, returning false once the actor has been stopped.
+     */
+    public boolean tell(TableCommand command) {
+        if (stopped) {
+            return false;
+        }
+        mailbox.offer(command);
+        schedule();
+        return true;
+    }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        try {
+            for (int i = 0; i < BATCH; i++) {
+                TableCommand command = mailbox.poll();
+                if (command == null) {
+                    break;
+                }
+                if (command.getType() == TableCommand.Type.STOP) {
+                    stopped = true;
+                }
+                try {
+                    session.handle(command);
+                } catch (RuntimeException e) {
+                    logger.warn("Table {} rejected {}: {}", session.getTableId(), command, e.getMessage());
+                }
+            }
+        } finally {
+            scheduled.set(false);
+            if (!mailbox.isEmpty()) {
+                schedule();
+            }
+        }
+    }
+
+    public GameSession getSession() {
+        return session;
+    }
+
+    public int getMailboxSize() {
+        return mailbox.size();
+    }
+
+    public boolean isStopped() {
+        return stopped;
+    }
+}
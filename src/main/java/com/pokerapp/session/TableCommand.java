@@ -0,0 +1,127 @@
+package com.pokerapp.session;
+
+import com.pokerapp.domain.user.Player;
+import com.pokerapp.session.journal.TableSnapshot;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Message in the mailbox of a {@link TableActor}. Commands are created on any
+ * thread (REST, STOMP, clocks) and only ever applied by the table's actor.
+ */
+@Getter
+public final class TableCommand {
+
+    public enum Type {
+        START,
+        PLAYER_ACTION,
+        TIMEOUT,
+        JOIN,
+        LEAVE,
+        DISCONNECT,
+        RECONNECT,
+        NEXT_HAND,
+        SNAPSHOT,
+        EQUITY,
+        STOP
+    }
+
+    private final Type type;
+    private final Long playerId;
+    private final PlayerAction action;
+    // Big blind for START, total street bet for RAISE
+    private final int amount;
+    // Turn a TIMEOUT or hand an EQUITY belongs to; stale ones are ignored
+    private final long turn;
+    // Players to seat for START and JOIN
+    private final List<Player> players;
+    // Completed with the state of the table for SNAPSHOT, or null once the game is stopped
+    private final CompletableFuture<TableSnapshot> snapshot;
+    // Completed with the chips a player leaves with for LEAVE, or null if they were not seated
+    private final CompletableFuture<Integer> stack;
+    // Win probability per player id for EQUITY
+    private final Map<Long, Double> winProbabilities;
+
+    private TableCommand(Type type, Long playerId, PlayerAction action, int amount, long turn, List<Player> players) {
+        this(type, playerId, action, amount, turn, players, null, null, Map.of());
+    }
+
+    private TableCommand(Type type, Long playerId, PlayerAction action, int amount, long turn, List<Player> players,
+                         CompletableFuture<TableSnapshot> snapshot, CompletableFuture<Integer> stack,
+                         Map<Long, Double> winProbabilities) {
+        this.type = type;
+        this.playerId = playerId;
+        this.action = action;
+        this.amount = amount;
+        this.turn = turn;
+        this.players = players;
+        this.snapshot = snapshot;
+        this.stack = stack;
+        this.winProbabilities = winProbabilities;
+    }
+
+    public static TableCommand start(int bigBlind, List<Player> players) {
+        return new TableCommand(Type.START, null, null, bigBlind, 0, List.copyOf(players));
+    }
+
+    public static TableCommand action(Long playerId, PlayerAction action, int amount) {
+        return new TableCommand(Type.PLAYER_ACTION, playerId, action, amount, 0, List.of());
+    }
+
+    public static TableCommand timeout(Long playerId, long turn) {
+        return new TableCommand(Type.TIMEOUT, playerId, null, 0, turn, List.of());
+    }
+
+    public static TableCommand join(Player player) {
+        return new TableCommand(Type.JOIN, player.getId(), null, 0, 0, List.of(player));
+    }
+
+    public static TableCommand leave(Long playerId) {
+        return leave(playerId, new CompletableFuture<>());
+    }
+
+    /**
+     * Takes the player off the table and completes the future with the chips they leave with.
+     */
+    public static TableCommand leave(Long playerId, CompletableFuture<Integer> stack) {
+        return new TableCommand(Type.LEAVE, playerId, null, 0, 0, List.of(), null, stack, Map.of());
+    }
+
+    public static TableCommand disconnect(Long playerId) {
+        return new TableCommand(Type.DISCONNECT, playerId, null, 0, 0, List.of());
+    }
+
+    public static TableCommand reconnect(Long playerId) {
+        return new TableCommand(Type.RECONNECT, playerId, null, 0, 0, List.of());
+    }
+
+    public static TableCommand nextHand() {
+        return new TableCommand(Type.NEXT_HAND, null, null, 0, 0, List.of());
+    }
+
+    /**
+     * Asks the table to copy its state into the future between two commands.
+     */
+    public static TableCommand snapshot(CompletableFuture<TableSnapshot> snapshot) {
+        return new TableCommand(Type.SNAPSHOT, null, null, 0, 0, List.of(), snapshot, null, Map.of());
+    }
+
+    /**
+     * Hands the equities computed for a street of the hand back to the table, which owns the players.
+     */
+    public static TableCommand equity(long hand, Map<Long, Double> winProbabilities) {
+        return new TableCommand(Type.EQUITY, null, null, 0, hand, List.of(), null, null, Map.copyOf(winProbabilities));
+    }
+
+    public static TableCommand stop() {
+        return new TableCommand(Type.STOP, null, null, 0, 0, List.of());
+    }
+
+    @Override
+    public String toString() {
+        return type + (playerId == null ? "" : " player " + playerId) + (action == null ? "" : " " + action + " " + amount);
+    }
+}
@@ -0,0 +1,340 @@
+package com.pokerapp.session;
+
+import com.pokerapp.domain.game.GameVariant;
+import com.pokerapp.domain.game.Round;
+import com.pokerapp.domain.user.Player;
+import com.pokerapp.service.equity.EquityService;
+import com.pokerapp.service.history.HandHistoryWriter;
+import com.pokerapp.service.history.StackWriter;
+import com.pokerapp.service.shuffle.ShuffleService;
+import com.pokerapp.session.journal.HandJournal;
+import com.pokerapp.session.journal.RecoveredTable;
+import com.pokerapp.session.journal.TableSnapshot;
+import com.pokerapp.websocket.TableWebSocketHandler;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the games of all tables as {@link TableActor}s, so thousands of tables
+ * need no thread of their own. With app.engine.mode=sharded (the default) each
+ * table is pinned to one of app.engine.threads single-threaded
+ * {@link EventLoop}s; with app.engine.mode=shared the actors run on a shared
+ * pool of that many threads. Both default to one thread per core. Controllers
+ * submit commands to a table.
+ * <p>
+ * The clocks of all tables share one {@link TimingWheel} ticking every
+ * app.engine.tickMillis: a player gets app.engine.actionTimeoutSeconds per
+ * action, then whatever is left of a time bank of app.engine.timeBankSeconds,
+ * or app.engine.disconnectProtectionSeconds while disconnected, before a
+ * TIMEOUT checks or folds for them.
+ * <p>
+ * Every hand's start, blinds, actions, streets and settlement go to the
+ * {@link HandJournal}, so chips in play survive a crash. Settled stacks are
+ * written back to the players with the hand history; while a game runs its
+ * actor owns the current stacks, so leaving goes through {@link #leave}.
+ */
+@Service
+public class TableEngine {
+
+    private static final long DEFAULT_TICK_MILLIS = 10;
+
+    private final EquityService equityService;
+    private final ShuffleService shuffleService;
+    private final TableWebSocketHandler webSocketHandler;
+    private final HandHistoryWriter historyWriter;
+    private final StackWriter stackWriter;
+    private final HandJournal journal;
+    // Exactly one of the two is set
+    private final Executor executor;
+    private final EventLoopGroup loops;
+    private final TimingWheel timers;
+    private final TurnClock turnClock;
+    private final Map<Long, TableActor> actors = new ConcurrentHashMap<>();
+
+    @Autowired
+    public TableEngine(
+            EquityService equityService,
+            ShuffleService shuffleService,
+            TableWebSocketHandler webSocketHandler,
+            HandHistoryWriter historyWriter,
+            StackWriter stackWriter,
+            HandJournal journal,
+            MeterRegistry meterRegistry,
+            @Value("${app.engine.mode:sharded}") String mode,
+            @Value("${app.engine.threads:0}") int threads,
+            @Value("${app.engine.actionTimeoutSeconds:30}") long actionTimeoutSeconds,
+            @Value("${app.engine.timeBankSeconds:60}") long timeBankSeconds,
+            @Value("${app.engine.disconnectProtectionSeconds:120}") long disconnectProtectionSeconds,
+            @Value("${app.engine.tickMillis:10}") long tickMillis) {
+        this(equityService, shuffleService, webSocketHandler, historyWriter, stackWriter, journal,
+                "shared".equals(mode) ? Executors.newFixedThreadPool(threadCount(threads), daemonThreads("table-actor")) : null,
+                "shared".equals(mode) ? null : new EventLoopGroup(threadCount(threads), meterRegistry),
+                new TurnClock(TimeUnit.SECONDS.toMillis(actionTimeoutSeconds), TimeUnit.SECONDS.toMillis(timeBankSeconds),
+                        TimeUnit.SECONDS.toMillis(disconnectProtectionSeconds)),
+                tickMillis);
+        Gauge.builder("engine.timers", timers, TimingWheel::size).register(meterRegistry);
+    }
+
+    /**
+     * Runs all actors on the given executor.
+     */
+    public TableEngine(EquityService equityService, ShuffleService shuffleService,
+                       TableWebSocketHandler webSocketHandler, Executor executor, TurnClock turnClock) {
+        this(equityService, shuffleService, webSocketHandler, null, null, null, executor, null, turnClock,
+                DEFAULT_TICK_MILLIS);
+    }
+
+    /**
+     * Runs all actors on the given executor and journals their hands.
+     */
+    public TableEngine(EquityService equityService, ShuffleService shuffleService,
+                       TableWebSocketHandler webSocketHandler, HandJournal journal, Executor executor,
+                       TurnClock turnClock) {
+        this(equityService, shuffleService, webSocketHandler, null, null, journal, executor, null, turnClock,
+                DEFAULT_TICK_MILLIS);
+    }
+
+    /**
+     * Pins every table to one loop of the group.
+     */
+    public TableEngine(EquityService equityService, ShuffleService shuffleService,
+                       TableWebSocketHandler webSocketHandler, EventLoopGroup loops, TurnClock turnClock) {
+        this(equityService, shuffleService, webSocketHandler, null, null, null, null, loops, turnClock,
+                DEFAULT_TICK_MILLIS);
+    }
+
+    private TableEngine(EquityService equityService, ShuffleService shuffleService,
+                        TableWebSocketHandler webSocketHandler, HandHistoryWriter historyWriter,
+                        StackWriter stackWriter, HandJournal journal, Executor executor, EventLoopGroup loops, TurnClock turnClock,
+                        long tickMillis) {
+        this.equityService = equityService;
+        this.shuffleService = shuffleService;
+        this.webSocketHandler = webSocketHandler;
+        this.historyWriter = historyWriter;
+        this.stackWriter = stackWriter;
+        this.journal = journal;
+        this.executor = executor;
+        this.loops = loops;
+        this.turnClock = turnClock;
+        this.timers = new TimingWheel(tickMillis);
+        this.timers.start("table-clock");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timers.shutdown();
+        if (executor instanceof ExecutorService service) {
+            service.shutdownNow();
+        }
+        if (loops != null) {
+            loops.shutdown();
+        }
+    }
+
+    /**
+     * Starts a game at the table and deals the first hand.
+     *
+     * @throws IllegalStateException if a game is already in progress at the table
+     */
+    public void start(Long tableId, GameVariant variant, int bigBlind, List<Player> players) {
+        TableActor actor = new TableActor(new GameSession(tableId, variant, this), executorFor(tableId));
+        if (actors.putIfAbsent(tableId, actor) != null) {
+            throw new IllegalStateException("A game is already in progress at this table");
+        }
+        actor.tell(TableCommand.start(bigBlind, players));
+    }
+
+    /**
+     * Resumes the game of a table recovered after a restart and deals its next hand.
+     *
+     * @throws IllegalStateException if a game is already in progress at the table
+     */
+    public void restore(RecoveredTable table, List<Player> players) {
+        GameSession session = new GameSession(table.tableId(), table.variant(), this);
+        session.restore(table.bigBlind(), table.button(), table.hand(), players, table.timeBanks());
+        TableActor actor = new TableActor(session, executorFor(table.tableId()));
+        if (actors.putIfAbsent(table.tableId(), actor) != null) {
+            throw new IllegalStateException("A game is already in progress at this table");
+        }
+        actor.tell(TableCommand.nextHand());
+    }
+
+    /**
+     * Stops the game at the table, returning false if there is none.
+     */
+    public boolean stop(Long tableId) {
+        TableActor actor = actors.remove(tableId);
+        return actor != null && actor.tell(TableCommand.stop());
+    }
+
+    /**
+     * Queues a command for the table, returning false if no game is running there.
+     */
+    public boolean submit(Long tableId, TableCommand command) {
+        TableActor actor = actors.get(tableId);
+        return actor != null && actor.tell(command);
+    }
+
+    /**
+     * Takes the player off the table. The future completes on the table's
+     * actor with the chips the player leaves with, after folding a hand in
+     * progress, or with null if no game is running or they are not seated.
+     */
+    public CompletableFuture<Integer> leave(Long tableId, Long playerId) {
+        CompletableFuture<Integer> stack = new CompletableFuture<>();
+        if (!submit(tableId, TableCommand.leave(playerId, stack))) {
+            stack.complete(null);
+        }
+        return stack;
+    }
+
+    /**
+     * Copies the state of the table on its actor, or completes with null if no game is running.
+     */
+    public CompletableFuture<TableSnapshot> snapshot(Long tableId) {
+        CompletableFuture<TableSnapshot> snapshot = new CompletableFuture<>();
+        if (!submit(tableId, TableCommand.snapshot(snapshot))) {
+            snapshot.complete(null);
+        }
+        return snapshot;
+    }
+
+    public boolean isActive(Long tableId) {
+        return actors.containsKey(tableId);
+    }
+
+    public TableActor getActor(Long tableId) {
+        return actors.get(tableId);
+    }
+
+    /**
+     * Returns the ids of the tables with a game running, as a live view.
+     */
+    public Set<Long> getActiveTables() {
+        return Collections.unmodifiableSet(actors.keySet());
+    }
+
+    /**
+     * Returns the loop that owns the table, or the shared executor.
+     */
+    Executor executorFor(Long tableId) {
+        return loops != null ? loops.loopFor(tableId) : executor;
+    }
+
+    /**
+     * Counts a new hand on the table's loop.
+     */
+    void handStarted(Long tableId) {
+        if (loops != null) {
+            loops.loopFor(tableId).handStarted();
+        }
+    }
+
+    public EventLoopGroup getLoops() {
+        return loops;
+    }
+
+    public TimingWheel getTimers() {
+        return timers;
+    }
+
+    public TurnClock getTurnClock() {
+        return turnClock;
+    }
+
+    /**
+     * Posts a TIMEOUT for the turn to the table once the clock runs out.
+     */
+    TimingWheel.Timeout startClock(Long tableId, Long playerId, long turn, long millis) {
+        return timers.schedule(() -> submit(tableId, TableCommand.timeout(playerId, turn)), millis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Hands the settled stacks of a finished round to the stack writer, which
+     * never drops them, and the round to the write-behind history writer.
+     */
+    void recordHand(Round round) {
+        if (stackWriter != null && round.getSettledStacks() != null) {
+            long[] playerIds = round.getPlayers().stream().mapToLong(Player::getId).toArray();
+            stackWriter.submit(playerIds, round.getSettledStacks());
+        }
+        if (historyWriter != null) {
+            historyWriter.submit(round);
+        }
+    }
+
+    /**
+     * Waits until the stacks of every hand settled so far have been written back
+     * to the players, returning false if that takes longer than the timeout.
+     * Read the players' chips after this when no game is running at their table.
+     */
+    public boolean awaitStacksWritten(long timeoutMillis) {
+        if (stackWriter == null) {
+            return true;
+        }
+        try {
+            return stackWriter.awaitWritten(timeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Returns the journal hands are recorded to, or null if they are not journaled.
+     */
+    HandJournal getJournal() {
+        return journal;
+    }
+
+    void sendToTable(Long tableId, Object message) {
+        if (webSocketHandler != null) {
+            webSocketHandler.sendToTable(tableId, message);
+        }
+    }
+
+    void sendToPlayer(Long playerId, Object message) {
+        if (webSocketHandler != null) {
+            webSocketHandler.sendToPlayer(playerId, message);
+        }
+    }
+
+    EquityService getEquityService() {
+        return equityService;
+    }
+
+    ShuffleService getShuffleService() {
+        return shuffleService;
+    }
+
+    private static int threadCount(int threads) {
+        return threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,302 @@
+package com.pokerapp.session;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+/**
+ * Hierarchical timing wheel for the clocks of all tables (action clocks, time
+ * banks, disconnect protection). Four levels of 64 slots cover 2^24 ticks;
+ * a timeout goes into the slot of the lowest level whose span holds its
+ * delay, and a higher-level slot is cascaded down when the level below wraps
+ * around. Scheduling and cancelling are O(1) whatever the number of pending
+ * timeouts, and one ticking thread serves them all instead of one scheduled
+ * task or parked thread per clock.
+ * <p>
+ * Any thread may schedule or cancel; both only enqueue, and the slots are
+ * touched by the ticking thread alone. Expired tasks run on that thread and
+ * must be short, e.g. post a command to a table.
+ */
+public class TimingWheel {
+
+    private static final Logger logger = LoggerFactory.getLogger(TimingWheel.class);
+
+    private static final int LEVELS = 4;
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final long MAX_TICKS = 1L << (LEVELS * SLOT_BITS);
+
+    private static final int PENDING = 0;
+    private static final int CANCELLED = 1;
+    private static final int EXPIRED = 2;
+
+    private final long tickNanos;
+    private final LongSupplier nanoClock;
+    private final long startNanos;
+    private final Slot[][] slots = new Slot[LEVELS][SLOTS];
+    private final Queue<Timeout> added = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout> cancelled = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    // Last tick processed; only read and written by the ticking thread
+    private long tick;
+    private volatile Thread ticker;
+    private volatile boolean running;
+
+    public TimingWheel(long tickMillis) {
+        this(TimeUnit.MILLISECONDS.toNanos(tickMillis), System::nanoTime);
+    }
+
+    /**
+     * Creates a wheel that reads the time from {@code nanoClock}; without
+     * {@link #start} it only moves when {@link #advance} is called.
+     */
+    public TimingWheel(long tickNanos, LongSupplier nanoClock) {
+        if (tickNanos <= 0) {
+            throw new IllegalArgumentException("Tick must be positive");
+        }
+        this.tickNanos = tickNanos;
+        this.nanoClock = nanoClock;
+        this.startNanos = nanoClock.getAsLong();
+        for (Slot[] level : slots) {
+            for (int i = 0; i < SLOTS; i++) {
+                level[i] = new Slot();
+            }
+        }
+    }
+
+    /**
+     * Starts the daemon thread that advances the wheel every tick.
+     */
+    public synchronized void start(String threadName) {
+        if (ticker != null) {
+            throw new IllegalStateException("The wheel is already running");
+        }
+        running = true;
+        ticker = new Thread(this::run, threadName);
+        ticker.setDaemon(true);
+        ticker.start();
+    }
+
+    public void shutdown() {
+        running = false;
+        Thread thread = ticker;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    /**
+     * Runs the task once the delay has passed, rounded up to the next tick.
+     *
+     * @throws IllegalArgumentException if the delay is negative or beyond the range of the wheel
+     */
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        long delayNanos = unit.toNanos(delay);
+        if (delayNanos < 0 || delayNanos / tickNanos >= MAX_TICKS - 1) {
+            throw new IllegalArgumentException("Delay out of range: " + delay + " " + unit);
+        }
+        long elapsed = nanoClock.getAsLong() - startNanos + delayNanos;
+        Timeout timeout = new Timeout(task, (elapsed + tickNanos - 1) / tickNanos);
+        pending.incrementAndGet();
+        added.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * Processes every tick that has passed and runs the expired tasks, returning
+     * how many ran. Only the ticking thread (or a test driving a wheel that was
+     * never started) may call this.
+     */
+    public int advance() {
+        long now = (nanoClock.getAsLong() - startNanos) / tickNanos;
+        removeCancelled();
+        transferAdded();
+        int expired = 0;
+        while (tick < now) {
+            tick++;
+            cascade();
+            expired += expire(slots[0][(int) (tick & SLOT_MASK)]);
+        }
+        return expired;
+    }
+
+    /**
+     * Returns the number of timeouts that are neither expired nor cancelled.
+     */
+    public int size() {
+        return pending.get();
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                advance();
+            } catch (RuntimeException e) {
+                logger.error("Timing wheel tick failed", e);
+            }
+            long next = startNanos + (tick + 1) * tickNanos;
+            LockSupport.parkNanos(this, next - nanoClock.getAsLong());
+        }
+    }
+
+    private void removeCancelled() {
+        for (Timeout timeout; (timeout = cancelled.poll()) != null; ) {
+            if (timeout.slot != null) {
+                timeout.slot.remove(timeout);
+            }
+        }
+    }
+
+    private void transferAdded() {
+        for (Timeout timeout; (timeout = added.poll()) != null; ) {
+            if (timeout.state.get() == PENDING) {
+                place(timeout, tick + 1);
+            }
+        }
+    }
+
+    /**
+     * Moves the timeouts of the higher-level slots that start at this tick down the wheel.
+     */
+    private void cascade() {
+        for (int level = 1; level < LEVELS; level++) {
+            int shift = level * SLOT_BITS;
+            if ((tick & ((1L << shift) - 1)) != 0) {
+                return;
+            }
+            Slot slot = slots[level][(int) ((tick >>> shift) & SLOT_MASK)];
+            for (Timeout timeout = slot.poll(); timeout != null; timeout = slot.poll()) {
+                place(timeout, tick);
+            }
+        }
+    }
+
+    /**
+     * Puts the timeout into its slot, or into the slot of {@code earliest} if it is already due.
+     */
+    private void place(Timeout timeout, long earliest) {
+        long deadline = Math.max(timeout.deadline, earliest);
+        long delta = deadline - tick;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << ((level + 1) * SLOT_BITS)) {
+            level++;
+        }
+        slots[level][(int) ((deadline >>> (level * SLOT_BITS)) & SLOT_MASK)].add(timeout);
+    }
+
+    private int expire(Slot slot) {
+        int expired = 0;
+        for (Timeout timeout = slot.poll(); timeout != null; timeout = slot.poll()) {
+            if (timeout.state.compareAndSet(PENDING, EXPIRED)) {
+                pending.decrementAndGet();
+                expired++;
+                try {
+                    timeout.task.run();
+                } catch (RuntimeException e) {
+                    logger.warn("Timeout task failed", e);
+                }
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * Handle of a scheduled task.
+     */
+    public final class Timeout {
+
+        private final Runnable task;
+        // Absolute tick at which the task is due
+        private final long deadline;
+        private final AtomicInteger state = new AtomicInteger(PENDING);
+        // Links within the slot; only touched by the ticking thread
+        private Slot slot;
+        private Timeout prev;
+        private Timeout next;
+
+        private Timeout(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Cancels the task, returning false if it already ran or was cancelled.
+         */
+        public boolean cancel() {
+            if (!state.compareAndSet(PENDING, CANCELLED)) {
+                return false;
+            }
+            pending.decrementAndGet();
+            cancelled.add(this);
+            return true;
+        }
+
+        public boolean isCancelled() {
+            return state.get() == CANCELLED;
+        }
+
+        public boolean isExpired() {
+            return state.get() == EXPIRED;
+        }
+
+        /**
+         * Returns the time left until the task is due, at least 0.
+         */
+        public long getDelay(TimeUnit unit) {
+            long due = startNanos + deadline * tickNanos;
+            return unit.convert(Math.max(0, due - nanoClock.getAsLong()), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Doubly linked list of the timeouts in one slot.
+     */
+    private static final class Slot {
+
+        private Timeout head;
+        private Timeout tail;
+
+        void add(Timeout timeout) {
+            timeout.slot = this;
+            timeout.prev = tail;
+            timeout.next = null;
+            if (tail == null) {
+                head = timeout;
+            } else {
+                tail.next = timeout;
+            }
+            tail = timeout;
+        }
+
+        void remove(Timeout timeout) {
+            if (timeout.prev == null) {
+                head = timeout.next;
+            } else {
+                timeout.prev.next = timeout.next;
+            }
+            if (timeout.next == null) {
+                tail = timeout.prev;
+            } else {
+                timeout.next.prev = timeout.prev;
+            }
+            timeout.slot = null;
+            timeout.prev = null;
+            timeout.next = null;
+        }
+
+        Timeout poll() {
+            Timeout timeout = head;
+            if (timeout != null) {
+                remove(timeout);
+            }
+            return timeout;
+        }
+    }
+}
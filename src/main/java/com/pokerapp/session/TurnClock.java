@@ -0,0 +1,17 @@
+package com.pokerapp.session;
+
+/**
+ * Clock settings of a table, all in milliseconds.
+ *
+ * @param actionMillis                time a player has for each action
+ * @param timeBankMillis              extra time per player for the whole game, used once the action clock runs out
+ * @param disconnectProtectionMillis  action time granted instead while the player is disconnected
+ */
+public record TurnClock(long actionMillis, long timeBankMillis, long disconnectProtectionMillis) {
+
+    public TurnClock {
+        if (actionMillis <= 0 || timeBankMillis < 0 || disconnectProtectionMillis < 0) {
+            throw new IllegalArgumentException("Invalid clock settings");
+        }
+    }
+}
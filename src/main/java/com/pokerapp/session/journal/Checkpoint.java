@@ -0,0 +1,12 @@
+package com.pokerapp.session.journal;
+
+import java.util.List;
+
+/**
+ * Contents of one snapshot file: the running tables and the settled stacks of
+ * the players not seated at any of them.
+ */
+public record Checkpoint(List<TableSnapshot> tables, List<SettledStack> settled) {
+
+    public static final Checkpoint EMPTY = new Checkpoint(List.of(), List.of());
+}
@@ -0,0 +1,588 @@
+package com.pokerapp.session.journal;
+
+import com.pokerapp.domain.game.GameVariant;
+import com.pokerapp.session.PlayerAction;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only journal of hand events (start, blinds, actions, streets,
+ * settlement) for crash recovery. Tables are spread over app.journal.shards
+ * shards, each appending to its own segment files in app.journal.dir;
+ * a segment is closed after app.journal.segmentBytes and a new one started.
+ * <p>
+ * Game threads only encode the record and queue it. One writer thread drains
+ * all shards and writes what has piled up with a single gather write per
+ * shard, then forces the files once for the whole group (group commit), so a
+ * burst of actions costs one fsync. Durability therefore lags the game by one
+ * group, typically well under a millisecond of events. Records that could not
+ * be written or forced stay pending and are retried with a growing back-off;
+ * failures are counted in journal.failed and turn the journal's health down.
+ * <p>
+ * Records are framed as length, CRC32C and body; reading stops at the first
+ * torn or corrupt frame of a segment. Segments found when the journal is
+ * opened are read once and kept for {@link JournalRecovery} until
+ * {@link #discardRecovered()}; new events always go to new segments. Once
+ * table snapshots cover a part of the journal, {@link #rotate()} closes the
+ * current segments and {@link #truncate} deletes the closed ones that hold
+ * nothing after the snapshots.
+ */
+@Service
+public class HandJournal implements HealthIndicator {
+    private static final Logger logger = LoggerFactory.getLogger(HandJournal.class);
+
+    static final int HAND_STARTED_HEADER = 1 + 4 + 4 + 32;
+
+    private static final int FRAME_HEADER = 4 + 4;
+    private static final int BODY_HEADER = 8 + 8 + 8 + 1;
+    private static final int MAX_BODY = 1 << 20;
+    private static final int MAX_GATHER = 1024;
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final long MIN_BACKOFF_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long MAX_BACKOFF_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final boolean fsync;
+    private final Shard[] shards;
+    private final AtomicLong sequence = new AtomicLong();
+    private final Queue<ClosedSegment> closed = new ConcurrentLinkedQueue<>();
+    private final Thread writer;
+    private final Counter appended;
+    private final Counter failed;
+    private final Timer commitTimer;
+    private final DistributionSummary groupSize;
+    private List<Path> recoveredSegments;
+    private List<JournalRecord> recovered;
+    private volatile boolean waiting;
+    private volatile boolean rotateRequested;
+    private volatile IOException lastError;
+    private volatile boolean running = true;
+
+    @Autowired
+    public HandJournal(
+            @Value("${app.journal.dir:data/journal}") String directory,
+            @Value("${app.journal.shards:4}") int shards,
+            @Value("${app.journal.segmentBytes:67108864}") long segmentBytes,
+            @Value("${app.journal.fsync:true}") boolean fsync,
+            MeterRegistry meterRegistry) throws IOException {
+        this(Paths.get(directory), shards, segmentBytes, fsync, meterRegistry);
+    }
+
+    public HandJournal(Path directory, int shards, long segmentBytes, boolean fsync, MeterRegistry meterRegistry)
+            throws IOException {
+        if (shards < 1 || segmentBytes < FRAME_HEADER + BODY_HEADER) {
+            throw new IllegalArgumentException("Invalid journal settings");
+        }
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.fsync = fsync;
+        Files.createDirectories(directory);
+
+        recoveredSegments = segments(directory);
+        recovered = read(recoveredSegments);
+        if (!recovered.isEmpty()) {
+            sequence.set(recovered.get(recovered.size() - 1).sequence());
+        }
+
+        this.shards = new Shard[shards];
+        for (int i = 0; i < shards; i++) {
+            this.shards[i] = new Shard(i);
+            this.shards[i].open();
+        }
+        this.appended = Counter.builder("journal.appended").register(meterRegistry);
+        this.failed = Counter.builder("journal.failed").register(meterRegistry);
+        this.commitTimer = Timer.builder("journal.commit").register(meterRegistry);
+        this.groupSize = DistributionSummary.builder("journal.group").register(meterRegistry);
+        Gauge.builder("journal.pending", this, HandJournal::getPending).register(meterRegistry);
+        this.writer = new Thread(this::write, "journal-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Writes and forces everything queued, then closes the segments.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        for (Shard shard : shards) {
+            shard.close();
+        }
+    }
+
+    public void handStarted(long tableId, long hand, GameVariant variant, int button, int bigBlind, byte[] seed,
+                            long[] playerIds, int[] stacks) {
+        ByteBuffer payload = ByteBuffer.allocate(HAND_STARTED_HEADER + seatsSize(playerIds.length));
+        payload.put((byte) variant.ordinal()).putInt(button).putInt(bigBlind).put(seed, 0, 32);
+        putSeats(payload, playerIds, stacks);
+        append(tableId, hand, JournalEventType.HAND_STARTED, payload);
+    }
+
+    public void blind(long tableId, long hand, long playerId, int amount, int chips) {
+        ByteBuffer payload = ByteBuffer.allocate(8 + 4 + 4);
+        payload.putLong(playerId).putInt(amount).putInt(chips);
+        append(tableId, hand, JournalEventType.BLIND, payload);
+    }
+
+    public void action(long tableId, long hand, long playerId, PlayerAction action, int streetBet, int chips) {
+        ByteBuffer payload = ByteBuffer.allocate(8 + 1 + 4 + 4);
+        payload.putLong(playerId).put((byte) action.ordinal()).putInt(streetBet).putInt(chips);
+        append(tableId, hand, JournalEventType.ACTION, payload);
+    }
+
+    public void street(long tableId, long hand, int street, long board) {
+        ByteBuffer payload = ByteBuffer.allocate(1 + 8);
+        payload.put((byte) street).putLong(board);
+        append(tableId, hand, JournalEventType.STREET, payload);
+    }
+
+    public void settled(long tableId, long hand, long[] playerIds, int[] stacks) {
+        appendSeats(tableId, hand, JournalEventType.HAND_SETTLED, playerIds, stacks);
+    }
+
+    public void aborted(long tableId, long hand, long[] playerIds, int[] stacks) {
+        appendSeats(tableId, hand, JournalEventType.HAND_ABORTED, playerIds, stacks);
+    }
+
+    public void playerLeft(long tableId, long hand, long playerId) {
+        ByteBuffer payload = ByteBuffer.allocate(8);
+        payload.putLong(playerId);
+        append(tableId, hand, JournalEventType.PLAYER_LEFT, payload);
+    }
+
+    /**
+     * Returns the records of the segments found on startup, in sequence order.
+     */
+    public List<JournalRecord> getRecovered() {
+        return recovered;
+    }
+
+    /**
+     * Deletes the segments found on startup once their state has been applied.
+     */
+    public void discardRecovered() throws IOException {
+        for (Path segment : recoveredSegments) {
+            Files.deleteIfExists(segment);
+        }
+        recoveredSegments = List.of();
+        recovered = List.of();
+    }
+
+    /**
+     * Asks the writer to start new segments for every shard that has records
+     * in its current one, so they can be truncated later.
+     */
+    public void rotate() {
+        rotateRequested = true;
+        LockSupport.unpark(writer);
+    }
+
+    /**
+     * Returns the closed segments whose records all have a sequence up to the
+     * given one, i.e. those a snapshot taken at that sequence covers.
+     */
+    public List<Path> closedSegments(long upTo) {
+        List<Path> segments = new ArrayList<>();
+        for (ClosedSegment segment : closed) {
+            if (segment.lastSequence() <= upTo) {
+                segments.add(segment.path());
+            }
+        }
+        return segments;
+    }
+
+    /**
+     * Makes new records continue after the given sequence, e.g. the one of a
+     * snapshot taken before the journal it covered was deleted.
+     */
+    public void skipTo(long sequence) {
+        this.sequence.accumulateAndGet(sequence, Math::max);
+    }
+
+    /**
+     * Deletes the given closed segments, as returned by {@link #closedSegments},
+     * returning how many were deleted.
+     */
+    public int truncate(List<Path> segments) throws IOException {
+        int deleted = 0;
+        for (Iterator<ClosedSegment> it = closed.iterator(); it.hasNext(); ) {
+            ClosedSegment segment = it.next();
+            if (segments.contains(segment.path())) {
+                Files.deleteIfExists(segment.path());
+                it.remove();
+                deleted++;
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * Reports the journal as down while the last write failed, i.e. hands are
+     * being played without a durable record.
+     */
+    @Override
+    public Health health() {
+        IOException error = lastError;
+        if (error == null) {
+            return Health.up().withDetail("pending", getPending()).build();
+        }
+        return Health.down(error).withDetail("pending", getPending()).build();
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public long getSequence() {
+        return sequence.get();
+    }
+
+    public int getPending() {
+        int pending = 0;
+        for (Shard shard : shards) {
+            pending += shard.pendingCount.get();
+        }
+        return pending;
+    }
+
+    /**
+     * Reads the records of the given segments, ordered by sequence.
+     */
+    public static List<JournalRecord> read(List<Path> segments) throws IOException {
+        List<JournalRecord> records = new ArrayList<>();
+        for (Path segment : segments) {
+            readSegment(segment, records);
+        }
+        records.sort(Comparator.comparingLong(JournalRecord::sequence));
+        // A write that failed is retried in a new segment, so a record may be found twice
+        List<JournalRecord> unique = new ArrayList<>(records.size());
+        for (JournalRecord record : records) {
+            if (unique.isEmpty() || unique.get(unique.size() - 1).sequence() != record.sequence()) {
+                unique.add(record);
+            }
+        }
+        return unique;
+    }
+
+    /**
+     * Lists the segment files of the directory.
+     */
+    public static List<Path> segments(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(SEGMENT_SUFFIX)).sorted().toList();
+        }
+    }
+
+    private static void readSegment(Path segment, List<JournalRecord> records) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            CRC32C crc = new CRC32C();
+            while (buffer.remaining() >= FRAME_HEADER) {
+                int start = buffer.position();
+                int length = buffer.getInt();
+                int checksum = buffer.getInt();
+                if (length < BODY_HEADER || length > MAX_BODY || length > buffer.remaining()) {
+                    logTornTail(segment, start);
+                    return;
+                }
+                ByteBuffer body = buffer.slice(buffer.position(), length);
+                crc.reset();
+                crc.update(body.duplicate());
+                if ((int) crc.getValue() != checksum) {
+                    logTornTail(segment, start);
+                    return;
+                }
+                buffer.position(buffer.position() + length);
+                long sequence = body.getLong();
+                long tableId = body.getLong();
+                long hand = body.getLong();
+                JournalEventType type = JournalEventType.of(body.get());
+                records.add(new JournalRecord(sequence, tableId, hand, type, body.slice()));
+            }
+        }
+    }
+
+    private static void logTornTail(Path segment, int position) {
+        logger.warn("Journal segment {} ends with a torn or corrupt record at byte {}", segment, position);
+    }
+
+    private void appendSeats(long tableId, long hand, JournalEventType type, long[] playerIds, int[] stacks) {
+        ByteBuffer payload = ByteBuffer.allocate(seatsSize(playerIds.length));
+        putSeats(payload, playerIds, stacks);
+        append(tableId, hand, type, payload);
+    }
+
+    private static int seatsSize(int seats) {
+        return 4 + seats * (8 + 4);
+    }
+
+    private static void putSeats(ByteBuffer payload, long[] playerIds, int[] stacks) {
+        payload.putInt(playerIds.length);
+        for (int seat = 0; seat < playerIds.length; seat++) {
+            payload.putLong(playerIds[seat]).putInt(stacks[seat]);
+        }
+    }
+
+    private void append(long tableId, long hand, JournalEventType type, ByteBuffer payload) {
+        if (!running) {
+            return;
+        }
+        payload.flip();
+        int length = BODY_HEADER + payload.remaining();
+        ByteBuffer frame = ByteBuffer.allocate(FRAME_HEADER + length);
+        frame.putInt(length).putInt(0);
+        frame.putLong(sequence.incrementAndGet()).putLong(tableId).putLong(hand).put((byte) type.ordinal());
+        frame.put(payload);
+        CRC32C crc = new CRC32C();
+        crc.update(frame.array(), FRAME_HEADER, length);
+        frame.putInt(4, (int) crc.getValue());
+        frame.flip();
+
+        Shard shard = shards[(int) Math.floorMod(tableId, (long) shards.length)];
+        shard.pending.add(frame);
+        shard.pendingCount.incrementAndGet();
+        appended.increment();
+        if (waiting) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    private void write() {
+        ByteBuffer[] group = new ByteBuffer[MAX_GATHER];
+        long backoffNanos = MIN_BACKOFF_NANOS;
+        while (true) {
+            waiting = true;
+            if (getPending() == 0 && !rotateRequested) {
+                if (!running) {
+                    return;
+                }
+                LockSupport.park(this);
+            }
+            waiting = false;
+
+            long start = System.nanoTime();
+            int records = 0;
+            IOException error = null;
+            for (Shard shard : shards) {
+                try {
+                    records += shard.flush(group);
+                } catch (IOException e) {
+                    error = e;
+                    logger.error("Writing journal shard {} failed, {} records are not durable", shard.index,
+                            shard.pendingCount.get(), e);
+                }
+            }
+            if (records > 0) {
+                commitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                groupSize.record(records);
+            }
+            if (error != null) {
+                failed.increment();
+                lastError = error;
+                if (!running) {
+                    logger.error("Journal shut down with {} unwritten records", getPending());
+                    return;
+                }
+                // Retry the same records later instead of spinning on a broken disk
+                LockSupport.parkNanos(this, backoffNanos);
+                backoffNanos = Math.min(backoffNanos * 2, MAX_BACKOFF_NANOS);
+                continue;
+            }
+            lastError = null;
+            backoffNanos = MIN_BACKOFF_NANOS;
+            if (rotateRequested) {
+                rotateRequested = false;
+                for (Shard shard : shards) {
+                    try {
+                        if (shard.size > 0) {
+                            shard.rotate();
+                        }
+                    } catch (IOException e) {
+                        logger.error("Rotating journal shard {} failed", shard.index, e);
+                    }
+                }
+            }
+        }
+    }
+
+    private record ClosedSegment(Path path, long lastSequence) {
+    }
+
+    /**
+     * Segment files and queue of one shard; only the writer thread touches the channel.
+     */
+    private final class Shard {
+
+        private final int index;
+        private final Queue<ByteBuffer> pending = new ConcurrentLinkedQueue<>();
+        // Queued plus unwritten records, counted down once they are forced
+        private final AtomicLong pendingCount = new AtomicLong();
+        // Only touched by the writer thread
+        private final Deque<ByteBuffer> retry = new ArrayDeque<>();
+        private final List<ByteBuffer> inFlight = new ArrayList<>();
+        private boolean broken;
+        private Path path;
+        private FileChannel channel;
+        private long size;
+        // Highest sequence written to the current segment
+        private long lastSequence;
+
+        Shard(int index) {
+            this.index = index;
+        }
+
+        void open() throws IOException {
+            // Named by shard and the next sequence, so names sort in write order
+            Path segment = directory.resolve(String.format("shard-%02d-%019d%s", index, sequence.get() + 1,
+                    SEGMENT_SUFFIX));
+            int attempt = 0;
+            while (Files.exists(segment)) {
+                segment = directory.resolve(String.format("shard-%02d-%019d-%d%s", index, sequence.get() + 1,
+                        ++attempt, SEGMENT_SUFFIX));
+            }
+            path = segment;
+            channel = FileChannel.open(segment, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+            size = 0;
+            lastSequence = 0;
+        }
+
+        void rotate() throws IOException {
+            if (channel != null) {
+                channel.close();
+                closed.add(new ClosedSegment(path, lastSequence));
+                channel = null;
+            }
+            open();
+        }
+
+        /**
+         * Writes the queued records, forces them and returns how many were written.
+         * Records stay pending until they are forced; if writing or forcing fails
+         * they are kept for the next attempt, which starts a new segment as the
+         * current one may end in a torn record.
+         */
+        int flush(ByteBuffer[] group) throws IOException {
+            if (broken) {
+                closeQuietly();
+                closed.add(new ClosedSegment(path, lastSequence));
+                channel = null;
+                broken = false;
+            }
+            if (channel == null) {
+                // Opening a segment failed before, e.g. on a full or read-only disk
+                open();
+            }
+            try {
+                int count;
+                do {
+                    count = 0;
+                    // Records of a failed attempt go first, in their original order
+                    for (ByteBuffer frame; count < group.length && (frame = retry.poll()) != null; ) {
+                        group[count++] = frame;
+                    }
+                    for (ByteBuffer frame; count < group.length && (frame = pending.poll()) != null; ) {
+                        group[count++] = frame;
+                    }
+                    long bytes = 0;
+                    for (int i = 0; i < count; i++) {
+                        inFlight.add(group[i]);
+                        bytes += group[i].remaining();
+                        lastSequence = Math.max(lastSequence, group[i].getLong(FRAME_HEADER));
+                    }
+                    long remaining = bytes;
+                    while (remaining > 0) {
+                        remaining -= channel.write(group, 0, count);
+                    }
+                    size += bytes;
+                    Arrays.fill(group, 0, count, null);
+                } while (count == group.length);
+
+                if (!inFlight.isEmpty() && fsync) {
+                    channel.force(false);
+                }
+            } catch (IOException e) {
+                Arrays.fill(group, null);
+                for (int i = inFlight.size() - 1; i >= 0; i--) {
+                    retry.addFirst(inFlight.get(i).rewind());
+                }
+                inFlight.clear();
+                broken = true;
+                throw e;
+            }
+            int written = inFlight.size();
+            pendingCount.addAndGet(-written);
+            inFlight.clear();
+            if (size >= segmentBytes) {
+                rotate();
+            }
+            return written;
+        }
+
+        void closeQuietly() {
+            if (channel == null) {
+                return;
+            }
+            try {
+                channel.close();
+            } catch (IOException e) {
+                logger.warn("Closing journal segment {} failed", path, e);
+            }
+        }
+
+        void close() {
+            if (broken || channel == null) {
+                closeQuietly();
+                return;
+            }
+            try {
+                if (fsync) {
+                    channel.force(false);
+                }
+                channel.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
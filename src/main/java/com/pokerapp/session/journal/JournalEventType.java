@@ -0,0 +1,27 @@
+package com.pokerapp.session.journal;
+
+/**
+ * Kinds of records in the {@link HandJournal}; the ordinal is the stored code,
+ * so new types go at the end.
+ */
+public enum JournalEventType {
+    // Seats, stacks before the blinds, button, blinds and shuffle seed
+    HAND_STARTED,
+    BLIND,
+    ACTION,
+    STREET,
+    // Stacks after the pots were paid out
+    HAND_SETTLED,
+    // Stacks after the bets were returned
+    HAND_ABORTED,
+    PLAYER_LEFT;
+
+    private static final JournalEventType[] VALUES = values();
+
+    public static JournalEventType of(int code) {
+        if (code < 0 || code >= VALUES.length) {
+            throw new IllegalArgumentException("Unknown journal event: " + code);
+        }
+        return VALUES[code];
+    }
+}
@@ -0,0 +1,58 @@
+package com.pokerapp.session.journal;
+
+import com.pokerapp.domain.game.GameVariant;
+
+import java.nio.ByteBuffer;
+
+/**
+ * One event read back from the journal. The payload is laid out as written by
+ * the matching {@link HandJournal} method.
+ */
+public record JournalRecord(long sequence, long tableId, long hand, JournalEventType type, ByteBuffer payload) {
+
+    /**
+     * Player ids and stacks in seat order.
+     */
+    public record Seats(long[] playerIds, int[] stacks) {
+    }
+
+    /**
+     * Table settings a hand was dealt with.
+     */
+    public record Start(GameVariant variant, int button, int bigBlind) {
+    }
+
+    /**
+     * Reads the settings of a HAND_STARTED record.
+     */
+    public Start start() {
+        ByteBuffer buffer = payload.duplicate();
+        return new Start(GameVariant.values()[buffer.get()], buffer.getInt(), buffer.getInt());
+    }
+
+    /**
+     * Reads the seats of a HAND_STARTED (stacks before the blinds), HAND_SETTLED
+     * or HAND_ABORTED record.
+     */
+    public Seats seats() {
+        ByteBuffer buffer = payload.duplicate();
+        if (type == JournalEventType.HAND_STARTED) {
+            buffer.position(buffer.position() + HandJournal.HAND_STARTED_HEADER);
+        }
+        int count = buffer.getInt();
+        long[] playerIds = new long[count];
+        int[] stacks = new int[count];
+        for (int seat = 0; seat < count; seat++) {
+            playerIds[seat] = buffer.getLong();
+            stacks[seat] = buffer.getInt();
+        }
+        return new Seats(playerIds, stacks);
+    }
+
+    /**
+     * Reads the player of a BLIND, ACTION or PLAYER_LEFT record.
+     */
+    public long playerId() {
+        return payload.getLong(payload.position());
+    }
+}
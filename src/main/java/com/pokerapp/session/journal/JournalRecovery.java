@@ -0,0 +1,230 @@
+package com.pokerapp.session.journal;
+
+import com.pokerapp.domain.game.GameVariant;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Rebuilds the chips of the seated players and the games that were running
+ * from the last table snapshots and the journal records after them. A
+ * snapshot sets the stacks of its table; records of that table up to the
+ * snapshot's sequence are skipped. A settled or aborted hand sets the stacks
+ * of its players; a hand that was still running when the records end is
+ * refunded, i.e. every player of it gets back the stack they had before the
+ * blinds. A player who left a table is dropped from the result until a later
+ * hand seats them again, as their chips were cashed out by the table service.
+ * <p>
+ * Settled stacks carried by a snapshot stand for records that were truncated.
+ * Every stack remembers the sequence of the record it comes from, so an older
+ * record left in a segment that was kept does not overwrite a newer stack.
+ */
+public final class JournalRecovery {
+
+    private final Map<Long, Integer> stacks = new HashMap<>();
+    // Sequence each player's stack (or leaving) comes from, kept after they leave
+    private final Map<Long, Long> sequences = new HashMap<>();
+    private final Map<Long, TableState> tables = new HashMap<>();
+    private int settledHands;
+    private int refundedHands;
+
+    private JournalRecovery() {
+    }
+
+    /**
+     * Replays the records, which must be in sequence order.
+     */
+    public static JournalRecovery replay(List<JournalRecord> records) {
+        return replay(List.of(), records);
+    }
+
+    /**
+     * Starts from the snapshots and replays the records after them, which must be in sequence order.
+     */
+    public static JournalRecovery replay(List<TableSnapshot> snapshots, List<JournalRecord> records) {
+        return replay(new Checkpoint(snapshots, List.of()), records);
+    }
+
+    /**
+     * Starts from the settled stacks and tables of the snapshot file and replays
+     * the records after them, which must be in sequence order.
+     */
+    public static JournalRecovery replay(Checkpoint checkpoint, List<JournalRecord> records) {
+        JournalRecovery recovery = new JournalRecovery();
+        for (SettledStack stack : checkpoint.settled()) {
+            if (stack.chips() == SettledStack.LEFT) {
+                recovery.removeStack(stack.playerId(), stack.sequence());
+            } else {
+                recovery.setStack(stack.playerId(), stack.chips(), stack.sequence());
+            }
+        }
+        for (TableSnapshot snapshot : checkpoint.tables()) {
+            recovery.load(snapshot);
+        }
+        for (JournalRecord record : records) {
+            recovery.apply(record);
+        }
+        recovery.refundOpenHands();
+        return recovery;
+    }
+
+    private void load(TableSnapshot snapshot) {
+        TableState table = tables.computeIfAbsent(snapshot.tableId(), id -> new TableState());
+        table.sequence = snapshot.sequence();
+        table.variant = snapshot.variant();
+        table.bigBlind = snapshot.bigBlind();
+        table.button = snapshot.button();
+        table.hand = snapshot.hand();
+        table.running = true;
+        for (int seat = 0; seat < snapshot.playerIds().length; seat++) {
+            setStack(snapshot.playerIds()[seat], snapshot.chips()[seat], snapshot.sequence());
+            table.timeBanks.put(snapshot.playerIds()[seat], snapshot.timeBanks()[seat]);
+        }
+        TableSnapshot.Hand current = snapshot.current();
+        if (current != null) {
+            table.open = new JournalRecord.Seats(current.playerIds(), current.startingStacks());
+            table.openSequence = snapshot.sequence();
+        }
+    }
+
+    private void apply(JournalRecord record) {
+        TableState table = tables.computeIfAbsent(record.tableId(), id -> new TableState());
+        if (record.sequence() <= table.sequence) {
+            return;
+        }
+        switch (record.type()) {
+            case HAND_STARTED -> {
+                if (table.open != null) {
+                    // The previous hand was never settled; its players get their stacks back
+                    refund(table);
+                }
+                JournalRecord.Start start = record.start();
+                table.variant = start.variant();
+                table.bigBlind = start.bigBlind();
+                table.button = start.button();
+                table.running = true;
+                table.open = record.seats();
+                table.openSequence = record.sequence();
+                table.hand = record.hand();
+                for (long playerId : table.open.playerIds()) {
+                    table.left.remove(playerId);
+                }
+            }
+            case HAND_SETTLED, HAND_ABORTED -> {
+                if (table.open == null || table.hand != record.hand()) {
+                    return;
+                }
+                JournalRecord.Seats seats = record.seats();
+                for (int seat = 0; seat < seats.playerIds().length; seat++) {
+                    if (!table.left.contains(seats.playerIds()[seat])) {
+                        setStack(seats.playerIds()[seat], seats.stacks()[seat], record.sequence());
+                    }
+                }
+                table.open = null;
+                // Hands are only aborted when the game at the table is stopped
+                table.running &= record.type() == JournalEventType.HAND_SETTLED;
+                settledHands++;
+            }
+            case PLAYER_LEFT -> {
+                table.left.add(record.playerId());
+                removeStack(record.playerId(), record.sequence());
+            }
+            default -> {
+                // Blinds, actions and streets do not change the outcome of a refund
+            }
+        }
+    }
+
+    private void refundOpenHands() {
+        for (TableState table : tables.values()) {
+            if (table.open != null) {
+                refund(table);
+            }
+        }
+    }
+
+    private void refund(TableState table) {
+        JournalRecord.Seats seats = table.open;
+        for (int seat = 0; seat < seats.playerIds().length; seat++) {
+            if (!table.left.contains(seats.playerIds()[seat])) {
+                setStack(seats.playerIds()[seat], seats.stacks()[seat], table.openSequence);
+            }
+        }
+        table.open = null;
+        refundedHands++;
+    }
+
+    private void setStack(long playerId, int chips, long sequence) {
+        if (sequence >= sequences.getOrDefault(playerId, Long.MIN_VALUE)) {
+            stacks.put(playerId, chips);
+            sequences.put(playerId, sequence);
+        }
+    }
+
+    private void removeStack(long playerId, long sequence) {
+        if (sequence >= sequences.getOrDefault(playerId, Long.MIN_VALUE)) {
+            stacks.remove(playerId);
+            sequences.put(playerId, sequence);
+        }
+    }
+
+    /**
+     * Returns the recovered chips per player id.
+     */
+    public Map<Long, Integer> getStacks() {
+        return stacks;
+    }
+
+    /**
+     * Returns the tables whose game was still running.
+     */
+    public List<RecoveredTable> getTables() {
+        List<RecoveredTable> running = new ArrayList<>();
+        tables.forEach((tableId, table) -> {
+            if (table.running) {
+                running.add(new RecoveredTable(tableId, table.variant, table.bigBlind, table.button, table.hand,
+                        table.timeBanks));
+            }
+        });
+        return running;
+    }
+
+    /**
+     * Returns the stack of every player seen, including those who left, for
+     * the snapshot that replaces the replayed records.
+     */
+    public List<SettledStack> getSettled() {
+        List<SettledStack> settled = new ArrayList<>(sequences.size());
+        sequences.forEach((playerId, sequence) -> settled.add(
+                new SettledStack(playerId, stacks.getOrDefault(playerId, SettledStack.LEFT), sequence)));
+        return settled;
+    }
+
+    public int getSettledHands() {
+        return settledHands;
+    }
+
+    public int getRefundedHands() {
+        return refundedHands;
+    }
+
+    private static final class TableState {
+
+        private final Set<Long> left = new HashSet<>();
+        private final Map<Long, Long> timeBanks = new HashMap<>();
+        // Records up to this sequence are covered by the snapshot
+        private long sequence;
+        private GameVariant variant;
+        private int bigBlind;
+        private int button = -1;
+        private long hand;
+        private boolean running;
+        // Seats and stacks before the blinds of the hand in progress, and where they were recorded
+        private JournalRecord.Seats open;
+        private long openSequence;
+    }
+}
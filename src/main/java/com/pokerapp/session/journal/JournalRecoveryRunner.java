@@ -0,0 +1,92 @@
+package com.pokerapp.session.journal;
+
+import com.pokerapp.domain.user.Player;
+import com.pokerapp.repository.PlayerRepository;
+import com.pokerapp.repository.TableRepository;
+import com.pokerapp.session.TableEngine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Picks up where the previous run ended on startup: starting from the last
+ * table snapshot, the journal written after it sets the chips of every player
+ * to their last settled or refunded stack, and the games that were running
+ * are resumed with the players still seated at their table. A fresh snapshot
+ * of the resumed tables then replaces the old journal segments, and the
+ * periodic snapshots start.
+ */
+@Component
+public class JournalRecoveryRunner implements CommandLineRunner {
+    private static final Logger logger = LoggerFactory.getLogger(JournalRecoveryRunner.class);
+
+    private final HandJournal journal;
+    private final SnapshotService snapshotService;
+    private final TableEngine tableEngine;
+    private final PlayerRepository playerRepository;
+    private final TableRepository tableRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public JournalRecoveryRunner(HandJournal journal, SnapshotService snapshotService, TableEngine tableEngine,
+                                 PlayerRepository playerRepository, TableRepository tableRepository,
+                                 PlatformTransactionManager transactionManager) {
+        this.journal = journal;
+        this.snapshotService = snapshotService;
+        this.tableEngine = tableEngine;
+        this.playerRepository = playerRepository;
+        this.tableRepository = tableRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void run(String... args) throws IOException {
+        Checkpoint checkpoint = snapshotService.getRecovered();
+        List<JournalRecord> records = journal.getRecovered();
+        if (checkpoint.tables().isEmpty() && checkpoint.settled().isEmpty() && records.isEmpty()) {
+            snapshotService.finishRecovery();
+            return;
+        }
+        long start = System.nanoTime();
+        JournalRecovery recovery = JournalRecovery.replay(checkpoint, records);
+        Map<RecoveredTable, List<Player>> seated = new HashMap<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            for (Map.Entry<Long, Integer> entry : recovery.getStacks().entrySet()) {
+                playerRepository.findById(entry.getKey()).ifPresent(player -> {
+                    player.setChips(entry.getValue());
+                    playerRepository.save(player);
+                });
+            }
+            for (RecoveredTable table : recovery.getTables()) {
+                tableRepository.findById(table.tableId())
+                        .ifPresent(pokerTable -> seated.put(table, new ArrayList<>(pokerTable.getPlayers())));
+            }
+        });
+
+        int resumed = 0;
+        for (Map.Entry<RecoveredTable, List<Player>> entry : seated.entrySet()) {
+            if (!tableEngine.isActive(entry.getKey().tableId())) {
+                tableEngine.restore(entry.getKey(), entry.getValue());
+                resumed++;
+            }
+        }
+        // The players hold the recovered stacks now and the new snapshot covers the resumed tables,
+        // so neither the carried stacks nor the old journal are needed any more
+        snapshotService.finishRecovery();
+        snapshotService.snapshotAll();
+        journal.discardRecovered();
+        logger.info("Recovered {} tables from {} snapshots and {} records in {} ms: {} hands settled, {} refunded, "
+                        + "chips restored for {} players", resumed, checkpoint.tables().size(), records.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), recovery.getSettledHands(),
+                recovery.getRefundedHands(), recovery.getStacks().size());
+    }
+}
@@ -0,0 +1,17 @@
+package com.pokerapp.session.journal;
+
+import com.pokerapp.domain.game.GameVariant;
+
+import java.util.Map;
+
+/**
+ * Game of a table that was running when the previous run ended, as rebuilt
+ * from the last snapshot and the journal after it.
+ *
+ * @param button    seat of the button in the last hand dealt
+ * @param hand      number of the last hand dealt
+ * @param timeBanks time bank left per player id, where a snapshot recorded it
+ */
+public record RecoveredTable(long tableId, GameVariant variant, int bigBlind, int button, long hand,
+                             Map<Long, Long> timeBanks) {
+}
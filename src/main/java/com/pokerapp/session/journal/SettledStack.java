@@ -0,0 +1,13 @@
+package com.pokerapp.session.journal;
+
+/**
+ * Last known stack of a player who is not seated at a running table, kept in
+ * the table snapshot once the journal records it came from are truncated.
+ *
+ * @param chips    the stack, or {@link #LEFT} once the player left their table and was cashed out
+ * @param sequence journal sequence of the record the stack comes from; older records do not change it
+ */
+public record SettledStack(long playerId, int chips, long sequence) {
+
+    public static final int LEFT = -1;
+}
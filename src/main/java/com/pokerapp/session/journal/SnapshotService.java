@@ -0,0 +1,357 @@
+package com.pokerapp.session.journal;
+
+import com.pokerapp.session.TableCommand;
+import com.pokerapp.session.TableEngine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Writes the state of all running tables to one binary snapshot file in
+ * app.snapshot.dir every app.snapshot.intervalSeconds and on shutdown, so a
+ * restart only replays the journal written since the last snapshot.
+ * <p>
+ * Each table copies its state into a {@link TableSnapshot} on its own actor
+ * between two commands, which only copies a few arrays; encoding, writing and
+ * forcing the file happen on the snapshot thread. The file is written next to
+ * the old one and moved over it, and ends with a CRC32C, so a crash while
+ * writing leaves the previous snapshot in place. Once every table is in a
+ * snapshot, the journal segments it covers are deleted. Those segments also
+ * hold the last stacks of players who are no longer seated at a running table,
+ * e.g. because their game was stopped; they are replayed before deleting and
+ * carried in every following snapshot as {@link SettledStack}s. The snapshot
+ * found on startup is read before any new one is written and kept for recovery.
+ * Until {@link #finishRecovery} reports that the recovered tables are running
+ * again, no snapshot is written, as it would replace that file with one
+ * missing them; the periodic snapshots only start then.
+ */
+@Service
+public class SnapshotService {
+    private static final Logger logger = LoggerFactory.getLogger(SnapshotService.class);
+
+    private static final int MAGIC = 0x534e4150;
+    private static final byte VERSION = 2;
+    private static final int HEADER = 4 + 1 + 8 + 4;
+    private static final int SETTLED_STACK = 8 + 4 + 8;
+    private static final long CAPTURE_TIMEOUT_MILLIS = 5_000;
+    private static final String PREFIX = "snapshot-";
+    private static final String SUFFIX = ".bin";
+
+    private final TableEngine engine;
+    private final HandJournal journal;
+    private final Path directory;
+    private final long intervalMillis;
+    private final Timer writeTimer;
+    private final Counter failed;
+    private final Checkpoint recovered;
+    // Stacks of players not seated at a running table whose records were truncated
+    private List<SettledStack> settled;
+    // Set until the recovered tables are restored, if there are any
+    private boolean recovering;
+    private Thread snapshotter;
+    private volatile boolean running = true;
+
+    @Autowired
+    public SnapshotService(
+            TableEngine engine,
+            HandJournal journal,
+            MeterRegistry meterRegistry,
+            @Value("${app.snapshot.dir:data/snapshots}") String directory,
+            @Value("${app.snapshot.intervalSeconds:30}") long intervalSeconds) throws IOException {
+        this(engine, journal, Paths.get(directory), TimeUnit.SECONDS.toMillis(intervalSeconds), meterRegistry);
+    }
+
+    /**
+     * Creates the service; with an interval of 0 snapshots are only taken by {@link #snapshotAll()}.
+     */
+    public SnapshotService(TableEngine engine, HandJournal journal, Path directory, long intervalMillis,
+                           MeterRegistry meterRegistry) throws IOException {
+        if (intervalMillis < 0) {
+            throw new IllegalArgumentException("Snapshot interval must not be negative");
+        }
+        this.engine = engine;
+        this.journal = journal;
+        this.directory = directory;
+        this.intervalMillis = intervalMillis;
+        Files.createDirectories(directory);
+        this.recovered = readLatest(directory);
+        this.settled = recovered.settled();
+        this.recovering = !recovered.tables().isEmpty() || !recovered.settled().isEmpty();
+        if (journal != null) {
+            // The journal the snapshot covered may be gone; new records must still sort after it
+            for (TableSnapshot table : recovered.tables()) {
+                journal.skipTo(table.sequence());
+            }
+            for (SettledStack stack : recovered.settled()) {
+                journal.skipTo(stack.sequence());
+            }
+        }
+        this.writeTimer = Timer.builder("snapshot.write").register(meterRegistry);
+        this.failed = Counter.builder("snapshot.failed").register(meterRegistry);
+    }
+
+    /**
+     * Called once the recovered tables run again and the carried stacks are
+     * written to the players: forgets the carried stacks, allows snapshots and
+     * starts the periodic ones.
+     */
+    public synchronized void finishRecovery() {
+        settled = List.of();
+        recovering = false;
+        if (intervalMillis > 0 && snapshotter == null && running) {
+            snapshotter = new Thread(this::run, "table-snapshots");
+            snapshotter.setDaemon(true);
+            snapshotter.start();
+        }
+    }
+
+    /**
+     * Stops the periodic snapshots and takes a last one of every table.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        Thread thread;
+        synchronized (this) {
+            running = false;
+            thread = snapshotter;
+        }
+        if (thread != null) {
+            thread.interrupt();
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        try {
+            snapshotAll();
+        } catch (IOException e) {
+            logger.error("Writing the shutdown snapshot failed", e);
+        }
+    }
+
+    /**
+     * Snapshots every running table into a new file that replaces the previous
+     * one, then truncates the journal up to it if every table took part.
+     * Returns the number of tables written, 0 while recovery has not finished.
+     */
+    public synchronized int snapshotAll() throws IOException {
+        if (recovering) {
+            logger.warn("Not writing a snapshot before the recovered tables are restored");
+            return 0;
+        }
+        long start = System.nanoTime();
+        // Every record of a running table up to here is covered by its snapshot
+        long covered = journal != null ? journal.getSequence() : 0;
+        List<CompletableFuture<TableSnapshot>> pending = new ArrayList<>();
+        for (Long tableId : engine.getActiveTables()) {
+            CompletableFuture<TableSnapshot> snapshot = new CompletableFuture<>();
+            if (engine.submit(tableId, TableCommand.snapshot(snapshot))) {
+                pending.add(snapshot);
+            }
+        }
+
+        List<TableSnapshot> snapshots = new ArrayList<>(pending.size());
+        boolean complete = true;
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(CAPTURE_TIMEOUT_MILLIS);
+        for (CompletableFuture<TableSnapshot> snapshot : pending) {
+            try {
+                TableSnapshot table = snapshot.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                if (table != null) {
+                    snapshots.add(table);
+                }
+            } catch (TimeoutException | ExecutionException e) {
+                complete = false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                complete = false;
+            }
+        }
+
+        List<SettledStack> carried = settled;
+        // Exactly the segments replayed into the carried stacks are deleted below
+        List<Path> segments = journal != null && complete ? journal.closedSegments(covered) : List.of();
+        if (!segments.isEmpty()) {
+            carried = settle(snapshots, segments);
+        }
+        write(new Checkpoint(snapshots, carried), covered);
+        settled = carried;
+        writeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (journal != null) {
+            if (complete) {
+                journal.truncate(segments);
+            } else {
+                logger.warn("Not every table answered the snapshot, keeping the journal");
+            }
+            journal.rotate();
+        }
+        return snapshots.size();
+    }
+
+    /**
+     * Returns the snapshot found on startup, empty if there was none.
+     */
+    public Checkpoint getRecovered() {
+        return recovered;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Reads the newest valid snapshot file of the directory, or returns an empty checkpoint if there is none.
+     */
+    public static Checkpoint readLatest(Path directory) throws IOException {
+        List<Path> files = snapshotFiles(directory);
+        for (int i = files.size() - 1; i >= 0; i--) {
+            Path file = files.get(i);
+            Checkpoint checkpoint = read(file);
+            if (checkpoint != null) {
+                return checkpoint;
+            }
+            logger.warn("Ignoring corrupt snapshot {}", file);
+        }
+        return Checkpoint.EMPTY;
+    }
+
+    /**
+     * Replays the segments about to be truncated on top of the carried stacks.
+     * Players seated at a running table are dropped, as its snapshot is newer.
+     */
+    private List<SettledStack> settle(List<TableSnapshot> snapshots, List<Path> segments) throws IOException {
+        JournalRecovery recovery = JournalRecovery.replay(new Checkpoint(List.of(), settled),
+                HandJournal.read(segments));
+        Set<Long> seated = new HashSet<>();
+        for (TableSnapshot snapshot : snapshots) {
+            for (long playerId : snapshot.playerIds()) {
+                seated.add(playerId);
+            }
+        }
+        List<SettledStack> carried = new ArrayList<>();
+        for (SettledStack stack : recovery.getSettled()) {
+            if (!seated.contains(stack.playerId())) {
+                carried.add(stack);
+            }
+        }
+        return carried;
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                Thread.sleep(intervalMillis);
+                snapshotAll();
+            } catch (InterruptedException e) {
+                return;
+            } catch (IOException | RuntimeException e) {
+                failed.increment();
+                logger.error("Writing the table snapshot failed", e);
+            }
+        }
+    }
+
+    private void write(Checkpoint checkpoint, long covered) throws IOException {
+        int size = HEADER + 4 + checkpoint.settled().size() * SETTLED_STACK + 4;
+        for (TableSnapshot snapshot : checkpoint.tables()) {
+            size += snapshot.size();
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putInt(MAGIC).put(VERSION).putLong(System.currentTimeMillis()).putInt(checkpoint.tables().size());
+        for (TableSnapshot snapshot : checkpoint.tables()) {
+            snapshot.writeTo(buffer);
+        }
+        buffer.putInt(checkpoint.settled().size());
+        for (SettledStack stack : checkpoint.settled()) {
+            buffer.putLong(stack.playerId()).putInt(stack.chips()).putLong(stack.sequence());
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.array(), 0, buffer.position());
+        buffer.putInt((int) crc.getValue());
+        buffer.flip();
+
+        Path file = directory.resolve(String.format("%s%019d%s", PREFIX, covered, SUFFIX));
+        Path temporary = directory.resolve(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        for (Path old : snapshotFiles(directory)) {
+            if (!old.equals(file)) {
+                Files.deleteIfExists(old);
+            }
+        }
+    }
+
+    /**
+     * Returns the contents of the file, or null if it is torn or corrupt.
+     */
+    private static Checkpoint read(Path file) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        if (buffer.remaining() < HEADER + 4) {
+            return null;
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.array(), 0, buffer.limit() - 4);
+        if ((int) crc.getValue() != buffer.getInt(buffer.limit() - 4) || buffer.getInt() != MAGIC) {
+            return null;
+        }
+        // Version 1 files have no settled stacks
+        byte version = buffer.get();
+        if (version != 1 && version != VERSION) {
+            return null;
+        }
+        buffer.getLong();
+        int tables = buffer.getInt();
+        List<TableSnapshot> snapshots = new ArrayList<>(tables);
+        for (int i = 0; i < tables; i++) {
+            snapshots.add(TableSnapshot.readFrom(buffer));
+        }
+        List<SettledStack> settled = new ArrayList<>();
+        if (version == VERSION) {
+            int stacks = buffer.getInt();
+            for (int i = 0; i < stacks; i++) {
+                settled.add(new SettledStack(buffer.getLong(), buffer.getInt(), buffer.getLong()));
+            }
+        }
+        return new Checkpoint(snapshots, settled);
+    }
+
+    private static List<Path> snapshotFiles(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> {
+                String name = file.getFileName().toString();
+                return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+            }).sorted(Comparator.comparing(Path::getFileName)).toList();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.pokerapp.session.journal;
+
+import com.pokerapp.domain.card.ShuffleSeed;
+import com.pokerapp.domain.game.GameVariant;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Copy of the state of one table, taken by its actor between two commands so
+ * that it can be encoded and written on another thread. Arrays are indexed by
+ * seat and owned by the snapshot.
+ *
+ * @param sequence journal sequence when the snapshot was taken; every later
+ *                 record of the table comes after it
+ * @param button   seat of the button in the last hand, -1 before the first
+ * @param hand     number of the last hand dealt
+ * @param current  the hand in progress, or null
+ */
+public record TableSnapshot(long tableId, long sequence, GameVariant variant, int bigBlind, int button, long hand,
+                            long[] playerIds, int[] chips, long[] timeBanks, Hand current) {
+
+    /**
+     * State of the hand in progress. The seed and the deck position give the
+     * cards dealt so far; the starting stacks are the ones before the blinds.
+     *
+     * @param folded      folded seats of the hand as a bit set
+     * @param clockMillis time left on the clock of the player to act
+     */
+    public record Hand(byte[] seed, int deckPosition, int street, int toAct, long turn, long clockMillis,
+                       long folded, long[] playerIds, int[] startingStacks, int[] committed) {
+    }
+
+    /**
+     * Returns the encoded size in bytes.
+     */
+    public int size() {
+        int size = 8 + 8 + 1 + 4 + 4 + 8 + 4 + playerIds.length * (8 + 4 + 8) + 1;
+        if (current != null) {
+            size += ShuffleSeed.LENGTH + 4 + 4 + 4 + 8 + 8 + 8 + 4 + current.playerIds.length * (8 + 4 + 4);
+        }
+        return size;
+    }
+
+    public void writeTo(ByteBuffer buffer) {
+        buffer.putLong(tableId).putLong(sequence).put((byte) variant.ordinal()).putInt(bigBlind).putInt(button)
+                .putLong(hand);
+        buffer.putInt(playerIds.length);
+        for (int seat = 0; seat < playerIds.length; seat++) {
+            buffer.putLong(playerIds[seat]).putInt(chips[seat]).putLong(timeBanks[seat]);
+        }
+        buffer.put((byte) (current == null ? 0 : 1));
+        if (current != null) {
+            buffer.put(current.seed).putInt(current.deckPosition).putInt(current.street).putInt(current.toAct)
+                    .putLong(current.turn).putLong(current.clockMillis).putLong(current.folded);
+            buffer.putInt(current.playerIds.length);
+            for (int seat = 0; seat < current.playerIds.length; seat++) {
+                buffer.putLong(current.playerIds[seat]).putInt(current.startingStacks[seat])
+                        .putInt(current.committed[seat]);
+            }
+        }
+    }
+
+    public static TableSnapshot readFrom(ByteBuffer buffer) {
+        long tableId = buffer.getLong();
+        long sequence = buffer.getLong();
+        GameVariant variant = GameVariant.values()[buffer.get()];
+        int bigBlind = buffer.getInt();
+        int button = buffer.getInt();
+        long hand = buffer.getLong();
+        int seats = buffer.getInt();
+        long[] playerIds = new long[seats];
+        int[] chips = new int[seats];
+        long[] timeBanks = new long[seats];
+        for (int seat = 0; seat < seats; seat++) {
+            playerIds[seat] = buffer.getLong();
+            chips[seat] = buffer.getInt();
+            timeBanks[seat] = buffer.getLong();
+        }
+        Hand current = null;
+        if (buffer.get() != 0) {
+            byte[] seed = new byte[ShuffleSeed.LENGTH];
+            buffer.get(seed);
+            int deckPosition = buffer.getInt();
+            int street = buffer.getInt();
+            int toAct = buffer.getInt();
+            long turn = buffer.getLong();
+            long clockMillis = buffer.getLong();
+            long folded = buffer.getLong();
+            int handSeats = buffer.getInt();
+            long[] handPlayerIds = new long[handSeats];
+            int[] startingStacks = new int[handSeats];
+            int[] committed = new int[handSeats];
+            for (int seat = 0; seat < handSeats; seat++) {
+                handPlayerIds[seat] = buffer.getLong();
+                startingStacks[seat] = buffer.getInt();
+                committed[seat] = buffer.getInt();
+            }
+            current = new Hand(seed, deckPosition, street, toAct, turn, clockMillis, folded, handPlayerIds,
+                    startingStacks, committed);
+        }
+        return new TableSnapshot(tableId, sequence, variant, bigBlind, button, hand, playerIds, chips, timeBanks,
+                current);
+    }
+}
@@ -0,0 +1,255 @@
+package com.pokerapp.tools;
+
+import com.pokerapp.domain.card.CardCodes;
+import com.pokerapp.domain.game.BitmaskHandEvaluator;
+import com.pokerapp.domain.game.LookupTableHandEvaluator;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Command line tool that generates the state-transition table read by
+ * {@link LookupTableHandEvaluator}.
+ * <p>
+ * States are sorted lists of up to six cards packed into a long, one byte per
+ * card ({@code rank << 4 | suit}). Suits that can no longer make a flush are
+ * stripped, which collapses equivalent states and keeps the table at about
+ * 600k states.
+ * <p>
+ * Usage: {@code java -cp <classpath> com.pokerapp.tools.HandRankTableGenerator [file] [--exhaustive]}
+ * (default file {@code data/handranks.dat}). With {@code --exhaustive} all
+ * 133,784,560 seven card hands are checked against {@link BitmaskHandEvaluator}.
+ */
+public class HandRankTableGenerator {
+
+    private static final int SLOTS = LookupTableHandEvaluator.SLOTS_PER_STATE;
+
+    private final int[] work = new int[8];
+    private final int[] rankCount = new int[14];
+    private final int[] suitCount = new int[5];
+    private int cardCount;
+
+    public static void main(String[] args) throws IOException {
+        Path file = Paths.get(args.length > 0 && !args[0].startsWith("--") ? args[0] : "data/handranks.dat");
+        boolean exhaustive = Arrays.asList(args).contains("--exhaustive");
+
+        long start = System.currentTimeMillis();
+        int[] table = new HandRankTableGenerator().generate();
+        write(table, file);
+        System.out.printf("Wrote %d entries to %s in %d ms%n", table.length, file, System.currentTimeMillis() - start);
+
+        LookupTableHandEvaluator evaluator = LookupTableHandEvaluator.load(file);
+        evaluator.verify(1_000_000, start);
+        if (exhaustive) {
+            verifyAll(evaluator);
+        }
+        System.out.println("Verification passed");
+    }
+
+    public int[] generate() {
+        long[] ids = enumerateStates();
+        int[] table = new int[ids.length * SLOTS];
+        for (int index = 0; index < ids.length; index++) {
+            int base = index * SLOTS;
+            for (int code = 0; code < CardCodes.DECK_SIZE; code++) {
+                long id = makeId(ids[index], code);
+                if (id == 0) {
+                    continue;
+                }
+                table[base + code + 1] = cardCount < 7
+                        ? Arrays.binarySearch(ids, id) * SLOTS
+                        : evaluate(id);
+            }
+            int size = size(ids[index]);
+            if (size == 5 || size == 6) {
+                table[base] = evaluate(ids[index]);
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Collects all reachable states of zero to six cards, sorted so that the
+     * empty state gets index 0.
+     */
+    private long[] enumerateStates() {
+        Set<Long> all = new HashSet<>();
+        Set<Long> layer = Set.of(0L);
+        all.add(0L);
+        for (int depth = 0; depth < 6; depth++) {
+            Set<Long> next = new HashSet<>();
+            for (long id : layer) {
+                for (int code = 0; code < CardCodes.DECK_SIZE; code++) {
+                    long nextId = makeId(id, code);
+                    if (nextId != 0 && all.add(nextId)) {
+                        next.add(nextId);
+                    }
+                }
+            }
+            layer = next;
+        }
+        long[] ids = all.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(ids);
+        return ids;
+    }
+
+    /**
+     * Adds a card to a state, returning 0 if the card is already present or
+     * the hand would be impossible. Sets {@link #cardCount} as a side effect.
+     */
+    private long makeId(long id, int code) {
+        Arrays.fill(work, 0);
+        Arrays.fill(rankCount, 0);
+        Arrays.fill(suitCount, 0);
+        for (int i = 0; i < 6; i++) {
+            work[i + 1] = (int) (id >>> (8 * i)) & 0xFF;
+        }
+        work[0] = (CardCodes.rank(code) + 1) << 4 | (CardCodes.suit(code) + 1);
+
+        boolean duplicate = false;
+        for (cardCount = 0; work[cardCount] != 0; cardCount++) {
+            suitCount[work[cardCount] & 0xF]++;
+            rankCount[work[cardCount] >>> 4]++;
+            if (cardCount != 0 && work[0] == work[cardCount]) {
+                duplicate = true;
+            }
+        }
+        if (duplicate) {
+            return 0;
+        }
+        for (int rank = 1; rank <= CardCodes.RANK_COUNT; rank++) {
+            if (rankCount[rank] > 4) {
+                return 0;
+            }
+        }
+
+        // A suit with fewer than (cards - 2) members can no longer make a flush
+        int needSuited = cardCount - 2;
+        if (needSuited > 1) {
+            for (int i = 0; i < cardCount; i++) {
+                if (suitCount[work[i] & 0xF] < needSuited) {
+                    work[i] &= 0xF0;
+                }
+            }
+        }
+
+        Arrays.sort(work, 0, cardCount);
+        long result = 0;
+        for (int i = 0; i < cardCount; i++) {
+            result |= (long) work[cardCount - 1 - i] << (8 * i);
+        }
+        return result;
+    }
+
+    private static int size(long id) {
+        int size = 0;
+        while (size < 8 && ((id >>> (8 * size)) & 0xFF) != 0) {
+            size++;
+        }
+        return size;
+    }
+
+    /**
+     * Evaluates a five to seven card state. Cards with a stripped suit are dealt
+     * round-robin into the suits that cannot hold a flush, so they never form one.
+     */
+    private static int evaluate(long id) {
+        int keptSuit = 0;
+        for (int i = 0; i < 8; i++) {
+            int suit = (int) (id >>> (8 * i)) & 0xF;
+            if (suit != 0) {
+                keptSuit = suit;
+            }
+        }
+        long mask = 0L;
+        int nextSuit = 0;
+        for (int i = 0; i < 8; i++) {
+            int card = (int) (id >>> (8 * i)) & 0xFF;
+            if (card == 0) {
+                break;
+            }
+            int rank = (card >>> 4) - 1;
+            int suit = (card & 0xF) - 1;
+            if (suit < 0) {
+                if (nextSuit + 1 == keptSuit) {
+                    nextSuit = (nextSuit + 1) % CardCodes.SUIT_COUNT;
+                }
+                suit = nextSuit;
+                nextSuit = (nextSuit + 1) % CardCodes.SUIT_COUNT;
+            }
+            mask |= 1L << (suit * CardCodes.RANK_COUNT + rank);
+        }
+        return BitmaskHandEvaluator.evaluate(mask);
+    }
+
+    /**
+     * Writes a generated table in the format read by {@link LookupTableHandEvaluator#load}.
+     */
+    public static void write(int[] table, Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(LookupTableHandEvaluator.HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(LookupTableHandEvaluator.MAGIC).putInt(LookupTableHandEvaluator.VERSION).putLong(table.length).flip();
+            channel.write(header);
+
+            ByteBuffer chunk = ByteBuffer.allocateDirect(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+            for (int value : table) {
+                if (!chunk.hasRemaining()) {
+                    chunk.flip();
+                    while (chunk.hasRemaining()) {
+                        channel.write(chunk);
+                    }
+                    chunk.clear();
+                }
+                chunk.putInt(value);
+            }
+            chunk.flip();
+            while (chunk.hasRemaining()) {
+                channel.write(chunk);
+            }
+        }
+    }
+
+    private static void verifyAll(LookupTableHandEvaluator evaluator) {
+        int[] c = new int[7];
+        long checked = 0;
+        for (c[0] = 0; c[0] < 46; c[0]++) {
+            int s0 = evaluator.next(LookupTableHandEvaluator.ROOT, c[0]);
+            for (c[1] = c[0] + 1; c[1] < 47; c[1]++) {
+                int s1 = evaluator.next(s0, c[1]);
+                for (c[2] = c[1] + 1; c[2] < 48; c[2]++) {
+                    int s2 = evaluator.next(s1, c[2]);
+                    for (c[3] = c[2] + 1; c[3] < 49; c[3]++) {
+                        int s3 = evaluator.next(s2, c[3]);
+                        for (c[4] = c[3] + 1; c[4] < 50; c[4]++) {
+                            int s4 = evaluator.next(s3, c[4]);
+                            for (c[5] = c[4] + 1; c[5] < 51; c[5]++) {
+                                int s5 = evaluator.next(s4, c[5]);
+                                for (c[6] = c[5] + 1; c[6] < 52; c[6]++) {
+                                    int expected = BitmaskHandEvaluator.evaluate(CardCodes.mask(c));
+                                    if (evaluator.next(s5, c[6]) != expected) {
+                                        throw new IllegalStateException("Mismatch for " + Arrays.toString(c));
+                                    }
+                                    checked++;
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        System.out.printf("Checked %d seven card hands%n", checked);
+    }
+}
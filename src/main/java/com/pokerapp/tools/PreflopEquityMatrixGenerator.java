@@ -0,0 +1,39 @@
+package com.pokerapp.tools;
+
+import com.pokerapp.domain.game.BitmaskHandEvaluator;
+import com.pokerapp.service.spadehub.PreflopEquityMatrix;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Command line tool that computes the {@link PreflopEquityMatrix} behind the
+ * cheatsheet heatmap. The application only loads the result at startup.
+ * <p>
+ * Usage: {@code java -cp <classpath> com.pokerapp.tools.PreflopEquityMatrixGenerator [file] [samples]}
+ * (defaults {@code src/main/resources/cheatsheet/preflop-equity.bin} and 200,000
+ * showdowns per cell). Uses all cores of the common fork-join pool.
+ */
+public class PreflopEquityMatrixGenerator {
+
+    public static void main(String[] args) throws IOException {
+        Path file = Paths.get(args.length > 0 ? args[0] : "src/main/resources/cheatsheet/preflop-equity.bin");
+        long samples = args.length > 1 ? Long.parseLong(args[1]) : 200_000;
+
+        long start = System.currentTimeMillis();
+        PreflopEquityMatrix matrix = PreflopEquityMatrix.compute(BitmaskHandEvaluator::evaluate, samples);
+
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+            matrix.write(out);
+        }
+        System.out.printf("Wrote %d cells for %d-%d players to %s in %d ms%n", PreflopEquityMatrix.CLASS_COUNT,
+                PreflopEquityMatrix.MIN_PLAYERS, PreflopEquityMatrix.MAX_PLAYERS, file, System.currentTimeMillis() - start);
+    }
+}
@@ -0,0 +1,73 @@
+package com.pokerapp.websocket;
+
+import com.pokerapp.session.TableCommand;
+import com.pokerapp.session.TableEngine;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+
+import java.security.Principal;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Tracks which players are connected to which table: subscribing to a table's
+ * topic connects the player, closing the STOMP session disconnects them from
+ * all their tables and fails their pending requests. The table's game is told
+ * either way, so it can grant a disconnected player the disconnect protection
+ * window.
+ */
+@Component
+public class TableConnectionListener {
+
+    private static final Pattern TABLE_TOPIC = Pattern.compile("/topic/tables/(\\d+)");
+
+    private final TableWebSocketHandler webSocketHandler;
+    private final TableEngine tableEngine;
+
+    public TableConnectionListener(TableWebSocketHandler webSocketHandler, TableEngine tableEngine) {
+        this.webSocketHandler = webSocketHandler;
+        this.tableEngine = tableEngine;
+    }
+
+    @EventListener
+    public void handleSubscribe(SessionSubscribeEvent event) {
+        String destination = StompHeaderAccessor.wrap(event.getMessage()).getDestination();
+        Long playerId = playerId(event.getUser());
+        if (destination == null || playerId == null) {
+            return;
+        }
+        Matcher matcher = TABLE_TOPIC.matcher(destination);
+        if (matcher.matches()) {
+            Long tableId = Long.parseLong(matcher.group(1));
+            webSocketHandler.registerPlayerConnection(tableId, playerId, event.getUser().getName());
+            tableEngine.submit(tableId, TableCommand.reconnect(playerId));
+        }
+    }
+
+    @EventListener
+    public void handleDisconnect(SessionDisconnectEvent event) {
+        Long playerId = playerId(event.getUser());
+        if (playerId == null) {
+            return;
+        }
+        webSocketHandler.cancelPendingResponses(playerId);
+        for (Long tableId : webSocketHandler.removePlayer(playerId)) {
+            tableEngine.submit(tableId, TableCommand.disconnect(playerId));
+        }
+    }
+
+    // Principals are named by player id, see TableMessageController
+    private static Long playerId(Principal principal) {
+        if (principal == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(principal.getName());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package com.pokerapp.websocket;
 
+import com.pokerapp.session.PlayerAction;
+import com.pokerapp.session.TableCommand;
+import com.pokerapp.session.TableEngine;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.messaging.handler.annotation.DestinationVariable;
@@ -20,9 +23,11 @@ public class TableMessageController {
     private static final Logger logger = LoggerFactory.getLogger(TableMessageController.class);
     
     private final TableWebSocketHandler webSocketHandler;
+    private final TableEngine tableEngine;
     
-    public TableMessageController(TableWebSocketHandler webSocketHandler) {
+    public TableMessageController(TableWebSocketHandler webSocketHandler, TableEngine tableEngine) {
         this.webSocketHandler = webSocketHandler;
+        this.tableEngine = tableEngine;
     }
     
     /**
@@ -55,10 +60,42 @@ public class TableMessageController {
             }
         }
         
+        // Betting actions go to the table's game, e.g. {"type": "ACTION", "action": "RAISE", "amount": 120}
+        if ("ACTION".equals(message.get("type"))) {
+            PlayerAction action = parseAction(message.get("action"));
+            if (action == null) {
+                logger.debug("Rejected action {} of player {} at table {}", message.get("action"), playerId, tableId);
+                webSocketHandler.sendToPlayer(playerId, Map.of(
+                        "type", "ACTION_REJECTED",
+                        "tableId", tableId,
+                        "message", "Unknown action: " + message.get("action")));
+                return;
+            }
+            int amount = message.get("amount") instanceof Number number ? number.intValue() : 0;
+            if (!tableEngine.submit(tableId, TableCommand.action(playerId, action, amount))) {
+                logger.debug("Dropped action of player {}: no game at table {}", playerId, tableId);
+            }
+            return;
+        }
+
         // Add player info to the message
         message.put("playerId", playerId);
         
         // For regular messages, forward to all players at the table
         webSocketHandler.sendToTable(tableId, message);
     }
+
+    /**
+     * Returns the action named by the message, or null if it is missing or unknown.
+     */
+    private static PlayerAction parseAction(Object name) {
+        if (name instanceof String value) {
+            for (PlayerAction action : PlayerAction.values()) {
+                if (action.name().equals(value)) {
+                    return action;
+                }
+            }
+        }
+        return null;
+    }
 }
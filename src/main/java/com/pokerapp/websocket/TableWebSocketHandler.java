@@ -1,14 +1,20 @@
 package com.pokerapp.websocket;
 
+import com.pokerapp.session.TimingWheel;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
@@ -19,18 +25,30 @@ import java.util.concurrent.TimeoutException;
 public class TableWebSocketHandler {
     private static final Logger logger = LoggerFactory.getLogger(TableWebSocketHandler.class);
 
+    private static final long RESPONSE_TICK_MILLIS = 10;
+
     private final SimpMessagingTemplate messagingTemplate;
 
     // Map to track player sessions by table
     private final Map<Long, Map<Long, String>> tablePlayerMap = new ConcurrentHashMap<>();
 
     // Map to store pending requests waiting for responses
-    private final Map<String, CompletableFuture<Map<String, Object>>> pendingResponses = new ConcurrentHashMap<>();
+    private final Map<String, PendingResponse> pendingResponses = new ConcurrentHashMap<>();
+
+    // Expires the pending requests; started with the first request
+    private volatile TimingWheel timers;
 
     public TableWebSocketHandler(SimpMessagingTemplate messagingTemplate) {
         this.messagingTemplate = messagingTemplate;
     }
 
+    @PreDestroy
+    public void shutdown() {
+        if (timers != null) {
+            timers.shutdown();
+        }
+    }
+
     /**
      * Register a player connection to a table
      *
@@ -64,6 +82,24 @@ public class TableWebSocketHandler {
         }
     }
 
+    /**
+     * Remove a player from all tables, e.g. when their session closes
+     *
+     * @param playerId The player ID
+     * @return The IDs of the tables the player was connected to
+     */
+    public List<Long> removePlayer(Long playerId) {
+        List<Long> tables = new ArrayList<>();
+        for (Long tableId : tablePlayerMap.keySet()) {
+            Map<Long, String> tablePlayers = tablePlayerMap.get(tableId);
+            if (tablePlayers != null && tablePlayers.containsKey(playerId)) {
+                removePlayerConnection(tableId, playerId);
+                tables.add(tableId);
+            }
+        }
+        return tables;
+    }
+
     /**
      * Send a message to all players at a table
      *
@@ -101,7 +137,8 @@ public class TableWebSocketHandler {
     }
 
     /**
-     * Send a request to a player and wait for their response with a timeout
+     * Send a request to a player and wait for their response with a timeout.
+     * Blocks the calling thread; prefer {@link #requestPlayerResponse}.
      *
      * @param playerId The player ID
      * @param message The message to send
@@ -111,33 +148,58 @@ public class TableWebSocketHandler {
      */
     public Map<String, Object> waitForPlayerResponse(Long playerId, Map<String, Object> message,
                                                      int timeoutSeconds) throws TimeoutException {
+        try {
+            return requestPlayerResponse(playerId, message, timeoutSeconds, TimeUnit.SECONDS)
+                    .toCompletableFuture().get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof TimeoutException timeout) {
+                throw timeout;
+            }
+            throw new RuntimeException("Error waiting for player response", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted waiting for player response", e);
+        }
+    }
+
+    /**
+     * Send a request to a player without waiting for the response. The stage is
+     * completed by {@link #handlePlayerResponse} on the thread that receives the
+     * response, or fails with a {@link TimeoutException} from the shared timer,
+     * or with an {@link IllegalStateException} if the player disconnects first.
+     *
+     * @param playerId The player ID
+     * @param message The message to send
+     * @param timeout Maximum time to wait for response
+     * @param unit Unit of the timeout
+     * @return Stage completed with the player's response
+     */
+    public CompletionStage<Map<String, Object>> requestPlayerResponse(Long playerId, Map<String, Object> message,
+                                                                      long timeout, TimeUnit unit) {
         // Generate a unique request ID
         String requestId = UUID.randomUUID().toString();
-
-        // Create a CompletableFuture to wait for the response
-        CompletableFuture<Map<String, Object>> responseFuture = new CompletableFuture<>();
-        pendingResponses.put(requestId, responseFuture);
+        CompletableFuture<Map<String, Object>> future = new CompletableFuture<>();
+        PendingResponse pending = new PendingResponse(playerId, future);
+        pendingResponses.put(requestId, pending);
 
         // Add request ID to message so client knows to include it in response
         message.put("requestId", requestId);
-
-        // Send message to player
-        boolean sent = sendToPlayer(playerId, message);
-        if (!sent) {
+        if (!sendToPlayer(playerId, message)) {
             pendingResponses.remove(requestId);
-            throw new RuntimeException("Player not connected or not found");
+            future.completeExceptionally(new IllegalStateException("Player not connected or not found"));
+            return future;
         }
 
-        try {
-            // Wait for response with timeout
-            return responseFuture.orTimeout(timeoutSeconds, TimeUnit.SECONDS).get();
-        } catch (Exception e) {
-            pendingResponses.remove(requestId);
-            if (e.getCause() instanceof TimeoutException) {
-                throw new TimeoutException("Timeout waiting for player response");
+        pending.timeout = timers().schedule(() -> {
+            if (pendingResponses.remove(requestId, pending)) {
+                future.completeExceptionally(new TimeoutException("Timeout waiting for player response"));
             }
-            throw new RuntimeException("Error waiting for player response", e);
+        }, timeout, unit);
+        // The response may have arrived before the timeout was set
+        if (future.isDone()) {
+            pending.cancelTimeout();
         }
+        return future;
     }
 
     /**
@@ -148,12 +210,44 @@ public class TableWebSocketHandler {
      * @return true if response was handled, false if no pending request found
      */
     public boolean handlePlayerResponse(String responseId, Map<String, Object> response) {
-        CompletableFuture<Map<String, Object>> future = pendingResponses.remove(responseId);
-        if (future != null) {
-            future.complete(response);
-            return true;
+        PendingResponse pending = pendingResponses.remove(responseId);
+        if (pending == null) {
+            return false;
+        }
+        pending.cancelTimeout();
+        pending.future.complete(response);
+        return true;
+    }
+
+    /**
+     * Fail all requests still waiting for a player, e.g. when their session closes
+     *
+     * @param playerId The player ID
+     * @return The number of requests that were pending
+     */
+    public int cancelPendingResponses(Long playerId) {
+        int cancelled = 0;
+        for (Map.Entry<String, PendingResponse> entry : pendingResponses.entrySet()) {
+            PendingResponse pending = entry.getValue();
+            if (pending.playerId.equals(playerId) && pendingResponses.remove(entry.getKey(), pending)) {
+                pending.cancelTimeout();
+                pending.future.completeExceptionally(new IllegalStateException("Player " + playerId + " disconnected"));
+                cancelled++;
+            }
         }
-        return false;
+        if (cancelled > 0) {
+            logger.debug("Cancelled {} pending requests of player {}", cancelled, playerId);
+        }
+        return cancelled;
+    }
+
+    /**
+     * Get the number of requests waiting for a response
+     *
+     * @return The number of pending requests
+     */
+    public int getPendingResponseCount() {
+        return pendingResponses.size();
     }
 
     /**
@@ -177,4 +271,41 @@ public class TableWebSocketHandler {
     public Map<Long, String> getConnectedPlayers(Long tableId) {
         return tablePlayerMap.getOrDefault(tableId, new ConcurrentHashMap<>());
     }
-}
\ No newline at end of file
+
+    private TimingWheel timers() {
+        TimingWheel wheel = timers;
+        if (wheel == null) {
+            synchronized (this) {
+                wheel = timers;
+                if (wheel == null) {
+                    wheel = new TimingWheel(RESPONSE_TICK_MILLIS);
+                    wheel.start("player-response-clock");
+                    timers = wheel;
+                }
+            }
+        }
+        return wheel;
+    }
+
+    /**
+     * Request waiting for a player's response.
+     */
+    private static final class PendingResponse {
+        private final Long playerId;
+        private final CompletableFuture<Map<String, Object>> future;
+        // Set right after the request is sent
+        private volatile TimingWheel.Timeout timeout;
+
+        private PendingResponse(Long playerId, CompletableFuture<Map<String, Object>> future) {
+            this.playerId = playerId;
+            this.future = future;
+        }
+
+        void cancelTimeout() {
+            TimingWheel.Timeout scheduled = timeout;
+            if (scheduled != null) {
+                scheduled.cancel();
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.pokerapp;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Waits for a condition another thread makes true, for code that exposes no
+ * latch or future to wait on (counters, gauges, health).
+ */
+final class Await {
+
+    private static final long TIMEOUT_SECONDS = 10;
+    private static final long POLL_MILLIS = 5;
+
+    private Await() {
+    }
+
+    static void until(BooleanSupplier condition) throws InterruptedException {
+        until("Timed out", condition);
+    }
+
+    static void until(String message, BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() >= deadline) {
+                fail(message);
+            }
+            Thread.sleep(POLL_MILLIS);
+        }
+    }
+}
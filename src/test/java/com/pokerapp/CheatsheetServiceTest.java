@@ -3,11 +3,19 @@ package com.pokerapp;
 import com.pokerapp.api.dto.request.ChipInventoryDto;
 import com.pokerapp.api.dto.response.ChipDistributionDto;
 import com.pokerapp.service.spadehub.CheatsheetService;
+import com.pokerapp.service.spadehub.PreflopEquityMatrix;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.junit.jupiter.MockitoExtension;
-
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -142,4 +150,49 @@ public class CheatsheetServiceTest {
         Map<String, Integer> dist = result.getPlayerDistribution();
         assertTrue(dist.get("chip100") > 0 || dist.get("chip25") > 0);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testHeatmapIsLoadedForEveryPlayerCount() throws IOException {
+        ReflectionTestUtils.setField(cheatsheetService, "equityMatrixResource",
+                new ClassPathResource("cheatsheet/preflop-equity.bin"));
+        cheatsheetService.initializeHeatmapData();
+
+        for (int players = PreflopEquityMatrix.MIN_PLAYERS; players <= PreflopEquityMatrix.MAX_PLAYERS; players++) {
+            List<CheatsheetService.HeatmapDataPoint> data = cheatsheetService.getHeatmapData(players);
+            assertEquals(169, data.size());
+            // Aces come first and are the strongest class at every table size
+            assertEquals("A", data.get(0).getX());
+            assertEquals("A", data.get(0).getY());
+            assertEquals("\n 0", data.get(0).getSymbol());
+        }
+        CheatsheetService.HeatmapDataPoint aceKingOffsuit = cheatsheetService.getHeatmapData().get(1);
+        assertEquals("K", aceKingOffsuit.getY());
+        assertTrue(aceKingOffsuit.getSymbol().startsWith("o"));
+        assertThrows(IllegalArgumentException.class, () -> cheatsheetService.getHeatmapData(10));
+    }
+
+    @Test
+    public void testPreflopEquityMatrix() throws IOException {
+        PreflopEquityMatrix matrix;
+        try (InputStream in = new ClassPathResource("cheatsheet/preflop-equity.bin").getInputStream()) {
+            matrix = PreflopEquityMatrix.read(in);
+        }
+        int aces = PreflopEquityMatrix.cell(12, 12);
+        int sevenDeuce = PreflopEquityMatrix.cell(5, 0);
+        assertEquals("AA", PreflopEquityMatrix.notation(aces));
+        assertEquals("72o", PreflopEquityMatrix.notation(sevenDeuce));
+        assertEquals("AKs", PreflopEquityMatrix.notation(PreflopEquityMatrix.cell(11, 12)));
+
+        // AA is about 85% heads-up and loses value with every extra opponent
+        assertEquals(0.85, matrix.equity(2, aces), 0.01);
+        for (int players = PreflopEquityMatrix.MIN_PLAYERS; players < PreflopEquityMatrix.MAX_PLAYERS; players++) {
+            assertTrue(matrix.equity(players, aces) > matrix.equity(players + 1, aces));
+            assertTrue(matrix.equity(players, aces) > matrix.equity(players, sevenDeuce));
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        matrix.write(out);
+        PreflopEquityMatrix copy = PreflopEquityMatrix.read(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(matrix.equity(6, sevenDeuce), copy.equity(6, sevenDeuce));
+    }
+}
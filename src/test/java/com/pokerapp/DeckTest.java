@@ -0,0 +1,137 @@
+package com.pokerapp;
+
+import com.pokerapp.domain.card.CardCodes;
+import com.pokerapp.domain.card.Deck;
+import com.pokerapp.domain.card.ShuffleSeed;
+import com.pokerapp.domain.card.ShuffledDeck;
+import com.pokerapp.domain.game.GameVariant;
+import com.pokerapp.service.shuffle.DeckPool;
+import com.pokerapp.service.shuffle.PreparedDeck;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DeckTest {
+
+    @Test
+    public void testDealsEveryCardOnce() {
+        ShuffledDeck deck = new ShuffledDeck(new SplittableRandom(1));
+        for (int hand = 0; hand < 3; hand++) {
+            long dealt = 0L;
+            while (deck.remaining() > 0) {
+                long bit = 1L << deck.draw();
+                assertEquals(0L, dealt & bit);
+                dealt |= bit;
+            }
+            assertEquals(CardCodes.FULL_DECK, dealt);
+            assertThrows(IllegalStateException.class, deck::draw);
+            deck.reset();
+            assertEquals(CardCodes.DECK_SIZE, deck.remaining());
+        }
+    }
+
+    @Test
+    public void testVariantDeck() {
+        ShuffledDeck deck = new ShuffledDeck(GameVariant.SHORT_DECK.getDeck(), new SplittableRandom(2));
+        assertEquals(36, deck.size());
+        assertEquals(GameVariant.SHORT_DECK.getDeck(), deck.draw(36));
+    }
+
+    @Test
+    public void testShuffleIsUniform() {
+        // Every card should reach the top of the deck about equally often
+        ShuffledDeck deck = new ShuffledDeck(new SplittableRandom(3));
+        int[] top = new int[CardCodes.DECK_SIZE];
+        int hands = 52_000;
+        for (int i = 0; i < hands; i++) {
+            deck.reset();
+            top[deck.draw()]++;
+        }
+        for (int count : top) {
+            assertEquals(1000, count, 150);
+        }
+    }
+
+    @Test
+    public void testSeedReproducesDeckOrder() {
+        ShuffleSeed seed = ShuffleSeed.generate();
+        ShuffledDeck deck = new ShuffledDeck(new SplittableRandom(4));
+        deck.draw(10);
+        deck.reset(seed.random());
+        assertArrayEquals(seed.deckOrder(CardCodes.FULL_DECK), deck.order());
+
+        // Independent of the earlier hands of the deck
+        deck.reset();
+        deck.reset(seed.random());
+        assertArrayEquals(seed.deckOrder(CardCodes.FULL_DECK), deck.order());
+        assertEquals(seed, ShuffleSeed.parse(seed.toString()));
+    }
+
+    @Test
+    public void testSeedIsSpecified() {
+        // The order of a fixed seed must never change, or revealed hands could no longer be verified
+        byte[] bytes = new byte[ShuffleSeed.LENGTH];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) (i + 1);
+        }
+        ShuffleSeed seed = ShuffleSeed.of(bytes);
+        assertEquals("ae216c2ef5247a3782c135efa279a3e4cdc61094270f5d2be58c6204b7a612c9", seed.commitment());
+        byte[] order = seed.deckOrder(CardCodes.FULL_DECK);
+        assertEquals("Qs 5h 5d", CardCodes.toString(order[0]) + " " + CardCodes.toString(order[1]) + " "
+                + CardCodes.toString(order[2]));
+    }
+
+    @Test
+    public void testCommitment() {
+        ShuffleSeed seed = ShuffleSeed.generate();
+        assertTrue(seed.matches(seed.commitment()));
+        assertTrue(seed.matches(seed.commitment().toUpperCase()));
+        assertFalse(seed.matches(ShuffleSeed.generate().commitment()));
+        assertThrows(IllegalArgumentException.class, () -> ShuffleSeed.parse("abcd"));
+        assertThrows(IllegalArgumentException.class, () -> ShuffleSeed.of(new byte[ShuffleSeed.LENGTH]));
+    }
+
+    @Test
+    public void testEntityRecordsOnlyTheSeed() {
+        Deck deck = new Deck(ShuffleSeed.generate(), CardCodes.FULL_DECK);
+        int first = deck.drawCode();
+        int second = deck.drawCode();
+        assertEquals(2, deck.getDealtCount());
+        assertEquals(first, CardCodes.of(deck.getDealtCards().get(0)));
+        assertEquals(second, CardCodes.of(deck.getDealtCards().get(1)));
+
+        // A loaded deck continues from the seed
+        Deck loaded = new Deck();
+        loaded.setSeed(deck.getSeed());
+        loaded.setDealtCount(deck.getDealtCount());
+        assertEquals(deck.drawCode(), loaded.drawCode());
+
+        deck.shuffle();
+        assertTrue(deck.getDealtCards().isEmpty());
+    }
+
+    @Test
+    public void testPoolFallsBackToInlineShuffle() {
+        DeckPool pool = new DeckPool(CardCodes.FULL_DECK, 4);
+        PreparedDeck inline = pool.take();
+        assertEquals(1, pool.getStarved());
+        assertArrayEquals(inline.getSeed().deckOrder(CardCodes.FULL_DECK), inline.getOrder());
+        assertTrue(inline.getSeed().matches(inline.getCommitment()));
+
+        assertEquals(4, pool.fill());
+        assertEquals(0, pool.fill());
+        PreparedDeck pooled = pool.take();
+        assertEquals(3, pool.getDepth());
+        assertEquals(1, pool.getStarved());
+        assertEquals(2, pool.getTaken());
+
+        ShuffledDeck deck = new ShuffledDeck(new SplittableRandom(5));
+        deck.load(pooled.getOrder());
+        assertArrayEquals(pooled.getSeed().deckOrder(CardCodes.FULL_DECK), deck.order());
+        byte[] shortDeck = DeckPool.prepare(GameVariant.SHORT_DECK.getDeck()).getOrder();
+        assertThrows(IllegalArgumentException.class, () -> deck.load(shortDeck));
+        assertThrows(IllegalArgumentException.class, () -> deck.load(new byte[CardCodes.DECK_SIZE]));
+    }
+}
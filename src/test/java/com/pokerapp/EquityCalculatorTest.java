@@ -0,0 +1,176 @@
+package com.pokerapp;
+
+import com.pokerapp.domain.card.CanonicalSpot;
+import com.pokerapp.domain.card.CardCodes;
+import com.pokerapp.domain.card.HandRange;
+import com.pokerapp.domain.card.SuitCanonicalizer;
+import com.pokerapp.domain.game.BitmaskHandEvaluator;
+import com.pokerapp.service.equity.EquityCache;
+import com.pokerapp.service.equity.EquityResult;
+import com.pokerapp.service.equity.ExhaustiveEquityCalculator;
+import com.pokerapp.service.equity.MonteCarloEquityCalculator;
+import com.pokerapp.service.equity.RangeEquityCalculator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EquityCalculatorTest {
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+    private final MonteCarloEquityCalculator monteCarlo =
+            new MonteCarloEquityCalculator(BitmaskHandEvaluator::evaluate, pool);
+    private final ExhaustiveEquityCalculator exhaustive =
+            new ExhaustiveEquityCalculator(BitmaskHandEvaluator::evaluate, pool);
+
+    @AfterEach
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    public void testMonteCarloAcesVersusKings() {
+        // AA vs KK preflop is about 82% / 18%
+        long[] holes = {mask("Ah As"), mask("Kh Ks")};
+        EquityResult result = monteCarlo.calculate(holes, 0L, 0L, TimeUnit.SECONDS.toNanos(5), 0.002, 5_000_000);
+
+        assertFalse(result.isExact());
+        assertEquals(0.82, result.getEquity()[0], 0.01);
+        assertEquals(1.0, result.getEquity()[0] + result.getEquity()[1], 1e-9);
+    }
+
+    @Test
+    public void testCompleteBoardIsExact() {
+        long[] holes = {mask("Ah Kd"), mask("Ad Kh"), mask("2c 7d")};
+        EquityResult result = monteCarlo.calculate(holes, mask("As Ks 9c 8d 3h"), 0L, 0, 0.01, 1);
+
+        assertTrue(result.isExact());
+        assertEquals(0.5, result.getEquity()[0]);
+        assertEquals(1.0, result.getTie()[1]);
+        assertEquals(0.0, result.getEquity()[2]);
+    }
+
+    @Test
+    public void testExactPreflopVisitsEveryRunout() {
+        long[] holes = {mask("Ah As"), mask("Kh Ks")};
+        EquityResult result = exhaustive.calculate(holes, 0L, 0L);
+
+        assertTrue(result.isExact());
+        assertEquals(1_712_304, result.getSamples()); // C(48, 5)
+        assertEquals(0.82, result.getEquity()[0], 0.01);
+        assertEquals(1.0, result.getEquity()[0] + result.getEquity()[1], 1e-9);
+    }
+
+    @Test
+    public void testExactTurnCountsOuts() {
+        // 7h6h needs one of the eight tens or fives on the river
+        long[] holes = {mask("Ah Kd"), mask("7h 6h")};
+        EquityResult result = exhaustive.calculate(holes, mask("As Ks 9c 8d"), 0L);
+
+        assertEquals(44, result.getSamples());
+        assertEquals(8.0 / 44, result.getWin()[1], 1e-12);
+        assertEquals(36.0 / 44, result.getWin()[0], 1e-12);
+    }
+
+    @Test
+    public void testDeadCardsAreRemovedFromRunouts() {
+        long[] holes = {mask("Ah Kd"), mask("7h 6h")};
+        EquityResult result = exhaustive.calculate(holes, mask("As Ks 9c 8d"), mask("Tc Td"));
+
+        assertEquals(42, result.getSamples());
+        assertEquals(6.0 / 42, result.getWin()[1], 1e-12);
+    }
+
+    @Test
+    public void testCanonicalSpotIgnoresSuitsAndHandOrder() {
+        CanonicalSpot first = SuitCanonicalizer.canonicalize(
+                new long[]{mask("Ah Kh"), mask("Qd Qc")}, mask("7s 4d 2c"), 0L);
+        CanonicalSpot relabeled = SuitCanonicalizer.canonicalize(
+                new long[]{mask("Qh Qd"), mask("As Ks")}, mask("7c 4h 2d"), 0L);
+        CanonicalSpot different = SuitCanonicalizer.canonicalize(
+                new long[]{mask("Ah Kh"), mask("Qd Qc")}, mask("7h 4d 2c"), 0L);
+
+        assertEquals(first, relabeled);
+        assertEquals(first.hashCode(), relabeled.hashCode());
+        assertNotEquals(first, different);
+        assertEquals(first.positionOf(0), relabeled.positionOf(1));
+    }
+
+    @Test
+    public void testCacheAnswersIsomorphicSpotsInCallerOrder() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        EquityCache cache = new EquityCache(100, registry);
+        AtomicInteger computations = new AtomicInteger();
+        EquityCache.Computation computation = (h, b, d) -> {
+            computations.incrementAndGet();
+            return exhaustive.calculate(h, b, d);
+        };
+
+        EquityResult first = cache.get(new long[]{mask("Ah Kh"), mask("Qd Qc")}, mask("7s 4d 2c"), 0L, true, computation);
+        EquityResult second = cache.get(new long[]{mask("Qh Qd"), mask("As Ks")}, mask("7c 4h 2d"), 0L, true, computation);
+
+        assertEquals(1, computations.get());
+        assertEquals(first.getEquity()[0], second.getEquity()[1], 1e-12);
+        assertEquals(first.getEquity()[1], second.getEquity()[0], 1e-12);
+        assertEquals(1.0, registry.get("cache.gets").tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    public void testDuplicateCardsAreRejected() {
+        long[] holes = {mask("Ah As"), mask("Ah Ks")};
+        assertThrows(IllegalArgumentException.class,
+                () -> monteCarlo.calculate(holes, 0L, 0L, 0, 0.01, 1000));
+    }
+
+    @Test
+    public void testRangeNotationCombos() {
+        assertEquals(30, HandRange.parse("TT+").size());
+        assertEquals(8, HandRange.parse("AQs+").size());
+        assertEquals(16, HandRange.parse("AK").size());
+        assertEquals(12, HandRange.parse("AKo").size());
+        assertEquals(18, HandRange.parse("22-44, 33").size());
+        assertEquals(12, HandRange.parse("A5s-A3s").size());
+        assertEquals(1326, HandRange.parse("random").size());
+        assertEquals(0.5, HandRange.parse("KQo:0.5").weight(0));
+        assertThrows(IllegalArgumentException.class, () -> HandRange.parse("AXs"));
+        assertThrows(IllegalArgumentException.class, () -> HandRange.parse(" , "));
+    }
+
+    @Test
+    public void testRangeEquityMatchesSingleCombos() {
+        RangeEquityCalculator ranges = new RangeEquityCalculator(BitmaskHandEvaluator::evaluate, 2_000_000);
+        EquityResult result = ranges.calculate(List.of(HandRange.parse("AA"), HandRange.parse("KK")), 0L, 0L);
+
+        assertEquals(0.82, result.getEquity()[0], 0.01);
+        assertEquals(1.0, result.getEquity()[0] + result.getEquity()[1], 1e-9);
+    }
+
+    @Test
+    public void testRangeEquityOnRiverIsExact() {
+        RangeEquityCalculator ranges = new RangeEquityCalculator(BitmaskHandEvaluator::evaluate, 1_000_000);
+        long board = mask("Ah Kd 7c 4s 2h");
+        // Every AA combo left makes a set over kings
+        EquityResult result = ranges.calculate(List.of(HandRange.parse("AA"), HandRange.parse("KK")), board, 0L);
+
+        assertTrue(result.isExact());
+        assertEquals(1.0, result.getEquity()[0], 1e-12);
+    }
+
+    @Test
+    public void testBlockedRangeIsRejected() {
+        RangeEquityCalculator ranges = new RangeEquityCalculator(BitmaskHandEvaluator::evaluate, 1_000_000);
+        long dead = mask("Ah Ad Ac");
+        assertThrows(IllegalArgumentException.class,
+                () -> ranges.calculate(List.of(HandRange.parse("AA"), HandRange.parse("KK")), 0L, dead));
+    }
+
+    static long mask(String notation) {
+        return CardCodes.mask(HandEvaluationTest.cards(notation));
+    }
+}
@@ -0,0 +1,111 @@
+package com.pokerapp;
+
+import com.pokerapp.domain.game.GameVariant;
+import com.pokerapp.domain.user.Player;
+import com.pokerapp.service.shuffle.ShuffleService;
+import com.pokerapp.session.EventLoop;
+import com.pokerapp.session.EventLoopGroup;
+import com.pokerapp.session.PlayerAction;
+import com.pokerapp.session.TableCommand;
+import com.pokerapp.session.TableEngine;
+import com.pokerapp.session.TurnClock;
+import com.pokerapp.session.journal.TableSnapshot;
+import com.pokerapp.websocket.TableWebSocketHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+public class EventLoopTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final EventLoopGroup group = new EventLoopGroup(4, registry);
+
+    @AfterEach
+    public void shutdown() {
+        group.shutdown();
+    }
+
+    @Test
+    public void testTableAffinityIsStableAndSpread() {
+        int[] tables = new int[group.size()];
+        for (long tableId = 1; tableId <= 1000; tableId++) {
+            EventLoop loop = group.loopFor(tableId);
+            assertSame(loop, group.loopFor(tableId));
+            tables[loop.getIndex()]++;
+        }
+        for (int count : tables) {
+            assertTrue(count > 150, "Unbalanced loops: " + count);
+        }
+    }
+
+    @Test
+    public void testTasksOfOneTableRunInOrderOnOneThread() throws InterruptedException {
+        EventLoop loop = group.loopFor(7L);
+        List<Integer> order = new ArrayList<>();
+        Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        CountDownLatch done = new CountDownLatch(1);
+        for (int i = 0; i < 1000; i++) {
+            int task = i;
+            loop.execute(() -> {
+                assertTrue(loop.inLoop());
+                threads.add(Thread.currentThread());
+                order.add(task);
+            });
+        }
+        loop.execute(done::countDown);
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(1, threads.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, order.get(i));
+        }
+        assertFalse(loop.inLoop());
+        assertEquals(0, loop.getQueueDepth());
+        assertEquals(1001, registry.get("engine.loop.lag").tag("loop", String.valueOf(loop.getIndex())).timer().count());
+    }
+
+    @Test
+    public void testShardedEnginePlaysHandOnOwningLoop() throws Exception {
+        TableWebSocketHandler webSocketHandler = new TableWebSocketHandler(mock(SimpMessagingTemplate.class));
+        ShuffleService shuffle = new ShuffleService(webSocketHandler, registry, 4, 50);
+        TableEngine engine = new TableEngine(null, shuffle, webSocketHandler, group, new TurnClock(60_000, 0, 0));
+        try {
+            List<Player> players = new ArrayList<>();
+            for (long id = 1; id <= 2; id++) {
+                Player player = new Player();
+                player.setId(id);
+                player.setChips(1000);
+                players.add(player);
+            }
+            Long table = 42L;
+            engine.start(table, GameVariant.HOLDEM, 20, players);
+            EventLoop loop = group.loopFor(table);
+            // The hand is counted after it is dealt, so wait for the counter
+            Await.until(() -> loop.getHandsStarted() == 1);
+
+            // Heads-up the button acts first; folding ends the hand and deals the next one
+            engine.submit(table, TableCommand.action(1L, PlayerAction.FOLD, 0));
+            Await.until(() -> loop.getHandsStarted() == 2);
+            // Session state is only read through the actor that owns it
+            CompletableFuture<TableSnapshot> snapshot = new CompletableFuture<>();
+            assertTrue(engine.submit(table, TableCommand.snapshot(snapshot)));
+            assertEquals(2, snapshot.get(5, TimeUnit.SECONDS).hand());
+            assertEquals(2.0, registry.get("engine.loop.hands").tag("loop", String.valueOf(loop.getIndex())).counter().count());
+            assertNotNull(registry.get("engine.loop.queue").tag("loop", String.valueOf(loop.getIndex())).gauge());
+        } finally {
+            engine.shutdown();
+            shuffle.shutdown();
+        }
+    }
+}
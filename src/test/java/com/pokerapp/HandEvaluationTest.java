@@ -0,0 +1,340 @@
+package com.pokerapp;
+
+import com.pokerapp.domain.card.Card;
+import com.pokerapp.domain.card.CardCodes;
+import com.pokerapp.domain.card.CardSet;
+import com.pokerapp.domain.card.Suit;
+import com.pokerapp.domain.card.Value;
+import com.pokerapp.domain.game.BitmaskHandEvaluator;
+import com.pokerapp.domain.game.DrawType;
+import com.pokerapp.domain.game.HandEvaluation;
+import com.pokerapp.domain.game.HandRank;
+import com.pokerapp.domain.game.OmahaHandEvaluator;
+import com.pokerapp.domain.game.Outs;
+import com.pokerapp.domain.game.OutsCalculator;
+import com.pokerapp.domain.game.ShortDeckHandEvaluator;
+import com.pokerapp.domain.game.StreetEvaluator;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HandEvaluationTest {
+
+    @Test
+    public void testCategories() {
+        assertEquals(9_14_13_12_11_10L, HandEvaluation.cardsToRankNumber(cards("Ah Kh Qh Jh Th 2c 3d")));
+        assertEquals(8_09_09_09_09_14L, HandEvaluation.cardsToRankNumber(cards("9h 9d 9c 9s Ah Kd 2c")));
+        assertEquals(6_14_12_09_05_03L, HandEvaluation.cardsToRankNumber(cards("Ad Qd 9d 5d 3d 3c 3h")));
+        assertEquals(5_10_09_08_07_06L, HandEvaluation.cardsToRankNumber(cards("Th 9d 8c 7s 6h 6d 2c")));
+        assertEquals(4_07_07_07_14_12L, HandEvaluation.cardsToRankNumber(cards("7h 7d 7c As Qh 4d 2c")));
+        assertEquals(3_12_12_04_04_13L, HandEvaluation.cardsToRankNumber(cards("Qh Qd 4c 4s Kh 2d 2c")));
+        assertEquals(2_11_11_14_09_08L, HandEvaluation.cardsToRankNumber(cards("Jh Jd Ac 9s 8h 4d 2c")));
+        assertEquals(1_14_12_09_07_05L, HandEvaluation.cardsToRankNumber(cards("Ah Qd 9c 7s 5h 4d 2c")));
+    }
+
+    @Test
+    public void testFullHouseUsesHighestTriple() {
+        // Two triples: kings full of nines, not nines full of kings
+        assertEquals(7_13_13_13_09_09L, HandEvaluation.cardsToRankNumber(cards("9h 9d 9c Ks Kh Kd 2c")));
+        // Triple plus two pairs: the higher pair completes the full house
+        assertEquals(7_05_05_05_12_12L, HandEvaluation.cardsToRankNumber(cards("5h 5d 5c Qs Qh 3d 3c")));
+    }
+
+    @Test
+    public void testWheelKeepsAceAsLastValue() {
+        assertEquals(5_05_04_03_02_14L, HandEvaluation.cardsToRankNumber(cards("Ah 2d 3c 4s 5h Kd Kc")));
+        assertEquals(9_05_04_03_02_14L, HandEvaluation.cardsToRankNumber(cards("As 2s 3s 4s 5s Kd Kc")));
+        assertTrue(HandEvaluation.cardsToRankNumber(cards("6h 2d 3c 4s 5h Kd Kc"))
+                > HandEvaluation.cardsToRankNumber(cards("Ah 2d 3c 4s 5h Kd Kc")));
+    }
+
+    @Test
+    public void testRankStrings() {
+        assertEquals("royal flush", HandEvaluation.cardsToRankString(cards("Ah Kh Qh Jh Th 2c 3d")));
+        assertEquals("full house kings full of nines", HandEvaluation.cardsToRankString(cards("9h 9d 9c Ks Kh Kd 2c")));
+        assertEquals("two pair: queens over fours", HandEvaluation.cardsToRankString(cards("Qh Qd 4c 4s Kh 2d 2c")));
+    }
+
+    @Test
+    public void testRankStringsFromRankNumber() {
+        assertEquals("five-high straight flush", HandEvaluation.cardsToRankString(9_05_04_03_02_14L));
+        assertEquals("four nines", HandEvaluation.cardsToRankString(8_09_09_09_09_14L));
+        assertEquals("ace-high flush", HandEvaluation.cardsToRankString(6_14_12_09_05_03L));
+        assertEquals("ten-high straight", HandEvaluation.cardsToRankString(5_10_09_08_07_06L));
+        assertEquals("three sevens", HandEvaluation.cardsToRankString(4_07_07_07_14_12L));
+        assertEquals("pair of jacks", HandEvaluation.cardsToRankString(2_11_11_14_09_08L));
+        assertEquals("ace high", HandEvaluation.cardsToRankString(1_14_12_09_07_05L));
+        assertEquals("null", HandEvaluation.cardsToRankString(0L));
+        // Texts come from the precomputed table
+        assertSame(HandEvaluation.cardsToRankString(7_13_13_13_09_09L), HandEvaluation.cardsToRankString(7_13_13_13_09_09L));
+    }
+
+    @Test
+    public void testCardSetRoundTripsThroughEntities() {
+        List<Card> hand = cards("Jh Jd Ac 9s 8h 4d 2c");
+        CardSet set = CardSet.of(hand);
+        assertEquals(7, set.size());
+        assertTrue(set.contains(CardCodes.parse("Ac")));
+        assertFalse(set.add(CardCodes.parse("Jh")));
+        assertEquals(HandEvaluation.cardsToRankNumber(hand), HandEvaluation.cardsToRankNumber(set));
+        assertEquals(set, CardSet.of(set.toCards()));
+        assertEquals("2c Ac", CardSet.of(CardCodes.parseMask("Ac 2c")).toString());
+        assertThrows(IllegalArgumentException.class, () -> set.addAll(CardCodes.parseMask("Jd")));
+    }
+
+    @Test
+    public void testIntArrayAdapterMatchesList() {
+        List<Card> hand = cards("Jh Jd Ac 9s 8h 4d 2c");
+        int[] codes = hand.stream().mapToInt(CardCodes::of).toArray();
+        assertEquals(HandEvaluation.cardsToRankNumber(hand), BitmaskHandEvaluator.rank(codes));
+    }
+
+    @Test
+    public void testSevenCardsMatchBestFiveCardSubset() {
+        Random random = new Random(42);
+        for (int n = 0; n < 20_000; n++) {
+            int[] hand = randomHand(random, 7);
+            long best = 0;
+            for (int skipA = 0; skipA < 7; skipA++) {
+                for (int skipB = skipA + 1; skipB < 7; skipB++) {
+                    long mask = 0L;
+                    for (int i = 0; i < 7; i++) {
+                        if (i != skipA && i != skipB) {
+                            mask |= 1L << hand[i];
+                        }
+                    }
+                    best = Math.max(best, BitmaskHandEvaluator.rank(mask));
+                }
+            }
+            assertEquals(best, BitmaskHandEvaluator.rank(hand));
+        }
+    }
+
+    @Test
+    public void testPackedAndRankNumberRoundTrip() {
+        int packed = BitmaskHandEvaluator.evaluate(CardCodes.mask(cards("9h 9d 9c Ks Kh Kd 2c")));
+        assertEquals(HandRank.FULL_HOUSE, HandRank.category(packed));
+        assertEquals(packed, HandRank.fromRankNumber(HandRank.toRankNumber(packed)));
+    }
+
+    @Test
+    public void testStreetEvaluatorMatchesFullEvaluationOnEveryStreet() {
+        Random random = new Random(7);
+        int[] streets = {0, 3, 4, 5};
+        for (int n = 0; n < 20_000; n++) {
+            int[] deal = randomHand(random, 5 + 2 * 3);
+            StreetEvaluator board = new StreetEvaluator();
+            int dealt = 0;
+            for (int street : streets) {
+                while (dealt < street) {
+                    board.addBoardCard(deal[dealt++]);
+                }
+                for (int seat = 0; seat < 3; seat++) {
+                    long hole = 1L << deal[5 + 2 * seat] | 1L << deal[6 + 2 * seat];
+                    assertEquals(BitmaskHandEvaluator.evaluate(board.getBoard() | hole), board.evaluate(hole));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testStreetEvaluatorFindsBoardFlushesAndStraights() {
+        StreetEvaluator board = new StreetEvaluator(CardCodes.mask(cards("2h 7h 9h")));
+        board.addBoard(CardCodes.mask(cards("Kh")));
+        board.addBoard(CardCodes.mask(cards("5c")));
+        assertEquals(HandRank.FLUSH, HandRank.category(board.evaluate(CardCodes.mask(cards("Ah 3d")))));
+        assertEquals(HandRank.STRAIGHT, HandRank.category(board.evaluate(CardCodes.mask(cards("6d 8s")))));
+        assertThrows(IllegalArgumentException.class, () -> board.addBoard(CardCodes.mask(cards("Qs"))));
+        assertThrows(IllegalArgumentException.class, () -> board.evaluate(CardCodes.mask(cards("Kh Qs"))));
+    }
+
+    @Test
+    public void testFlushDrawOuts() {
+        Outs outs = OutsCalculator.analyze(cards("Ah Kh"), cards("7h 2h 9c"));
+        // Nine hearts and six cards pairing the ace or king; pairing the board does not count
+        assertEquals(15, outs.getCount());
+        assertTrue(outs.contains(CardCodes.parse("Qh")));
+        assertTrue(outs.contains(CardCodes.parse("Ad")));
+        assertFalse(outs.contains(CardCodes.parse("7d")));
+        assertEquals(Set.of(DrawType.FLUSH_DRAW), outs.getDraws());
+        assertEquals(HandRank.HIGH_CARD, outs.getCategory());
+    }
+
+    @Test
+    public void testStraightDraws() {
+        Outs openEnder = OutsCalculator.analyze(cards("8s 9d"), cards("7c 6h 2s"));
+        assertEquals(Set.of(DrawType.OPEN_ENDED_STRAIGHT_DRAW), openEnder.getDraws());
+        assertEquals(14, openEnder.getCount());
+
+        Outs gutshot = OutsCalculator.analyze(cards("9s 8d"), cards("Jc 7h 2s"));
+        assertTrue(gutshot.getDraws().contains(DrawType.GUTSHOT));
+
+        Outs backdoor = OutsCalculator.analyze(cards("Ah Qh"), cards("Jh 4c 2s"));
+        assertEquals(Set.of(DrawType.BACKDOOR_FLUSH_DRAW, DrawType.BACKDOOR_STRAIGHT_DRAW), backdoor.getDraws());
+    }
+
+    @Test
+    public void testOutsAgainstKnownHands() {
+        long[] holes = {CardCodes.parseMask("Ah As"), CardCodes.parseMask("Kh Ks")};
+        Outs[] outs = OutsCalculator.analyze(holes, CardCodes.parseMask("2c 7d 9h Tc"), 0L);
+        assertEquals(CardCodes.parseMask("Ad Ac"), outs[0].getCards());
+        assertEquals(CardCodes.parseMask("Kd Kc"), outs[1].getCards());
+
+        // No outs once the river is out
+        Outs[] river = OutsCalculator.analyze(holes, CardCodes.parseMask("2c 7d 9h Tc 3d"), 0L);
+        assertEquals(0, river[1].getCount());
+    }
+
+    @Test
+    public void testOmahaUsesExactlyTwoHoleCards() {
+        // Four hearts in the hand and one on the board make no flush and no straight
+        int highCard = OmahaHandEvaluator.evaluate(CardCodes.parseMask("Ah Kh Qh Jh"), CardCodes.parseMask("Th 2c 3d 4s 9s"));
+        assertEquals(HandRank.HIGH_CARD, HandRank.category(highCard));
+
+        // A single suited hole card does not complete a four-flush board
+        int noFlush = OmahaHandEvaluator.evaluate(CardCodes.parseMask("Ah Kc Qd 2s"), CardCodes.parseMask("9h 7h 5h 3h Tc"));
+        assertEquals(HandRank.HIGH_CARD, HandRank.category(noFlush));
+
+        // Board trips only make a full house with a pocket pair
+        int fullHouse = OmahaHandEvaluator.evaluate(CardCodes.parseMask("Kh Kc 2d 3s"), CardCodes.parseMask("9h 9c 9d 4h 7c"));
+        assertEquals(HandRank.FULL_HOUSE, HandRank.category(fullHouse));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> OmahaHandEvaluator.evaluate(CardCodes.parseMask("Ah Kh"), CardCodes.parseMask("Th 2c 3d")));
+    }
+
+    @Test
+    public void testOmahaMatchesBestTwoPlusThree() {
+        Random random = new Random(14);
+        for (int n = 0; n < 2000; n++) {
+            int[] cards = randomHand(random, 9);
+            long hole = 0L;
+            long board = 0L;
+            for (int i = 0; i < 4; i++) {
+                hole |= 1L << cards[i];
+            }
+            for (int i = 4; i < 9; i++) {
+                board |= 1L << cards[i];
+            }
+            assertEquals(bestTwoPlusThree(cards), OmahaHandEvaluator.evaluate(hole, board));
+        }
+    }
+
+    @Test
+    public void testOmahaMatchesBestTwoPlusThreeOnEveryStreet() {
+        Random random = new Random(15);
+        for (int n = 0; n < 60_000; n++) {
+            // Dealing from one or two suits makes flushes and straight flushes common
+            int deckSize = switch (n % 3) {
+                case 0 -> CardCodes.RANK_COUNT;
+                case 1 -> 2 * CardCodes.RANK_COUNT;
+                default -> CardCodes.DECK_SIZE;
+            };
+            int[] cards = randomHand(random, 4 + 3 + n % 3, deckSize);
+            long hole = 0L;
+            long board = 0L;
+            for (int i = 0; i < cards.length; i++) {
+                if (i < 4) {
+                    hole |= 1L << cards[i];
+                } else {
+                    board |= 1L << cards[i];
+                }
+            }
+            assertEquals(bestTwoPlusThree(cards), OmahaHandEvaluator.evaluate(hole, board), Arrays.toString(cards));
+        }
+        assertThrows(IllegalArgumentException.class, () -> OmahaHandEvaluator.evaluate(
+                CardCodes.parseMask("Ah Kh Qh Jh"), CardCodes.parseMask("Th 2c 3d 4s 9s 8s")));
+    }
+
+    /**
+     * Returns the best hand of two of the first four cards and three of the others.
+     */
+    private static int bestTwoPlusThree(int[] cards) {
+        int best = -1;
+        for (int a = 0; a < 4; a++) {
+            for (int b = a + 1; b < 4; b++) {
+                for (int c = 4; c < cards.length; c++) {
+                    for (int d = c + 1; d < cards.length; d++) {
+                        for (int e = d + 1; e < cards.length; e++) {
+                            long hand = 1L << cards[a] | 1L << cards[b] | 1L << cards[c] | 1L << cards[d] | 1L << cards[e];
+                            best = Math.max(best, BitmaskHandEvaluator.evaluate(hand));
+                        }
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    @Test
+    public void testShortDeckRanking() {
+        int flush = ShortDeckHandEvaluator.evaluate(CardCodes.parseMask("Ah 9h 8h 7h Jh 6c 6d"));
+        int fullHouse = ShortDeckHandEvaluator.evaluate(CardCodes.parseMask("Kc Kd Ks Qh Qc 6c 7d"));
+        assertEquals(HandRank.FLUSH, HandRank.category(flush));
+        assertTrue(flush > fullHouse);
+
+        int trips = ShortDeckHandEvaluator.evaluate(CardCodes.parseMask("6c 6d 6s Ah Kc Qd 8h"));
+        int straight = ShortDeckHandEvaluator.evaluate(CardCodes.parseMask("Tc Jd Qs Kh Ac 6d 7h"));
+        assertEquals(HandRank.STRAIGHT, HandRank.category(straight));
+        assertTrue(trips > straight);
+
+        // The ace plays low in A-6-7-8-9, below 6-7-8-9-T
+        int wheel = ShortDeckHandEvaluator.evaluate(CardCodes.parseMask("Ah 6c 7d 8s 9h Kc Kd"));
+        int sixToTen = ShortDeckHandEvaluator.evaluate(CardCodes.parseMask("6c 7d 8s 9h Th Kc Kd"));
+        assertEquals(HandRank.STRAIGHT, HandRank.category(wheel));
+        assertEquals(5_09_08_07_06_14L, HandRank.toRankNumber(wheel));
+        assertTrue(sixToTen > wheel);
+
+        assertEquals(36, Long.bitCount(ShortDeckHandEvaluator.DECK));
+    }
+
+    private static int[] randomHand(Random random, int size) {
+        return randomHand(random, size, CardCodes.DECK_SIZE);
+    }
+
+    /**
+     * Deals from the first {@code deckSize} card codes.
+     */
+    private static int[] randomHand(Random random, int size, int deckSize) {
+        int[] hand = new int[size];
+        long used = 0L;
+        for (int i = 0; i < size; i++) {
+            int code;
+            do {
+                code = random.nextInt(deckSize);
+            } while ((used & (1L << code)) != 0);
+            used |= 1L << code;
+            hand[i] = code;
+        }
+        return hand;
+    }
+
+    static List<Card> cards(String notation) {
+        List<Card> cards = new ArrayList<>();
+        for (String token : notation.split(" ")) {
+            Card card = new Card();
+            card.setValue(switch (token.charAt(0)) {
+                case 'A' -> Value.ACE;
+                case 'K' -> Value.KING;
+                case 'Q' -> Value.QUEEN;
+                case 'J' -> Value.JACK;
+                case 'T' -> Value.TEN;
+                default -> Value.values()[token.charAt(0) - '2'];
+            });
+            card.setSuit(switch (token.charAt(1)) {
+                case 'h' -> Suit.HEARTS;
+                case 'd' -> Suit.DIAMONDS;
+                case 'c' -> Suit.CLUBS;
+                default -> Suit.SPADES;
+            });
+            cards.add(card);
+        }
+        return cards;
+    }
+}
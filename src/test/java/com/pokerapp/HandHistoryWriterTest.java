@@ -0,0 +1,126 @@
+package com.pokerapp;
+
+import com.pokerapp.domain.game.Round;
+import com.pokerapp.service.history.HandHistoryStore;
+import com.pokerapp.service.history.HandHistoryWriter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HandHistoryWriterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    public void testWritesHandsInOrderedBatches() throws InterruptedException {
+        List<List<Round>> batches = new CopyOnWriteArrayList<>();
+        CountDownLatch blocked = new CountDownLatch(1);
+        // The first write blocks so the following hands pile up into batches
+        HandHistoryStore store = rounds -> {
+            batches.add(List.copyOf(rounds));
+            awaitQuietly(blocked);
+        };
+        HandHistoryWriter writer = new HandHistoryWriter(store, registry, 100, 10, 0, 0);
+        List<Round> rounds = rounds(26);
+        for (Round round : rounds) {
+            assertTrue(writer.submit(round));
+        }
+        blocked.countDown();
+        writer.shutdown();
+
+        List<Round> written = new ArrayList<>();
+        for (List<Round> batch : batches) {
+            assertTrue(batch.size() <= 10);
+            written.addAll(batch);
+        }
+        assertEquals(rounds, written);
+        assertTrue(batches.size() >= 3 && batches.size() < 26);
+        assertEquals(26.0, registry.get("history.written").counter().count());
+        assertEquals(batches.size(), registry.get("history.flush").timer().count());
+    }
+
+    @Test
+    public void testRetriesFailedBatches() throws InterruptedException {
+        AtomicInteger attempts = new AtomicInteger();
+        List<Round> written = new CopyOnWriteArrayList<>();
+        HandHistoryWriter writer = new HandHistoryWriter(rounds -> {
+            if (attempts.incrementAndGet() <= 2) {
+                throw new IllegalStateException("Connection reset");
+            }
+            written.addAll(rounds);
+        }, registry, 100, 10, 3, 1);
+        Round round = new Round();
+        writer.submit(round);
+        Await.until(() -> written.size() == 1);
+        assertEquals(3, attempts.get());
+        assertSame(round, written.get(0));
+        writer.shutdown();
+    }
+
+    @Test
+    public void testIsolatesHandsThatKeepFailing() throws InterruptedException {
+        Round bad = new Round();
+        List<Round> written = new CopyOnWriteArrayList<>();
+        CountDownLatch blocked = new CountDownLatch(1);
+        HandHistoryWriter writer = new HandHistoryWriter(rounds -> {
+            awaitQuietly(blocked);
+            if (rounds.contains(bad)) {
+                throw new IllegalStateException("Constraint violation");
+            }
+            written.addAll(rounds);
+        }, registry, 100, 10, 1, 1);
+        List<Round> rounds = rounds(3);
+        writer.submit(rounds.get(0));
+        writer.submit(rounds.get(1));
+        writer.submit(bad);
+        writer.submit(rounds.get(2));
+        blocked.countDown();
+        writer.shutdown();
+
+        assertEquals(rounds, written);
+        assertEquals(1.0, registry.get("history.failed").counter().count());
+    }
+
+    @Test
+    public void testFullQueueDropsInsteadOfBlocking() throws InterruptedException {
+        CountDownLatch blocked = new CountDownLatch(1);
+        HandHistoryWriter writer = new HandHistoryWriter(rounds -> awaitQuietly(blocked), registry, 2, 1, 0, 0);
+        writer.submit(new Round());
+        // The writer holds the first hand, the queue takes two more
+        Await.until(() -> writer.getQueueDepth() == 0);
+        assertTrue(writer.submit(new Round()));
+        assertTrue(writer.submit(new Round()));
+        assertFalse(writer.submit(new Round()));
+        assertEquals(2.0, registry.get("history.queue").gauge().value());
+        assertEquals(1.0, registry.get("history.dropped").counter().count());
+        blocked.countDown();
+        writer.shutdown();
+        assertEquals(0, writer.getQueueDepth());
+    }
+
+    private static List<Round> rounds(int count) {
+        List<Round> rounds = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Round round = new Round();
+            round.setPlayerCount(i);
+            rounds.add(round);
+        }
+        return rounds;
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.pokerapp;
+
+import com.pokerapp.domain.card.ShuffleSeed;
+import com.pokerapp.domain.game.GameVariant;
+import com.pokerapp.domain.user.Player;
+import com.pokerapp.session.PlayerAction;
+import com.pokerapp.session.TableCommand;
+import com.pokerapp.session.TableEngine;
+import com.pokerapp.session.TurnClock;
+import com.pokerapp.session.journal.HandJournal;
+import com.pokerapp.session.journal.JournalEventType;
+import com.pokerapp.session.journal.JournalRecord;
+import com.pokerapp.session.journal.JournalRecovery;
+import com.pokerapp.websocket.TableWebSocketHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+public class HandJournalTest {
+
+    private static final long MEGABYTE = 1 << 20;
+
+    @TempDir
+    Path directory;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    public void testRecordsAreReadBackInOrder() throws Exception {
+        HandJournal journal = journal(MEGABYTE);
+        byte[] seed = ShuffleSeed.generate().getBytes();
+        journal.handStarted(7L, 1, GameVariant.HOLDEM, 0, 20, seed, new long[]{1L, 2L}, new int[]{500, 400});
+        journal.blind(7L, 1, 1L, 10, 490);
+        journal.blind(7L, 1, 2L, 20, 380);
+        journal.street(7L, 1, 0, 0L);
+        journal.action(7L, 1, 1L, PlayerAction.FOLD, 10, 490);
+        journal.settled(7L, 1, new long[]{1L, 2L}, new int[]{490, 410});
+        journal.shutdown();
+
+        List<JournalRecord> records = HandJournal.read(HandJournal.segments(directory));
+        assertEquals(List.of(JournalEventType.HAND_STARTED, JournalEventType.BLIND, JournalEventType.BLIND,
+                JournalEventType.STREET, JournalEventType.ACTION, JournalEventType.HAND_SETTLED),
+                records.stream().map(JournalRecord::type).toList());
+        for (int i = 0; i < records.size(); i++) {
+            assertEquals(i + 1, records.get(i).sequence());
+            assertEquals(7L, records.get(i).tableId());
+            assertEquals(1L, records.get(i).hand());
+        }
+        assertArrayEquals(new long[]{1L, 2L}, records.get(0).seats().playerIds());
+        assertArrayEquals(new int[]{500, 400}, records.get(0).seats().stacks());
+        assertEquals(2L, records.get(2).playerId());
+        assertArrayEquals(new int[]{490, 410}, records.get(5).seats().stacks());
+        assertEquals(6.0, registry.get("journal.appended").counter().count());
+        assertTrue(registry.get("journal.commit").timer().count() >= 1);
+    }
+
+    @Test
+    public void testUnfinishedHandsAreRefunded() throws Exception {
+        HandJournal journal = journal(MEGABYTE);
+        byte[] seed = ShuffleSeed.generate().getBytes();
+        // Table 1 settles its first hand and crashes during the second
+        journal.handStarted(1L, 1, GameVariant.HOLDEM, 0, 20, seed, new long[]{1L, 2L}, new int[]{500, 500});
+        journal.settled(1L, 1, new long[]{1L, 2L}, new int[]{520, 480});
+        journal.handStarted(1L, 2, GameVariant.HOLDEM, 1, 20, seed, new long[]{1L, 2L}, new int[]{520, 480});
+        journal.blind(1L, 2, 2L, 10, 470);
+        journal.blind(1L, 2, 1L, 20, 500);
+        journal.action(1L, 2, 2L, PlayerAction.RAISE, 200, 280);
+        // Table 2 finished its hand, then a player left
+        journal.handStarted(2L, 1, GameVariant.HOLDEM, 0, 20, seed, new long[]{3L, 4L}, new int[]{300, 300});
+        journal.settled(2L, 1, new long[]{3L, 4L}, new int[]{0, 600});
+        journal.playerLeft(2L, 1, 4L);
+        journal.shutdown();
+
+        JournalRecovery recovery = JournalRecovery.replay(HandJournal.read(HandJournal.segments(directory)));
+        assertEquals(Map.of(1L, 520, 2L, 480, 3L, 0), recovery.getStacks());
+        assertEquals(2, recovery.getSettledHands());
+        assertEquals(1, recovery.getRefundedHands());
+    }
+
+    @Test
+    public void testReadStopsAtTornTail() throws Exception {
+        HandJournal journal = journal(MEGABYTE);
+        for (int hand = 1; hand <= 3; hand++) {
+            journal.settled(1L, hand, new long[]{1L}, new int[]{hand});
+        }
+        journal.shutdown();
+        List<Path> segments = HandJournal.segments(directory);
+        Path segment = segments.stream().filter(file -> file.toFile().length() > 0).findFirst().orElseThrow();
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+
+        List<JournalRecord> records = HandJournal.read(segments);
+        assertEquals(2, records.size());
+        assertEquals(2L, records.get(1).hand());
+    }
+
+    @Test
+    public void testReopenedJournalKeepsOldSegmentsForRecovery() throws Exception {
+        // Segments are smaller than one record, so every write rotates its shard
+        HandJournal journal = journal(40);
+        for (int hand = 1; hand <= 20; hand++) {
+            journal.settled(hand % 3, hand, new long[]{1L, 2L}, new int[]{hand, hand});
+        }
+        journal.shutdown();
+        // Both shards hold records, so each has at least one closed segment and the one it rotated to
+        assertTrue(HandJournal.segments(directory).size() >= 4);
+
+        HandJournal reopened = journal(40);
+        assertEquals(20, reopened.getRecovered().size());
+        assertEquals(20, reopened.getSequence());
+        reopened.settled(1L, 21, new long[]{1L}, new int[]{21});
+        reopened.discardRecovered();
+        reopened.shutdown();
+
+        List<JournalRecord> records = HandJournal.read(HandJournal.segments(directory));
+        assertEquals(1, records.size());
+        assertEquals(21, records.get(0).sequence());
+    }
+
+    @Test
+    public void testEngineJournalsHands() throws Exception {
+        HandJournal journal = journal(MEGABYTE);
+        TableEngine engine = new TableEngine(null, null, new TableWebSocketHandler(mock(SimpMessagingTemplate.class)),
+                journal, Runnable::run, new TurnClock(60_000, 0, 0));
+        List<Player> players = new ArrayList<>();
+        for (long id = 1; id <= 2; id++) {
+            Player player = new Player();
+            player.setId(id);
+            player.setChips(1000);
+            players.add(player);
+        }
+        engine.start(1L, GameVariant.HOLDEM, 20, players);
+        engine.submit(1L, TableCommand.action(1L, PlayerAction.FOLD, 0));
+        engine.shutdown();
+        journal.shutdown();
+
+        List<JournalRecord> records = HandJournal.read(HandJournal.segments(directory));
+        assertEquals(List.of(JournalEventType.HAND_STARTED, JournalEventType.BLIND, JournalEventType.BLIND,
+                JournalEventType.STREET, JournalEventType.ACTION, JournalEventType.HAND_SETTLED,
+                JournalEventType.HAND_STARTED, JournalEventType.BLIND, JournalEventType.BLIND,
+                JournalEventType.STREET), records.stream().map(JournalRecord::type).toList());
+
+        // The second hand is still running, so the blinds go back to the players
+        JournalRecovery recovery = JournalRecovery.replay(records);
+        assertEquals(Map.of(1L, 990, 2L, 1010), recovery.getStacks());
+        assertEquals(1, recovery.getRefundedHands());
+    }
+
+    @Test
+    public void testFailedWritesAreRetriedAndReported() throws Exception {
+        // Every write rotates, so the shard opens a new segment after each record
+        HandJournal journal = journal(40);
+        journal.settled(1L, 1, new long[]{1L}, new int[]{100});
+        Await.until(() -> journal.getPending() == 0);
+        for (Path segment : HandJournal.segments(directory)) {
+            Files.delete(segment);
+        }
+        Files.delete(directory);
+
+        // Written to the segment that was already open, but the next one cannot be created
+        journal.settled(1L, 2, new long[]{1L}, new int[]{200});
+        Await.until(() -> journal.health().getStatus() == Status.DOWN);
+
+        // Without a segment the record stays pending and is retried
+        journal.settled(1L, 3, new long[]{1L}, new int[]{300});
+        Await.until(() -> registry.get("journal.failed").counter().count() >= 2);
+        assertEquals(1, journal.getPending());
+
+        Files.createDirectories(directory);
+        Await.until(() -> journal.getPending() == 0);
+        journal.shutdown();
+        assertEquals(Status.UP, journal.health().getStatus());
+        List<JournalRecord> records = HandJournal.read(HandJournal.segments(directory));
+        assertEquals(300, records.get(records.size() - 1).seats().stacks()[0]);
+    }
+
+    private HandJournal journal(long segmentBytes) throws IOException {
+        return new HandJournal(directory, 2, segmentBytes, true, registry);
+    }
+}
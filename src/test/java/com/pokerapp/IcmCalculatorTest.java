@@ -0,0 +1,107 @@
+package com.pokerapp;
+
+import com.pokerapp.service.icm.IcmCalculator;
+import com.pokerapp.service.icm.IcmResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IcmCalculatorTest {
+
+    private final IcmCalculator calculator = new IcmCalculator(1 << 20, 400_000);
+
+    @Test
+    public void testEqualStacksShareThePrizePool() {
+        IcmResult result = calculator.calculate(new long[]{1000, 1000, 1000, 1000}, new double[]{50, 30, 20});
+        assertTrue(result.isExact());
+        for (double equity : result.getEquities()) {
+            assertEquals(25.0, equity, 1e-9);
+        }
+    }
+
+    @Test
+    public void testWinnerTakesAllIsChipShare() {
+        IcmResult result = calculator.calculate(new long[]{600, 300, 100}, new double[]{100});
+        assertArrayEquals(new double[]{60, 30, 10}, result.getEquities(), 1e-9);
+    }
+
+    @Test
+    public void testMatchesFinishingOrderEnumeration() {
+        long[] stacks = {5000, 3000, 2000, 1500, 700, 300};
+        double[] payouts = {40, 25, 15, 10, 6, 4};
+        double[] expected = new double[stacks.length];
+        harville(stacks, payouts, new boolean[stacks.length], 0, 1.0, expected);
+
+        assertArrayEquals(expected, calculator.calculate(stacks, payouts).getEquities(), 1e-9);
+    }
+
+    @Test
+    public void testLargeFieldWithFewPlacesIsExact() {
+        long[] stacks = new long[30];
+        for (int i = 0; i < stacks.length; i++) {
+            stacks[i] = 500 + 137L * i;
+        }
+        double[] payouts = {50, 30, 20};
+        double[] expected = new double[stacks.length];
+        harville(stacks, payouts, new boolean[stacks.length], 0, 1.0, expected);
+
+        IcmResult result = calculator.calculate(stacks, payouts);
+        assertTrue(result.isExact());
+        assertArrayEquals(expected, result.getEquities(), 1e-9);
+    }
+
+    @Test
+    public void testSamplingFallbackIsCloseToExact() {
+        long[] stacks = {5000, 3000, 2000, 1500, 700, 300};
+        double[] payouts = {40, 25, 15, 10, 6, 4};
+        IcmResult exact = calculator.calculate(stacks, payouts);
+        IcmResult sampled = new IcmCalculator(0, 400_000).calculate(stacks, payouts);
+
+        assertFalse(sampled.isExact());
+        assertArrayEquals(exact.getEquities(), sampled.getEquities(), 0.2);
+    }
+
+    @Test
+    public void testLargeFieldIsSampled() {
+        long[] stacks = new long[40];
+        Arrays.fill(stacks, 1500);
+        stacks[0] = 20_000;
+        double[] payouts = {30, 20, 14, 10, 8, 6, 5, 4, 3};
+        IcmResult result = calculator.calculate(stacks, payouts);
+
+        assertFalse(result.isExact());
+        assertEquals(100.0, Arrays.stream(result.getEquities()).sum(), 1e-6);
+        assertTrue(result.getEquities()[0] > result.getEquities()[1]);
+    }
+
+    @Test
+    public void testInvalidInputIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> calculator.calculate(new long[]{100, 0}, new double[]{1}));
+        assertThrows(IllegalArgumentException.class, () -> calculator.calculate(new long[]{100}, new double[]{-1}));
+        assertThrows(IllegalArgumentException.class, () -> calculator.calculate(new long[0], new double[]{1}));
+    }
+
+    private static void harville(long[] stacks, double[] payouts, boolean[] placed, int place,
+                                 double probability, double[] equities) {
+        if (place == Math.min(stacks.length, payouts.length)) {
+            return;
+        }
+        long remaining = 0;
+        for (int i = 0; i < stacks.length; i++) {
+            if (!placed[i]) {
+                remaining += stacks[i];
+            }
+        }
+        for (int i = 0; i < stacks.length; i++) {
+            if (!placed[i]) {
+                double next = probability * stacks[i] / remaining;
+                equities[i] += next * payouts[place];
+                placed[i] = true;
+                harville(stacks, payouts, placed, place + 1, next, equities);
+                placed[i] = false;
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.pokerapp;
+
+import com.pokerapp.domain.card.Card;
+import com.pokerapp.domain.card.CardCodes;
+import com.pokerapp.domain.game.BitmaskHandEvaluator;
+import com.pokerapp.domain.game.HandEvaluation;
+import com.pokerapp.domain.game.LookupTableHandEvaluator;
+import com.pokerapp.tools.HandRankTableGenerator;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LookupTableHandEvaluatorTest {
+
+    @TempDir
+    static Path directory;
+
+    private static LookupTableHandEvaluator evaluator;
+
+    @BeforeAll
+    public static void generateTable() throws IOException {
+        Path file = directory.resolve("handranks.dat");
+        HandRankTableGenerator.write(new HandRankTableGenerator().generate(), file);
+        evaluator = LookupTableHandEvaluator.load(file);
+    }
+
+    @Test
+    public void testRandomHandsMatchTheReferenceEvaluators() {
+        Random random = new Random(2);
+        for (int i = 0; i < 200_000; i++) {
+            long mask = randomMask(random, 5 + i % 3);
+            assertEquals(BitmaskHandEvaluator.evaluate(mask), evaluator.evaluate(mask), Long.toHexString(mask));
+        }
+        for (int i = 0; i < 5_000; i++) {
+            long mask = randomMask(random, 5 + i % 3);
+            assertEquals(HandEvaluation.cardsToRankNumber(cards(mask)), evaluator.rank(mask), Long.toHexString(mask));
+        }
+    }
+
+    @Test
+    public void testEdgeCases() {
+        String[] hands = {
+                "Ah Kh Qh Jh Th",
+                "Ah Kh Qh Jh Th 9h 8h",
+                "Ah 2h 3h 4h 5h",
+                "Ah 2d 3c 4s 5h Kd Kc",
+                "Ah 2d 3c 4s 5h 6d",
+                "9h 9d 9c 9s Ah Kd 2c",
+                "9h 9d 9c Ks Kh Kd 2c",
+                "5h 5d 5c Qs Qh 3d 3c",
+                "Ad Qd 9d 5d 3d 2d 3c",
+                "Qh Qd 4c 4s 2h 2d Ac",
+                "7h 5d 4c 3s 2h",
+                "Ks Qs Js Ts 9s 8s",
+        };
+        for (String hand : hands) {
+            long mask = CardCodes.parseMask(hand);
+            assertEquals(BitmaskHandEvaluator.evaluate(mask), evaluator.evaluate(mask), hand);
+            assertEquals(HandEvaluation.cardsToRankNumber(cards(mask)), evaluator.rank(mask), hand);
+        }
+        // Fewer than five cards fall back to the bitmask evaluator
+        long pair = CardCodes.parseMask("Ah Ad");
+        assertEquals(BitmaskHandEvaluator.evaluate(pair), evaluator.evaluate(pair));
+    }
+
+    @Test
+    public void testMoreThanSevenCardsAreRejected() {
+        long mask = CardCodes.parseMask("Ah Kh Qh Jh Th 9h 8h 7h");
+        assertThrows(IllegalArgumentException.class, () -> evaluator.evaluate(mask));
+        assertThrows(IllegalArgumentException.class, () -> evaluator.evaluate(CardCodes.FULL_DECK));
+    }
+
+    private static long randomMask(Random random, int size) {
+        long mask = 0L;
+        while (Long.bitCount(mask) < size) {
+            mask |= 1L << random.nextInt(CardCodes.DECK_SIZE);
+        }
+        return mask;
+    }
+
+    private static List<Card> cards(long mask) {
+        List<Card> cards = new ArrayList<>();
+        for (long rest = mask; rest != 0; rest &= rest - 1) {
+            cards.add(CardCodes.toCard(Long.numberOfTrailingZeros(rest)));
+        }
+        return cards;
+    }
+}
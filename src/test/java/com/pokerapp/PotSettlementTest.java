@@ -0,0 +1,195 @@
+package com.pokerapp;
+
+import com.pokerapp.domain.game.PotSettlement;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PotSettlementTest {
+
+    @Test
+    public void testShortAllInWinsOnlyMainPot() {
+        // Seat 0 all-in for 100 with the best hand, seats 1 and 2 play on for 300
+        PotSettlement settlement = PotSettlement.settle(new int[]{100, 300, 300}, new boolean[3],
+                new int[]{9, 5, 7}, 2);
+        assertEquals(2, settlement.getPotCount());
+        assertEquals(300, settlement.getAmount(0));
+        assertEquals(0b111, settlement.getEligible(0));
+        assertEquals(0b001, settlement.getWinners(0));
+        assertEquals(400, settlement.getAmount(1));
+        assertEquals(0b110, settlement.getEligible(1));
+        assertEquals(0b100, settlement.getWinners(1));
+        assertArrayEquals(new int[]{300, 0, 400}, settlement.getPayouts());
+        assertEquals(0b101, settlement.getAllWinners());
+    }
+
+    @Test
+    public void testUncalledBetAndFoldedChips() {
+        // Seat 2 folded after putting in 50; seat 1's bet above seat 0's all-in is uncalled
+        PotSettlement settlement = PotSettlement.settle(new int[]{40, 200, 50}, new boolean[]{false, false, true},
+                new int[]{3, 1, 0}, 0);
+        assertEquals(2, settlement.getPotCount());
+        assertEquals(120, settlement.getAmount(0));
+        assertEquals(170, settlement.getAmount(1));
+        assertEquals(0b010, settlement.getEligible(1));
+        assertArrayEquals(new int[]{120, 170, 0}, settlement.getPayouts());
+    }
+
+    @Test
+    public void testOddChipsGoLeftOfButton() {
+        // Main pot of 4 split three ways: the extra chip goes to the first winner after the button
+        PotSettlement settlement = PotSettlement.settle(new int[]{2, 2, 2, 1}, new boolean[4],
+                new int[]{4, 4, 4, 0}, 1);
+        assertEquals(4, settlement.getAmount(0));
+        assertEquals(3, settlement.getAmount(1));
+        assertArrayEquals(new int[]{2, 2, 3, 0}, settlement.getPayouts());
+    }
+
+    @Test
+    public void testTenAllInsAtDifferentLevels() {
+        int[] committed = new int[10];
+        int[] strengths = new int[10];
+        for (int seat = 0; seat < 10; seat++) {
+            committed[seat] = 100 * (seat + 1);
+            // Shorter stacks hold better hands
+            strengths[seat] = 10 - seat;
+        }
+        PotSettlement settlement = PotSettlement.settle(committed, new boolean[10], strengths, 9);
+        assertEquals(10, settlement.getPotCount());
+        for (int seat = 0; seat < 10; seat++) {
+            assertEquals(1L << seat, settlement.getWinners(seat));
+            assertEquals(100 * (10 - seat), settlement.getPayouts()[seat]);
+        }
+    }
+
+    @Test
+    public void testRejectsInvalidInput() {
+        assertThrows(IllegalArgumentException.class,
+                () -> PotSettlement.settle(new int[]{10, 10}, new boolean[]{true, true}, new int[2], 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> PotSettlement.settle(new int[]{10, -1}, new boolean[2], new int[2], 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> PotSettlement.settle(new int[]{10, 10}, new boolean[3], new int[2], 0));
+    }
+
+    /**
+     * Compares every combination of up to four seats, contributions, folds,
+     * strengths and button positions against a pot-by-pot reference that caps
+     * each pot at the next live contribution.
+     */
+    @Test
+    public void testExhaustiveAgainstReference() {
+        int[] levels = {0, 1, 3};
+        int cases = 0;
+        for (int seats = 2; seats <= 4; seats++) {
+            int combinations = (int) Math.pow(levels.length, seats);
+            for (int c = 0; c < combinations; c++) {
+                int[] committed = new int[seats];
+                for (int seat = 0, rest = c; seat < seats; seat++, rest /= levels.length) {
+                    committed[seat] = levels[rest % levels.length];
+                }
+                for (int foldMask = 0; foldMask < (1 << seats) - 1; foldMask++) {
+                    boolean[] folded = new boolean[seats];
+                    for (int seat = 0; seat < seats; seat++) {
+                        folded[seat] = (foldMask & (1 << seat)) != 0;
+                    }
+                    int strengthCombinations = (int) Math.pow(3, seats);
+                    for (int s = 0; s < strengthCombinations; s++) {
+                        int[] strengths = new int[seats];
+                        for (int seat = 0, rest = s; seat < seats; seat++, rest /= 3) {
+                            strengths[seat] = rest % 3;
+                        }
+                        for (int button = 0; button < seats; button++) {
+                            assertMatchesReference(committed, folded, strengths, button);
+                            cases++;
+                        }
+                    }
+                }
+            }
+        }
+        assertTrue(cases > 100_000);
+    }
+
+    private static void assertMatchesReference(int[] committed, boolean[] folded, int[] strengths, int button) {
+        PotSettlement settlement = PotSettlement.settle(committed, folded, strengths, button);
+        int seats = committed.length;
+        String context = "committed " + Arrays.toString(committed) + " folded "
+                + Arrays.toString(folded) + " strengths " + Arrays.toString(strengths)
+                + " button " + button;
+
+        TreeSet<Integer> caps = new TreeSet<>();
+        long live = 0;
+        for (int seat = 0; seat < seats; seat++) {
+            if (!folded[seat]) {
+                caps.add(committed[seat]);
+                live |= 1L << seat;
+            }
+        }
+        caps.remove(0);
+        int maxCap = caps.isEmpty() ? 0 : caps.last();
+        List<int[]> pots = new ArrayList<>();
+        List<Long> eligible = new ArrayList<>();
+        int previous = 0;
+        for (int cap : caps) {
+            int amount = 0;
+            long canWin = 0;
+            for (int seat = 0; seat < seats; seat++) {
+                int upTo = cap == maxCap ? committed[seat] : Math.min(committed[seat], cap);
+                amount += Math.max(0, upTo - previous);
+                if (!folded[seat] && committed[seat] >= cap) {
+                    canWin |= 1L << seat;
+                }
+            }
+            pots.add(new int[]{amount});
+            eligible.add(canWin);
+            previous = cap;
+        }
+        if (pots.isEmpty() && sum(committed) > 0) {
+            // Only folded seats put chips in
+            pots.add(new int[]{sum(committed)});
+            eligible.add(live);
+        }
+
+        int[] payouts = new int[seats];
+        assertEquals(pots.size(), settlement.getPotCount(), context);
+        for (int pot = 0; pot < pots.size(); pot++) {
+            assertEquals(pots.get(pot)[0], settlement.getAmount(pot), context);
+            assertEquals((long) eligible.get(pot), settlement.getEligible(pot), context);
+            int best = -1;
+            for (int seat = 0; seat < seats; seat++) {
+                if ((eligible.get(pot) & (1L << seat)) != 0) {
+                    best = Math.max(best, strengths[seat]);
+                }
+            }
+            List<Integer> winners = new ArrayList<>();
+            for (int i = 1; i <= seats; i++) {
+                int seat = (button + i) % seats;
+                if ((eligible.get(pot) & (1L << seat)) != 0 && strengths[seat] == best) {
+                    winners.add(seat);
+                }
+            }
+            long winnerMask = 0;
+            for (int i = 0; i < winners.size(); i++) {
+                int seat = winners.get(i);
+                winnerMask |= 1L << seat;
+                payouts[seat] += pots.get(pot)[0] / winners.size() + (i < pots.get(pot)[0] % winners.size() ? 1 : 0);
+            }
+            assertEquals(winnerMask, settlement.getWinners(pot), context);
+        }
+        assertArrayEquals(payouts, settlement.getPayouts(), context);
+        assertEquals(sum(committed), sum(settlement.getPayouts()), context);
+    }
+
+    private static int sum(int[] values) {
+        int sum = 0;
+        for (int value : values) {
+            sum += value;
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,218 @@
+package com.pokerapp;
+
+import com.pokerapp.domain.card.ShuffleSeed;
+import com.pokerapp.domain.game.GameVariant;
+import com.pokerapp.domain.user.Player;
+import com.pokerapp.session.GameSession;
+import com.pokerapp.session.PlayerAction;
+import com.pokerapp.session.TableCommand;
+import com.pokerapp.session.TableEngine;
+import com.pokerapp.session.TurnClock;
+import com.pokerapp.session.journal.Checkpoint;
+import com.pokerapp.session.journal.HandJournal;
+import com.pokerapp.session.journal.JournalRecord;
+import com.pokerapp.session.journal.JournalRecovery;
+import com.pokerapp.session.journal.RecoveredTable;
+import com.pokerapp.session.journal.SettledStack;
+import com.pokerapp.session.journal.SnapshotService;
+import com.pokerapp.session.journal.TableSnapshot;
+import com.pokerapp.websocket.TableWebSocketHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+public class SnapshotServiceTest {
+
+    private static final Long TABLE = 1L;
+    private static final TurnClock CLOCK = new TurnClock(60_000, 5_000, 0);
+
+    @TempDir
+    Path directory;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    public void testSnapshotAndJournalTailRestoreTheTable() throws Exception {
+        HandJournal journal = new HandJournal(directory.resolve("journal"), 2, 1 << 20, true, registry);
+        TableEngine engine = engine(journal);
+        SnapshotService snapshots = new SnapshotService(engine, journal, directory.resolve("snapshots"), 0, registry);
+        engine.start(TABLE, GameVariant.HOLDEM, 20, players(1000, 1000));
+
+        // Taken while the first hand is waiting for the small blind
+        assertEquals(1, snapshots.snapshotAll());
+        List<TableSnapshot> written = SnapshotService.readLatest(snapshots.getDirectory()).tables();
+        assertEquals(1, written.size());
+        TableSnapshot table = written.get(0);
+        assertEquals(TABLE, table.tableId());
+        assertEquals(1, table.hand());
+        assertArrayEquals(new long[]{1L, 2L}, table.playerIds());
+        assertArrayEquals(new int[]{990, 980}, table.chips());
+        assertArrayEquals(new long[]{5_000, 5_000}, table.timeBanks());
+        assertArrayEquals(new int[]{1000, 1000}, table.current().startingStacks());
+        assertArrayEquals(new int[]{10, 20}, table.current().committed());
+        assertEquals(0, table.current().toAct());
+        assertEquals(4, table.current().deckPosition());
+        // Rounded up to the next tick of the clock
+        assertTrue(table.current().clockMillis() > 55_000 && table.current().clockMillis() <= 60_010);
+
+        // The first hand is settled after the snapshot, the second never finishes
+        engine.submit(TABLE, TableCommand.action(1L, PlayerAction.FOLD, 0));
+        engine.shutdown();
+        journal.shutdown();
+
+        List<JournalRecord> records = HandJournal.read(HandJournal.segments(journal.getDirectory()));
+        JournalRecovery recovery = JournalRecovery.replay(written, records);
+        assertEquals(Map.of(1L, 990, 2L, 1010), recovery.getStacks());
+        assertEquals(1, recovery.getSettledHands());
+        assertEquals(1, recovery.getRefundedHands());
+        RecoveredTable recovered = recovery.getTables().get(0);
+        assertEquals(2, recovered.hand());
+        assertEquals(1, recovered.button());
+        assertEquals(20, recovered.bigBlind());
+        assertEquals(Map.of(1L, 5_000L, 2L, 5_000L), recovered.timeBanks());
+
+        TableEngine restarted = engine(null);
+        restarted.restore(recovered, players(990, 1010));
+        GameSession session = restarted.getActor(TABLE).getSession();
+        assertEquals(3, session.getHandNumber());
+        assertTrue(session.isRoundRunning());
+        assertTrue(session.isDisconnected(1L));
+        assertEquals(5_000, session.getTimeBank(2L));
+        // The button moved on to the first player, who posts the small blind heads-up
+        assertEquals(980, session.getSeated().get(0).getChips());
+        restarted.shutdown();
+    }
+
+    @Test
+    public void testCorruptSnapshotIsIgnored() throws Exception {
+        TableEngine engine = engine(null);
+        SnapshotService snapshots = new SnapshotService(engine, null, directory, 0, registry);
+        engine.start(TABLE, GameVariant.HOLDEM, 20, players(500, 500));
+        snapshots.snapshotAll();
+        engine.shutdown();
+
+        Path file;
+        try (var files = Files.list(directory)) {
+            file = files.findFirst().orElseThrow();
+        }
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length / 2] ^= 1;
+        Files.write(file, bytes);
+        assertEquals(Checkpoint.EMPTY, SnapshotService.readLatest(directory));
+    }
+
+    @Test
+    public void testRecoveredSnapshotIsKeptUntilRecoveryFinishes() throws Exception {
+        TableEngine engine = engine(null);
+        SnapshotService snapshots = new SnapshotService(engine, null, directory, 0, registry);
+        engine.start(TABLE, GameVariant.HOLDEM, 20, players(500, 500));
+        assertEquals(1, snapshots.snapshotAll());
+        engine.shutdown();
+
+        // No table runs yet after the restart, so a snapshot now would have none
+        SnapshotService restarted = new SnapshotService(engine(null), null, directory, 0, registry);
+        assertEquals(1, restarted.getRecovered().tables().size());
+        assertEquals(0, restarted.snapshotAll());
+        assertEquals(1, SnapshotService.readLatest(directory).tables().size());
+
+        restarted.finishRecovery();
+        assertEquals(0, restarted.snapshotAll());
+        assertEquals(Checkpoint.EMPTY, SnapshotService.readLatest(directory));
+    }
+
+    @Test
+    public void testSnapshotTruncatesCoveredSegments() throws Exception {
+        HandJournal journal = new HandJournal(directory.resolve("journal"), 2, 200, true, registry);
+        for (int hand = 1; hand <= 40; hand++) {
+            journal.settled(hand % 2, hand, new long[]{1L, 2L}, new int[]{hand, hand});
+        }
+        journal.shutdown();
+
+        // No table is running, so everything written so far is covered
+        SnapshotService snapshots = new SnapshotService(engine(journal), journal, directory.resolve("snapshots"), 0,
+                registry);
+        assertEquals(0, snapshots.snapshotAll());
+
+        // Only what is left in the segments that were still open survives
+        List<JournalRecord> records = HandJournal.read(HandJournal.segments(journal.getDirectory()));
+        assertTrue(records.size() < 10);
+        for (JournalRecord record : records) {
+            assertTrue(record.sequence() > 30);
+        }
+    }
+
+    @Test
+    public void testStoppedTableStacksSurviveTruncation() throws Exception {
+        Path journalDirectory = directory.resolve("journal");
+        HandJournal journal = new HandJournal(journalDirectory, 2, 1 << 20, true, registry);
+        TableEngine engine = engine(journal);
+        SnapshotService snapshots = new SnapshotService(engine, journal, directory.resolve("snapshots"), 0, registry);
+        engine.start(TABLE, GameVariant.HOLDEM, 20, players(1000, 1000));
+        engine.submit(TABLE, TableCommand.action(1L, PlayerAction.FOLD, 0));
+        // The second hand is aborted and its blinds go back
+        assertTrue(engine.stop(TABLE));
+
+        // The first snapshot closes the segments, the second deletes them
+        assertEquals(0, snapshots.snapshotAll());
+        // The writer closes the segments the snapshot asked to rotate
+        Await.until(() -> !journal.closedSegments(journal.getSequence()).isEmpty());
+        assertEquals(0, snapshots.snapshotAll());
+        List<JournalRecord> records = HandJournal.read(HandJournal.segments(journalDirectory));
+        assertTrue(records.stream().noneMatch(record -> record.tableId() == TABLE));
+        engine.shutdown();
+        journal.shutdown();
+
+        SnapshotService restarted = new SnapshotService(engine(null), null, directory.resolve("snapshots"), 0,
+                registry);
+        JournalRecovery recovery = JournalRecovery.replay(restarted.getRecovered(),
+                HandJournal.read(HandJournal.segments(journalDirectory)));
+        assertEquals(Map.of(1L, 990, 2L, 1010), recovery.getStacks());
+        assertEquals(List.of(), recovery.getTables());
+    }
+
+    @Test
+    public void testCarriedStacksWinOverOlderRecords() throws Exception {
+        HandJournal journal = new HandJournal(directory, 1, 1 << 20, true, registry);
+        byte[] seed = ShuffleSeed.generate().getBytes();
+        // Kept in a segment that was not truncated, but older than the carried stacks
+        journal.handStarted(5L, 1, GameVariant.HOLDEM, 0, 20, seed, new long[]{1L, 2L}, new int[]{500, 500});
+        journal.settled(5L, 1, new long[]{1L, 2L}, new int[]{400, 600});
+        journal.skipTo(20);
+        journal.handStarted(6L, 1, GameVariant.HOLDEM, 0, 20, seed, new long[]{2L, 3L}, new int[]{700, 300});
+        journal.settled(6L, 1, new long[]{2L, 3L}, new int[]{800, 200});
+        journal.shutdown();
+
+        // Player 1 left their table and player 2 was settled at sequence 10
+        Checkpoint checkpoint = new Checkpoint(List.of(),
+                List.of(new SettledStack(1L, SettledStack.LEFT, 10), new SettledStack(2L, 700, 10)));
+        JournalRecovery recovery = JournalRecovery.replay(checkpoint,
+                HandJournal.read(HandJournal.segments(directory)));
+        assertEquals(Map.of(2L, 800, 3L, 200), recovery.getStacks());
+    }
+
+    private TableEngine engine(HandJournal journal) {
+        return new TableEngine(null, null, new TableWebSocketHandler(mock(SimpMessagingTemplate.class)), journal,
+                Runnable::run, CLOCK);
+    }
+
+    private static List<Player> players(int... chips) {
+        List<Player> players = new ArrayList<>();
+        for (int i = 0; i < chips.length; i++) {
+            Player player = new Player();
+            player.setId(i + 1L);
+            player.setChips(chips[i]);
+            players.add(player);
+        }
+        return players;
+    }
+}
@@ -0,0 +1,81 @@
+package com.pokerapp;
+
+import com.pokerapp.service.history.StackWriter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StackWriterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final Map<Long, Integer> chips = new ConcurrentHashMap<>();
+
+    @Test
+    public void testAwaitWrittenWaitsForSubmittedHands() throws InterruptedException {
+        CountDownLatch blocked = new CountDownLatch(1);
+        StackWriter writer = new StackWriter(stacks -> {
+            awaitQuietly(blocked);
+            chips.putAll(stacks);
+        }, registry, 1);
+        assertTrue(writer.awaitWritten(0));
+        writer.submit(new long[]{1L, 2L}, new int[]{990, 1010});
+        writer.submit(new long[]{1L, 2L}, new int[]{970, 1030});
+        assertFalse(writer.awaitWritten(20));
+
+        blocked.countDown();
+        assertTrue(writer.awaitWritten(5_000));
+        assertEquals(Map.of(1L, 970, 2L, 1030), chips);
+        writer.shutdown();
+    }
+
+    @Test
+    public void testFailedWritesAreRetriedUntilTheySucceed() throws InterruptedException {
+        AtomicInteger attempts = new AtomicInteger();
+        StackWriter writer = new StackWriter(stacks -> {
+            if (attempts.incrementAndGet() <= 3) {
+                throw new IllegalStateException("Connection reset");
+            }
+            chips.putAll(stacks);
+        }, registry, 1);
+        writer.submit(new long[]{1L, 2L}, new int[]{990, 1010});
+        // Whenever it lands, a newer stack is not overwritten by the failed one put back
+        writer.submit(new long[]{1L, 3L}, new int[]{950, 1040});
+
+        assertTrue(writer.awaitWritten(5_000));
+        assertEquals(Map.of(1L, 950, 2L, 1010, 3L, 1040), chips);
+        assertEquals(3.0, registry.get("stacks.failed").counter().count());
+        assertEquals(0.0, registry.get("stacks.pending").gauge().value());
+        writer.shutdown();
+    }
+
+    @Test
+    public void testShutdownWritesPendingStacks() throws InterruptedException {
+        CountDownLatch blocked = new CountDownLatch(1);
+        StackWriter writer = new StackWriter(stacks -> {
+            awaitQuietly(blocked);
+            chips.putAll(stacks);
+        }, registry, 1);
+        writer.submit(new long[]{1L}, new int[]{500});
+        writer.submit(new long[]{2L}, new int[]{700});
+        blocked.countDown();
+        writer.shutdown();
+
+        assertEquals(Map.of(1L, 500, 2L, 700), chips);
+        assertEquals(0, writer.getPendingCount());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package com.pokerapp;
+
+import com.pokerapp.domain.game.GameVariant;
+import com.pokerapp.domain.user.Player;
+import com.pokerapp.session.GameSession;
+import com.pokerapp.session.PlayerAction;
+import com.pokerapp.session.RoundSession;
+import com.pokerapp.session.TableActor;
+import com.pokerapp.session.TableCommand;
+import com.pokerapp.session.TableEngine;
+import com.pokerapp.session.TurnClock;
+import com.pokerapp.session.journal.TableSnapshot;
+import com.pokerapp.websocket.TableWebSocketHandler;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+public class TableActorTest {
+
+    private static final Long TABLE = 1L;
+
+    // Runs every actor inline, so each submit is applied before it returns
+    private final TableEngine engine = new TableEngine(null, null,
+            new TableWebSocketHandler(mock(SimpMessagingTemplate.class)), Runnable::run, new TurnClock(60_000, 0, 0));
+
+    @Test
+    public void testFoldAwardsBlindsAndDealsNextHand() {
+        List<Player> players = players(2, 1000);
+        engine.start(TABLE, GameVariant.HOLDEM, 20, players);
+        GameSession session = session();
+        assertEquals(1, session.getHandNumber());
+
+        // Heads-up the button posts the small blind and acts first preflop
+        RoundSession round = session.getCurrentRound();
+        assertEquals(0, round.getToAct());
+        assertEquals(990, players.get(0).getChips());
+        assertEquals(980, players.get(1).getChips());
+
+        assertTrue(engine.submit(TABLE, TableCommand.action(1L, PlayerAction.FOLD, 0)));
+        assertTrue(round.isFinished());
+        assertEquals(List.of(players.get(1)), round.getRound().getWinner());
+        assertEquals(2, session.getHandNumber());
+        assertNotSame(round, session.getCurrentRound());
+    }
+
+    @Test
+    public void testEquitiesOfTheCurrentHandSetWinProbabilities() {
+        List<Player> players = players(3, 1000);
+        engine.start(TABLE, GameVariant.HOLDEM, 20, players);
+
+        assertTrue(engine.submit(TABLE, TableCommand.equity(1, Map.of(1L, 0.5, 2L, 0.3))));
+        assertEquals(0.5, players.get(0).getWinProbability());
+        assertEquals(0.3, players.get(1).getWinProbability());
+        assertEquals(0.0, players.get(2).getWinProbability());
+
+        // Computed for a hand that is over
+        engine.submit(TABLE, TableCommand.equity(0, Map.of(1L, 0.9)));
+        assertEquals(0.5, players.get(0).getWinProbability());
+    }
+
+    @Test
+    public void testCheckDownToShowdown() {
+        List<Player> players = players(3, 500);
+        engine.start(TABLE, GameVariant.HOLDEM, 20, players);
+        RoundSession round = session().getCurrentRound();
+
+        engine.submit(TABLE, TableCommand.action(1L, PlayerAction.CALL, 0));
+        engine.submit(TABLE, TableCommand.action(2L, PlayerAction.CALL, 0));
+        engine.submit(TABLE, TableCommand.action(3L, PlayerAction.CHECK, 0));
+        for (int street = 0; street < 3; street++) {
+            for (int i = 0; i < 3; i++) {
+                Long playerId = players.get(round.getToAct()).getId();
+                engine.submit(TABLE, TableCommand.action(playerId, PlayerAction.CHECK, 0));
+            }
+        }
+        assertTrue(round.isFinished());
+        assertEquals(5, round.getRound().getBoard().size());
+        assertFalse(round.getRound().getWinner().isEmpty());
+        assertEquals(1500, chips(players) + inPot(players));
+    }
+
+    @Test
+    public void testAllInsAreSettledWithSidePots() {
+        List<Player> players = players(3, 300);
+        players.get(0).setChips(100);
+        engine.start(TABLE, GameVariant.HOLDEM, 20, players);
+        RoundSession round = session().getCurrentRound();
+
+        // The short stack on the button is all-in first, then both blinds
+        engine.submit(TABLE, TableCommand.action(1L, PlayerAction.RAISE, 100));
+        engine.submit(TABLE, TableCommand.action(2L, PlayerAction.RAISE, 300));
+        engine.submit(TABLE, TableCommand.action(3L, PlayerAction.CALL, 0));
+        assertTrue(round.isFinished());
+        assertEquals(5, round.getRound().getBoard().size());
+        assertEquals(700, chips(players) + inPot(players));
+        // The short stack can win at most the main pot of 3 x 100
+        assertTrue(players.get(0).getChips() <= 300);
+        assertTrue(players.get(1).getChips() + players.get(2).getChips() + inPot(players) >= 400);
+    }
+
+    @Test
+    public void testRejectsOutOfTurnActionsAndStaleTimeouts() {
+        List<Player> players = players(2, 1000);
+        engine.start(TABLE, GameVariant.HOLDEM, 20, players);
+        RoundSession round = session().getCurrentRound();
+
+        engine.submit(TABLE, TableCommand.action(2L, PlayerAction.FOLD, 0));
+        engine.submit(TABLE, TableCommand.action(1L, PlayerAction.CHECK, 0));
+        engine.submit(TABLE, TableCommand.action(1L, PlayerAction.RAISE, 2000));
+        assertFalse(round.isFinished());
+        assertEquals(0, round.getToAct());
+
+        engine.submit(TABLE, TableCommand.action(1L, PlayerAction.RAISE, 60));
+        assertEquals(60, round.getCurrentBet());
+        engine.submit(TABLE, TableCommand.timeout(2L, round.getTurn() - 1));
+        assertFalse(round.isFinished());
+
+        // Facing a raise, a timeout folds
+        engine.submit(TABLE, TableCommand.timeout(2L, round.getTurn()));
+        assertTrue(round.isFinished());
+        assertEquals(List.of(players.get(0)), round.getRound().getWinner());
+    }
+
+    @Test
+    public void testMinimumRaiseAndShortAllIn() {
+        List<Player> players = players(3, 1000);
+        players.get(1).setChips(130);
+        engine.start(TABLE, GameVariant.HOLDEM, 20, players);
+        RoundSession round = session().getCurrentRound();
+
+        // At least the big blind on top of the current bet
+        engine.submit(TABLE, TableCommand.action(1L, PlayerAction.RAISE, 30));
+        assertEquals(20, round.getCurrentBet());
+        engine.submit(TABLE, TableCommand.action(1L, PlayerAction.RAISE, 100));
+        assertEquals(100, round.getCurrentBet());
+
+        // The small blind is all-in for less than a full raise of 80
+        engine.submit(TABLE, TableCommand.action(2L, PlayerAction.RAISE, 120));
+        assertEquals(1, round.getToAct());
+        engine.submit(TABLE, TableCommand.action(2L, PlayerAction.RAISE, 130));
+        assertEquals(130, round.getCurrentBet());
+
+        // The big blind has not acted yet and calls; the first raiser may only call or fold
+        engine.submit(TABLE, TableCommand.action(3L, PlayerAction.CALL, 0));
+        assertEquals(0, round.getToAct());
+        engine.submit(TABLE, TableCommand.action(1L, PlayerAction.RAISE, 300));
+        assertEquals(130, round.getCurrentBet());
+        assertEquals(0, round.getToAct());
+        engine.submit(TABLE, TableCommand.action(1L, PlayerAction.CALL, 0));
+        assertEquals(870, players.get(0).getChips());
+    }
+
+    @Test
+    public void testTimeoutMovesPlayerOntoTimeBank() {
+        TableEngine banked = new TableEngine(null, null, null, Runnable::run, new TurnClock(60_000, 30_000, 0));
+        try {
+            List<Player> players = players(2, 1000);
+            banked.start(TABLE, GameVariant.HOLDEM, 20, players);
+            GameSession session = banked.getActor(TABLE).getSession();
+            RoundSession round = session.getCurrentRound();
+            assertEquals(30_000, session.getTimeBank(1L));
+
+            // The first timeout only starts the bank, acting stops it
+            banked.submit(TABLE, TableCommand.timeout(1L, round.getTurn()));
+            assertFalse(round.isFinished());
+            assertEquals(0, round.getToAct());
+            banked.submit(TABLE, TableCommand.action(1L, PlayerAction.CALL, 0));
+            assertTrue(session.getTimeBank(1L) > 25_000);
+            assertEquals(1, round.getToAct());
+
+            // Running out of the bank empties it and checks for the player
+            banked.submit(TABLE, TableCommand.timeout(2L, round.getTurn()));
+            banked.submit(TABLE, TableCommand.timeout(2L, round.getTurn()));
+            assertEquals(0, session.getTimeBank(2L));
+            assertEquals(3, round.getRound().getBoard().size());
+
+            // Without a bank the next timeout acts at once; only the clock of the player to act is left
+            assertEquals(1, round.getToAct());
+            banked.submit(TABLE, TableCommand.timeout(2L, round.getTurn()));
+            assertEquals(0, round.getToAct());
+            assertEquals(4, round.getTurn());
+            assertEquals(1, banked.getTimers().size());
+        } finally {
+            banked.shutdown();
+        }
+    }
+
+    @Test
+    public void testDisconnectedPlayerGetsProtectionWindow() throws Exception {
+        TableEngine protectedEngine = new TableEngine(null, null, null, Runnable::run, new TurnClock(50, 0, 60_000));
+        try {
+            List<Player> players = players(2, 1000);
+            protectedEngine.start(TABLE, GameVariant.HOLDEM, 20, players);
+            protectedEngine.submit(TABLE, TableCommand.disconnect(1L));
+            protectedEngine.submit(TABLE, TableCommand.action(1L, PlayerAction.CALL, 0));
+
+            // The connected big blind times out twice (preflop option, then first to act on the flop)
+            Await.until(() -> snapshot(protectedEngine).current().turn() == 4);
+            TableSnapshot.Hand hand = snapshot(protectedEngine).current();
+            assertEquals(0, hand.toAct());
+            // The disconnected player is on the protection window, not the 50 ms action clock
+            assertTrue(hand.clockMillis() > 50_000);
+            assertEquals(0L, hand.folded());
+        } finally {
+            protectedEngine.shutdown();
+        }
+    }
+
+    @Test
+    public void testStopReturnsBetsAndRejectsCommands() {
+        List<Player> players = players(2, 1000);
+        engine.start(TABLE, GameVariant.HOLDEM, 20, players);
+        assertThrows(IllegalStateException.class, () -> engine.start(TABLE, GameVariant.HOLDEM, 20, players));
+
+        assertTrue(engine.stop(TABLE));
+        assertFalse(engine.isActive(TABLE));
+        assertEquals(2000, chips(players));
+        assertFalse(engine.submit(TABLE, TableCommand.nextHand()));
+    }
+
+    @Test
+    public void testLeavingReturnsTheCurrentStack() throws Exception {
+        List<Player> players = players(3, 1000);
+        engine.start(TABLE, GameVariant.HOLDEM, 20, players);
+        RoundSession round = session().getCurrentRound();
+        // The button folds, the small blind leaves mid-hand and the big blind takes the blinds
+        engine.submit(TABLE, TableCommand.action(1L, PlayerAction.FOLD, 0));
+        assertEquals(990, engine.leave(TABLE, 2L).get(5, TimeUnit.SECONDS));
+        assertTrue(round.isFinished());
+        assertArrayEquals(new int[]{1000, 990, 1010}, round.getRound().getSettledStacks());
+
+        assertNull(engine.leave(TABLE, 2L).get(5, TimeUnit.SECONDS));
+        assertEquals(List.of(players.get(0), players.get(2)), session().getSeated());
+        assertNull(engine.leave(2L, 1L).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testMailboxSchedulesOneDrainAtATime() {
+        List<Runnable> scheduled = new ArrayList<>();
+        TableActor actor = new TableActor(new GameSession(TABLE, GameVariant.HOLDEM, engine), scheduled::add);
+        actor.tell(TableCommand.start(20, players(2, 100)));
+        actor.tell(TableCommand.action(1L, PlayerAction.CALL, 0));
+        actor.tell(TableCommand.nextHand());
+        assertEquals(1, scheduled.size());
+        assertEquals(3, actor.getMailboxSize());
+
+        scheduled.remove(0).run();
+        assertEquals(0, actor.getMailboxSize());
+        assertTrue(scheduled.isEmpty());
+        assertTrue(actor.getSession().isRoundRunning());
+    }
+
+    /**
+     * Reads the state of the table through its actor, as the clock thread may be applying commands.
+     */
+    private static TableSnapshot snapshot(TableEngine engine) {
+        CompletableFuture<TableSnapshot> snapshot = new CompletableFuture<>();
+        assertTrue(engine.submit(TABLE, TableCommand.snapshot(snapshot)));
+        try {
+            return snapshot.get(5, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new AssertionError("The table did not answer", e);
+        }
+    }
+
+    private GameSession session() {
+        return engine.getActor(TABLE).getSession();
+    }
+
+    private static List<Player> players(int count, int chips) {
+        List<Player> players = new ArrayList<>();
+        for (long id = 1; id <= count; id++) {
+            Player player = new Player();
+            player.setId(id);
+            player.setChips(chips);
+            players.add(player);
+        }
+        return players;
+    }
+
+    private static int chips(List<Player> players) {
+        return players.stream().mapToInt(Player::getChips).sum();
+    }
+
+    // Chips already in the pot of the next hand
+    private static int inPot(List<Player> players) {
+        return players.stream().mapToInt(Player::getTotalBet).sum();
+    }
+}
@@ -0,0 +1,101 @@
+package com.pokerapp;
+
+import com.pokerapp.session.TableEngine;
+import com.pokerapp.websocket.TableMessageController;
+import com.pokerapp.websocket.TableWebSocketHandler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class TableWebSocketHandlerTest {
+
+    private final SimpMessagingTemplate template = mock(SimpMessagingTemplate.class);
+    private final TableWebSocketHandler handler = new TableWebSocketHandler(template);
+
+    @AfterEach
+    public void shutdown() {
+        handler.shutdown();
+    }
+
+    @Test
+    public void testResponseCompletesRequest() throws Exception {
+        Map<String, Object> request = new HashMap<>();
+        CompletableFuture<Map<String, Object>> response =
+                handler.requestPlayerResponse(1L, request, 30, TimeUnit.SECONDS).toCompletableFuture();
+        assertFalse(response.isDone());
+        assertEquals(1, handler.getPendingResponseCount());
+
+        String requestId = (String) request.get("requestId");
+        assertTrue(handler.handlePlayerResponse(requestId, Map.of("action", "CALL")));
+        assertEquals("CALL", response.get(0, TimeUnit.SECONDS).get("action"));
+        assertFalse(handler.handlePlayerResponse(requestId, Map.of()));
+        assertEquals(0, handler.getPendingResponseCount());
+    }
+
+    @Test
+    public void testUnknownActionIsRejectedToThePlayer() {
+        TableWebSocketHandler players = mock(TableWebSocketHandler.class);
+        TableEngine engine = mock(TableEngine.class);
+        TableMessageController controller = new TableMessageController(players, engine);
+
+        controller.handleTableMessage(1L, new HashMap<>(Map.of("type", "ACTION", "action", "DANCE")), null, () -> "7");
+        controller.handleTableMessage(1L, new HashMap<>(Map.of("type", "ACTION")), null, () -> "7");
+
+        verify(engine, never()).submit(any(), any());
+        verify(players, times(2)).sendToPlayer(eq(7L), any());
+    }
+
+    @Test
+    public void testTimeoutFailsRequestWithoutBlocking() throws InterruptedException {
+        CompletableFuture<Map<String, Object>> response =
+                handler.requestPlayerResponse(1L, new HashMap<>(), 50, TimeUnit.MILLISECONDS).toCompletableFuture();
+        ExecutionException e = assertThrows(ExecutionException.class, () -> response.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(TimeoutException.class, e.getCause());
+        assertEquals(0, handler.getPendingResponseCount());
+
+        assertThrows(TimeoutException.class, () -> handler.waitForPlayerResponse(1L, new HashMap<>(), 0));
+    }
+
+    @Test
+    public void testDisconnectCancelsPendingRequestsOfPlayer() {
+        CompletableFuture<Map<String, Object>> first =
+                handler.requestPlayerResponse(1L, new HashMap<>(), 30, TimeUnit.SECONDS).toCompletableFuture();
+        CompletableFuture<Map<String, Object>> second =
+                handler.requestPlayerResponse(1L, new HashMap<>(), 30, TimeUnit.SECONDS).toCompletableFuture();
+        CompletableFuture<Map<String, Object>> other =
+                handler.requestPlayerResponse(2L, new HashMap<>(), 30, TimeUnit.SECONDS).toCompletableFuture();
+
+        assertEquals(2, handler.cancelPendingResponses(1L));
+        assertTrue(first.isCompletedExceptionally());
+        assertTrue(second.isCompletedExceptionally());
+        assertFalse(other.isDone());
+        assertEquals(1, handler.getPendingResponseCount());
+    }
+
+    @Test
+    public void testUnreachablePlayerFailsImmediately() {
+        doThrow(new IllegalStateException("No session")).when(template)
+                .convertAndSendToUser(eq("3"), anyString(), any(Object.class));
+        CompletableFuture<Map<String, Object>> response =
+                handler.requestPlayerResponse(3L, new HashMap<>(), 30, TimeUnit.SECONDS).toCompletableFuture();
+        assertTrue(response.isCompletedExceptionally());
+        assertEquals(0, handler.getPendingResponseCount());
+    }
+}
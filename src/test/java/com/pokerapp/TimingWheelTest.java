@@ -0,0 +1,118 @@
+package com.pokerapp;
+
+import com.pokerapp.session.TimingWheel;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimingWheelTest {
+
+    private static final long TICK = TimeUnit.MILLISECONDS.toNanos(1);
+
+    // Driven by hand: the wheel only moves on advance()
+    private final AtomicLong now = new AtomicLong(1_000_000_000L);
+    private final TimingWheel wheel = new TimingWheel(TICK, now::get);
+
+    @Test
+    public void testExpiresOnItsTickOnEveryLevel() {
+        // One delay per level of the wheel (64, 64^2 and 64^3 ticks)
+        long[] delays = {5, 70, 5_000, 300_000};
+        boolean[] fired = new boolean[delays.length];
+        for (int i = 0; i < delays.length; i++) {
+            int index = i;
+            wheel.schedule(() -> fired[index] = true, delays[i], TimeUnit.MILLISECONDS);
+        }
+        assertEquals(4, wheel.size());
+        long start = now.get();
+        for (int i = 0; i < delays.length; i++) {
+            now.set(start + (delays[i] - 1) * TICK);
+            wheel.advance();
+            assertFalse(fired[i], "Fired early: " + delays[i]);
+            now.set(start + delays[i] * TICK);
+            assertEquals(1, wheel.advance());
+            assertTrue(fired[i]);
+        }
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void testCancelledTimeoutsNeverRun() {
+        boolean[] fired = new boolean[2];
+        TimingWheel.Timeout first = wheel.schedule(() -> fired[0] = true, 10, TimeUnit.MILLISECONDS);
+        TimingWheel.Timeout second = wheel.schedule(() -> fired[1] = true, 100, TimeUnit.MILLISECONDS);
+        // Cancelled before and after it reached its slot
+        assertTrue(first.cancel());
+        wheel.advance();
+        assertTrue(second.cancel());
+        assertFalse(second.cancel());
+        assertEquals(0, wheel.size());
+
+        now.addAndGet(200 * TICK);
+        assertEquals(0, wheel.advance());
+        assertFalse(fired[0] || fired[1]);
+        assertTrue(first.isCancelled());
+
+        TimingWheel.Timeout third = wheel.schedule(() -> { }, 0, TimeUnit.MILLISECONDS);
+        now.addAndGet(TICK);
+        assertEquals(1, wheel.advance());
+        assertTrue(third.isExpired());
+        assertFalse(third.cancel());
+    }
+
+    @Test
+    public void testManyTimeoutsExpireExactlyOnce() {
+        Random random = new Random(7);
+        int count = 10_000;
+        long[] delays = new long[count];
+        long[] firedAt = new long[count];
+        Arrays.fill(firedAt, -1);
+        long start = now.get();
+        TimingWheel.Timeout[] timeouts = new TimingWheel.Timeout[count];
+        for (int i = 0; i < count; i++) {
+            int index = i;
+            delays[i] = random.nextInt(20_000);
+            timeouts[i] = wheel.schedule(() -> {
+                assertEquals(-1, firedAt[index]);
+                firedAt[index] = (now.get() - start) / TICK;
+            }, delays[i], TimeUnit.MILLISECONDS);
+        }
+        for (int i = 0; i < count; i += 3) {
+            timeouts[i].cancel();
+        }
+        for (long tick = 1; tick <= 20_000; tick++) {
+            now.set(start + tick * TICK);
+            wheel.advance();
+        }
+        for (int i = 0; i < count; i++) {
+            assertEquals(i % 3 == 0 ? -1 : Math.max(1, delays[i]), firedAt[i], "Timeout " + i);
+        }
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void testRejectsDelaysBeyondRange() {
+        assertThrows(IllegalArgumentException.class, () -> wheel.schedule(() -> { }, -1, TimeUnit.MILLISECONDS));
+        assertThrows(IllegalArgumentException.class, () -> wheel.schedule(() -> { }, 365, TimeUnit.DAYS));
+    }
+
+    @Test
+    public void testTickingThreadRunsTimeouts() throws InterruptedException {
+        TimingWheel running = new TimingWheel(1);
+        running.start("test-wheel");
+        try {
+            CountDownLatch latch = new CountDownLatch(100);
+            for (int i = 0; i < 100; i++) {
+                running.schedule(latch::countDown, i, TimeUnit.MILLISECONDS);
+            }
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } finally {
+            running.shutdown();
+        }
+    }
+}